@@ -623,6 +623,14 @@ JNIEXPORT jlong JNICALL Java_jdd_JDD_DD_1Transpose
 JNIEXPORT jlong JNICALL Java_jdd_JDD_DD_1MatrixMultiply
   (JNIEnv *, jclass, jlong, jlong, jlong, jint, jint);
 
+/*
+ * Class:     jdd_JDD
+ * Method:    DD_RunProgram
+ * Signature: ([I[J[J[J[I[D[Z[I)Z
+ */
+JNIEXPORT jboolean JNICALL Java_jdd_JDD_DD_1RunProgram
+  (JNIEnv *, jclass, jintArray, jlongArray, jlongArray, jlongArray, jintArray, jdoubleArray, jbooleanArray, jintArray);
+
 /*
  * Class:     jdd_JDD
  * Method:    DD_PrintVector
@@ -175,6 +175,30 @@ JNIEXPORT jlong JNICALL Java_sparse_PrismSparse_PS_1NondetReachReward
 JNIEXPORT jlong JNICALL Java_sparse_PrismSparse_PS_1NondetReachRewardInterval
   (JNIEnv *, jclass, jlong, jlong, jobject, jlong, jlong, jlong, jlong, jint, jlong, jint, jlong, jint, jlong, jlong, jlong, jlong, jlong, jboolean, jint);
 
+/*
+ * Class:     sparse_PrismSparse
+ * Method:    PS_GameUntil
+ * Signature: (JJJIJIJIJJJZZ)J
+ */
+JNIEXPORT jlong JNICALL Java_sparse_PrismSparse_PS_1GameUntil
+  (JNIEnv *, jclass, jlong, jlong, jlong, jint, jlong, jint, jlong, jint, jlong, jlong, jlong, jboolean, jboolean);
+
+/*
+ * Class:     sparse_PrismSparse
+ * Method:    PS_GameBoundedUntil
+ * Signature: (JJJIJIJIJJJIZZ)J
+ */
+JNIEXPORT jlong JNICALL Java_sparse_PrismSparse_PS_1GameBoundedUntil
+  (JNIEnv *, jclass, jlong, jlong, jlong, jint, jlong, jint, jlong, jint, jlong, jlong, jlong, jint, jboolean, jboolean);
+
+/*
+ * Class:     sparse_PrismSparse
+ * Method:    PS_GameReachReward
+ * Signature: (JJJJJIJIJIJJJJZZJ)J
+ */
+JNIEXPORT jlong JNICALL Java_sparse_PrismSparse_PS_1GameReachReward
+  (JNIEnv *, jclass, jlong, jlong, jlong, jlong, jlong, jint, jlong, jint, jlong, jint, jlong, jlong, jlong, jlong, jboolean, jboolean, jlong);
+
 /*
  * Class:     sparse_PrismSparse
  * Method:    PS_NondetMultiObj
@@ -98,6 +98,19 @@ public class LTL2DA extends PrismComponent
 			useExternal = false;
 		}
 
+		// Check the cache first
+		// (not for formulas with time bounds, whose automata depend on constant values)
+		LTL2DACache cache = containsTemporalBounds ? null : LTL2DACache.createFromSettings(this);
+		String cacheKey = null;
+		if (cache != null) {
+			cacheKey = cache.computeKey(ltl, allowedAcceptance);
+			result = cache.lookup(cacheKey);
+			if (result != null) {
+				getLog().println("Taking " + result.getAutomataType() + " from LTL->DA cache...");
+				return result;
+			}
+		}
+
 		if (!useExternal) {
 			try {
 				// checking the library first
@@ -162,6 +175,10 @@ public class LTL2DA extends PrismComponent
 			result = DASimplifyAcceptance.simplifyAcceptance(this, result, allowedAcceptance);
 		}
 
+		if (cache != null) {
+			cache.store(cacheKey, result);
+		}
+
 		return result;
 	}
 
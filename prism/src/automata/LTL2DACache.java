@@ -0,0 +1,336 @@
+//==============================================================================
+//
+//	Copyright (c) 2002-
+//	Authors:
+//	* Dave Parker <david.parker@comlab.ox.ac.uk> (University of Oxford)
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package automata;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import jhoafparser.parser.HOAFParser;
+import jhoafparser.parser.generated.ParseException;
+import parser.ast.Expression;
+import prism.Prism;
+import prism.PrismComponent;
+import prism.PrismException;
+import prism.PrismLog;
+import prism.PrismSettings;
+import acceptance.AcceptanceBuchi;
+import acceptance.AcceptanceOmega;
+import acceptance.AcceptanceReach;
+import acceptance.AcceptanceType;
+
+/**
+ * Cache of deterministic automata constructed for LTL formulas by {@link LTL2DA},
+ * so that the same translation is not repeated for each property, constant value or run.
+ * <br><br>
+ * Entries are keyed by (a SHA-256 hash of) the LTL formula, in which state subformulas
+ * have already been replaced by labels, the allowed acceptance types and the settings that
+ * affect translation. Automata are stored in HOA format, in memory (shared by all instances)
+ * and optionally also as files in a cache directory.
+ */
+public class LTL2DACache extends PrismComponent
+{
+	/** File name extension for cache entries */
+	public static final String EXTENSION = ".hoa";
+
+	/** Name of the (semantically irrelevant) HOA header recording the acceptance type */
+	private static final String ACCEPTANCE_HEADER = "prism-acceptance";
+
+	/** Maximum number of entries kept in memory */
+	private static final int MAX_MEMORY_ENTRIES = 1000;
+
+	/** In-memory entries (HOA text), least recently used first */
+	private static final Map<String, String> memory = new LinkedHashMap<String, String>(16, 0.75f, true)
+	{
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, String> eldest)
+		{
+			return size() > MAX_MEMORY_ENTRIES;
+		}
+	};
+
+	/** Hit/miss statistics (for all instances) */
+	private static int hits = 0;
+	private static int misses = 0;
+
+	/** Cache directory (null if entries are only kept in memory) */
+	protected File dir;
+
+	/**
+	 * Create an LTL->DA cache, also stored in directory {@code dir} if non-null.
+	 */
+	public LTL2DACache(PrismComponent parent, File dir)
+	{
+		super(parent);
+		this.dir = dir;
+	}
+
+	/**
+	 * Create an LTL->DA cache as configured in the settings of {@code parent},
+	 * or return null if caching is disabled.
+	 */
+	public static LTL2DACache createFromSettings(PrismComponent parent)
+	{
+		PrismSettings settings = parent.getSettings();
+		if (settings == null || !settings.getBoolean(PrismSettings.PRISM_LTL2DA_CACHE)) {
+			return null;
+		}
+		String dirName = settings.getString(PrismSettings.PRISM_LTL2DA_CACHE_DIR);
+		return new LTL2DACache(parent, "".equals(dirName) ? null : new File(dirName));
+	}
+
+	/**
+	 * Compute the cache key for the translation of {@code ltl} with the given allowed acceptance types.
+	 */
+	public String computeKey(Expression ltl, AcceptanceType... allowedAcceptance) throws PrismException
+	{
+		MessageDigest md;
+		try {
+			md = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new PrismException("Cannot compute LTL->DA cache key: " + e.getMessage());
+		}
+		update(md, "PRISM " + Prism.getVersion());
+		update(md, ltl.toString());
+		AcceptanceType[] allowed = allowedAcceptance.clone();
+		Arrays.sort(allowed);
+		update(md, Arrays.toString(allowed));
+		// Settings which affect the automaton that is built
+		PrismSettings settings = getSettings();
+		if (settings != null) {
+			update(md, "tool=" + settings.getString(PrismSettings.PRISM_LTL2DA_TOOL));
+			update(md, "syntax=" + settings.getString(PrismSettings.PRISM_LTL2DA_SYNTAX));
+			update(md, "nodasimplify=" + settings.getBoolean(PrismSettings.PRISM_NO_DA_SIMPLIFY));
+		}
+		StringBuilder sb = new StringBuilder();
+		for (byte b : md.digest()) {
+			sb.append(String.format("%02x", b));
+		}
+		return sb.toString();
+	}
+
+	private static void update(MessageDigest md, String s)
+	{
+		md.update(s.getBytes(StandardCharsets.UTF_8));
+		md.update((byte) 0);
+	}
+
+	/**
+	 * Get the file for the cache entry with key {@code key} (if there is a cache directory).
+	 */
+	public File getFile(String key)
+	{
+		return new File(dir, key + EXTENSION);
+	}
+
+	/**
+	 * Look up the automaton with key {@code key}, or return null if it is not present.
+	 * A new copy of the automaton is returned each time, so callers are free to modify it.
+	 * Entries which cannot be read are discarded (with a warning).
+	 */
+	public DA<BitSet, ? extends AcceptanceOmega> lookup(String key)
+	{
+		String hoa;
+		synchronized (memory) {
+			hoa = memory.get(key);
+		}
+		if (hoa == null && dir != null) {
+			File file = getFile(key);
+			if (file.isFile()) {
+				try {
+					hoa = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+					// Record the access, for consistency with other caches
+					file.setLastModified(System.currentTimeMillis());
+				} catch (IOException e) {
+					mainLog.printWarning("Could not read LTL->DA cache entry: " + e.getMessage());
+				}
+			}
+		}
+		DA<BitSet, ? extends AcceptanceOmega> da = null;
+		if (hoa != null) {
+			try {
+				da = fromHOA(hoa);
+				synchronized (memory) {
+					memory.put(key, hoa);
+				}
+			} catch (PrismException e) {
+				mainLog.printWarning("Discarding unreadable LTL->DA cache entry: " + e.getMessage());
+				synchronized (memory) {
+					memory.remove(key);
+				}
+				if (dir != null) {
+					getFile(key).delete();
+				}
+			}
+		}
+		synchronized (LTL2DACache.class) {
+			if (da != null) {
+				hits++;
+			} else {
+				misses++;
+			}
+			mainLog.println("LTL->DA cache " + (da != null ? "hit" : "miss") + " (" + hits + " hits, " + misses + " misses so far)", PrismLog.VL_HIGH);
+		}
+		return da;
+	}
+
+	/**
+	 * Store an automaton in the cache with key {@code key}.
+	 * Failures are reported as warnings, since the cache is only an optimisation.
+	 * Returns true if the automaton was stored.
+	 */
+	public boolean store(String key, DA<BitSet, ? extends AcceptanceOmega> da)
+	{
+		String hoa;
+		try {
+			hoa = toHOA(da);
+		} catch (PrismException e) {
+			mainLog.printWarning("Could not store automaton in LTL->DA cache: " + e.getMessage());
+			return false;
+		}
+		synchronized (memory) {
+			memory.put(key, hoa);
+		}
+		if (dir == null) {
+			return true;
+		}
+		File tmp = null;
+		try {
+			if (!dir.isDirectory() && !dir.mkdirs()) {
+				throw new IOException("Could not create directory \"" + dir + "\"");
+			}
+			// Write to a temporary file first and then move it into place,
+			// so that concurrent runs never see a partially written entry
+			tmp = File.createTempFile(key, ".tmp", dir);
+			Files.write(tmp.toPath(), hoa.getBytes(StandardCharsets.UTF_8));
+			try {
+				Files.move(tmp.toPath(), getFile(key).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tmp.toPath(), getFile(key).toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException e) {
+			mainLog.printWarning("Could not store automaton in LTL->DA cache: " + e.getMessage());
+			if (tmp != null) {
+				tmp.delete();
+			}
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Remove all in-memory entries and reset the hit/miss statistics.
+	 */
+	public static void clearMemory()
+	{
+		synchronized (memory) {
+			memory.clear();
+		}
+		synchronized (LTL2DACache.class) {
+			hits = misses = 0;
+		}
+	}
+
+	/**
+	 * Get the number of cache hits so far (for all instances).
+	 */
+	public static synchronized int getNumHits()
+	{
+		return hits;
+	}
+
+	/**
+	 * Get the number of cache misses so far (for all instances).
+	 */
+	public static synchronized int getNumMisses()
+	{
+		return misses;
+	}
+
+	/**
+	 * Convert an automaton to HOA format, recording its acceptance type in an extra header,
+	 * since not all types (e.g. reachability) can be distinguished in HOA.
+	 */
+	private static String toHOA(DA<BitSet, ? extends AcceptanceOmega> da) throws PrismException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		PrintStream out = new PrintStream(bytes, false);
+		da.printHOA(out);
+		out.flush();
+		String hoa = new String(bytes.toByteArray());
+		// Insert the extra header after the first ("HOA: v1") line
+		int i = hoa.indexOf('\n') + 1;
+		return hoa.substring(0, i) + ACCEPTANCE_HEADER + ": \"" + da.getAcceptance().getType() + "\"\n" + hoa.substring(i);
+	}
+
+	/**
+	 * Construct an automaton from HOA text produced by {@link #toHOA(DA)}.
+	 */
+	private static DA<BitSet, ? extends AcceptanceOmega> fromHOA(String hoa) throws PrismException
+	{
+		DA<BitSet, ? extends AcceptanceOmega> da;
+		try {
+			HOAF2DA consumerDA = new HOAF2DA();
+			HOAFParser.parseHOA(new ByteArrayInputStream(hoa.getBytes(StandardCharsets.UTF_8)), consumerDA);
+			da = consumerDA.getDA();
+		} catch (ParseException e) {
+			throw new PrismException("Parse error: " + e.getMessage());
+		}
+		if (da == null) {
+			throw new PrismException("Could not construct DA");
+		}
+		// Restore the original acceptance type
+		String type = null;
+		for (String line : hoa.split("\n")) {
+			if (line.startsWith(ACCEPTANCE_HEADER + ":")) {
+				type = line.substring(ACCEPTANCE_HEADER.length() + 1).trim().replace("\"", "");
+				break;
+			}
+		}
+		AcceptanceOmega acceptance = da.getAcceptance();
+		if (AcceptanceType.REACH.toString().equals(type) && acceptance instanceof AcceptanceBuchi) {
+			DA.switchAcceptance(da, new AcceptanceReach(((AcceptanceBuchi) acceptance).getAcceptingStates()));
+		} else if (type == null || !type.equals(acceptance.getType().toString())) {
+			throw new PrismException("Unexpected acceptance type " + acceptance.getType());
+		}
+		return da;
+	}
+}
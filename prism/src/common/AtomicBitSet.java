@@ -0,0 +1,142 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package common;
+
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size bit set that supports concurrent, lock-free updates of individual bits,
+ * e.g., for marking states from several threads at once.
+ * Bulk conversion to/from {@link BitSet} is provided for use once concurrent access has finished.
+ */
+public class AtomicBitSet
+{
+	/** The words of the bit set, 64 bits per word (as for BitSet) */
+	private final AtomicLongArray words;
+	/** The number of bits */
+	private final int size;
+
+	/**
+	 * Create an AtomicBitSet for bits 0,...,size-1, all initially clear.
+	 */
+	public AtomicBitSet(int size)
+	{
+		this.size = size;
+		words = new AtomicLongArray((size + 63) >>> 6);
+	}
+
+	/**
+	 * Create an AtomicBitSet for bits 0,...,size-1, initialised from a BitSet
+	 * (bits of {@code init} beyond {@code size} are ignored).
+	 */
+	public AtomicBitSet(int size, BitSet init)
+	{
+		this(size);
+		long[] initWords = init.toLongArray();
+		for (int i = 0, n = Math.min(initWords.length, words.length()); i < n; i++) {
+			words.set(i, initWords[i]);
+		}
+		if ((size & 63) != 0 && initWords.length >= words.length()) {
+			int last = words.length() - 1;
+			words.set(last, words.get(last) & (-1L >>> (64 - (size & 63))));
+		}
+	}
+
+	/**
+	 * Get the number of bits.
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Get the value of bit {@code i}.
+	 */
+	public boolean get(int i)
+	{
+		return (words.get(i >>> 6) & (1L << i)) != 0;
+	}
+
+	/**
+	 * Set bit {@code i}. Returns true if the bit was previously clear,
+	 * i.e., exactly one of several concurrent callers setting the same bit gets {@code true}.
+	 */
+	public boolean set(int i)
+	{
+		int w = i >>> 6;
+		long mask = 1L << i;
+		long old;
+		do {
+			old = words.get(w);
+			if ((old & mask) != 0) {
+				return false;
+			}
+		} while (!words.compareAndSet(w, old, old | mask));
+		return true;
+	}
+
+	/**
+	 * Clear bit {@code i}. Returns true if the bit was previously set.
+	 */
+	public boolean clear(int i)
+	{
+		int w = i >>> 6;
+		long mask = 1L << i;
+		long old;
+		do {
+			old = words.get(w);
+			if ((old & mask) == 0) {
+				return false;
+			}
+		} while (!words.compareAndSet(w, old, old & ~mask));
+		return true;
+	}
+
+	/**
+	 * Get the number of set bits.
+	 */
+	public int cardinality()
+	{
+		int count = 0;
+		for (int i = 0, n = words.length(); i < n; i++) {
+			count += Long.bitCount(words.get(i));
+		}
+		return count;
+	}
+
+	/**
+	 * Get a copy of this set as a (non-concurrent) BitSet.
+	 */
+	public BitSet toBitSet()
+	{
+		long[] copy = new long[words.length()];
+		for (int i = 0; i < copy.length; i++) {
+			copy[i] = words.get(i);
+		}
+		return BitSet.valueOf(copy);
+	}
+}
@@ -0,0 +1,133 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package common;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Static helpers for running simple data-parallel loops over index ranges
+ * (typically, state indices) on a {@link ForkJoinPool}.
+ * <br>
+ * Pools are shared per level of parallelism, so that repeated calls
+ * (e.g. once per iteration of a numerical method) do not create new threads.
+ * If the requested number of threads is 1, or the range is smaller
+ * than a single block, the loop body is simply executed in the calling thread.
+ */
+public class Parallel
+{
+	/** Default number of indices per block, if not specified otherwise */
+	public static final int DEFAULT_BLOCK_SIZE = 4096;
+
+	/** Pools, indexed by parallelism */
+	private static final ConcurrentHashMap<Integer, ForkJoinPool> pools = new ConcurrentHashMap<>();
+
+	/**
+	 * A loop body, processing all indices in the interval [from, to).
+	 */
+	@FunctionalInterface
+	public interface BlockAction
+	{
+		void apply(int from, int to);
+	}
+
+	/**
+	 * Get the (shared) ForkJoinPool with the given parallelism.
+	 */
+	public static ForkJoinPool getPool(int numThreads)
+	{
+		return pools.computeIfAbsent(numThreads, ForkJoinPool::new);
+	}
+
+	/**
+	 * Get the number of threads to use for a setting value {@code numThreads},
+	 * where 0 means "number of available processors".
+	 */
+	public static int resolveNumThreads(int numThreads)
+	{
+		return numThreads <= 0 ? Runtime.getRuntime().availableProcessors() : numThreads;
+	}
+
+	/**
+	 * Execute {@code action} on all indices in [from, to), split into blocks of
+	 * (at most) {@code blockSize} indices, using up to {@code numThreads} threads.
+	 * Blocks are disjoint, so the action may write to per-index data without synchronisation.
+	 * Returns once all blocks have been processed.
+	 */
+	public static void forEachBlock(int numThreads, int from, int to, int blockSize, BlockAction action)
+	{
+		if (to <= from) {
+			return;
+		}
+		if (numThreads <= 1 || to - from <= blockSize) {
+			action.apply(from, to);
+			return;
+		}
+		getPool(numThreads).invoke(new BlockTask(from, to, Math.max(1, blockSize), action));
+	}
+
+	/**
+	 * Execute {@code action} on all indices in [from, to), split into blocks of
+	 * {@link #DEFAULT_BLOCK_SIZE} indices, using up to {@code numThreads} threads.
+	 */
+	public static void forEachBlock(int numThreads, int from, int to, BlockAction action)
+	{
+		forEachBlock(numThreads, from, to, DEFAULT_BLOCK_SIZE, action);
+	}
+
+	/**
+	 * Recursive splitting of an index range into blocks.
+	 */
+	@SuppressWarnings("serial")
+	private static class BlockTask extends RecursiveAction
+	{
+		private final int from;
+		private final int to;
+		private final int blockSize;
+		private final BlockAction action;
+
+		BlockTask(int from, int to, int blockSize, BlockAction action)
+		{
+			this.from = from;
+			this.to = to;
+			this.blockSize = blockSize;
+			this.action = action;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (to - from <= blockSize) {
+				action.apply(from, to);
+				return;
+			}
+			// split at a block boundary, relative to 'from'
+			int numBlocks = (to - from + blockSize - 1) / blockSize;
+			int mid = from + (numBlocks / 2) * blockSize;
+			invokeAll(new BlockTask(from, mid, blockSize, action), new BlockTask(mid, to, blockSize, action));
+		}
+	}
+}
@@ -0,0 +1,791 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+
+package explicit;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import parser.State;
+import parser.VarList;
+import prism.ModelType;
+import prism.PrismException;
+import prism.PrismNotSupportedException;
+
+/**
+ * Compact binary file format for built explicit-state models.
+ * <br><br>
+ * The file consists of a header (magic number, format version, model type and sizes)
+ * followed by sections of little-endian int/double arrays:
+ * the sparse (CSR) transition matrix, action labels, initial/deadlock states, state variable values
+ * (stored column-wise, with integer variables packed into 1, 2 or 4 bytes), labels and state rewards.
+ * Since every array section has a known length, files are read by memory-mapping them.
+ * They can either be copied into a standard model ({@link DTMCSparse}, {@link CTMCSimple} or {@link MDPSparse}),
+ * or, for DTMCs and MDPs, accessed in place through {@link DTMCMapped} and {@link MDPMapped},
+ * in which case the transition matrix (and state list) never has to fit on the Java heap.
+ * Array sections larger than 2GB are mapped in several chunks (see {@link MappedSection}).
+ * <br><br>
+ * Only DTMCs, CTMCs and MDPs with double-valued probabilities/rates are supported.
+ * Games are not, since there are no mapped representations for them.
+ */
+public class BinaryModelFile
+{
+	/** Magic number at the start of each file ("PRMB") */
+	public static final int MAGIC = 0x50524d42;
+	/** Version of the file format; bump whenever the layout changes */
+	public static final int VERSION = 4;
+
+	// Type tags for state variable columns
+	private static final byte VAR_INT8 = 0;
+	private static final byte VAR_INT16 = 1;
+	private static final byte VAR_INT32 = 2;
+	private static final byte VAR_BOOL = 3;
+	private static final byte VAR_DOUBLE = 4;
+
+	/** The model read from the file */
+	private ModelExplicit<Double> model;
+	/** Names of the reward structures whose state rewards are stored */
+	private List<String> stateRewardNames = new ArrayList<>();
+	/** State rewards, for each reward structure */
+	private List<MappedSection> stateRewards = new ArrayList<>();
+
+	private BinaryModelFile()
+	{
+	}
+
+	/**
+	 * Get the model read from the file.
+	 * Constant values, variable info and the evaluator are not stored and need to be attached by the caller.
+	 */
+	public ModelExplicit<Double> getModel()
+	{
+		return model;
+	}
+
+	/**
+	 * Get the names of the reward structures whose state rewards are stored in the file.
+	 */
+	public List<String> getStateRewardNames()
+	{
+		return stateRewardNames;
+	}
+
+	/**
+	 * Get (a copy of) the state rewards for the {@code r}th reward structure stored in the file.
+	 */
+	public double[] getStateRewards(int r)
+	{
+		return stateRewards.get(r).toDoubleArray();
+	}
+
+	/**
+	 * Can the given model be stored in this format?
+	 */
+	public static boolean isSupported(Model<?> model)
+	{
+		if (!(model instanceof DTMCSparse || model instanceof MDPSparse || model instanceof CTMCSimple || model instanceof DTMCMapped
+				|| model instanceof MDPMapped)) {
+			return false;
+		}
+		if (!(model.getEvaluator().one() instanceof Double)) {
+			return false;
+		}
+		if (model.getStatesList() == null) {
+			return false;
+		}
+		if (model instanceof NondetModel) {
+			NondetModel<?> nondet = (NondetModel<?>) model;
+			for (int s = 0, numStates = nondet.getNumStates(); s < numStates; s++) {
+				for (int c = 0, numChoices = nondet.getNumChoices(s); c < numChoices; c++) {
+					Object action = nondet.getAction(s, c);
+					if (action != null && !(action instanceof String)) {
+						return false;
+					}
+				}
+			}
+		}
+		return getVarTypes(model.getStatesList()) != null;
+	}
+
+	/**
+	 * Get the type tags for the variables of the states in a states list,
+	 * or null if they cannot be stored (mixed or unsupported types).
+	 * For integer variables, the minimum value is also stored in {@code mins}.
+	 */
+	private static byte[] getVarTypes(List<State> statesList, int[] mins)
+	{
+		if (statesList.isEmpty()) {
+			return new byte[0];
+		}
+		int numVars = statesList.get(0).varValues.length;
+		byte[] types = new byte[numVars];
+		for (int v = 0; v < numVars; v++) {
+			Object val = statesList.get(0).varValues[v];
+			if (val instanceof Integer) {
+				types[v] = VAR_INT32;
+			} else if (val instanceof Boolean) {
+				types[v] = VAR_BOOL;
+			} else if (val instanceof Double) {
+				types[v] = VAR_DOUBLE;
+			} else {
+				return null;
+			}
+		}
+		long[] min = new long[numVars];
+		long[] max = new long[numVars];
+		Arrays.fill(min, Integer.MAX_VALUE);
+		Arrays.fill(max, Integer.MIN_VALUE);
+		for (State state : statesList) {
+			if (state.varValues.length != numVars) {
+				return null;
+			}
+			for (int v = 0; v < numVars; v++) {
+				Object val = state.varValues[v];
+				Class<?> expected = types[v] == VAR_INT32 ? Integer.class : types[v] == VAR_BOOL ? Boolean.class : Double.class;
+				if (val == null || val.getClass() != expected) {
+					return null;
+				}
+				if (types[v] == VAR_INT32) {
+					min[v] = Math.min(min[v], (Integer) val);
+					max[v] = Math.max(max[v], (Integer) val);
+				}
+			}
+		}
+		// Pack integer variables into as few bytes as their range allows
+		for (int v = 0; v < numVars; v++) {
+			if (types[v] == VAR_INT32) {
+				long range = max[v] - min[v];
+				if (range < (1 << 8)) {
+					types[v] = VAR_INT8;
+				} else if (range < (1 << 16)) {
+					types[v] = VAR_INT16;
+				}
+				if (mins != null) {
+					mins[v] = types[v] == VAR_INT32 ? 0 : (int) min[v];
+				}
+			}
+		}
+		return types;
+	}
+
+	private static byte[] getVarTypes(List<State> statesList)
+	{
+		return getVarTypes(statesList, null);
+	}
+
+	/** Number of bytes per value for a variable type */
+	private static int varTypeSize(byte type)
+	{
+		switch (type) {
+		case VAR_INT8:
+		case VAR_BOOL:
+			return 1;
+		case VAR_INT16:
+			return 2;
+		case VAR_INT32:
+			return 4;
+		default:
+			return 8;
+		}
+	}
+
+	// Writing
+
+	/**
+	 * Write a model to a file.
+	 * Throws an exception if the model is not supported (see {@link #isSupported(Model)}).
+	 */
+	public static void write(Model<?> model, File file) throws PrismException
+	{
+		write(model, null, null, file);
+	}
+
+	/**
+	 * Write a model, plus the state rewards for some reward structures, to a file.
+	 * Throws an exception if the model is not supported (see {@link #isSupported(Model)}).
+	 * @param model The model
+	 * @param rewardNames Names of the reward structures (may be null if there are none)
+	 * @param stateRewards State rewards for each reward structure (may be null if there are none)
+	 * @param file File to write to
+	 */
+	public static void write(Model<?> model, List<String> rewardNames, List<double[]> stateRewards, File file) throws PrismException
+	{
+		if (!isSupported(model)) {
+			throw new PrismNotSupportedException("Binary model export not supported for this model");
+		}
+		try (Output out = new Output(file)) {
+			write(model, rewardNames, stateRewards, out);
+		} catch (IOException e) {
+			throw new PrismException("Could not write binary model file \"" + file + "\": " + e.getMessage());
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void write(Model<?> model, List<String> rewardNames, List<double[]> stateRewards, Output out) throws IOException
+	{
+		int numStates = model.getNumStates();
+		boolean nondet = model instanceof MDP;
+
+		// Header
+		out.putInt(MAGIC);
+		out.putInt(VERSION);
+		out.putString(model.getModelType().name());
+		out.putInt(numStates);
+		int numChoices = nondet ? ((MDP<?>) model).getNumChoices() : numStates;
+		out.putInt(numChoices);
+		out.putInt(model.getNumTransitions());
+
+		// Transition matrix: rows (nondeterministic models only), choices, columns, values
+		if (nondet) {
+			MDP<Double> mdp = (MDP<Double>) model;
+			int row = 0;
+			for (int s = 0; s < numStates; s++) {
+				out.putInt(row);
+				row += mdp.getNumChoices(s);
+			}
+			out.putInt(row);
+			int start = 0;
+			for (int s = 0; s < numStates; s++) {
+				for (int c = 0, n = mdp.getNumChoices(s); c < n; c++) {
+					out.putInt(start);
+					start += mdp.getNumTransitions(s, c);
+				}
+			}
+			out.putInt(start);
+			for (int s = 0; s < numStates; s++) {
+				for (int c = 0, n = mdp.getNumChoices(s); c < n; c++) {
+					for (Iterator<Map.Entry<Integer, Double>> it = mdp.getTransitionsIterator(s, c); it.hasNext();) {
+						out.putInt(it.next().getKey());
+					}
+				}
+			}
+			for (int s = 0; s < numStates; s++) {
+				for (int c = 0, n = mdp.getNumChoices(s); c < n; c++) {
+					for (Iterator<Map.Entry<Integer, Double>> it = mdp.getTransitionsIterator(s, c); it.hasNext();) {
+						out.putDouble(it.next().getValue());
+					}
+				}
+			}
+		} else {
+			DTMC<Double> dtmc = (DTMC<Double>) model;
+			int start = 0;
+			for (int s = 0; s < numStates; s++) {
+				out.putInt(start);
+				start += dtmc.getNumTransitions(s);
+			}
+			out.putInt(start);
+			for (int s = 0; s < numStates; s++) {
+				for (Iterator<Map.Entry<Integer, Double>> it = dtmc.getTransitionsIterator(s); it.hasNext();) {
+					out.putInt(it.next().getKey());
+				}
+			}
+			for (int s = 0; s < numStates; s++) {
+				for (Iterator<Map.Entry<Integer, Double>> it = dtmc.getTransitionsIterator(s); it.hasNext();) {
+					out.putDouble(it.next().getValue());
+				}
+			}
+		}
+
+		if (nondet) {
+			// Action labels: table of distinct names, then an index (or -1) per choice
+			MDP<?> mdp = (MDP<?>) model;
+			List<String> names = new ArrayList<>();
+			Map<String, Integer> index = new HashMap<>();
+			int[] choiceActions = new int[numChoices];
+			boolean any = false;
+			for (int s = 0, i = 0; s < numStates; s++) {
+				for (int c = 0, n = mdp.getNumChoices(s); c < n; c++, i++) {
+					String action = (String) mdp.getAction(s, c);
+					if (action == null) {
+						choiceActions[i] = -1;
+					} else {
+						any = true;
+						choiceActions[i] = index.computeIfAbsent(action, a -> { names.add(a); return names.size() - 1; });
+					}
+				}
+			}
+			out.putInt(any ? names.size() : -1);
+			if (any) {
+				for (String name : names) {
+					out.putString(name);
+				}
+				for (int a : choiceActions) {
+					out.putInt(a);
+				}
+			}
+		}
+
+		// Initial and deadlock states
+		out.putInt(model.getNumInitialStates());
+		for (int s : model.getInitialStates()) {
+			out.putInt(s);
+		}
+		out.putInt(model.getNumDeadlockStates());
+		for (int s : model.getDeadlockStates()) {
+			out.putInt(s);
+		}
+
+		// State variable values, column by column
+		List<State> statesList = model.getStatesList();
+		int[] mins = new int[statesList.isEmpty() ? 0 : statesList.get(0).varValues.length];
+		byte[] types = getVarTypes(statesList, mins);
+		VarList varList = model.getVarList();
+		out.putInt(types.length);
+		for (int v = 0; v < types.length; v++) {
+			out.putString(varList != null && varList.getNumVars() == types.length ? varList.getName(v) : "");
+			out.putByte(types[v]);
+			out.putInt(mins[v]);
+			for (State state : statesList) {
+				Object val = state.varValues[v];
+				switch (types[v]) {
+				case VAR_INT8:
+					out.putByte((byte) ((Integer) val - mins[v]));
+					break;
+				case VAR_INT16:
+					out.putShort((short) ((Integer) val - mins[v]));
+					break;
+				case VAR_INT32:
+					out.putInt((Integer) val);
+					break;
+				case VAR_BOOL:
+					out.putByte((byte) ((Boolean) val ? 1 : 0));
+					break;
+				default:
+					out.putDouble((Double) val);
+				}
+			}
+		}
+
+		// Labels
+		out.putInt(model.getLabels().size());
+		for (String label : model.getLabels()) {
+			BitSet bs = model.getLabelStates(label);
+			out.putString(label);
+			out.putInt(bs.cardinality());
+			for (int s = bs.nextSetBit(0); s >= 0; s = bs.nextSetBit(s + 1)) {
+				out.putInt(s);
+			}
+		}
+
+		// State rewards
+		int numRewards = rewardNames == null ? 0 : rewardNames.size();
+		out.putInt(numRewards);
+		for (int r = 0; r < numRewards; r++) {
+			out.putString(rewardNames.get(r) == null ? "" : rewardNames.get(r));
+			double[] rews = stateRewards.get(r);
+			for (int s = 0; s < numStates; s++) {
+				out.putDouble(rews[s]);
+			}
+		}
+	}
+
+	// Reading
+
+	/**
+	 * Read a model from a file written by {@link #write(Model, File)}, copying it onto the heap.
+	 * Constant values, variable info and the evaluator are not stored and need to be attached by the caller.
+	 */
+	public static ModelExplicit<Double> read(File file) throws PrismException
+	{
+		return open(file, false).getModel();
+	}
+
+	/**
+	 * Open a file written by {@link #write(Model, List, List, File)}.
+	 * If {@code map} is true, DTMCs and MDPs are not copied but accessed directly from the
+	 * memory-mapped file (see {@link DTMCMapped} and {@link MDPMapped}); other models are always copied.
+	 */
+	public static BinaryModelFile open(File file, boolean map) throws PrismException
+	{
+		return open(file, map, MappedSection.CHUNK_SHIFT);
+	}
+
+	/**
+	 * Open a file written by {@link #write(Model, List, List, File)},
+	 * mapping array sections in chunks of 2^{@code chunkShift} bytes.
+	 */
+	static BinaryModelFile open(File file, boolean map, int chunkShift) throws PrismException
+	{
+		try (Input in = new Input(file, chunkShift)) {
+			BinaryModelFile bmf = new BinaryModelFile();
+			bmf.read(in, map);
+			return bmf;
+		} catch (IOException | IllegalArgumentException | IndexOutOfBoundsException e) {
+			throw new PrismException("Could not read binary model file \"" + file + "\"" + (e.getMessage() == null ? "" : ": " + e.getMessage()));
+		}
+	}
+
+	private void read(Input in, boolean map) throws IOException, PrismException
+	{
+		// Header
+		if (in.getInt() != MAGIC) {
+			throw new PrismException("not a PRISM binary model file");
+		}
+		int version = in.getInt();
+		if (version != VERSION) {
+			throw new PrismException("unsupported binary model format version " + version);
+		}
+		ModelType modelType = ModelType.valueOf(in.getString());
+		int numStates = in.getInt();
+		int numChoices = in.getInt();
+		int numTransitions = in.getInt();
+
+		switch (modelType) {
+		case DTMC:
+		case CTMC: {
+			// Transition matrix
+			MappedSection rows = in.ints(numStates + 1);
+			MappedSection columns = in.ints(numTransitions);
+			MappedSection values = in.doubles(numTransitions);
+			if (modelType == ModelType.DTMC) {
+				model = map ? new DTMCMapped(numStates, rows, columns, values) : new DTMCSparse(numStates, rows.toIntArray(), columns.toIntArray(), values.toDoubleArray());
+			} else {
+				CTMCSimple<Double> ctmc = new CTMCSimple<>(numStates);
+				for (int s = 0; s < numStates; s++) {
+					for (int j = rows.getInt(s); j < rows.getInt(s + 1); j++) {
+						ctmc.setProbability(s, columns.getInt(j), values.getDouble(j));
+					}
+				}
+				model = ctmc;
+			}
+			break;
+		}
+		case MDP: {
+			// Transition matrix
+			MappedSection rowStarts = in.ints(numStates + 1);
+			MappedSection choiceStarts = in.ints(numChoices + 1);
+			MappedSection cols = in.ints(numTransitions);
+			MappedSection nonZeros = in.doubles(numTransitions);
+			// Actions
+			int numNames = in.getInt();
+			String[] names = null;
+			MappedSection choiceActions = null;
+			if (numNames >= 0) {
+				names = new String[numNames];
+				for (int i = 0; i < numNames; i++) {
+					names[i] = in.getString();
+				}
+				choiceActions = in.ints(numChoices);
+			}
+			if (map) {
+				model = new MDPMapped(numStates, rowStarts, choiceStarts, cols, nonZeros, choiceActions, names);
+			} else {
+				Object[] actions = null;
+				if (names != null) {
+					actions = new Object[numChoices];
+					for (int i = 0; i < numChoices; i++) {
+						actions[i] = choiceActions.getInt(i) < 0 ? null : names[choiceActions.getInt(i)];
+					}
+				}
+				model = new MDPSparse(numStates, rowStarts.toIntArray(), choiceStarts.toIntArray(), cols.toIntArray(), nonZeros.toDoubleArray(), actions);
+			}
+			break;
+		}
+		default:
+			throw new PrismNotSupportedException("unsupported model type " + modelType);
+		}
+
+		// Initial and deadlock states
+		MappedSection initial = in.ints(in.getInt());
+		for (int i = 0; i < initial.numInts(); i++) {
+			model.addInitialState(initial.getInt(i));
+		}
+		MappedSection deadlocks = in.ints(in.getInt());
+		for (int i = 0; i < deadlocks.numInts(); i++) {
+			model.addDeadlockState(deadlocks.getInt(i));
+		}
+
+		// State variable values
+		int numVars = in.getInt();
+		PackedStatesList packed = new PackedStatesList(numStates, numVars);
+		for (int v = 0; v < numVars; v++) {
+			in.getString();
+			byte type = in.getByte();
+			if (type < VAR_INT8 || type > VAR_DOUBLE) {
+				throw new PrismException("unknown variable type " + type);
+			}
+			packed.types[v] = type;
+			packed.mins[v] = in.getInt();
+			packed.columns[v] = in.bytes((long) numStates * varTypeSize(type));
+		}
+		model.setStatesList(map ? packed : new ArrayList<>(packed));
+
+		// Labels
+		int numLabels = in.getInt();
+		for (int l = 0; l < numLabels; l++) {
+			String name = in.getString();
+			MappedSection states = in.ints(in.getInt());
+			BitSet bs = new BitSet(numStates);
+			for (int i = 0; i < states.numInts(); i++) {
+				bs.set(states.getInt(i));
+			}
+			model.addLabel(name, bs);
+		}
+
+		// State rewards
+		int numRewards = in.getInt();
+		for (int r = 0; r < numRewards; r++) {
+			stateRewardNames.add(in.getString());
+			stateRewards.add(in.doubles(numStates));
+		}
+
+		if (!in.atEnd()) {
+			throw new PrismException("unexpected trailing data");
+		}
+	}
+
+	/**
+	 * List of states, decoded on demand from the (packed) columns of variable values.
+	 */
+	private static class PackedStatesList extends AbstractList<State>
+	{
+		private final int numStates;
+		private final byte[] types;
+		private final int[] mins;
+		private final MappedSection[] columns;
+
+		PackedStatesList(int numStates, int numVars)
+		{
+			this.numStates = numStates;
+			types = new byte[numVars];
+			mins = new int[numVars];
+			columns = new MappedSection[numVars];
+		}
+
+		@Override
+		public State get(int s)
+		{
+			if (s < 0 || s >= numStates) {
+				throw new IndexOutOfBoundsException("State " + s + " out of range");
+			}
+			State state = new State(types.length);
+			for (int v = 0; v < types.length; v++) {
+				MappedSection col = columns[v];
+				switch (types[v]) {
+				case VAR_INT8:
+					state.varValues[v] = mins[v] + (col.getByte(s) & 0xff);
+					break;
+				case VAR_INT16:
+					state.varValues[v] = mins[v] + (col.getShort(s) & 0xffff);
+					break;
+				case VAR_INT32:
+					state.varValues[v] = col.getInt(s);
+					break;
+				case VAR_BOOL:
+					state.varValues[v] = col.getByte(s) != 0;
+					break;
+				default:
+					state.varValues[v] = col.getDouble(s);
+				}
+			}
+			return state;
+		}
+
+		@Override
+		public int size()
+		{
+			return numStates;
+		}
+	}
+
+	/**
+	 * Buffered little-endian output to a file.
+	 */
+	private static class Output implements AutoCloseable
+	{
+		private final FileChannel channel;
+		private final ByteBuffer buf = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+
+		Output(File file) throws IOException
+		{
+			channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+		}
+
+		private void ensure(int n) throws IOException
+		{
+			if (buf.remaining() < n) {
+				flush();
+			}
+		}
+
+		private void flush() throws IOException
+		{
+			buf.flip();
+			while (buf.hasRemaining()) {
+				channel.write(buf);
+			}
+			buf.clear();
+		}
+
+		void putByte(byte b) throws IOException
+		{
+			ensure(1);
+			buf.put(b);
+		}
+
+		void putShort(short s) throws IOException
+		{
+			ensure(2);
+			buf.putShort(s);
+		}
+
+		void putInt(int i) throws IOException
+		{
+			ensure(4);
+			buf.putInt(i);
+		}
+
+		void putDouble(double d) throws IOException
+		{
+			ensure(8);
+			buf.putDouble(d);
+		}
+
+		void putString(String s) throws IOException
+		{
+			byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+			putInt(bytes.length);
+			for (byte b : bytes) {
+				putByte(b);
+			}
+		}
+
+		@Override
+		public void close() throws IOException
+		{
+			try {
+				flush();
+			} finally {
+				channel.close();
+			}
+		}
+	}
+
+	/**
+	 * Little-endian input from a file, with array sections memory-mapped.
+	 * Mappings remain valid after the file has been closed.
+	 */
+	private static class Input implements AutoCloseable
+	{
+		private final FileChannel channel;
+		private final long size;
+		/** log2 of the (maximum) number of bytes per mapped chunk */
+		private final int chunkShift;
+		private long pos = 0;
+
+		Input(File file, int chunkShift) throws IOException
+		{
+			channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+			size = channel.size();
+			this.chunkShift = chunkShift;
+		}
+
+		/** Map the next {@code n} bytes */
+		MappedSection bytes(long n) throws IOException
+		{
+			if (n < 0 || n > size - pos) {
+				throw new IOException("file is truncated or corrupt");
+			}
+			MappedSection section = new MappedSection(channel, pos, n, chunkShift);
+			pos += n;
+			return section;
+		}
+
+		/** Read the next {@code n} bytes onto the heap */
+		ByteBuffer read(int n) throws IOException
+		{
+			if (n < 0 || n > size - pos) {
+				throw new IOException("file is truncated or corrupt");
+			}
+			ByteBuffer buf = ByteBuffer.allocate(n).order(ByteOrder.LITTLE_ENDIAN);
+			while (buf.hasRemaining()) {
+				if (channel.read(buf, pos + buf.position()) < 0) {
+					throw new IOException("file is truncated");
+				}
+			}
+			pos += n;
+			buf.flip();
+			return buf;
+		}
+
+		MappedSection ints(long n) throws IOException
+		{
+			// (also guards against overflow below)
+			if (n < 0 || n > size / Integer.BYTES) {
+				throw new IOException("file is truncated or corrupt");
+			}
+			return bytes(n * Integer.BYTES);
+		}
+
+		MappedSection doubles(long n) throws IOException
+		{
+			// (also guards against overflow below)
+			if (n < 0 || n > size / Double.BYTES) {
+				throw new IOException("file is truncated or corrupt");
+			}
+			return bytes(n * Double.BYTES);
+		}
+
+		byte getByte() throws IOException
+		{
+			return read(1).get();
+		}
+
+		int getInt() throws IOException
+		{
+			return read(4).getInt();
+		}
+
+		String getString() throws IOException
+		{
+			ByteBuffer buf = read(getInt());
+			return new String(buf.array(), 0, buf.limit(), StandardCharsets.UTF_8);
+		}
+
+		boolean atEnd()
+		{
+			return pos == size;
+		}
+
+		@Override
+		public void close() throws IOException
+		{
+			channel.close();
+		}
+	}
+}
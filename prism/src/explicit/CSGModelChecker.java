@@ -561,7 +561,7 @@ public class CSGModelChecker extends ProbModelChecker
 		nsol = new double[n];
 		nsoln2 = new double[n];
 		for (i = 0; i < n; i++)
-			nsol[i] = csgRewards.getStateReward(i);
+			nsol[i] = csgRewards.getStateRewardDouble(i);
 
 		buildCoalitions(csg, coalition, min1);
 		try {
@@ -1049,7 +1049,7 @@ public class CSGModelChecker extends ProbModelChecker
 				if (unknown.get(s)) {
 					mgame = buildMatrixGame(csg, rewards, mmap, ntmp, s, min);
 					nsol[s] = val(lp, mgame, kstrat, mmap, s, true, min);
-					nsol[s] += rewards.getStateReward(s);
+					nsol[s] += rewards.getStateRewardDouble(s);
 					if (genStrat) {
 						// player -> iteration -> state -> indexes -> value
 						updateStrategy(kstrat, lstrat, k, s, bounded);
@@ -1913,7 +1913,7 @@ public class CSGModelChecker extends ProbModelChecker
 				}
 			}
 			if (rewards != null)
-				v += rewards.get(0).getTransitionReward(s, t);
+				v += rewards.get(0).getTransitionRewardDouble(s, t);
 			if (u != Double.NaN)
 				allEqual = allEqual && Double.compare(u, v) == 0;
 			utilities.get(jidx).add(0, v);
@@ -42,6 +42,12 @@ import prism.*;
  */
 public class CTMCModelChecker extends ProbModelChecker
 {
+	/**
+	 * Time points (and cached results) for a sequence of model checking calls,
+	 * e.g. an experiment over a time bound (optional: null means none)
+	 */
+	protected TransientBatch transientBatch = null;
+
 	/**
 	 * Create a new CTMCModelChecker, inherit basic state from parent (unless null).
 	 */
@@ -50,6 +56,17 @@ public class CTMCModelChecker extends ProbModelChecker
 		super(parent);
 	}
 	
+	// Settings methods
+
+	/**
+	 * Set the time points (and cache) for a sequence of model checking calls,
+	 * so that time-bounded until probabilities for all of them are computed in a single pass.
+	 */
+	public void setTransientBatch(TransientBatch transientBatch)
+	{
+		this.transientBatch = transientBatch;
+	}
+
 	// Model checking functions
 
 	@SuppressWarnings("unchecked")
@@ -198,8 +215,12 @@ public class CTMCModelChecker extends ProbModelChecker
 			else if (lTime == 0) {
 				// nb: uTime != 0 since would be caught above (trivial case)
 				b1.andNot(b2);
-				res = computeTransientBackwardsProbs((CTMC<Double>) model, b2, b1, uTime, null);
-				probs = StateValues.createFromDoubleArray(res.soln, model);
+				if (transientBatch != null) {
+					probs = StateValues.createFromDoubleArray(computeTransientBackwardsProbsBatched((CTMC<Double>) model, b2, b1, uTime, expr.getUpperBound()), model);
+				} else {
+					res = computeTransientBackwardsProbs((CTMC<Double>) model, b2, b1, uTime, null);
+					probs = StateValues.createFromDoubleArray(res.soln, model);
+				}
 				// set values to exactly 1 for target (b2) states
 				// (these are computed inexactly during uniformisation)
 				int n = model.getNumStates();
@@ -299,6 +320,28 @@ public class CTMCModelChecker extends ProbModelChecker
 		return StateValues.createFromDoubleArray(res.soln, ctmc);
 	}
 
+	/**
+	 * Compute transient probability distributions (forwards) for several time points,
+	 * using a single uniformisation pass.
+	 * Optionally, use the passed in vector initDist as the initial probability distribution (time 0).
+	 * If null, start from initial state (or uniform distribution over multiple initial states).
+	 * For reasons of efficiency, when a vector is passed in, it will be trampled over,
+	 * so if you wanted it, take a copy. 
+	 * @param ctmc The CTMC
+	 * @param times Time points
+	 * @param initDist Initial distribution (will be overwritten)
+	 */
+	public StateValues[] doTransient(CTMC<Double> ctmc, double times[], StateValues initDist) throws PrismException
+	{
+		StateValues initDistNew = (initDist == null) ? buildInitialDistribution(ctmc) : initDist;
+		ModelCheckerResult res[] = computeTransientProbs(ctmc, times, initDistNew.getDoubleArray());
+		StateValues probs[] = new StateValues[res.length];
+		for (int j = 0; j < res.length; j++) {
+			probs[j] = StateValues.createFromDoubleArray(res[j].soln, ctmc);
+		}
+		return probs;
+	}
+
 	// Numerical computation functions
 
 	/**
@@ -419,14 +462,6 @@ public class CTMCModelChecker extends ProbModelChecker
 	public ModelCheckerResult computeTransientBackwardsProbs(CTMC<Double> ctmc, BitSet target, BitSet nonAbs, double t, double multProbs[]) throws PrismException
 	{
 		ModelCheckerResult res = null;
-		int i, n, iters;
-		double soln[], soln2[], tmpsoln[], sum[];
-		DTMC<Double> dtmc;
-		long timer;
-		// Fox-Glynn stuff
-		FoxGlynn fg;
-		int left, right;
-		double q, qt, acc, weights[], totalWeight;
 
 		// Optimisations: If (nonAbs is empty or t = 0) and multProbs is null, this is easy.
 		if (((nonAbs != null && nonAbs.isEmpty()) || (t == 0)) && multProbs == null) {
@@ -435,42 +470,64 @@ public class CTMCModelChecker extends ProbModelChecker
 			return res;
 		}
 
-		// Start backwards transient computation
-		timer = System.currentTimeMillis();
-		mainLog.println("\nStarting backwards transient probability computation...");
+		return computeTransientBackwardsProbs(ctmc, target, nonAbs, new double[] { t }, multProbs)[0];
+	}
+
+	/**
+	 * Perform transient probability computation, as required for (e.g. CSL) model checking,
+	 * for several time points, using a single uniformisation pass.
+	 * The matrix-vector products are shared between all time points; only the
+	 * (Poisson) weights with which they are summed differ.
+	 * Compute, for each time point {@code times[j]} and each state, the sum over {@code target} states
+	 * of the probability of being in that state at time {@code times[j]}
+	 * multiplied by the corresponding probability in the vector {@code multProbs},
+	 * assuming that all states *not* in {@code nonAbs} are made absorbing.
+	 * If {@code multProbs} is null, it is assumed to be all 1s.
+	 * @param ctmc The CTMC
+	 * @param target Target states
+	 * @param nonAbs States *not* to be made absorbing (optional: null means "all")
+	 * @param times Time bounds
+	 * @param multProbs Multiplication vector (optional: null means all 1s)
+	 */
+	public ModelCheckerResult[] computeTransientBackwardsProbs(CTMC<Double> ctmc, BitSet target, BitSet nonAbs, double times[], double multProbs[]) throws PrismException
+	{
+		ModelCheckerResult res[] = new ModelCheckerResult[times.length];
+		int i, j, n, iters;
+		double soln[], soln2[], tmpsoln[], sums[][];
+		DTMC<Double> dtmc;
+		long timer;
+		PoissonWeights weights[];
 
 		// Store num states
 		n = ctmc.getNumStates();
 
-		// Get uniformisation rate; do Fox-Glynn
-		q = ctmc.getDefaultUniformisationRate(nonAbs);
-		qt = q * t;
-		mainLog.println("\nUniformisation: q.t = " + q + " x " + t + " = " + qt);
-		acc = termCritParam / 8.0;
-		fg = new FoxGlynn(qt, 1e-300, 1e+300, acc);
-		left = fg.getLeftTruncationPoint();
-		right = fg.getRightTruncationPoint();
-		if (right < 0) {
-			throw new PrismException("Overflow in Fox-Glynn computation (time bound too big?)");
-		}
-		weights = fg.getWeights();
-		totalWeight = fg.getTotalWeight();
-		for (i = left; i <= right; i++) {
-			weights[i - left] /= totalWeight;
+		// Optimisation: If nonAbs is empty and multProbs is null, this is easy.
+		if (nonAbs != null && nonAbs.isEmpty() && multProbs == null) {
+			for (j = 0; j < times.length; j++) {
+				res[j] = new ModelCheckerResult();
+				res[j].soln = Utils.bitsetToDoubleArray(target, n);
+			}
+			return res;
 		}
-		mainLog.println("Fox-Glynn (" + acc + "): left = " + left + ", right = " + right);
+
+		// Start backwards transient computation
+		timer = System.currentTimeMillis();
+		mainLog.println("\nStarting backwards transient probability computation" + (times.length > 1 ? " (" + times.length + " time points)" : "") + "...");
+
+		// Get uniformisation rate; do Fox-Glynn
+		weights = computePoissonWeights(ctmc.getDefaultUniformisationRate(nonAbs), times);
 
 		// Build (implicit) uniformised DTMC
-		dtmc = ctmc.buildImplicitUniformisedDTMC(q);
+		dtmc = ctmc.buildImplicitUniformisedDTMC(weights[0].q);
 
 		// Create solution vector(s)
 		soln = new double[n];
 		soln2 = new double[n];
-		sum = new double[n];
+		sums = new double[times.length][n];
 
 		// Initialise solution vectors.
 		// Vectors soln/soln2 are 1 for target states, or multProbs[i] if supplied.
-		// Vector sum is all zeros (done by array creation).
+		// Vectors sums are all zeros (done by array creation).
 		if (multProbs != null) {
 			for (i = 0; i < n; i++)
 				soln[i] = soln2[i] = target.get(i) ? multProbs[i] : 0.0;
@@ -480,11 +537,10 @@ public class CTMCModelChecker extends ProbModelChecker
 		}
 
 		// If necessary, do 0th element of summation (doesn't require any matrix powers)
-		if (left == 0)
-			for (i = 0; i < n; i++)
-				sum[i] += weights[0] * soln[i];
+		addPoissonWeightedVector(weights, 0, soln, sums);
 
 		// Start iterations
+		int right = PoissonWeights.maxRight(weights);
 		iters = 1;
 		while (iters <= right) {
 			// Matrix-vector multiply
@@ -493,11 +549,8 @@ public class CTMCModelChecker extends ProbModelChecker
 			tmpsoln = soln;
 			soln = soln2;
 			soln2 = tmpsoln;
-			// Add to sum
-			if (iters >= left) {
-				for (i = 0; i < n; i++)
-					sum[i] += weights[iters - left] * soln[i];
-			}
+			// Add to sums
+			addPoissonWeightedVector(weights, iters, soln, sums);
 			iters++;
 		}
 
@@ -507,15 +560,45 @@ public class CTMCModelChecker extends ProbModelChecker
 		mainLog.println(" took " + iters + " iters and " + timer / 1000.0 + " seconds.");
 
 		// Return results
-		res = new ModelCheckerResult();
-		res.soln = sum;
-		res.lastSoln = soln2;
-		res.numIters = iters;
-		res.timeTaken = timer / 1000.0;
-		res.timePre = 0.0;
+		for (j = 0; j < times.length; j++) {
+			res[j] = new ModelCheckerResult();
+			res[j].soln = sums[j];
+			res[j].lastSoln = soln2;
+			res[j].numIters = iters;
+			res[j].timeTaken = timer / 1000.0;
+			res[j].timePre = 0.0;
+		}
 		return res;
 	}
 
+	/**
+	 * Compute time-bounded until probabilities, for the time bound {@code t},
+	 * as part of a batch of time points (see {@link #setTransientBatch(TransientBatch)}).
+	 * If not already available, results are computed (in a single pass) for {@code t}
+	 * and the subsequent time points of the batch obtained from the bound {@code bound}.
+	 * @param ctmc The CTMC
+	 * @param target Target states
+	 * @param nonAbs States *not* to be made absorbing (optional: null means "all")
+	 * @param t Time bound
+	 * @param bound Expression for the time bound
+	 */
+	protected double[] computeTransientBackwardsProbsBatched(CTMC<Double> ctmc, BitSet target, BitSet nonAbs, double t, Expression bound) throws PrismException
+	{
+		double soln[] = transientBatch.remove(ctmc, target, nonAbs, t);
+		if (soln != null) {
+			mainLog.println("\nUsing backwards transient probabilities for time " + t + " from batched computation.");
+			return soln;
+		}
+		double times[] = transientBatch.getTimePoints(bound, constantValues, t, ctmc.getNumStates());
+		ModelCheckerResult res[] = computeTransientBackwardsProbs(ctmc, target, nonAbs, times, null);
+		double solns[][] = new double[times.length][];
+		for (int j = 0; j < times.length; j++) {
+			solns[j] = res[j].soln;
+		}
+		transientBatch.put(ctmc, target, nonAbs, times, solns);
+		return transientBatch.remove(ctmc, target, nonAbs, t);
+	}
+
 	/**
 	 * Perform cumulative reward computation.
 	 * Compute, for each state of {@ctmc}, the expected rewards accumulated until {@code t}
@@ -909,61 +992,56 @@ public class CTMCModelChecker extends ProbModelChecker
 	 */
 	public ModelCheckerResult computeTransientProbs(CTMC<Double> ctmc, double t, double initDist[]) throws PrismException
 	{
-		ModelCheckerResult res = null;
-		int i, n, iters;
-		double soln[], soln2[], tmpsoln[], sum[];
+		return computeTransientProbs(ctmc, new double[] { t }, initDist)[0];
+	}
+
+	/**
+	 * Compute transient probabilities for several time points, using a single uniformisation pass.
+	 * i.e. compute, for each time point {@code times[j]}, the probability of being in each state
+	 * at time {@code times[j]}, assuming the initial distribution {@code initDist}.
+	 * The vector-matrix products are shared between all time points; only the
+	 * (Poisson) weights with which they are summed differ.
+	 * For space efficiency, the initial distribution vector will be modified and values over-written,  
+	 * so if you wanted it, take a copy. 
+	 * @param ctmc The CTMC
+	 * @param times Time points
+	 * @param initDist Initial distribution (will be overwritten)
+	 */
+	public ModelCheckerResult[] computeTransientProbs(CTMC<Double> ctmc, double times[], double initDist[]) throws PrismException
+	{
+		ModelCheckerResult res[] = new ModelCheckerResult[times.length];
+		int j, n, iters;
+		double soln[], soln2[], tmpsoln[], sums[][];
 		DTMC<Double> dtmc;
 		long timer;
-		// Fox-Glynn stuff
-		FoxGlynn fg;
-		int left, right;
-		double q, qt, acc, weights[], totalWeight;
+		PoissonWeights weights[];
 
 		// Start bounded probabilistic reachability
 		timer = System.currentTimeMillis();
-		mainLog.println("\nStarting transient probability computation...");
+		mainLog.println("\nStarting transient probability computation" + (times.length > 1 ? " (" + times.length + " time points)" : "") + "...");
 
 		// Store num states
 		n = ctmc.getNumStates();
 
 		// Get uniformisation rate; do Fox-Glynn
-		q = ctmc.getDefaultUniformisationRate();
-		qt = q * t;
-		mainLog.println("\nUniformisation: q.t = " + q + " x " + t + " = " + qt);
-		acc = termCritParam / 8.0;
-		fg = new FoxGlynn(qt, 1e-300, 1e+300, acc);
-		left = fg.getLeftTruncationPoint();
-		right = fg.getRightTruncationPoint();
-		if (right < 0) {
-			throw new PrismException("Overflow in Fox-Glynn computation (time bound too big?)");
-		}
-		weights = fg.getWeights();
-		totalWeight = fg.getTotalWeight();
-		for (i = left; i <= right; i++) {
-			weights[i - left] /= totalWeight;
-		}
-		mainLog.println("Fox-Glynn (" + acc + "): left = " + left + ", right = " + right);
+		weights = computePoissonWeights(ctmc.getDefaultUniformisationRate(), times);
 
 		// Build (implicit) uniformised DTMC
-		dtmc = ctmc.buildImplicitUniformisedDTMC(q);
+		dtmc = ctmc.buildImplicitUniformisedDTMC(weights[0].q);
 
 		// Create solution vector(s)
 		// For soln, we just use init (since we are free to modify this vector)
+		// (don't need to initialise soln2 since will be immediately overwritten;
+		// vectors sums are all zeros, done by array creation)
 		soln = initDist;
 		soln2 = new double[n];
-		sum = new double[n];
-
-		// Initialise solution vectors
-		// (don't need to do soln2 since will be immediately overwritten)
-		for (i = 0; i < n; i++)
-			sum[i] = 0.0;
+		sums = new double[times.length][n];
 
 		// If necessary, do 0th element of summation (doesn't require any matrix powers)
-		if (left == 0)
-			for (i = 0; i < n; i++)
-				sum[i] += weights[0] * soln[i];
+		addPoissonWeightedVector(weights, 0, soln, sums);
 
 		// Start iterations
+		int right = PoissonWeights.maxRight(weights);
 		iters = 1;
 		while (iters <= right) {
 			// Matrix-vector multiply
@@ -972,11 +1050,8 @@ public class CTMCModelChecker extends ProbModelChecker
 			tmpsoln = soln;
 			soln = soln2;
 			soln2 = tmpsoln;
-			// Add to sum
-			if (iters >= left) {
-				for (i = 0; i < n; i++)
-					sum[i] += weights[iters - left] * soln[i];
-			}
+			// Add to sums
+			addPoissonWeightedVector(weights, iters, soln, sums);
 			iters++;
 		}
 
@@ -986,15 +1061,110 @@ public class CTMCModelChecker extends ProbModelChecker
 		mainLog.println(" took " + iters + " iters and " + timer / 1000.0 + " seconds.");
 
 		// Return results
-		res = new ModelCheckerResult();
-		res.soln = sum;
-		res.lastSoln = soln2;
-		res.numIters = iters;
-		res.timeTaken = timer / 1000.0;
-		res.timePre = 0.0;
+		for (j = 0; j < times.length; j++) {
+			res[j] = new ModelCheckerResult();
+			res[j].soln = sums[j];
+			res[j].lastSoln = soln2;
+			res[j].numIters = iters;
+			res[j].timeTaken = timer / 1000.0;
+			res[j].timePre = 0.0;
+		}
 		return res;
 	}
 
+	/**
+	 * Normalised Poisson (Fox-Glynn) weights for one time point of a uniformisation,
+	 * i.e., for {@code k} between {@code left} and {@code right}, the probability
+	 * of {@code k} jumps of the uniformised DTMC (with rate {@code q}) within time {@code t}.
+	 */
+	protected static class PoissonWeights
+	{
+		double q, t;
+		int left, right;
+		double weights[];
+
+		/**
+		 * Get the maximum right truncation point over several time points.
+		 */
+		static int maxRight(PoissonWeights weights[])
+		{
+			int right = 0;
+			for (PoissonWeights w : weights) {
+				right = Math.max(right, w.right);
+			}
+			return right;
+		}
+	}
+
+	/**
+	 * Compute the (normalised) Fox-Glynn weights for uniformisation rate {@code q}
+	 * and each time point in {@code times}.
+	 */
+	protected PoissonWeights[] computePoissonWeights(double q, double times[]) throws PrismException
+	{
+		PoissonWeights weights[] = new PoissonWeights[times.length];
+		double acc = termCritParam / 8.0;
+		double qtMax = 0.0;
+		int rightMax = 0;
+		for (int j = 0; j < times.length; j++) {
+			if (times[j] < 0) {
+				throw new PrismException("Cannot compute transient probabilities for negative time value");
+			}
+			PoissonWeights w = weights[j] = new PoissonWeights();
+			w.q = q;
+			w.t = times[j];
+			double qt = q * times[j];
+			if (times.length == 1) {
+				mainLog.println("\nUniformisation: q.t = " + q + " x " + times[j] + " = " + qt);
+			}
+			if (qt == 0.0) {
+				// No time elapses (or no transitions): only the 0th term, with weight 1
+				w.left = w.right = 0;
+				w.weights = new double[] { 1.0 };
+			} else {
+				FoxGlynn fg = new FoxGlynn(qt, 1e-300, 1e+300, acc);
+				w.left = fg.getLeftTruncationPoint();
+				w.right = fg.getRightTruncationPoint();
+				if (w.right < 0) {
+					throw new PrismException("Overflow in Fox-Glynn computation (time bound too big?)");
+				}
+				w.weights = fg.getWeights();
+				double totalWeight = fg.getTotalWeight();
+				for (int i = w.left; i <= w.right; i++) {
+					w.weights[i - w.left] /= totalWeight;
+				}
+			}
+			if (times.length == 1) {
+				mainLog.println("Fox-Glynn (" + acc + "): left = " + w.left + ", right = " + w.right);
+			}
+			qtMax = Math.max(qtMax, qt);
+			rightMax = Math.max(rightMax, w.right);
+		}
+		if (times.length > 1) {
+			mainLog.println("\nUniformisation: q = " + q + ", " + times.length + " time points, max q.t = " + qtMax);
+			mainLog.println("Fox-Glynn (" + acc + "): max right = " + rightMax);
+		}
+		return weights;
+	}
+
+	/**
+	 * Add the {@code k}th term of the uniformisation sum, i.e. the vector {@code soln}
+	 * multiplied by the Poisson weight for {@code k}, to the sum for each time point.
+	 */
+	protected static void addPoissonWeightedVector(PoissonWeights weights[], int k, double soln[], double sums[][])
+	{
+		int n = soln.length;
+		for (int j = 0; j < weights.length; j++) {
+			PoissonWeights w = weights[j];
+			if (k >= w.left && k <= w.right) {
+				double weight = w.weights[k - w.left];
+				double sum[] = sums[j];
+				for (int i = 0; i < n; i++)
+					sum[i] += weight * soln[i];
+			}
+		}
+	}
+
 	// Utility methods
 	
 	/**
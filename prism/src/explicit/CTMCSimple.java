@@ -177,6 +177,7 @@ public class CTMCSimple<Value> extends DTMCSimple<Value> implements CTMC<Value>
 			Distribution<Value> distr = trans.get(i);
 			distr.set(i, getEvaluator().subtract(q, distr.sumAllBut(i)));
 		}
+		clearWorkspace();
 	}
 
 	@Override
@@ -0,0 +1,141 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package explicit;
+
+/**
+ * Monitors the progress of value iteration, via the residual (difference between
+ * successive solution vectors) in each iteration, and decides when convergence has stalled.
+ * <br>
+ * The contraction rate is estimated from the residuals over a sliding window of iterations.
+ * Convergence is considered to have stalled if, at that rate, reaching the termination
+ * threshold would take more iterations than have already been spent in the current phase
+ * (or if the residual is not decreasing at all). Each time a phase is restarted,
+ * the minimum phase length is doubled, which bounds the number of phase switches.
+ */
+public class ConvergenceMonitor
+{
+	/** Number of iterations over which the contraction rate is estimated */
+	public static final int WINDOW = 10;
+	/** Initial minimum number of iterations in a phase before a stall can be detected */
+	public static final int MIN_PHASE_ITERS = 50;
+
+	/** Termination threshold of the iterative method */
+	private final double epsilon;
+	/** Residuals of the last WINDOW + 1 iterations (cyclic buffer) */
+	private final double[] residuals = new double[WINDOW + 1];
+	/** Number of iterations in current phase */
+	private int phaseIters;
+	/** Minimum number of iterations in current phase before a stall can be detected */
+	private int minPhaseIters = MIN_PHASE_ITERS;
+	/** Number of phases started so far */
+	private int numPhases;
+
+	/**
+	 * Create a monitor for an iterative method with termination threshold {@code epsilon}.
+	 */
+	public ConvergenceMonitor(double epsilon)
+	{
+		this.epsilon = epsilon;
+		startPhase();
+	}
+
+	/**
+	 * Start a new phase, forgetting the residuals observed so far.
+	 * After the first phase, the minimum phase length is doubled.
+	 */
+	public void startPhase()
+	{
+		if (numPhases > 0) {
+			minPhaseIters *= 2;
+		}
+		numPhases++;
+		phaseIters = 0;
+	}
+
+	/**
+	 * Record the residual of one more iteration.
+	 */
+	public void record(double residual)
+	{
+		residuals[phaseIters % residuals.length] = residual;
+		phaseIters++;
+	}
+
+	/**
+	 * Get the number of iterations recorded in the current phase.
+	 */
+	public int getPhaseIters()
+	{
+		return phaseIters;
+	}
+
+	/**
+	 * Get the estimated contraction rate (per iteration) of the residual,
+	 * or NaN if not enough iterations have been recorded yet.
+	 */
+	public double getRate()
+	{
+		if (phaseIters <= WINDOW) {
+			return Double.NaN;
+		}
+		double last = residuals[(phaseIters - 1) % residuals.length];
+		double first = residuals[phaseIters % residuals.length];
+		if (last == 0.0) {
+			return 0.0;
+		}
+		if (first == 0.0 || last >= first) {
+			return 1.0;
+		}
+		return Math.pow(last / first, 1.0 / WINDOW);
+	}
+
+	/**
+	 * Get the predicted number of further iterations needed to reach the termination
+	 * threshold, based on the estimated contraction rate ({@code Long.MAX_VALUE} if unknown/unbounded).
+	 */
+	public long getPredictedIters()
+	{
+		double rate = getRate();
+		if (Double.isNaN(rate) || rate >= 1.0) {
+			return Long.MAX_VALUE;
+		}
+		double last = residuals[(phaseIters - 1) % residuals.length];
+		if (last < epsilon || rate == 0.0) {
+			return 0;
+		}
+		return (long) Math.ceil(Math.log(epsilon / last) / Math.log(rate));
+	}
+
+	/**
+	 * Has convergence stalled in the current phase?
+	 */
+	public boolean stalled()
+	{
+		if (phaseIters < minPhaseIters) {
+			return false;
+		}
+		return getPredictedIters() > phaseIters;
+	}
+}
@@ -0,0 +1,235 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+
+package explicit;
+
+import java.util.AbstractMap;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.PrimitiveIterator.OfInt;
+
+import explicit.rewards.MCRewards;
+import prism.PrismException;
+import prism.PrismNotSupportedException;
+
+/**
+ * Sparse matrix (non-mutable) explicit-state representation of a DTMC,
+ * with the same layout as {@link DTMCSparse}, but stored in memory-mapped sections of a file
+ * rather than on the Java heap. Instances are created by {@link BinaryModelFile}.
+ */
+public class DTMCMapped extends DTMCExplicit<Double>
+{
+	/** Indices into probabilities/columns giving the start of the transitions for each state;
+	 * section is of size numStates+1 and last entry is always equal to getNumTransitions() */
+	private final MappedSection rows;
+	/** Column (destination) indices for each transition */
+	private final MappedSection columns;
+	/** Probabilities for each transition */
+	private final MappedSection probabilities;
+
+	/**
+	 * Constructor: Build a DTMCMapped over the given sections (which are stored, not copied).
+	 * Initial states, labels, etc. are not set.
+	 */
+	public DTMCMapped(int numStates, MappedSection rows, MappedSection columns, MappedSection probabilities)
+	{
+		initialise(numStates);
+		this.rows = rows;
+		this.columns = columns;
+		this.probabilities = probabilities;
+	}
+
+	//--- Model ---
+
+	@Override
+	public int getNumTransitions()
+	{
+		return rows.getInt(numStates);
+	}
+
+	@Override
+	public int getNumTransitions(int state)
+	{
+		return rows.getInt(state + 1) - rows.getInt(state);
+	}
+
+	@Override
+	public OfInt getSuccessorsIterator(final int state)
+	{
+		return getSuccessors(state);
+	}
+
+	@Override
+	public SuccessorsIterator getSuccessors(final int state)
+	{
+		final int end = rows.getInt(state + 1);
+		return new SuccessorsIterator()
+		{
+			int i = rows.getInt(state);
+
+			@Override
+			public boolean successorsAreDistinct()
+			{
+				// We assume here that all the successor states for a given state are distinct
+				return true;
+			}
+
+			@Override
+			public boolean hasNext()
+			{
+				return i < end;
+			}
+
+			@Override
+			public int nextInt()
+			{
+				return columns.getInt(i++);
+			}
+		};
+	}
+
+	@Override
+	public boolean isSuccessor(final int s1, final int s2)
+	{
+		for (int i = rows.getInt(s1), stop = rows.getInt(s1 + 1); i < stop; i++) {
+			if (columns.getInt(i) == s2) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public void findDeadlocks(boolean fix) throws PrismException
+	{
+		for (int state = 0; state < numStates; state++) {
+			if (getNumTransitions(state) == 0) {
+				if (fix) {
+					throw new PrismException("Can't fix deadlocks in a DTMCMapped since it cannot be modified after construction");
+				}
+				deadlocks.add(state);
+			}
+		}
+	}
+
+	@Override
+	public void checkForDeadlocks(BitSet except) throws PrismException
+	{
+		for (int state = 0; state < numStates; state++) {
+			if (getNumTransitions(state) == 0 && (except == null || !except.get(state)))
+				throw new PrismException("DTMC has a deadlock in state " + state);
+		}
+	}
+
+	//--- ModelExplicit ---
+
+	@Override
+	public void buildFromPrismExplicit(String filename) throws PrismException
+	{
+		throw new PrismNotSupportedException("Building mapped DTMC currently not supported from PrismExplicit");
+	}
+
+	//--- DTMC ---
+
+	@Override
+	public void forEachTransition(int state, TransitionConsumer<Double> consumer)
+	{
+		for (int i = rows.getInt(state), stop = rows.getInt(state + 1); i < stop; i++) {
+			consumer.accept(state, columns.getInt(i), probabilities.getDouble(i));
+		}
+	}
+
+	@Override
+	public void forEachDoubleTransition(int state, DoubleTransitionConsumer consumer)
+	{
+		for (int i = rows.getInt(state), stop = rows.getInt(state + 1); i < stop; i++) {
+			consumer.accept(state, columns.getInt(i), probabilities.getDouble(i));
+		}
+	}
+
+	@Override
+	public Iterator<Entry<Integer, Double>> getTransitionsIterator(final int state)
+	{
+		final int end = rows.getInt(state + 1);
+		return new Iterator<Entry<Integer, Double>>()
+		{
+			int i = rows.getInt(state);
+
+			@Override
+			public boolean hasNext()
+			{
+				return i < end;
+			}
+
+			@Override
+			public Entry<Integer, Double> next()
+			{
+				final int index = i++;
+				return new AbstractMap.SimpleImmutableEntry<>(columns.getInt(index), probabilities.getDouble(index));
+			}
+		};
+	}
+
+	@Override
+	public double mvMultSingle(final int state, final double[] vect)
+	{
+		double d = 0.0;
+		for (int i = rows.getInt(state), stop = rows.getInt(state + 1); i < stop; i++) {
+			d += probabilities.getDouble(i) * vect[columns.getInt(i)];
+		}
+		return d;
+	}
+
+	@Override
+	public double mvMultJacSingle(final int state, final double[] vect)
+	{
+		double diag = 1.0;
+		double d = 0.0;
+		for (int i = rows.getInt(state), stop = rows.getInt(state + 1); i < stop; i++) {
+			final int target = columns.getInt(i);
+			final double probability = probabilities.getDouble(i);
+			if (target != state) {
+				d += probability * vect[target];
+			} else {
+				diag -= probability;
+			}
+		}
+		if (diag > 0) {
+			d /= diag;
+		}
+		return d;
+	}
+
+	@Override
+	public double mvMultRewSingle(final int state, final double[] vect, final MCRewards<Double> mcRewards)
+	{
+		double d = mcRewards.getStateReward(state);
+		for (int i = rows.getInt(state), stop = rows.getInt(state + 1); i < stop; i++) {
+			d += probabilities.getDouble(i) * vect[columns.getInt(i)];
+		}
+		return d;
+	}
+}
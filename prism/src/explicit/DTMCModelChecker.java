@@ -556,6 +556,14 @@ public class DTMCModelChecker extends ProbModelChecker
 		case BACKWARDS_GAUSS_SEIDEL:
 		case JACOBI:
 			break; // supported
+		case SOR:
+		case BACKWARDS_SOR:
+			// supported, except for interval iteration
+			if (getDoIntervalIteration()) {
+				linEqMethod = LinEqMethod.GAUSS_SEIDEL;
+				mainLog.printWarning("Switching to linear equation solution method \"" + linEqMethod.fullName() + "\"");
+			}
+			break;
 		default:
 			linEqMethod = LinEqMethod.GAUSS_SEIDEL;
 			mainLog.printWarning("Switching to linear equation solution method \"" + linEqMethod.fullName() + "\"");
@@ -607,22 +615,14 @@ public class DTMCModelChecker extends ProbModelChecker
 		// Precomputation
 		timerProb0 = System.currentTimeMillis();
 		if (precomp && prob0) {
-			if (preRel) {
-				no = prob0(dtmc, remain, target, pre);
-			} else {
-				no = prob0(dtmc, remain, target);
-			}
+			no = prob0Memoised(dtmc, remain, target, preRel ? pre : null);
 		} else {
 			no = new BitSet();
 		}
 		timerProb0 = System.currentTimeMillis() - timerProb0;
 		timerProb1 = System.currentTimeMillis();
 		if (precomp && prob1) {
-			if (preRel) {
-				yes = prob1(dtmc, remain, target, pre);
-			} else {
-				yes = prob1(dtmc, remain, target);
-			}
+			yes = prob1Memoised(dtmc, remain, target, preRel ? pre : null);
 		} else {
 			yes = (BitSet) target.clone();
 		}
@@ -640,14 +640,24 @@ public class DTMCModelChecker extends ProbModelChecker
 			switch (linEqMethod) {
 			case POWER:
 				iterationMethod = new IterationMethodPower(termCritAbsolute, termCritParam);
+				configureIterationMethod(iterationMethod);
 				break;
 			case JACOBI:
 				iterationMethod = new IterationMethodJacobi(termCritAbsolute, termCritParam);
+				configureIterationMethod(iterationMethod);
 				break;
 			case GAUSS_SEIDEL:
 			case BACKWARDS_GAUSS_SEIDEL: {
 				boolean backwards = linEqMethod == LinEqMethod.BACKWARDS_GAUSS_SEIDEL;
 				iterationMethod = new IterationMethodGS(termCritAbsolute, termCritParam, backwards);
+				configureIterationMethod(iterationMethod);
+				break;
+			}
+			case SOR:
+			case BACKWARDS_SOR: {
+				boolean backwards = linEqMethod == LinEqMethod.BACKWARDS_SOR;
+				iterationMethod = new IterationMethodGS(termCritAbsolute, termCritParam, backwards, linEqMethodParam);
+				configureIterationMethod(iterationMethod);
 				break;
 			}
 			default:
@@ -677,6 +687,48 @@ public class DTMCModelChecker extends ProbModelChecker
 	}
 
 
+	/**
+	 * Prob0 precomputation (see {@link #prob0(DTMC, BitSet, BitSet, PredecessorRelation)}),
+	 * reusing the result of an earlier call with the same arguments on the same model,
+	 * if it is memoised in the model's workspace.
+	 * @param pre The predecessor relation of the DTMC (optional: null means "don't use")
+	 */
+	protected BitSet prob0Memoised(DTMC<?> dtmc, BitSet remain, BitSet target, PredecessorRelation pre)
+	{
+		ModelWorkspace workspace = getWorkspace(dtmc);
+		BitSet soln = (workspace == null) ? null : workspace.getPrecomputation("prob0", remain, target, false);
+		if (soln != null) {
+			if (!silentPrecomputations)
+				mainLog.println("Prob0 result reused from earlier computation");
+			return soln;
+		}
+		soln = (pre != null) ? prob0(dtmc, remain, target, pre) : prob0(dtmc, remain, target);
+		if (workspace != null)
+			workspace.storePrecomputation("prob0", remain, target, false, soln);
+		return soln;
+	}
+
+	/**
+	 * Prob1 precomputation (see {@link #prob1(DTMC, BitSet, BitSet, PredecessorRelation)}),
+	 * reusing the result of an earlier call with the same arguments on the same model,
+	 * if it is memoised in the model's workspace.
+	 * @param pre The predecessor relation of the DTMC (optional: null means "don't use")
+	 */
+	protected BitSet prob1Memoised(DTMC<?> dtmc, BitSet remain, BitSet target, PredecessorRelation pre)
+	{
+		ModelWorkspace workspace = getWorkspace(dtmc);
+		BitSet soln = (workspace == null) ? null : workspace.getPrecomputation("prob1", remain, target, false);
+		if (soln != null) {
+			if (!silentPrecomputations)
+				mainLog.println("Prob1 result reused from earlier computation");
+			return soln;
+		}
+		soln = (pre != null) ? prob1(dtmc, remain, target, pre) : prob1(dtmc, remain, target);
+		if (workspace != null)
+			workspace.storePrecomputation("prob1", remain, target, false, soln);
+		return soln;
+	}
+
 	/**
 	 * Prob0 precomputation algorithm (using predecessor relation),
 	 * i.e. determine the states of a DTMC which, with probability 0,
@@ -971,6 +1023,8 @@ public class DTMCModelChecker extends ProbModelChecker
 
 		// Store num states
 		n = dtmc.getNumStates();
+		ModelWorkspace workspace = getWorkspace(dtmc);
+		double initLocal[] = null;
 
 		// Initialise solution vectors. Use (where available) the following in order of preference:
 		// (1) exact answer, if already known; (2) 1.0/0.0 if in yes/no; (3) passed in initial value; (4) initVal
@@ -985,13 +1039,15 @@ public class DTMCModelChecker extends ProbModelChecker
 					init[i] = yes.get(i) ? 1.0 : no.get(i) ? 0.0 : init[i];
 			}
 		} else {
-			init = new double[n];
+			// (storage is recycled via the model's workspace, if available)
+			init = (workspace != null) ? workspace.getDoubleArray() : new double[n];
+			initLocal = init;
 			for (i = 0; i < n; i++)
 				init[i] = yes.get(i) ? 1.0 : no.get(i) ? 0.0 : initVal;
 		}
 
 		// Determine set of states actually need to compute values for
-		unknown = new BitSet();
+		unknown = (workspace != null) ? workspace.getBitSet() : new BitSet();
 		unknown.set(0, n);
 		unknown.andNot(yes);
 		unknown.andNot(no);
@@ -1005,6 +1061,7 @@ public class DTMCModelChecker extends ProbModelChecker
 			iterationsExport.exportVector(init, 0);
 
 		IntSet unknownStates = IntSet.asIntSet(unknown);
+		ModelCheckerResult res;
 
 		if (topological) {
 			// Compute SCCInfo, including trivial SCCs in the subgraph obtained when only considering
@@ -1016,11 +1073,19 @@ public class DTMCModelChecker extends ProbModelChecker
 			};
 
 			// run the actual value iteration
-			return iterationMethod.doTopologicalValueIteration(this, description, sccs, iterationReachProbs, singletonSCCSolver, timer, iterationsExport);
+			res = iterationMethod.doTopologicalValueIteration(this, description, sccs, iterationReachProbs, singletonSCCSolver, timer, iterationsExport);
 		} else {
 			// run the actual value iteration
-			return iterationMethod.doValueIteration(this, description, iterationReachProbs, unknownStates, timer, iterationsExport);
+			res = iterationMethod.doValueIteration(this, description, iterationReachProbs, unknownStates, timer, iterationsExport);
+		}
+
+		// Return temporary storage to the workspace
+		if (workspace != null) {
+			workspace.release(unknown);
+			if (initLocal != null && res.soln != initLocal)
+				workspace.release(initLocal);
 		}
+		return res;
 	}
 
 
@@ -1036,6 +1101,7 @@ public class DTMCModelChecker extends ProbModelChecker
 	protected ModelCheckerResult computeReachProbsValIter(DTMC<Double> dtmc, BitSet no, BitSet yes, double init[], BitSet known) throws PrismException
 	{
 		IterationMethodPower iterationMethod = new IterationMethodPower(termCrit == TermCrit.ABSOLUTE, termCritParam);
+		configureIterationMethod(iterationMethod);
 		return doValueIterationReachProbs(dtmc, no, yes, init, known, iterationMethod, false);
 	}
 
@@ -1066,6 +1132,7 @@ public class DTMCModelChecker extends ProbModelChecker
 	protected ModelCheckerResult computeReachProbsGaussSeidel(DTMC<Double> dtmc, BitSet no, BitSet yes, double init[], BitSet known, boolean backwards) throws PrismException
 	{
 		IterationMethodGS iterationMethod = new IterationMethodGS(termCrit == TermCrit.ABSOLUTE, termCritParam, backwards);
+		configureIterationMethod(iterationMethod);
 		return doValueIterationReachProbs(dtmc, no, yes, init, known, iterationMethod, false);
 	}
 
@@ -1701,6 +1768,14 @@ public class DTMCModelChecker extends ProbModelChecker
 		case BACKWARDS_GAUSS_SEIDEL:
 		case JACOBI:
 			break; // supported
+		case SOR:
+		case BACKWARDS_SOR:
+			// supported, except for interval iteration
+			if (getDoIntervalIteration()) {
+				linEqMethod = LinEqMethod.GAUSS_SEIDEL;
+				mainLog.printWarning("Switching to linear equation solution method \"" + linEqMethod.fullName() + "\"");
+			}
+			break;
 		default:
 			linEqMethod = LinEqMethod.GAUSS_SEIDEL;
 			mainLog.printWarning("Switching to linear equation solution method \"" + linEqMethod.fullName() + "\"");
@@ -1729,14 +1804,8 @@ public class DTMCModelChecker extends ProbModelChecker
 
 		// Precomputation (not optional)
 		timerProb1 = System.currentTimeMillis();
-		if (preRel) {
-			// prob1 via predecessor relation
-			PredecessorRelation pre = dtmc.getPredecessorRelation(this, true);
-			inf = prob1(dtmc, null, target, pre);
-		} else {
-			// prob1 via fixed-point algorithm
-			inf = prob1(dtmc, null, target);
-		}
+		// (via predecessor relation or fixed-point algorithm)
+		inf = prob1Memoised(dtmc, null, target, preRel ? dtmc.getPredecessorRelation(this, true) : null);
 		inf.flip(0, n);
 		timerProb1 = System.currentTimeMillis() - timerProb1;
 
@@ -1752,14 +1821,24 @@ public class DTMCModelChecker extends ProbModelChecker
 			switch (linEqMethod) {
 			case POWER:
 				iterationMethod = new IterationMethodPower(termCritAbsolute, termCritParam);
+				configureIterationMethod(iterationMethod);
 				break;
 			case JACOBI:
 				iterationMethod = new IterationMethodJacobi(termCritAbsolute, termCritParam);
+				configureIterationMethod(iterationMethod);
 				break;
 			case GAUSS_SEIDEL:
 			case BACKWARDS_GAUSS_SEIDEL: {
 				boolean backwards = linEqMethod == LinEqMethod.BACKWARDS_GAUSS_SEIDEL;
 				iterationMethod = new IterationMethodGS(termCritAbsolute, termCritParam, backwards);
+				configureIterationMethod(iterationMethod);
+				break;
+			}
+			case SOR:
+			case BACKWARDS_SOR: {
+				boolean backwards = linEqMethod == LinEqMethod.BACKWARDS_SOR;
+				iterationMethod = new IterationMethodGS(termCritAbsolute, termCritParam, backwards, linEqMethodParam);
+				configureIterationMethod(iterationMethod);
 				break;
 			}
 			default:
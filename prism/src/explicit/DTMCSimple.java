@@ -112,6 +112,7 @@ public class DTMCSimple<Value> extends DTMCExplicit<Value> implements ModelSimpl
 		// Clear data structures and update stats
 		numTransitions -= trans.get(i).size();
 		trans.get(i).clear();
+		clearWorkspace();
 	}
 
 	@Override
@@ -128,6 +129,7 @@ public class DTMCSimple<Value> extends DTMCExplicit<Value> implements ModelSimpl
 			trans.add(new Distribution<Value>(getEvaluator()));
 			numStates++;
 		}
+		clearWorkspace();
 	}
 
 	@Override
@@ -184,6 +186,7 @@ public class DTMCSimple<Value> extends DTMCExplicit<Value> implements ModelSimpl
 		if (!getEvaluator().isZero(prob))
 			numTransitions++;
 		distr.set(j, prob);
+		clearWorkspace();
 	}
 
 	/**
@@ -195,6 +198,7 @@ public class DTMCSimple<Value> extends DTMCExplicit<Value> implements ModelSimpl
 			if (!getEvaluator().isZero(prob))
 				numTransitions++;
 		}
+		clearWorkspace();
 	}
 
 	// Accessors (for Model)
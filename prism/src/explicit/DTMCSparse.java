@@ -38,6 +38,8 @@ import java.util.PrimitiveIterator.OfInt;
 import java.util.function.Function;
 
 import common.IterableStateSet;
+import common.Parallel;
+import common.functions.IntDoubleConsumer;
 import common.iterable.PrimitiveIterable;
 import explicit.rewards.MCRewards;
 import prism.PrismException;
@@ -134,6 +136,22 @@ public class DTMCSparse extends DTMCExplicit<Double>
 		}
 	}
 
+	/**
+	 * Constructor: Build a DTMCSparse directly from its sparse matrix arrays
+	 * (which are stored, not copied). Initial states, labels, etc. are not set.
+	 * @param numStates Number of states
+	 * @param rows Start of the transitions for each state (size numStates+1)
+	 * @param columns Destination of each transition
+	 * @param probabilities Probability of each transition
+	 */
+	public DTMCSparse(int numStates, int[] rows, int[] columns, double[] probabilities)
+	{
+		initialise(numStates);
+		this.rows = rows;
+		this.columns = columns;
+		this.probabilities = probabilities;
+	}
+
 
 
 	//--- Model ---
@@ -349,6 +367,120 @@ public class DTMCSparse extends DTMCExplicit<Double>
 		return d;
 	}
 
+	/**
+	 * Do a matrix-vector multiplication for the states in {@code states},
+	 * processing blocks of states in parallel using {@code numThreads} threads.
+	 * The result is identical to that of {@link #mvMult(double[], double[], OfInt)}.
+	 * @param vect Vector to multiply by
+	 * @param result Vector to store result in
+	 * @param states States to do the multiplication for
+	 * @param numThreads Number of threads to use
+	 */
+	public void mvMultParallel(final double[] vect, final double[] result, final int[] states, final int numThreads)
+	{
+		mvMultParallel(vect, (state, d) -> result[state] = d, states, numThreads);
+	}
+
+	/**
+	 * As {@link #mvMultParallel(double[], double[], int[], int)}, but passing the result for each state
+	 * to {@code result} rather than storing it in an array (e.g. to store it off-heap).
+	 */
+	public void mvMultParallel(final double[] vect, final IntDoubleConsumer result, final int[] states, final int numThreads)
+	{
+		Parallel.forEachBlock(numThreads, 0, states.length, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				final int state = states[i];
+				result.accept(state, mvMultSingle(state, vect));
+			}
+		});
+	}
+
+	/**
+	 * Do a Jacobi-style matrix-vector multiplication for the states in {@code states},
+	 * processing blocks of states in parallel using {@code numThreads} threads.
+	 * The result is identical to that of {@link #mvMultJac(double[], double[], OfInt)}.
+	 * @param vect Vector to multiply by
+	 * @param result Vector to store result in
+	 * @param states States to do the multiplication for
+	 * @param numThreads Number of threads to use
+	 */
+	public void mvMultJacParallel(final double[] vect, final double[] result, final int[] states, final int numThreads)
+	{
+		mvMultJacParallel(vect, (state, d) -> result[state] = d, states, numThreads);
+	}
+
+	/**
+	 * As {@link #mvMultJacParallel(double[], double[], int[], int)}, but passing the result for each state
+	 * to {@code result} rather than storing it in an array (e.g. to store it off-heap).
+	 */
+	public void mvMultJacParallel(final double[] vect, final IntDoubleConsumer result, final int[] states, final int numThreads)
+	{
+		Parallel.forEachBlock(numThreads, 0, states.length, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				final int state = states[i];
+				result.accept(state, mvMultJacSingle(state, vect));
+			}
+		});
+	}
+
+	/**
+	 * Do a matrix-vector multiplication and sum of rewards for the states in {@code states},
+	 * processing blocks of states in parallel using {@code numThreads} threads.
+	 * The result is identical to that of {@link #mvMultRew(double[], MCRewards, double[], OfInt)}.
+	 * @param vect Vector to multiply by
+	 * @param mcRewards The rewards
+	 * @param result Vector to store result in
+	 * @param states States to do the multiplication for
+	 * @param numThreads Number of threads to use
+	 */
+	public void mvMultRewParallel(final double[] vect, final MCRewards<Double> mcRewards, final double[] result, final int[] states, final int numThreads)
+	{
+		mvMultRewParallel(vect, mcRewards, (state, d) -> result[state] = d, states, numThreads);
+	}
+
+	/**
+	 * As {@link #mvMultRewParallel(double[], MCRewards, double[], int[], int)}, but passing the result for each state
+	 * to {@code result} rather than storing it in an array (e.g. to store it off-heap).
+	 */
+	public void mvMultRewParallel(final double[] vect, final MCRewards<Double> mcRewards, final IntDoubleConsumer result, final int[] states, final int numThreads)
+	{
+		Parallel.forEachBlock(numThreads, 0, states.length, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				final int state = states[i];
+				result.accept(state, mvMultRewSingle(state, vect, mcRewards));
+			}
+		});
+	}
+
+	/**
+	 * Do a Jacobi-style matrix-vector multiplication and sum of rewards for the states in {@code states},
+	 * processing blocks of states in parallel using {@code numThreads} threads.
+	 * The result is identical to that of {@link #mvMultRewJac(double[], MCRewards, double[], OfInt)}.
+	 * @param vect Vector to multiply by
+	 * @param mcRewards The rewards
+	 * @param result Vector to store result in
+	 * @param states States to do the multiplication for
+	 * @param numThreads Number of threads to use
+	 */
+	public void mvMultRewJacParallel(final double[] vect, final MCRewards<Double> mcRewards, final double[] result, final int[] states, final int numThreads)
+	{
+		mvMultRewJacParallel(vect, mcRewards, (state, d) -> result[state] = d, states, numThreads);
+	}
+
+	/**
+	 * As {@link #mvMultRewJacParallel(double[], MCRewards, double[], int[], int)}, but passing the result for each state
+	 * to {@code result} rather than storing it in an array (e.g. to store it off-heap).
+	 */
+	public void mvMultRewJacParallel(final double[] vect, final MCRewards<Double> mcRewards, final IntDoubleConsumer result, final int[] states, final int numThreads)
+	{
+		Parallel.forEachBlock(numThreads, 0, states.length, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				final int state = states[i];
+				result.accept(state, mvMultRewJacSingle(state, vect, mcRewards));
+			}
+		});
+	}
+
 	@Override
 	public void vmMult(final double[] vect, final double[] result)
 	{
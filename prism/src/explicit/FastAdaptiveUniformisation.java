@@ -30,12 +30,9 @@ package explicit;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ListIterator;
-import java.util.Map;
 
 import parser.State;
 import parser.Values;
@@ -54,7 +51,6 @@ import prism.PrismSettings;
  *   - by delta (as current)
  *   - by max probability loss per iteration (requires sort by prob)
  *   - by max number of states (requires sort by prob)
- * - compress states to Bitset (memory waste currently excessive e.g. for mapk)
  * - do not delete states immediately but only after they have been below
  *   delta for a specified number of iterations to avoid deleting and exploring
  *   the same states over and over again
@@ -77,320 +73,6 @@ import prism.PrismSettings;
  */
 public final class FastAdaptiveUniformisation extends PrismComponent
 {
-	/**
-	 * Stores properties of states needed for fast adaptive method.
-	 * This includes the current-step probability, next-state probability,
-	 * and the transient probability (sum of step probabilities weighted
-	 * with birth process distributions). It also contains the list of successor
-	 * states and the rates to them, the number of incoming transitions
-	 * (references) and a flag whether the state has a significant probability
-	 * mass (alive).
-	 */
-	private final static class StateProp
-	{
-		/** current-step probability.
-		 * should contain initial probability before actual analysis is started.
-		 * will contain transient probability after analysis. */
-		private double prob;
-		/** next-state probability */
-		private double nextProb;
-		/** sum probability weighted with birth process distribution */
-		private double sum;
-		/** reward of this state */
-		private double reward;
-		/** rates to successor states */
-		private double[] succRates;
-		/** successor states */
-		private StateProp[] succStates;
-		/** number of incoming transitions of relevant states */
-		private int references;
-		/** true if and only if state probability above relevance threshold */
-		private boolean alive;
-		
-		/**
-		 * Constructs a new state property object.
-		 */
-		StateProp()
-		{
-			prob = 0.0;
-			nextProb = 0.0;
-			sum = 0.0;
-			reward = 0.0;
-			succRates = null;
-			succStates = null;
-			references = 0;
-			alive = true;
-		}
-		
-		/**
-		 * Set current state probability.
-		 * 
-		 * @param prob current state probability to set
-		 */
-		void setProb(double prob)
-		{
-			this.prob = prob;
-		}
-
-		/**
-		 * Gets current state probability.
-		 * 
-		 * @return current state probability
-		 */
-		double getProb()
-		{
-			return prob;
-		}
-
-		/**
-		 * Sets next state probability.
-		 * 
-		 * @param nextProb next state probability to set
-		 */
-		void setNextProb(double nextProb)
-		{
-			this.nextProb = nextProb;
-		}
-
-		/**
-		 * Adds value to next state probability.
-		 * 
-		 * @param add value to add to next state probability
-		 */
-		void addToNextProb(double add)
-		{
-			this.nextProb += add;
-		}
-
-		/**
-		 * Sets weighted sum probability.
-		 * 
-		 * @param sum weighted sum probability to set.
-		 */
-		void setSum(double sum)
-		{
-			this.sum = sum;
-		}
-
-		/**
-		 * Adds current probability times {@code poisson} to weighted sum probability.
-		 * 
-		 * @param poisson this value times current probability will be added to sum probability
-		 */
-		void addToSum(double poisson)
-		{
-			sum += poisson * prob;
-		}
-
-		/**
-		 * Gets weighted sum probability.
-		 * 
-		 * @return weighted sum probability
-		 */
-		double getSum()
-		{
-			return sum;
-		}
-
-		/**
-		 * Prepares next iteration step.
-		 * Sets current probability to next probability, and sets next
-		 * probability to zero.
-		 */
-		void prepareNextIteration()
-		{
-			prob = nextProb;
-			nextProb = 0.0;
-		}
-
-		/**
-		 * Set state reward.
-		 * 
-		 * @param reward state reward to set
-		 */
-		void setReward(double reward)
-		{
-			this.reward = reward;
-		}
-
-		/**
-		 * Get state reward.
-		 * 
-		 * @return state reward
-		 */
-		double getReward()
-		{
-			return reward;
-		}
-
-		/**
-		 * Sets rates to successor states.
-		 * Expects an array of rates, so that the rate to the successor
-		 * state set by {@setSuccStates} is the one given by the corresponding
-		 * index. The value {@code null} is allowed here.
-		 * 
-		 * @param succRates rates to successor states.
-		 */
-		void setSuccRates(double[] succRates)
-		{
-			this.succRates = succRates;
-		}
-
-		/**
-		 * Sets successor states.
-		 * Expects an array of successor states, so that the rate set by
-		 * {@setSuccRates} is the one given by the corresponding index.
-		 * The value {@code null} is allowed here.
-		 * 
-		 * @param succStates successor states
-		 */
-		void setSuccStates(StateProp[] succStates)
-		{
-			this.succStates = succStates;
-			if (succStates != null) {
-				for (int succNr = 0; succNr < succStates.length; succNr++) {
-					succStates[succNr].incReferences();
-				}
-			}
-		}
-
-		/**
-		 * Returns number of successor states of this state.
-		 * 
-		 * @return number of successor states
-		 */
-		int getNumSuccs()
-		{
-			if (succRates == null) {
-				return 0;
-			} else {
-				return succRates.length;
-			}
-		}
-		
-		/**
-		 * Gets successor rates.
-		 * 
-		 * @return successor rates
-		 */
-		double[] getSuccRates()
-		{
-			return succRates;
-		}
-
-		/**
-		 * Gets successor states.
-		 * 
-		 * @return successor states
-		 */
-		StateProp[] getSuccStates()
-		{
-			return succStates;
-		}
-
-		/**
-		 * Sets whether state is alive.
-		 * 
-		 * @param alive whether state should be set to being alive
-		 */
-		void setAlive(boolean alive)
-		{
-			this.alive = alive;
-		}
-
-		/**
-		 * Checks whether state is alive.
-		 * 
-		 * @return true iff state is alive
-		 */
-		boolean isAlive()
-		{
-			return alive;
-		}
-
-		/**
-		 * Increments the number of references of this state.
-		 * The number of references should correspond to the number of alive
-		 * states which have this state as successor state.
-		 */
-		void incReferences()
-		{
-			references++;
-		}
-
-		/**
-		 * Decrements the number of references of this state.
-		 * The number of references should correspond to the number of alive
-		 * states which have this state as successor state.
-		 */
-		void decReferences()
-		{
-			references--;
-		}
-
-		/**
-		 * Deletes this state.
-		 * This means basically removing all of its successors. Beforehand,
-		 * their reference counter is decreased, because this state does no
-		 * longer count as a model state. It is left in the model however,
-		 * because it might still be the successor state of some alive state.
-		 */
-		void delete()
-		{
-			if (null != succStates) {
-				for (int succNr = 0; succNr < succStates.length; succNr++) {
-					succStates[succNr].decReferences();
-				}
-			}
-			succStates = null;
-			succRates = null;
-			alive = false;
-			prob = 0.0;
-			nextProb = 0.0;
-		}
-
-		/**
-		 * Checks whether this state can be removed.
-		 * This is only the case if its probability is below the threshold
-		 * specified, and then only if there are no transitions from alive
-		 * states into this state.
-		 * 
-		 * @return true if and only if this state can be removed
-		 */
-		boolean canRemove()
-		{
-			return !alive && (0 == references);
-		}
-
-		/**
-		 * Checks whether this state has successors or not.
-		 * Will be true if and only if successor state array is nonnull.
-		 * 
-		 * @return whether this state has successors or not
-		 */
-		boolean hasSuccs()
-		{
-			return succStates != null;
-		}
-
-		/**
-		 * Returns the sum of all rates leaving to successor states.
-		 * 
-		 * @return sum of all rates leaving to successor states
-		 */
-		double sumRates()
-		{
-			if (null == succRates) {
-				return 0.0;
-			}
-			double sumRates = 0.0;
-			for (int rateNr = 0; rateNr < succRates.length; rateNr++) {
-				sumRates += succRates[rateNr];
-			}
-			return sumRates;
-		}
-	}
-	
 	/**
 	 * Enum to store type of analysis to perform.
 	 */
@@ -422,13 +104,41 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 	private double value;
 	/** model constants */
 	private Values constantValues = null;
-	/** maps from state (assignment of variable values) to property object */
-	private LinkedHashMap<State,StateProp> states;
+	/** packed storage of the states in the current window; the per-state arrays below are indexed by its slots */
+	private PackedStateTable states;
+	/** current-step probability.
+	 * should contain initial probability before actual analysis is started.
+	 * will contain transient probability after analysis. */
+	private double[] prob;
+	/** next-state probability */
+	private double[] nextProb;
+	/** sum probability weighted with birth process distribution */
+	private double[] sum;
+	/** reward of each state */
+	private double[] reward;
+	/** sum of all rates leaving to successor states */
+	private double[] exitRate;
+	/** number of incoming transitions of relevant states */
+	private int[] references;
+	/** true if and only if state probability above relevance threshold */
+	private boolean[] alive;
+	/** start of the successors of each state in succTarget/succRate, or -1 if not (yet) computed */
+	private int[] succStart;
+	/** number of successors of each state */
+	private int[] succCount;
+	/** successor slots, stored contiguously per state (CSR-like cache, compacted when full) */
+	private int[] succTarget;
+	/** rates to successor states, aligned with succTarget */
+	private double[] succRate;
+	/** number of entries of succTarget/succRate in use */
+	private int succSize;
+	/** number of entries of succTarget/succRate belonging to states whose successors were dropped */
+	private int succGarbage;
 	/** states for which successor rates are to be computed */
-	private ArrayList<State> addDistr;
-	/** states which are to be deleted */
-	private ArrayList<State> deleteStates;
-	/** initial size of state hash map */
+	private int[] addDistr;
+	/** number of entries in addDistr */
+	private int numAddDistr;
+	/** initial number of state slots */
 	private final int initSize = 3000;
 	/** maximal total leaving rate of all states alive */
 	private double maxRate = 0.0;
@@ -457,6 +167,10 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 	private double totalProbLoss;
 	/** probability mass intentionally set to zero */
 	private double totalProbSetZero;
+	/** sink expression with special labels expanded, for each combination of "deadlock" (bit 0) and "init" (bit 1) */
+	private Expression[] sinkExpanded;
+	/** target expression with special labels expanded, for each combination of "deadlock" (bit 0) and "init" (bit 1) */
+	private Expression[] targetExpanded;
 	
 	/**
 	 * Constructor.
@@ -518,6 +232,7 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 	public void setTarget(Expression target)
 	{
 		this.target = target;
+		targetExpanded = null;
 	}
 	
 	/**
@@ -556,22 +271,14 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 	public void setSink(Expression sink) throws PrismException
 	{
 		this.sink = sink;
+		sinkExpanded = null;
 		if (states != null) {
-			for (Map.Entry<State,StateProp> statePair : states.entrySet()) {
-				State state = statePair.getKey();
-				StateProp prop = statePair.getValue();
+			for (int slot = states.getFirstSlot(); slot >= 0; slot = states.getNextSlot(slot)) {
+				State state = states.getState(slot);
 				modelGen.exploreState(state);
-				specialLabels.setLabel(0, modelGen.getNumTransitions() == 0 ? Expression.True() : Expression.False());
-				specialLabels.setLabel(1, initStates.contains(state) ? Expression.True() : Expression.False());
-				Expression evSink = sink.deepCopy();
-				evSink = (Expression) evSink.expandLabels(specialLabels);
-				if (evSink.evaluateBoolean(constantValues, state)) {
-					double[] succRates = new double[1];
-					StateProp[] succStates = new StateProp[1];
-					succRates[0] = 1.0;
-					succStates[0] = states.get(state);
-					prop.setSuccRates(succRates);
-					prop.setSuccStates(succStates);
+				if (isSink(state, modelGen.getNumTransitions() == 0)) {
+					releaseSuccessors(slot);
+					setSelfLoop(slot);
 				}
 			}
 		}
@@ -616,24 +323,22 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 		}
 		
 		/* prepare fast adaptive uniformisation */
-		addDistr = new ArrayList<State>();
-		deleteStates = new ArrayList<State>();
-		states = new LinkedHashMap<State,StateProp>(initSize);
+		initStorage();
 		value = 0.0;
 		initStates = new HashSet<State>();
 		ListIterator<State> it = initDist.statesList.listIterator();
 		double[] values = initDist.getDoubleArray();
 		maxRate = 0.0;
+		int[] initSlots = new int[initDist.size];
 		for (int stateNr = 0; stateNr < initDist.size; stateNr++) {
 			State initState = it.next();
-			addToModel(initState);
+			initSlots[stateNr] = addToModel(initState);
 		}
-		it = initDist.statesList.listIterator();
 		for (int stateNr = 0; stateNr < initDist.size; stateNr++) {
-			State initState = it.next();
-			computeStateRatesAndRewards(initState);
-			states.get(initState).setProb(values[stateNr]);
-			maxRate = Math.max(maxRate, states.get(initState).sumRates() * 1.02);			
+			int slot = initSlots[stateNr];
+			computeStateRatesAndRewards(slot);
+			prob[slot] = values[stateNr];
+			maxRate = Math.max(maxRate, exitRate[slot] * 1.02);
 		}
 
 		/* run fast adaptive uniformisation */
@@ -643,9 +348,9 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 		ArrayList<State> statesList = new ArrayList<State>(states.size());
 		double[] probsArr = new double[states.size()];
 		int probsArrEntry = 0;
-		for (Map.Entry<State,StateProp> statePair : states.entrySet()) {
-			statesList.add(statePair.getKey());
-			probsArr[probsArrEntry] = statePair.getValue().getProb();
+		for (int slot = states.getFirstSlot(); slot >= 0; slot = states.getNextSlot(slot)) {
+			statesList.add(states.getState(slot));
+			probsArr[probsArrEntry] = prob[slot];
 			probsArrEntry++;
 		}
 		StateValues probs = StateValues.createFromDoubleArray(probsArr, statesList);
@@ -666,10 +371,8 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 	 */
 	public void computeTransientProbsAdaptive(double time) throws PrismException
 	{
-		if (addDistr == null) {
-			addDistr = new ArrayList<State>();
-			deleteStates = new ArrayList<State>();
-			states = new LinkedHashMap<State,StateProp>(initSize);
+		if (states == null) {
+			initStorage();
 			value = 0.0;
 			prepareInitialDistribution();
 		}
@@ -680,44 +383,46 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 		}
 		if (initIval != 0.0) {
 			iterateAdaptiveInterval(initIval);
-			for (StateProp prop : states.values()) {
-				prop.setProb(prop.getSum());
-				prop.setSum(0.0);
-				prop.setNextProb(0.0);
-			}
+			restartFromSum();
 			updateStates();
 		}
 
 		for (int ivalNr = 0; ivalNr < numIntervals; ivalNr++) {
 			double interval = (time - initIval) / numIntervals;
 			iterateAdaptiveInterval(interval);
-			for (StateProp prop : states.values()) {
-				prop.setProb(prop.getSum());
-				prop.setSum(0.0);
-				prop.setNextProb(0.0);
-			}
+			restartFromSum();
 			updateStates();
 		}
 		if (AnalysisType.REW_INST == analysisType) {
-			for (StateProp prop : states.values()) {
-				value += prop.getProb() * prop.getReward();
+			for (int slot = states.getFirstSlot(); slot >= 0; slot = states.getNextSlot(slot)) {
+				value += prob[slot] * reward[slot];
 			}
-		} else {
-			for (Map.Entry<State,StateProp> statePair : states.entrySet()) {
-				State state = statePair.getKey();
-				StateProp prop = statePair.getValue();
-				modelGen.exploreState(state);
-				specialLabels.setLabel(0, modelGen.getNumTransitions() == 0 ? Expression.True() : Expression.False());
-				specialLabels.setLabel(1, initStates.contains(state) ? Expression.True() : Expression.False());
-				Expression evTarget = target.deepCopy();
-				evTarget = (Expression) evTarget.expandLabels(specialLabels);
-				if (AnalysisType.REACH == analysisType) {
-					value += prop.getProb() * (evTarget.evaluateBoolean(constantValues, state) ? 1.0 : 0.0);
+		} else if (AnalysisType.REACH == analysisType) {
+			for (int slot = states.getFirstSlot(); slot >= 0; slot = states.getNextSlot(slot)) {
+				if (prob[slot] != 0.0) {
+					State state = states.getState(slot);
+					modelGen.exploreState(state);
+					if (isTarget(state, modelGen.getNumTransitions() == 0)) {
+						value += prob[slot];
+					}
 				}
 			}
 		}
 	}
 
+	/**
+	 * Sets current probabilities to the weighted sum probabilities
+	 * of the interval just finished and resets the latter.
+	 */
+	private void restartFromSum()
+	{
+		for (int slot = 0, numSlots = states.getNumSlots(); slot < numSlots; slot++) {
+			prob[slot] = sum[slot];
+			sum[slot] = 0.0;
+			nextProb[slot] = 0.0;
+		}
+	}
+
 	/**
 	 * Performs fast adaptive uniformisation for a single time interval.
 	 * 
@@ -741,13 +446,11 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 			if ((itersUnchanged == arrayThreshold)) {
 				iters = arrayIterate(iters);
 			} else {
-			    long birthProcTimer = System.currentTimeMillis();
 				double prob = birthProc.calculateNextProb(maxRate);
-				birthProcTimer = System.currentTimeMillis() - birthProcTimer;
 				birthProbSum += prob;
 				collectValuePostIter(prob, birthProbSum);
-				for (StateProp prop : states.values()) {
-					prop.addToSum(prob);
+				for (int slot = 0, numSlots = states.getNumSlots(); slot < numSlots; slot++) {
+					sum[slot] += prob * this.prob[slot];
 				}
 				
 				mvMult(maxRate);
@@ -769,9 +472,6 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 	 * to the original data structure. The method returns the current
 	 * iteration.
 	 * 
-	 * In case border states become
-	 * relevant, this data structure can 
-	 * 
 	 * @param iters current iteration number
 	 * @return current iteration after termination of this method
 	 * @throws PrismException thrown if problems in underlying methods occur
@@ -779,26 +479,25 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 	private int arrayIterate(int iters) throws PrismException
 	{
 		/* build backwards matrix and map values */
+		int numSlots = states.getNumSlots();
 		int numStates = states.size();
 		int numTransitions = 0;
-		for (StateProp prop : states.values()) {
-			numTransitions += prop.getNumSuccs() + 1;
-		}
 		int stateNr = 0;
-		HashMap<StateProp,Integer> stateToNumber = new HashMap<StateProp,Integer>(numStates);
-		StateProp[] numberToState = new StateProp[numStates];
-		for (StateProp prop : states.values()) {
-			if (prop.isAlive()) {
-				stateToNumber.put(prop, stateNr);
-				numberToState[stateNr] = prop;
+		int[] slotToNumber = new int[numSlots];
+		int[] numberToSlot = new int[numStates];
+		for (int slot = states.getFirstSlot(); slot >= 0; slot = states.getNextSlot(slot)) {
+			numTransitions += succCount[slot] + 1;
+			if (alive[slot]) {
+				slotToNumber[slot] = stateNr;
+				numberToSlot[stateNr] = slot;
 				stateNr++;
 			}
 		}
 		int numAlive = stateNr;
-		for (StateProp prop : states.values()) {
-			if (!prop.isAlive()) {
-				stateToNumber.put(prop, stateNr);
-				numberToState[stateNr] = prop;
+		for (int slot = states.getFirstSlot(); slot >= 0; slot = states.getNextSlot(slot)) {
+			if (!alive[slot]) {
+				slotToNumber[slot] = stateNr;
+				numberToSlot[stateNr] = slot;
 				stateNr++;
 			}
 		}
@@ -807,33 +506,17 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 		int[] rows = new int[numStates + 1];
 		int[] cols = new int[numTransitions];
 		double[] outRates = new double[numStates];
-		for (StateProp prop : states.values()) {
-			StateProp[] succStates = prop.getSuccStates();
-			if (succStates != null) {
-				for (StateProp succ : succStates) {
-					rows[stateToNumber.get(succ) + 1]++;
-				}
-			}
-			rows[stateToNumber.get(prop) + 1]++;
-		}
-		for (stateNr = 0; stateNr < numStates; stateNr++) {
-			rows[stateNr + 1] += rows[stateNr];
-		}
+		countIncoming(rows, slotToNumber, numberToSlot);
 
-		for (StateProp prop : states.values()) {
-			int stateNumber = stateToNumber.get(prop);
-			StateProp[] succStates = prop.getSuccStates();
-			double[] succRates = prop.getSuccRates();
-			if (succStates != null) {
-				for (int i = 0; i < succStates.length; i++) {
-					StateProp succState = succStates[i];
-					int succStateNumber = stateToNumber.get(succState);
-					double succRate = succRates[i];
-					cols[rows[succStateNumber]] = stateNumber;
-					inProbs[rows[succStateNumber]] = succRate / maxRate;
-					rows[succStateNumber]++;
-					outRates[stateNumber] += succRate;
-				}
+		for (stateNr = 0; stateNr < numStates; stateNr++) {
+			int slot = numberToSlot[stateNr];
+			for (int t = succStart[slot], end = t + succCount[slot]; t < end; t++) {
+				int succStateNumber = slotToNumber[succTarget[t]];
+				double succRate = this.succRate[t];
+				cols[rows[succStateNumber]] = stateNr;
+				inProbs[rows[succStateNumber]] = succRate / maxRate;
+				rows[succStateNumber]++;
+				outRates[stateNr] += succRate;
 			}
 		}
 
@@ -843,36 +526,24 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 		}
 
 		Arrays.fill(rows, 0);
-		for (StateProp prop : states.values()) {
-			StateProp[] succStates = prop.getSuccStates();
-			if (succStates != null) {
-				for (StateProp succ : succStates) {
-					rows[stateToNumber.get(succ) + 1]++;
-				}
-			}
-			rows[stateToNumber.get(prop) + 1]++;
-		}
-		for (stateNr = 0; stateNr < numStates; stateNr++) {
-			rows[stateNr + 1] += rows[stateNr];
-		}
+		countIncoming(rows, slotToNumber, numberToSlot);
 
 		double[] rewards = new double[numStates];
 		double[] probs = new double[numStates];
 		double[] nextProbs = new double[numStates];
 		double[] sum = new double[numStates];
-		for (stateNr = 0; stateNr < numberToState.length; stateNr++) {
-			StateProp prop = numberToState[stateNr];
+		for (stateNr = 0; stateNr < numStates; stateNr++) {
+			int slot = numberToSlot[stateNr];
 			if (analysisType == AnalysisType.REW_CUMUL) {
-				rewards[stateNr] = prop.getReward();
+				rewards[stateNr] = reward[slot];
 			}
-			probs[stateNr] = prop.getProb();
-			sum[stateNr] = prop.getSum();
+			probs[stateNr] = prob[slot];
+			sum[stateNr] = this.sum[slot];
 		}
 
 		/* iterate using matrix */
 		boolean canArray = true;
 		while (birthProbSum < (1 - epsilon) && canArray) {
-			//			timer2 = System.currentTimeMillis();
 			double prob = birthProc.calculateNextProb(maxRate);
 			birthProbSum += prob;
 			double mixed = (1.0 - birthProbSum) / maxRate;
@@ -897,15 +568,35 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 		}
 		
 		/* map back, update states and return current iteration */
-		for (stateNr = 0; stateNr < numberToState.length; stateNr++) {
-			StateProp prop = numberToState[stateNr];
-			prop.setProb(probs[stateNr]);
-			prop.setSum(sum[stateNr]);
+		for (stateNr = 0; stateNr < numStates; stateNr++) {
+			int slot = numberToSlot[stateNr];
+			prob[slot] = probs[stateNr];
+			this.sum[slot] = sum[stateNr];
 		}
 		updateStates();
 		return iters;
 	}
 
+	/**
+	 * Stores in {@code rows} the row starts of the backwards matrix built by
+	 * {@link #arrayIterate(int)}, i.e., the prefix sums of the number of
+	 * incoming transitions (plus one for the diagonal) of each state.
+	 */
+	private void countIncoming(int[] rows, int[] slotToNumber, int[] numberToSlot)
+	{
+		int numStates = numberToSlot.length;
+		for (int stateNr = 0; stateNr < numStates; stateNr++) {
+			int slot = numberToSlot[stateNr];
+			for (int t = succStart[slot], end = t + succCount[slot]; t < end; t++) {
+				rows[slotToNumber[succTarget[t]] + 1]++;
+			}
+			rows[stateNr + 1]++;
+		}
+		for (int stateNr = 0; stateNr < numStates; stateNr++) {
+			rows[stateNr + 1] += rows[stateNr];
+		}
+	}
+
 	/**
 	 * Update analysis value after iteration.
 	 * For certain analyses (currently cumulative rewards) we have to modify
@@ -928,8 +619,8 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 			break;
 		case REW_CUMUL:
 			double mixed = (1.0 - probSum) / maxRate;
-			for (StateProp prop : states.values()) {
-				value += prop.getProb() * mixed * prop.getReward();
+			for (int slot = states.getFirstSlot(); slot >= 0; slot = states.getNextSlot(slot)) {
+				value += this.prob[slot] * mixed * reward[slot];
 			}
 			break;
 		}
@@ -949,25 +640,26 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 	private void updateStates() throws PrismException
 	{
 		maxRate = 0.0;
-		addDistr.clear();
-		for (Map.Entry<State,StateProp> statePair : states.entrySet()) {
-			State state = statePair.getKey();
-			StateProp prop = statePair.getValue();
-			if (prop.getProb() > delta) {
-				prop.setAlive(true);
-				if (!prop.hasSuccs()) {
+		numAddDistr = 0;
+		for (int slot = states.getFirstSlot(); slot >= 0; slot = states.getNextSlot(slot)) {
+			if (prob[slot] > delta) {
+				alive[slot] = true;
+				if (succStart[slot] < 0) {
 					itersUnchanged = 0;
-					addDistr.add(state);
+					if (numAddDistr == addDistr.length) {
+						addDistr = Arrays.copyOf(addDistr, numAddDistr * 2);
+					}
+					addDistr[numAddDistr++] = slot;
 				} else {
-					maxRate = Math.max(maxRate, prop.sumRates());
+					maxRate = Math.max(maxRate, exitRate[slot]);
 				}
 			} else {
-				prop.delete();
+				delete(slot);
 			}
 		}
-		for (int stateNr = 0; stateNr < addDistr.size(); stateNr++) {
-			computeStateRatesAndRewards(addDistr.get(stateNr));
-			maxRate = Math.max(maxRate, states.get(addDistr.get(stateNr)).sumRates());
+		for (int i = 0; i < numAddDistr; i++) {
+			computeStateRatesAndRewards(addDistr[i]);
+			maxRate = Math.max(maxRate, exitRate[addDistr[i]]);
 		}
 		maxRate *= 1.02;
 
@@ -983,17 +675,13 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 	private void removeDeletedStates()
 	{
 		boolean unchanged = true;
-		for (Map.Entry<State,StateProp> statePair : states.entrySet()) {
-			State state = statePair.getKey();
-			StateProp prop = statePair.getValue();
-			if (prop.canRemove()) {
-				deleteStates.add(state);
+		for (int slot = states.getFirstSlot(), next; slot >= 0; slot = next) {
+			next = states.getNextSlot(slot);
+			if (!alive[slot] && references[slot] == 0) {
 				unchanged = false;
-			}
-		}
-		if (!keepSumProb) {
-			for (int i = 0; i < deleteStates.size(); i++) {
-				states.remove(deleteStates.get(i));
+				if (!keepSumProb) {
+					removeFromModel(slot);
+				}
 			}
 		}
 		if (unchanged) {
@@ -1001,7 +689,6 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 		} else {
 			itersUnchanged = 0;
 		}
-		deleteStates.clear();
 	}
     
 	/**
@@ -1014,10 +701,10 @@ public final class FastAdaptiveUniformisation extends PrismComponent
     	initStates = new HashSet<State>();
 		State initState = modelGen.getInitialState();
 		initStates.add(initState);
-		addToModel(initState);
-		computeStateRatesAndRewards(initState);
-		states.get(initState).setProb(1.0);
-		maxRate = states.get(initState).sumRates() * 1.02;
+		int slot = addToModel(initState);
+		computeStateRatesAndRewards(slot);
+		prob[slot] = 1.0;
+		maxRate = exitRate[slot] * 1.02;
 	}
 
     /**
@@ -1028,8 +715,8 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 	public void computeTotalDiscreteLoss()
 	{
 		double totalProb = 0;
-		for (StateProp prop : states.values()) {
-			totalProb += prop.getSum();
+		for (int slot = states.getFirstSlot(); slot >= 0; slot = states.getNextSlot(slot)) {
+			totalProb += sum[slot];
 		}
 		totalProb += totalProbSetZero;
 		
@@ -1051,35 +738,238 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 	 * @throws PrismException 
 	 */
 	public void clearSinkStates() throws PrismException {
-		for (Map.Entry<State,StateProp> statePair : states.entrySet()) {
-			State state = statePair.getKey();
-			StateProp prop = statePair.getValue();
+		for (int slot = states.getFirstSlot(); slot >= 0; slot = states.getNextSlot(slot)) {
+			State state = states.getState(slot);
 			modelGen.exploreState(state);
-			specialLabels.setLabel(0, modelGen.getNumTransitions() == 0 ? Expression.True() : Expression.False());
-			specialLabels.setLabel(1, initStates.contains(state) ? Expression.True() : Expression.False());
-			Expression evSink = sink.deepCopy();
-			evSink = (Expression) evSink.expandLabels(specialLabels);
-			if (evSink.evaluateBoolean(constantValues, state)) {
-				totalProbSetZero += prop.getProb();
-				prop.setProb(0.0);
+			if (isSink(state, modelGen.getNumTransitions() == 0)) {
+				totalProbSetZero += prob[slot];
+				prob[slot] = 0.0;
 			}
 		}
 	}
-	
+
+	/**
+	 * Checks whether {@code state} is a sink state,
+	 * given whether it is a deadlock state.
+	 */
+	private boolean isSink(State state, boolean deadlock) throws PrismException
+	{
+		if (sinkExpanded == null) {
+			sinkExpanded = expandSpecialLabels(sink);
+		}
+		return evaluateSpecialLabels(sinkExpanded, state, deadlock);
+	}
+
+	/**
+	 * Checks whether {@code state} is a target state,
+	 * given whether it is a deadlock state.
+	 */
+	private boolean isTarget(State state, boolean deadlock) throws PrismException
+	{
+		if (targetExpanded == null) {
+			targetExpanded = expandSpecialLabels(target);
+		}
+		return evaluateSpecialLabels(targetExpanded, state, deadlock);
+	}
+
+	/**
+	 * Expands the special labels ("deadlock", "init") in {@code expr},
+	 * once for each combination of their truth values, so that this does
+	 * not need to be done again for every state evaluated.
+	 */
+	private Expression[] expandSpecialLabels(Expression expr) throws PrismException
+	{
+		Expression[] expanded = new Expression[4];
+		for (int variant = 0; variant < 4; variant++) {
+			specialLabels.setLabel(0, (variant & 1) != 0 ? Expression.True() : Expression.False());
+			specialLabels.setLabel(1, (variant & 2) != 0 ? Expression.True() : Expression.False());
+			expanded[variant] = (Expression) expr.deepCopy().expandLabels(specialLabels);
+		}
+		return expanded;
+	}
+
+	/**
+	 * Evaluates the appropriate variant of an expression from
+	 * {@link #expandSpecialLabels(Expression)} in {@code state}.
+	 */
+	private boolean evaluateSpecialLabels(Expression[] expanded, State state, boolean deadlock) throws PrismException
+	{
+		int variant = (deadlock ? 1 : 0) | (initStates.contains(state) ? 2 : 0);
+		return expanded[variant].evaluateBoolean(constantValues, state);
+	}
+
+	/**
+	 * Creates empty storage for the states of the window.
+	 * 
+	 * @throws PrismException thrown if the model variables cannot be stored in packed form
+	 */
+	private void initStorage() throws PrismException
+	{
+		states = new PackedStateTable(modelGen.createVarList(), initSize);
+		int capacity = states.getSlotCapacity();
+		prob = new double[capacity];
+		nextProb = new double[capacity];
+		sum = new double[capacity];
+		reward = new double[capacity];
+		exitRate = new double[capacity];
+		references = new int[capacity];
+		alive = new boolean[capacity];
+		succStart = new int[capacity];
+		Arrays.fill(succStart, -1);
+		succCount = new int[capacity];
+		succTarget = new int[capacity * 4];
+		succRate = new double[capacity * 4];
+		succSize = 0;
+		succGarbage = 0;
+		addDistr = new int[64];
+		numAddDistr = 0;
+	}
+
 	/**
 	 * Adds @a state to model.
-	 * Computes reward for this states, creates entry in map of states,
+	 * Computes reward for this states, creates entry in table of states,
 	 * and updates number of states
 	 * 
 	 * @param state state to add
+	 * @return slot of the state added
 	 * @throws PrismException thrown if something wrong happens in underlying methods
 	 */
-	private void addToModel(State state) throws PrismException
+	private int addToModel(State state) throws PrismException
 	{
-		StateProp prop = new StateProp();
-		prop.setReward(computeRewards(state));
-		states.put(state, prop);
+		double stateReward = computeRewards(state);
+		int slot = states.add(state);
+		int capacity = states.getSlotCapacity();
+		if (prob.length < capacity) {
+			int oldCapacity = prob.length;
+			prob = Arrays.copyOf(prob, capacity);
+			nextProb = Arrays.copyOf(nextProb, capacity);
+			sum = Arrays.copyOf(sum, capacity);
+			reward = Arrays.copyOf(reward, capacity);
+			exitRate = Arrays.copyOf(exitRate, capacity);
+			references = Arrays.copyOf(references, capacity);
+			alive = Arrays.copyOf(alive, capacity);
+			succStart = Arrays.copyOf(succStart, capacity);
+			Arrays.fill(succStart, oldCapacity, capacity, -1);
+			succCount = Arrays.copyOf(succCount, capacity);
+		}
+		// free slots are kept zeroed (see removeFromModel), so only these need setting
+		reward[slot] = stateReward;
+		alive[slot] = true;
 		maxNumStates = Math.max(maxNumStates, states.size());
+		return slot;
+	}
+
+	/**
+	 * Removes the state in slot {@code slot} from the model,
+	 * which must have no successors and no incoming transitions.
+	 */
+	private void removeFromModel(int slot)
+	{
+		states.remove(slot);
+		prob[slot] = 0.0;
+		nextProb[slot] = 0.0;
+		sum[slot] = 0.0;
+		reward[slot] = 0.0;
+		alive[slot] = false;
+	}
+
+	/**
+	 * Deletes the state in slot {@code slot}.
+	 * This means basically removing all of its successors. Beforehand,
+	 * their reference counter is decreased, because this state does no
+	 * longer count as a model state. It is left in the model however,
+	 * because it might still be the successor state of some alive state.
+	 */
+	private void delete(int slot)
+	{
+		releaseSuccessors(slot);
+		alive[slot] = false;
+		prob[slot] = 0.0;
+		nextProb[slot] = 0.0;
+	}
+
+	/**
+	 * Drops the cached successors of the state in slot {@code slot} (if any),
+	 * decreasing the reference counters of the successor states.
+	 */
+	private void releaseSuccessors(int slot)
+	{
+		int start = succStart[slot];
+		if (start < 0) {
+			return;
+		}
+		for (int t = start, end = start + succCount[slot]; t < end; t++) {
+			references[succTarget[t]]--;
+		}
+		succGarbage += succCount[slot];
+		succStart[slot] = -1;
+		succCount[slot] = 0;
+		exitRate[slot] = 0.0;
+	}
+
+	/**
+	 * Makes the successors of the state in slot {@code slot} those stored
+	 * in succTarget/succRate from {@code start} onwards (up to succSize),
+	 * increasing the reference counters of the successor states.
+	 */
+	private void setSuccessors(int slot, int start)
+	{
+		double rateSum = 0.0;
+		for (int t = start; t < succSize; t++) {
+			references[succTarget[t]]++;
+			rateSum += succRate[t];
+		}
+		succStart[slot] = start;
+		succCount[slot] = succSize - start;
+		exitRate[slot] = rateSum;
+	}
+
+	/**
+	 * Makes the state in slot {@code slot} absorbing, i.e.,
+	 * gives it a single self-loop with rate 1.
+	 */
+	private void setSelfLoop(int slot)
+	{
+		ensureSuccCapacity(1);
+		int start = succSize;
+		succTarget[succSize] = slot;
+		succRate[succSize] = 1.0;
+		succSize++;
+		setSuccessors(slot, start);
+	}
+
+	/**
+	 * Makes sure there is room for {@code n} more entries in succTarget/succRate.
+	 * Where worthwhile, this compacts the arrays (dropping entries of states
+	 * whose successors were released) rather than growing them.
+	 */
+	private void ensureSuccCapacity(int n)
+	{
+		if (succSize + n <= succTarget.length) {
+			return;
+		}
+		int live = succSize - succGarbage;
+		int capacity = succTarget.length;
+		while (live + n > capacity / 2) {
+			capacity *= 2;
+		}
+		int[] newTarget = new int[capacity];
+		double[] newRate = new double[capacity];
+		int newSize = 0;
+		for (int slot = 0, numSlots = states.getNumSlots(); slot < numSlots; slot++) {
+			int start = succStart[slot];
+			if (start >= 0) {
+				int count = succCount[slot];
+				System.arraycopy(succTarget, start, newTarget, newSize, count);
+				System.arraycopy(succRate, start, newRate, newSize, count);
+				succStart[slot] = newSize;
+				newSize += count;
+			}
+		}
+		succTarget = newTarget;
+		succRate = newRate;
+		succSize = newSize;
+		succGarbage = 0;
 	}
 
 	/**
@@ -1087,55 +977,36 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 	 * Rewards computed depend on the reward structure set by
 	 * {@code setRewardStruct}.
 	 * 
-	 * @param state state to compute successor rates and rewards for
+	 * @param slot slot of state to compute successor rates and rewards for
 	 * @throws PrismException thrown if something goes wrong
 	 */
-	private void computeStateRatesAndRewards(State state) throws PrismException
+	private void computeStateRatesAndRewards(int slot) throws PrismException
 	{
-		double[] succRates;
-		StateProp[] succStates;
+		State state = states.getState(slot);
 		modelGen.exploreState(state);
-		specialLabels.setLabel(0, modelGen.getNumTransitions() == 0 ? Expression.True() : Expression.False());
-		specialLabels.setLabel(1, initStates.contains(state) ? Expression.True() : Expression.False());
-		Expression evSink = sink.deepCopy();
-		evSink = (Expression) evSink.expandLabels(specialLabels);
-		if (evSink.evaluateBoolean(constantValues, state)) {
-			succRates = new double[1];
-			succStates = new StateProp[1];
-			succRates[0] = 1.0;
-			succStates[0] = states.get(state);
-		} else {
-			int ntAll = modelGen.getNumTransitions();
-			if (ntAll > 0) {
-				succRates = new double[ntAll];
-				succStates = new StateProp[ntAll];
-
-				int t = 0;
-				for (int i = 0, nc = modelGen.getNumChoices(); i < nc; i++) {
-					for (int j = 0, ntChoice = modelGen.getNumTransitions(i); j < ntChoice; j++) {
-						State succState = modelGen.computeTransitionTarget(i, j);
-						StateProp succProp = states.get(succState);
-						if (null == succProp) {
-							addToModel(succState);
-							succProp = states.get(succState);
-
-							// re-explore state, as call to addToModel may have explored succState
-							modelGen.exploreState(state);
-						}
-						succRates[t] = modelGen.getTransitionProbability(i, j);
-						succStates[t] = succProp;
-						t++;
-					}
+		int ntAll = modelGen.getNumTransitions();
+		if (ntAll == 0 || isSink(state, false)) {
+			setSelfLoop(slot);
+			return;
+		}
+		ensureSuccCapacity(ntAll);
+		int start = succSize;
+		for (int i = 0, nc = modelGen.getNumChoices(); i < nc; i++) {
+			for (int j = 0, ntChoice = modelGen.getNumTransitions(i); j < ntChoice; j++) {
+				State succState = modelGen.computeTransitionTarget(i, j);
+				int succ = states.getSlot(succState);
+				if (succ < 0) {
+					succ = addToModel(succState);
+
+					// re-explore state, as call to addToModel may have explored succState
+					modelGen.exploreState(state);
 				}
-			} else {
-				succRates = new double[1];
-				succStates = new StateProp[1];
-				succRates[0] = 1.0;
-				succStates[0] = states.get(state);
+				succTarget[succSize] = succ;
+				succRate[succSize] = modelGen.getTransitionProbability(i, j);
+				succSize++;
 			}
 		}
-		states.get(state).setSuccRates(succRates);
-		states.get(state).setSuccStates(succStates);
+		setSuccessors(slot, start);
 	}
 
 	/**
@@ -1145,22 +1016,22 @@ public final class FastAdaptiveUniformisation extends PrismComponent
 	 */
 	private void mvMult(double maxRate)
 	{
-		for (StateProp prop : states.values()) {
-			double[] succRates = prop.getSuccRates();
-			StateProp[] succStates = prop.getSuccStates();
-			double stateProb = prop.getProb();
-			if (null != succStates) {
+		for (int slot = states.getFirstSlot(); slot >= 0; slot = states.getNextSlot(slot)) {
+			int start = succStart[slot];
+			if (start >= 0) {
+				double stateProb = prob[slot];
 				double sumRates = 0.0;
-				for (int succ = 0; succ < succStates.length; succ++) {
-				    double rate = succRates[succ];
+				for (int t = start, end = start + succCount[slot]; t < end; t++) {
+				    double rate = succRate[t];
 				    sumRates += rate;
-				    succStates[succ].addToNextProb((rate / maxRate) * stateProb);
+				    nextProb[succTarget[t]] += (rate / maxRate) * stateProb;
 				}
-				prop.addToNextProb(((maxRate - sumRates) / maxRate) * prop.getProb());
+				nextProb[slot] += ((maxRate - sumRates) / maxRate) * stateProb;
 			}
 		}
-		for (StateProp prop : states.values()) {
-			prop.prepareNextIteration();
+		for (int slot = 0, numSlots = states.getNumSlots(); slot < numSlots; slot++) {
+			prob[slot] = nextProb[slot];
+			nextProb[slot] = 0.0;
 		}
 	}
 
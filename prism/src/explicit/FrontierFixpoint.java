@@ -0,0 +1,218 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package explicit;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import common.AtomicBitSet;
+import common.Parallel;
+
+/**
+ * Frontier-based (worklist) computation of least fixed points over sets of states,
+ * as used by the qualitative precomputation algorithms (Prob0, Prob1) for MDPs and games.
+ * <br>
+ * Rather than re-evaluating every state in each iteration, only the predecessors
+ * of states added in the previous iteration (the frontier) are (re-)tested,
+ * using a {@link PredecessorRelation}. Optionally, each iteration is
+ * split across several threads by sharding the frontier; in that case,
+ * newly added states are claimed via an {@link AtomicBitSet}.
+ * <br>
+ * The result is the same as that of the corresponding "full" fixed point iteration,
+ * provided that the state test is monotonic and only depends on the successors of a state.
+ */
+public class FrontierFixpoint
+{
+	/**
+	 * Test used to decide whether state {@code s} should be added to the set {@code current}.
+	 * Implementations must be monotonic in {@code current}, only inspect the successors of {@code s}
+	 * and, if used with several threads, must be safe for concurrent calls.
+	 */
+	@FunctionalInterface
+	public interface StateTest
+	{
+		boolean test(int s, BitSet current);
+	}
+
+	/** Minimum size of frontier for which an iteration is parallelised */
+	private static final int PARALLEL_THRESHOLD = 1024;
+
+	/** The predecessor relation of the model */
+	private PredecessorRelation pre;
+	/** Number of threads to use */
+	private int numThreads;
+	/** Number of iterations (frontiers) needed for the last fixed point */
+	private int numIterations;
+
+	/**
+	 * Constructor.
+	 * @param pre The predecessor relation of the model
+	 * @param numThreads The number of threads to use (1 = sequential)
+	 */
+	public FrontierFixpoint(PredecessorRelation pre, int numThreads)
+	{
+		this.pre = pre;
+		this.numThreads = numThreads;
+	}
+
+	/**
+	 * Get the number of iterations, i.e., the number of successive frontiers,
+	 * needed for the last computed fixed point.
+	 */
+	public int getNumIterations()
+	{
+		return numIterations;
+	}
+
+	/**
+	 * Compute the least set of states X, containing {@code init}, such that
+	 * every state s in {@code subset} with {@code test(s, X)} is in X.
+	 * <br>
+	 * States that satisfy {@code test} vacuously, i.e., without any successor in X,
+	 * are never reached from the frontier and need to be included in {@code init} by the caller.
+	 * @param subset Only add states from this set (null means "all")
+	 * @param init Initial set of states (not modified)
+	 * @param test Test for adding a state
+	 */
+	public BitSet leastFixpoint(BitSet subset, BitSet init, StateTest test)
+	{
+		int n = pre.getNumStates();
+		BitSet current = (BitSet) init.clone();
+		// The frontier(s): states are appended once, when they are added to current,
+		// so the current frontier is queue[head..tail-1]
+		int[] queue = new int[n];
+		int head = 0, tail = 0;
+		for (int s = init.nextSetBit(0); s >= 0 && s < n; s = init.nextSetBit(s + 1)) {
+			queue[tail++] = s;
+		}
+		numIterations = 0;
+		AtomicBitSet claimed = null;
+		while (head < tail) {
+			numIterations++;
+			int frontierEnd = tail;
+			if (numThreads > 1 && frontierEnd - head >= PARALLEL_THRESHOLD) {
+				if (claimed == null) {
+					claimed = new AtomicBitSet(n, current);
+				}
+				tail = expandParallel(queue, head, frontierEnd, subset, current, claimed, test);
+			} else {
+				// Sequential: new states are added to current immediately,
+				// which is safe since the test is monotonic
+				for (int i = head; i < frontierEnd; i++) {
+					int t = queue[i];
+					for (int j = pre.preStarts[t], end = pre.preStarts[t + 1]; j < end; j++) {
+						int p = pre.preStates[j];
+						if (!current.get(p) && (subset == null || subset.get(p)) && test.test(p, current)) {
+							current.set(p);
+							if (claimed != null) {
+								claimed.set(p);
+							}
+							queue[tail++] = p;
+						}
+					}
+				}
+			}
+			head = frontierEnd;
+		}
+		return current;
+	}
+
+	/**
+	 * Get the states s in {@code subset} which have no choices in {@code model}, or a choice
+	 * without any successors (e.g., an empty set of distributions in an abstraction),
+	 * but satisfy {@code test(s, {})}, i.e., which satisfy the test vacuously.
+	 * These may never be reached from a frontier, so need to be included in the initial set.
+	 * @param model The model
+	 * @param subset The states to consider
+	 * @param test Test for adding a state
+	 */
+	public static BitSet vacuousStates(NondetModel<?> model, BitSet subset, StateTest test)
+	{
+		BitSet empty = new BitSet();
+		BitSet result = new BitSet();
+		for (int s = subset.nextSetBit(0); s >= 0; s = subset.nextSetBit(s + 1)) {
+			if (hasEmptyChoice(model, s) && test.test(s, empty)) {
+				result.set(s);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Does state {@code s} of {@code model} have no choices, or a choice without any successors?
+	 */
+	private static boolean hasEmptyChoice(NondetModel<?> model, int s)
+	{
+		int numChoices = model.getNumChoices(s);
+		if (numChoices == 0) {
+			return true;
+		}
+		for (int i = 0; i < numChoices; i++) {
+			if (!model.getSuccessors(s, i).hasNext()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Expand the frontier {@code queue[from..to-1]} in parallel, testing states against
+	 * {@code current}, which is only modified once all threads have finished.
+	 * New states are appended to {@code queue}; returns the new end of the queue.
+	 */
+	private int expandParallel(int[] queue, int from, int to, BitSet subset, BitSet current, AtomicBitSet claimed, StateTest test)
+	{
+		ConcurrentLinkedQueue<int[]> added = new ConcurrentLinkedQueue<>();
+		int blockSize = Math.max(PARALLEL_THRESHOLD / 4, (to - from) / (numThreads * 4));
+		Parallel.forEachBlock(numThreads, from, to, blockSize, (blockFrom, blockTo) -> {
+			int[] local = new int[16];
+			int count = 0;
+			for (int i = blockFrom; i < blockTo; i++) {
+				int t = queue[i];
+				for (int j = pre.preStarts[t], end = pre.preStarts[t + 1]; j < end; j++) {
+					int p = pre.preStates[j];
+					if (!claimed.get(p) && (subset == null || subset.get(p)) && test.test(p, current) && claimed.set(p)) {
+						if (count == local.length) {
+							local = Arrays.copyOf(local, 2 * count);
+						}
+						local[count++] = p;
+					}
+				}
+			}
+			if (count > 0) {
+				added.add(Arrays.copyOf(local, count));
+			}
+		});
+		int tail = to;
+		for (int[] states : added) {
+			for (int p : states) {
+				current.set(p);
+				queue[tail++] = p;
+			}
+		}
+		return tail;
+	}
+}
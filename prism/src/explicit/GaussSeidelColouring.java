@@ -0,0 +1,248 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+
+package explicit;
+
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.atomic.DoubleAccumulator;
+
+import common.Parallel;
+
+/**
+ * Multi-colour ordering of a set of states, for block-parallel Gauss-Seidel/SOR.
+ * <br>
+ * The states are greedily coloured such that no two states of the same colour
+ * are connected by a transition (in either direction). A Gauss-Seidel sweep then processes
+ * the colours in sequence, with the states of each colour (which do not read each other's values)
+ * updated concurrently. The result is identical to a sequential Gauss-Seidel sweep
+ * over the states ordered by colour, and thus independent of the number of threads used.
+ * <br>
+ * Colouring is done for the set of states passed in, e.g., for a single SCC
+ * when used in topological value iteration.
+ */
+public class GaussSeidelColouring
+{
+	/**
+	 * Computation of the new value for a single state,
+	 * e.g., {@code (s, vect) -> dtmc.mvMultJacSingle(s, vect)}.
+	 */
+	@FunctionalInterface
+	public interface StateUpdate
+	{
+		double apply(int s, double[] vect);
+	}
+
+	/** Number of threads to use for each colour */
+	private final int numThreads;
+	/** Index into colourStates of the first state of each colour (size numColours + 1) */
+	private int[] colourStarts;
+	/** The states, grouped by colour */
+	private int[] colourStates;
+
+	/**
+	 * Compute a colouring for the states in {@code states} of {@code model}.
+	 * States are coloured greedily, in the order given by the iterator.
+	 * @param model The model
+	 * @param states The states to colour
+	 * @param numThreads Number of threads to use for sweeps
+	 */
+	public GaussSeidelColouring(Model<?> model, PrimitiveIterator.OfInt states, int numThreads)
+	{
+		this.numThreads = numThreads;
+		colour(model, states);
+	}
+
+	/**
+	 * Greedy colouring of the (undirected) dependency graph, restricted to {@code states}.
+	 */
+	private void colour(Model<?> model, PrimitiveIterator.OfInt states)
+	{
+		int numStates = model.getNumStates();
+		// Local indices for the states to be coloured
+		int[] local = new int[numStates];
+		Arrays.fill(local, -1);
+		int[] order = new int[16];
+		int n = 0;
+		while (states.hasNext()) {
+			int s = states.nextInt();
+			if (n == order.length) {
+				order = Arrays.copyOf(order, 2 * n);
+			}
+			local[s] = n;
+			order[n++] = s;
+		}
+
+		// Build undirected adjacency (CSR, local indices): count, then fill
+		int[] adjStarts = new int[n + 1];
+		for (int i = 0; i < n; i++) {
+			int s = order[i];
+			for (SuccessorsIterator it = model.getSuccessors(s); it.hasNext();) {
+				int j = local[it.nextInt()];
+				if (j >= 0 && j != i) {
+					adjStarts[i + 1]++;
+					adjStarts[j + 1]++;
+				}
+			}
+		}
+		for (int i = 0; i < n; i++) {
+			adjStarts[i + 1] += adjStarts[i];
+		}
+		int[] adj = new int[adjStarts[n]];
+		int[] cursor = Arrays.copyOf(adjStarts, n);
+		for (int i = 0; i < n; i++) {
+			int s = order[i];
+			for (SuccessorsIterator it = model.getSuccessors(s); it.hasNext();) {
+				int j = local[it.nextInt()];
+				if (j >= 0 && j != i) {
+					adj[cursor[i]++] = j;
+					adj[cursor[j]++] = i;
+				}
+			}
+		}
+
+		// Greedy colouring: smallest colour not used by an already coloured neighbour
+		int[] colours = new int[n];
+		Arrays.fill(colours, -1);
+		// stamp[c] == i means colour c is used by a neighbour of i
+		int[] stamp = new int[1];
+		Arrays.fill(stamp, -1);
+		int numColours = 0;
+		for (int i = 0; i < n; i++) {
+			for (int k = adjStarts[i]; k < adjStarts[i + 1]; k++) {
+				int c = colours[adj[k]];
+				if (c >= 0) {
+					stamp[c] = i;
+				}
+			}
+			int c = 0;
+			while (c < numColours && stamp[c] == i) {
+				c++;
+			}
+			if (c == numColours) {
+				numColours++;
+				if (numColours > stamp.length) {
+					int old = stamp.length;
+					stamp = Arrays.copyOf(stamp, 2 * old);
+					Arrays.fill(stamp, old, stamp.length, -1);
+				}
+			}
+			colours[i] = c;
+		}
+
+		// Group states by colour (keeping the original order within each colour)
+		colourStarts = new int[numColours + 1];
+		for (int i = 0; i < n; i++) {
+			colourStarts[colours[i] + 1]++;
+		}
+		for (int c = 0; c < numColours; c++) {
+			colourStarts[c + 1] += colourStarts[c];
+		}
+		colourStates = new int[n];
+		int[] next = Arrays.copyOf(colourStarts, numColours);
+		for (int i = 0; i < n; i++) {
+			colourStates[next[colours[i]]++] = order[i];
+		}
+	}
+
+	/**
+	 * Get the number of colours.
+	 */
+	public int getNumColours()
+	{
+		return colourStarts.length - 1;
+	}
+
+	/**
+	 * Get the number of states that were coloured.
+	 */
+	public int getNumStates()
+	{
+		return colourStates.length;
+	}
+
+	/**
+	 * Do one Gauss-Seidel (or, if {@code omega != 1}, SOR) sweep over all states,
+	 * colour by colour, storing new values directly in {@code vect}.
+	 * The maximum (absolute/relative) difference between old/new
+	 * elements of {@code vect} is returned.
+	 * @param vect Vector to read values from (and store the result in)
+	 * @param update Computation of the (Gauss-Seidel) value for a single state
+	 * @param omega Over-relaxation parameter (1 for Gauss-Seidel)
+	 * @param absolute If true, compute absolute, rather than relative, difference
+	 * @return The maximum difference between old/new elements of {@code vect}
+	 */
+	public double sweep(double[] vect, StateUpdate update, double omega, boolean absolute)
+	{
+		DoubleAccumulator maxDiff = new DoubleAccumulator((a, b) -> b > a ? b : a, 0.0);
+		for (int c = 0, numColours = getNumColours(); c < numColours; c++) {
+			Parallel.forEachBlock(numThreads, colourStarts[c], colourStarts[c + 1], (from, to) -> {
+				double d, diff, blockMaxDiff = 0.0;
+				for (int i = from; i < to; i++) {
+					int s = colourStates[i];
+					d = relax(vect[s], update.apply(s, vect), omega);
+					diff = absolute ? (Math.abs(d - vect[s])) : (Math.abs(d - vect[s]) / d);
+					blockMaxDiff = diff > blockMaxDiff ? diff : blockMaxDiff;
+					vect[s] = d;
+				}
+				maxDiff.accumulate(blockMaxDiff);
+			});
+		}
+		return maxDiff.get();
+	}
+
+	/**
+	 * Do one sequential SOR sweep over the states in {@code states}, in the order given,
+	 * storing new values directly in {@code vect}.
+	 * The maximum (absolute/relative) difference between old/new
+	 * elements of {@code vect} is returned.
+	 * @param vect Vector to read values from (and store the result in)
+	 * @param states The states to update, in this order
+	 * @param update Computation of the (Gauss-Seidel) value for a single state
+	 * @param omega Over-relaxation parameter (1 for Gauss-Seidel)
+	 * @param absolute If true, compute absolute, rather than relative, difference
+	 * @return The maximum difference between old/new elements of {@code vect}
+	 */
+	public static double sweep(double[] vect, PrimitiveIterator.OfInt states, StateUpdate update, double omega, boolean absolute)
+	{
+		double d, diff, maxDiff = 0.0;
+		while (states.hasNext()) {
+			int s = states.nextInt();
+			d = relax(vect[s], update.apply(s, vect), omega);
+			diff = absolute ? (Math.abs(d - vect[s])) : (Math.abs(d - vect[s]) / d);
+			maxDiff = diff > maxDiff ? diff : maxDiff;
+			vect[s] = d;
+		}
+		return maxDiff;
+	}
+
+	/**
+	 * Over-relaxation: combine old value and new (Gauss-Seidel) value using {@code omega}.
+	 */
+	private static double relax(double oldValue, double newValue, double omega)
+	{
+		return omega == 1.0 ? newValue : (1 - omega) * oldValue + omega * newValue;
+	}
+}
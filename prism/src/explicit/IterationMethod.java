@@ -28,9 +28,11 @@
 
 package explicit;
 
+import java.io.File;
 import java.util.PrimitiveIterator;
 
 import common.IntSet;
+import common.Parallel;
 import common.PeriodicTimer;
 import explicit.rewards.MCRewards;
 import explicit.rewards.MDPRewards;
@@ -81,6 +83,15 @@ public abstract class IterationMethod {
 
 		/** Return the underlying model */
 		public Model<?> getModel();
+
+		/**
+		 * Release any temporary storage (e.g. to the model's workspace) once the iteration is finished.
+		 * The current solution vector remains valid, but no further iterations can be performed.
+		 */
+		public default void release()
+		{
+			// nothing to do by default
+		}
 	}
 
 	/**
@@ -115,12 +126,25 @@ public abstract class IterationMethod {
 
 		/** Return the underlying model */
 		public Model<?> getModel();
+
+		/**
+		 * Release any temporary storage (e.g. to the model's workspace) once the iteration is finished.
+		 * The current solution vector remains valid, but no further iterations can be performed.
+		 */
+		public default void release()
+		{
+			// nothing to do by default
+		}
 	}
 
 	/** Storage for a single solution vector */
 	public class IterationBasic {
 		protected final Model<?> model;
 		protected double[] soln;
+		/** The set of states last passed to statesArray() */
+		private IntSet lastStates;
+		/** The set of states last passed to statesArray(), as an array */
+		private int[] lastStatesArray;
 
 		public IterationBasic(Model<?> model)
 		{
@@ -137,6 +161,19 @@ public abstract class IterationMethod {
 			return soln;
 		}
 
+		/**
+		 * Get the given set of states as an array, e.g., for splitting it into blocks for parallel iteration.
+		 * The array for the last set passed in is cached, since usually the same set is used in every iteration.
+		 */
+		protected int[] statesArray(IntSet states)
+		{
+			if (states != lastStates) {
+				lastStatesArray = states.stream().toArray();
+				lastStates = states;
+			}
+			return lastStatesArray;
+		}
+
 		/* see IterationValIter.solveSingletonSCC() */
 		public void solveSingletonSCC(int state, SingletonSCCSolver solver)
 		{
@@ -207,6 +244,10 @@ public abstract class IterationMethod {
 		protected double[] soln2;
 		/** Post processing, may be null */
 		protected final IterationPostProcessor postProcessor;
+		/** Workspace from which soln2 was obtained (null if none) */
+		private ModelWorkspace workspace;
+		/** The vector originally obtained for soln2 from the workspace */
+		private double[] ownSoln2;
 
 		/** Constructor */
 		protected TwoVectorIteration(Model<?> model, IterationMethod.IterationPostProcessor postProcessor)
@@ -220,11 +261,24 @@ public abstract class IterationMethod {
 		{
 			super.init(soln);
 
-			// create and initialise the second solution vector
-			soln2 = new double[soln.length];
+			// create (or recycle) and initialise the second solution vector
+			workspace = soln.length == model.getNumStates() ? ModelWorkspace.forModel(model, workspaceMaxMemory) : null;
+			soln2 = workspace != null ? workspace.getDoubleArray() : new double[soln.length];
+			ownSoln2 = soln2;
 			System.arraycopy(soln, 0, soln2, 0, soln.length);
 		}
 
+		@Override
+		public void release()
+		{
+			// return the vector obtained in init() to the workspace, unless it holds the solution
+			if (workspace != null && ownSoln2 != soln) {
+				workspace.release(ownSoln2);
+			}
+			workspace = null;
+			ownSoln2 = null;
+		}
+
 		/** Perform one iteration */
 		public abstract void doIterate(IntSet states) throws PrismException;
 
@@ -294,6 +348,107 @@ public abstract class IterationMethod {
 
 	}
 
+	/**
+	 * Abstract base class for an IterationValIter that requires two solution vectors,
+	 * where the second one (the target vector of the iteration step) is stored off-heap.
+	 * <br>
+	 * Instead of switching vectors after each step, the new values are swapped entry-wise
+	 * into the (on-heap) solution vector, which also performs the convergence check.
+	 * The effect is the same as for {@link TwoVectorIteration}, but only one
+	 * state-sized vector of doubles is allocated on the Java heap.
+	 * <br>
+	 * This halves the heap needed for the solution vectors, at the cost of the extra
+	 * swapping pass per iteration. It does not allow larger models: {@code soln} is still
+	 * an int-indexed array, so the 2^31 state limit remains. Interval iteration is
+	 * not supported.
+	 */
+	protected abstract class OffHeapTwoVectorIteration extends IterationBasic implements IterationValIter {
+		/** The solution vector that serves as the target vector in the iteration step */
+		protected OffHeapVector soln2;
+
+		/** Constructor (allocates the off-heap vector) */
+		protected OffHeapTwoVectorIteration(Model<?> model) throws PrismException
+		{
+			super(model);
+			soln2 = new OffHeapVector(model.getNumStates(), offHeapDir);
+		}
+
+		@Override
+		public void init(double[] soln)
+		{
+			super.init(soln);
+
+			// initialise the second solution vector
+			soln2.copyFrom(soln);
+		}
+
+		/** Perform one iteration, storing the new values in soln2 */
+		public abstract void doIterate(IntSet states) throws PrismException;
+
+		@Override
+		public boolean iterateAndCheckConvergence(IntSet states) throws PrismException
+		{
+			// do the iteration
+			doIterate(states);
+
+			// swap new values into soln, old values into soln2, and check convergence
+			int[] statesArray = statesArray(states);
+			boolean notDone[] = new boolean[1];
+			Parallel.forEachBlock(numThreads, 0, statesArray.length, (from, to) -> {
+				boolean close = true;
+				for (int i = from; i < to; i++) {
+					int s = statesArray[i];
+					double d = soln[s];
+					double dNew = soln2.get(s);
+					soln[s] = dNew;
+					soln2.set(s, d);
+					if (close) {
+						close = absolute ? PrismUtils.doublesAreCloseAbs(d, dNew, termCritParam) : PrismUtils.doublesAreCloseRel(d, dNew, termCritParam);
+					}
+				}
+				if (!close) {
+					notDone[0] = true;
+				}
+			});
+			return !notDone[0];
+		}
+
+		@Override
+		public double getError()
+		{
+			double value = 0;
+			for (int s = 0; s < soln.length; s++) {
+				double d2 = soln2.get(s);
+				double diff = absolute ? PrismUtils.measureSupNormAbs(soln[s], d2) : PrismUtils.measureSupNormRel(soln[s], d2);
+				if (diff > value)
+					value = diff;
+			}
+			return value;
+		}
+
+		@Override
+		public void doneWith(IntSet states)
+		{
+			// we copy the values for the given states to the
+			// second vector, so that later iterations
+			// do not change their values
+			PrimitiveIterator.OfInt it = states.iterator();
+			while (it.hasNext()) {
+				int state = it.nextInt();
+				soln2.set(state, soln[state]);
+			}
+		}
+
+		@Override
+		public void solveSingletonSCC(int state, SingletonSCCSolver solver)
+		{
+			// solve and store result in soln vector
+			super.solveSingletonSCC(state, solver);
+			// copy result to soln2 vector as well
+			soln2.set(state, soln[state]);
+		}
+	}
+
 	/**
 	 * Functional interface for a method that allows to
 	 * determine the value for a singleton SCC in the model,
@@ -314,6 +469,14 @@ public abstract class IterationMethod {
 	protected final boolean absolute;
 	/** Convergence check: epsilon value */
 	protected final double termCritParam;
+	/** Number of threads for parallel matrix-vector kernels (where available) */
+	protected int numThreads = 1;
+	/** Minimum number of states for which off-heap solution vectors are used (0 = never) */
+	protected long offHeapThreshold = 0;
+	/** Directory for memory-mapped off-heap vectors (null = use direct buffers) */
+	protected File offHeapDir = null;
+	/** Limit on memory retained in model workspaces, in bytes (0 = don't use workspaces, negative = automatic) */
+	protected long workspaceMaxMemory = 0;
 
 	/**
 	 * Constructor.
@@ -326,6 +489,56 @@ public abstract class IterationMethod {
 		this.termCritParam = termCritParam;
 	}
 
+	/**
+	 * Set the number of threads to use for the matrix-vector multiplications
+	 * of two-vector iterations (Jacobi/power) on models with parallel kernels
+	 * (currently, DTMCSparse and MDPSparse). Default: 1 (sequential).
+	 */
+	public void setNumThreads(int numThreads)
+	{
+		this.numThreads = numThreads;
+	}
+
+	/**
+	 * Get the number of threads to use for the matrix-vector multiplications (where available).
+	 */
+	public int getNumThreads()
+	{
+		return numThreads;
+	}
+
+	/**
+	 * Set when to store the second solution vector of two-vector iterations (Jacobi/power)
+	 * off-heap, which is currently possible for (non-interval) value iteration on models
+	 * with suitable kernels (DTMCSparse and MDPSparse). This is done for models with at least
+	 * {@code threshold} states (0 = never); vectors are memory-mapped to temporary files
+	 * in {@code dir} or, if this is null, stored in direct buffers.
+	 */
+	public void setOffHeapVectors(long threshold, File dir)
+	{
+		this.offHeapThreshold = threshold;
+		this.offHeapDir = dir;
+	}
+
+	/**
+	 * Set whether the second solution vector of two-vector iterations (Jacobi/power)
+	 * is obtained from, and returned to, the model's workspace (see {@link Model#getWorkspace()}),
+	 * with {@code maxMemory} the limit on the memory it retains (0 = don't use workspaces;
+	 * {@link ModelWorkspace#AUTO_MAX_MEMORY} = scale with the model size and heap).
+	 */
+	public void setWorkspaceMaxMemory(long maxMemory)
+	{
+		this.workspaceMaxMemory = maxMemory;
+	}
+
+	/**
+	 * Should the second solution vector for an iteration on {@code model} be stored off-heap?
+	 */
+	protected boolean useOffHeap(Model<?> model)
+	{
+		return offHeapThreshold > 0 && model.getNumStates() >= offHeapThreshold;
+	}
+
 	// ------------ Abstract DTMC methods ----------------------------
 
 	/** Obtain an Iteration object using mvMult (matrix-vector multiplication) in a DTMC */
@@ -504,6 +717,7 @@ public abstract class IterationMethod {
 		res.accuracy = AccuracyFactory.valueIteration(termCritParam, iteration.getError(), absolute);
 		res.numIters = iters;
 		res.timeTaken = timer / 1000.0;
+		iteration.release();
 		return res;
 	}
 
@@ -617,6 +831,7 @@ public abstract class IterationMethod {
 		res.accuracy = AccuracyFactory.valueIteration(termCritParam, error, absolute);
 		res.numIters = iters;
 		res.timeTaken = timer / 1000.0;
+		iterator.release();
 		return res;
 	}
 
@@ -706,6 +921,8 @@ public abstract class IterationMethod {
 			res.accuracy = AccuracyFactory.guaranteedNumericalIterative(maxError, absolute);
 			res.numIters = iters;
 			res.timeTaken = timer / 1000.0;
+			below.release();
+			above.release();
 			return res;
 		} finally {
 			if (iterationsExport != null)
@@ -866,6 +1083,8 @@ public abstract class IterationMethod {
 			res.accuracy = AccuracyFactory.guaranteedNumericalIterative(maxError, absolute);
 			res.numIters = iters;
 			res.timeTaken = timer / 1000.0;
+			below.release();
+			above.release();
 			return res;
 		} finally {
 			if (iterationsExport != null)
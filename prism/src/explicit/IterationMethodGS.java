@@ -30,13 +30,24 @@ import common.IntSet;
 import explicit.rewards.MCRewards;
 import explicit.rewards.MDPRewards;
 import prism.PrismException;
+import prism.PrismNotSupportedException;
 
 /**
- * IterationMethod that encapsulates the functionality of the Gauss-Seidel method (forward/backward).
+ * IterationMethod that encapsulates the functionality of the Gauss-Seidel method (forward/backward)
+ * and of SOR (Gauss-Seidel with over-relaxation).
+ * <br>
+ * If more than one thread is to be used (see {@link #setNumThreads(int)}),
+ * the states are partitioned by a colouring of the dependency graph
+ * (see {@link GaussSeidelColouring}) and each sweep processes the colours in sequence,
+ * updating the states of each colour in parallel. When used for topological value iteration,
+ * this is done separately for each SCC.
+ * The parallel mode is not (yet) used for interval iteration or for interval models.
  */
 public class IterationMethodGS extends IterationMethod {
 	/** Do backwards Gauss-Seidel? */
 	private boolean backwards;
+	/** Over-relaxation parameter (1.0 = plain Gauss-Seidel) */
+	private double omega;
 
 	/**
 	 * Constructor.
@@ -45,14 +56,87 @@ public class IterationMethodGS extends IterationMethod {
 	 * @param backwards Do backwards Gauss-Seidel?
 	 */
 	IterationMethodGS(boolean absolute, double epsilon, boolean backwards)
+	{
+		this(absolute, epsilon, backwards, 1.0);
+	}
+
+	/**
+	 * Constructor (for SOR).
+	 * @param absolute For convergence check, perform absolute comparison?
+	 * @param termCritParam For convergence check, the epsilon value to use
+	 * @param backwards Do backwards Gauss-Seidel?
+	 * @param omega Over-relaxation parameter (1.0 = plain Gauss-Seidel)
+	 */
+	IterationMethodGS(boolean absolute, double epsilon, boolean backwards, double omega)
 	{
 		super(absolute, epsilon);
 		this.backwards = backwards;
+		this.omega = omega;
+	}
+
+	/**
+	 * Do we need to use the generic sweep (SweepIteration) rather than the model's own Gauss-Seidel methods,
+	 * i.e., is over-relaxation or parallel (colouring-based) Gauss-Seidel required?
+	 */
+	private boolean useSweep()
+	{
+		return omega != 1.0 || numThreads > 1;
+	}
+
+	/**
+	 * Check that no over-relaxation is requested, for methods where it is not supported.
+	 */
+	private void checkNoOverRelaxation(String what) throws PrismNotSupportedException
+	{
+		if (omega != 1.0) {
+			throw new PrismNotSupportedException("Over-relaxation (SOR) is not supported for " + what);
+		}
+	}
+
+	/**
+	 * IterationValIter that performs Gauss-Seidel/SOR sweeps using a single-state update function,
+	 * either sequentially or, if more than one thread is to be used, colour by colour in parallel.
+	 * The colouring for the last set of states is cached.
+	 */
+	private class SweepIteration extends SingleVectorIterationValIter
+	{
+		/** Computation of the new value for a single state */
+		private final GaussSeidelColouring.StateUpdate update;
+		/** The set of states that the colouring was computed for */
+		private IntSet colouredStates;
+		/** The colouring (for parallel sweeps) */
+		private GaussSeidelColouring colouring;
+
+		public SweepIteration(Model<?> model, GaussSeidelColouring.StateUpdate update)
+		{
+			super(model);
+			this.update = update;
+		}
+
+		@Override
+		public boolean iterateAndCheckConvergence(IntSet states)
+		{
+			if (numThreads > 1) {
+				if (states != colouredStates) {
+					colouring = new GaussSeidelColouring(model, backwards ? states.reversedIterator() : states.iterator(), numThreads);
+					colouredStates = states;
+				}
+				error = colouring.sweep(soln, update, omega, absolute);
+			} else {
+				error = GaussSeidelColouring.sweep(soln, backwards ? states.reversedIterator() : states.iterator(), update, omega, absolute);
+			}
+
+			// Check termination
+			return (error < termCritParam);
+		}
 	}
 
 	@Override
 	public IterationValIter forMvMult(DTMC<Double> dtmc)
 	{
+		if (useSweep()) {
+			return new SweepIteration(dtmc, (s, vect) -> dtmc.mvMultJacSingle(s, vect));
+		}
 		return new SingleVectorIterationValIter(dtmc) {
 			@Override
 			public boolean iterateAndCheckConvergence(IntSet states)
@@ -69,8 +153,9 @@ public class IterationMethodGS extends IterationMethod {
 	}
 
 	@Override
-	public IterationIntervalIter forMvMultInterval(DTMC<Double> dtmc, boolean fromBelow, boolean enforceMonotonicity, boolean checkMonotonicity)
+	public IterationIntervalIter forMvMultInterval(DTMC<Double> dtmc, boolean fromBelow, boolean enforceMonotonicity, boolean checkMonotonicity) throws PrismException
 	{
+		checkNoOverRelaxation("interval iteration");
 		return new SingleVectorIterationIntervalIter(dtmc) {
 			@Override
 			public void iterate(IntSet states) throws PrismException
@@ -88,6 +173,9 @@ public class IterationMethodGS extends IterationMethod {
 	@Override
 	public IterationValIter forMvMultRew(DTMC<Double> dtmc, MCRewards<Double> rew)
 	{
+		if (useSweep()) {
+			return new SweepIteration(dtmc, (s, vect) -> dtmc.mvMultRewJacSingle(s, vect, rew));
+		}
 		return new SingleVectorIterationValIter(dtmc) {
 			@Override
 			public boolean iterateAndCheckConvergence(IntSet states)
@@ -105,8 +193,9 @@ public class IterationMethodGS extends IterationMethod {
 	}
 
 	@Override
-	public IterationIntervalIter forMvMultRewInterval(DTMC<Double> dtmc, MCRewards<Double> rew, boolean fromBelow, boolean enforceMonotonicity, boolean checkMonotonicity)
+	public IterationIntervalIter forMvMultRewInterval(DTMC<Double> dtmc, MCRewards<Double> rew, boolean fromBelow, boolean enforceMonotonicity, boolean checkMonotonicity) throws PrismException
 	{
+		checkNoOverRelaxation("interval iteration");
 		return new SingleVectorIterationIntervalIter(dtmc) {
 			@Override
 			public void iterate(IntSet states) throws PrismException
@@ -125,6 +214,9 @@ public class IterationMethodGS extends IterationMethod {
 	@Override
 	public IterationValIter forMvMultMinMax(MDP<Double> mdp, boolean min, int[] strat)
 	{
+		if (useSweep()) {
+			return new SweepIteration(mdp, (s, vect) -> mdp.mvMultJacMinMaxSingle(s, vect, min, strat));
+		}
 		return new SingleVectorIterationValIter(mdp) {
 			@Override
 			public boolean iterateAndCheckConvergence(IntSet states)
@@ -146,6 +238,7 @@ public class IterationMethodGS extends IterationMethod {
 	public IterationIntervalIter forMvMultMinMaxInterval(MDP<Double> mdp, boolean min, int[] strat, boolean fromBelow, boolean enforceMonotonicity,
 			boolean checkMonotonicity) throws PrismException
 	{
+		checkNoOverRelaxation("interval iteration");
 		return new SingleVectorIterationIntervalIter(mdp) {
 			@Override
 			public void iterate(IntSet states)
@@ -166,6 +259,9 @@ public class IterationMethodGS extends IterationMethod {
 	@Override
 	public IterationValIter forMvMultRewMinMax(MDP<Double> mdp, MDPRewards<Double> rewards, boolean min, int[] strat) throws PrismException
 	{
+		if (useSweep()) {
+			return new SweepIteration(mdp, (s, vect) -> mdp.mvMultRewJacMinMaxSingle(s, vect, rewards, min, strat));
+		}
 		return new SingleVectorIterationValIter(mdp) {
 			@Override
 			public boolean iterateAndCheckConvergence(IntSet states)
@@ -188,6 +284,7 @@ public class IterationMethodGS extends IterationMethod {
 	public IterationIntervalIter forMvMultRewMinMaxInterval(MDP<Double> mdp, MDPRewards<Double> rewards, boolean min, int[] strat, boolean fromBelow,
 			boolean enforceMonotonicity, boolean checkMonotonicity) throws PrismException
 	{
+		checkNoOverRelaxation("interval iteration");
 		return new SingleVectorIterationIntervalIter(mdp) {
 			@Override
 			public void iterate(IntSet states)
@@ -207,8 +304,9 @@ public class IterationMethodGS extends IterationMethod {
 	}
 
 	@Override
-	public IterationValIter forMvMultMinMaxUnc(IDTMC<Double> idtmc, MinMax minMax)
+	public IterationValIter forMvMultMinMaxUnc(IDTMC<Double> idtmc, MinMax minMax) throws PrismException
 	{
+		checkNoOverRelaxation("IDTMCs");
 		return new SingleVectorIterationValIter(idtmc) {
 			@Override
 			public boolean iterateAndCheckConvergence(IntSet states)
@@ -222,8 +320,9 @@ public class IterationMethodGS extends IterationMethod {
 	}
 	
 	@Override
-	public IterationValIter forMvMultRewMinMaxUnc(IDTMC<Double> idtmc, MCRewards<Double> mcRewards, MinMax minMax)
+	public IterationValIter forMvMultRewMinMaxUnc(IDTMC<Double> idtmc, MCRewards<Double> mcRewards, MinMax minMax) throws PrismException
 	{
+		checkNoOverRelaxation("IDTMCs");
 		return new SingleVectorIterationValIter(idtmc) {
 			@Override
 			public boolean iterateAndCheckConvergence(IntSet states)
@@ -237,8 +336,9 @@ public class IterationMethodGS extends IterationMethod {
 	}
 	
 	@Override
-	public IterationValIter forMvMultMinMaxUnc(IMDP<Double> imdp, MinMax minMax, int[] strat)
+	public IterationValIter forMvMultMinMaxUnc(IMDP<Double> imdp, MinMax minMax, int[] strat) throws PrismException
 	{
+		checkNoOverRelaxation("IMDPs");
 		return new SingleVectorIterationValIter(imdp) {
 			@Override
 			public boolean iterateAndCheckConvergence(IntSet states)
@@ -252,8 +352,9 @@ public class IterationMethodGS extends IterationMethod {
 	}
 	
 	@Override
-	public IterationValIter forMvMultRewMinMaxUnc(IMDP<Double> imdp, MDPRewards<Double> mdpRewards, MinMax minMax, int[] strat)
+	public IterationValIter forMvMultRewMinMaxUnc(IMDP<Double> imdp, MDPRewards<Double> mdpRewards, MinMax minMax, int[] strat) throws PrismException
 	{
+		checkNoOverRelaxation("IMDPs");
 		return new SingleVectorIterationValIter(imdp) {
 			@Override
 			public boolean iterateAndCheckConvergence(IntSet states)
@@ -269,6 +370,6 @@ public class IterationMethodGS extends IterationMethod {
 	@Override
 	public String getDescriptionShort()
 	{
-		return (backwards ? "Backwards " : "") + "Gauss-Seidel";
+		return (backwards ? "Backwards " : "") + (omega != 1.0 ? "SOR" : "Gauss-Seidel");
 	}
 }
@@ -48,13 +48,27 @@ class IterationMethodJacobi extends IterationMethod {
 	}
 
 	@Override
-	public IterationValIter forMvMult(DTMC<Double> dtmc)
+	public IterationValIter forMvMult(DTMC<Double> dtmc) throws PrismException
 	{
+		if (useOffHeap(dtmc) && dtmc instanceof DTMCSparse) {
+			DTMCSparse sparse = (DTMCSparse) dtmc;
+			return new OffHeapTwoVectorIteration(dtmc) {
+				@Override
+				public void doIterate(IntSet states)
+				{
+					sparse.mvMultJacParallel(soln, soln2::set, statesArray(states), numThreads);
+				}
+			};
+		}
 		return new TwoVectorIteration(dtmc, null) {
 			@Override
 			public void doIterate(IntSet states)
 			{
-				dtmc.mvMultJac(soln, soln2, states.iterator());
+				if (numThreads > 1 && dtmc instanceof DTMCSparse) {
+					((DTMCSparse) dtmc).mvMultJacParallel(soln, soln2, statesArray(states), numThreads);
+				} else {
+					dtmc.mvMultJac(soln, soln2, states.iterator());
+				}
 			}
 		};
 	}
@@ -70,19 +84,37 @@ class IterationMethodJacobi extends IterationMethod {
 			@Override
 			public void doIterate(IntSet states)
 			{
-				dtmc.mvMultJac(soln, soln2, states.iterator());
+				if (numThreads > 1 && dtmc instanceof DTMCSparse) {
+					((DTMCSparse) dtmc).mvMultJacParallel(soln, soln2, statesArray(states), numThreads);
+				} else {
+					dtmc.mvMultJac(soln, soln2, states.iterator());
+				}
 			}
 		};
 	}
 
 	@Override
-	public IterationValIter forMvMultRew(DTMC<Double> dtmc, MCRewards<Double> rew)
+	public IterationValIter forMvMultRew(DTMC<Double> dtmc, MCRewards<Double> rew) throws PrismException
 	{
+		if (useOffHeap(dtmc) && dtmc instanceof DTMCSparse) {
+			DTMCSparse sparse = (DTMCSparse) dtmc;
+			return new OffHeapTwoVectorIteration(dtmc) {
+				@Override
+				public void doIterate(IntSet states)
+				{
+					sparse.mvMultRewJacParallel(soln, rew, soln2::set, statesArray(states), numThreads);
+				}
+			};
+		}
 		return new TwoVectorIteration(dtmc, null) {
 			@Override
 			public void doIterate(IntSet states)
 			{
-				dtmc.mvMultRewJac(soln, rew, soln2, states.iterator());
+				if (numThreads > 1 && dtmc instanceof DTMCSparse) {
+					((DTMCSparse) dtmc).mvMultRewJacParallel(soln, rew, soln2, statesArray(states), numThreads);
+				} else {
+					dtmc.mvMultRewJac(soln, rew, soln2, states.iterator());
+				}
 			}
 		};
 	}
@@ -98,7 +130,11 @@ class IterationMethodJacobi extends IterationMethod {
 			@Override
 			public void doIterate(IntSet states)
 			{
-				dtmc.mvMultRewJac(soln, rew, soln2, states.iterator());
+				if (numThreads > 1 && dtmc instanceof DTMCSparse) {
+					((DTMCSparse) dtmc).mvMultRewJacParallel(soln, rew, soln2, statesArray(states), numThreads);
+				} else {
+					dtmc.mvMultRewJac(soln, rew, soln2, states.iterator());
+				}
 			}
 		};
 	}
@@ -47,13 +47,27 @@ public class IterationMethodPower extends IterationMethod {
 	}
 
 	@Override
-	public IterationValIter forMvMult(DTMC<Double> dtmc)
+	public IterationValIter forMvMult(DTMC<Double> dtmc) throws PrismException
 	{
+		if (useOffHeap(dtmc) && dtmc instanceof DTMCSparse) {
+			DTMCSparse sparse = (DTMCSparse) dtmc;
+			return new OffHeapTwoVectorIteration(dtmc) {
+				@Override
+				public void doIterate(IntSet states)
+				{
+					sparse.mvMultParallel(soln, soln2::set, statesArray(states), numThreads);
+				}
+			};
+		}
 		return new TwoVectorIteration(dtmc, null) {
 			@Override
 			public void doIterate(IntSet states)
 			{
-				dtmc.mvMult(soln, soln2, states.iterator());
+				if (numThreads > 1 && dtmc instanceof DTMCSparse) {
+					((DTMCSparse) dtmc).mvMultParallel(soln, soln2, statesArray(states), numThreads);
+				} else {
+					dtmc.mvMult(soln, soln2, states.iterator());
+				}
 			}
 		};
 	}
@@ -69,19 +83,37 @@ public class IterationMethodPower extends IterationMethod {
 			@Override
 			public void doIterate(IntSet states)
 			{
-				dtmc.mvMult(soln, soln2, states.iterator());
+				if (numThreads > 1 && dtmc instanceof DTMCSparse) {
+					((DTMCSparse) dtmc).mvMultParallel(soln, soln2, statesArray(states), numThreads);
+				} else {
+					dtmc.mvMult(soln, soln2, states.iterator());
+				}
 			}
 		};
 	}
 
 	@Override
-	public IterationValIter forMvMultRew(DTMC<Double> dtmc, MCRewards<Double> rew)
+	public IterationValIter forMvMultRew(DTMC<Double> dtmc, MCRewards<Double> rew) throws PrismException
 	{
+		if (useOffHeap(dtmc) && dtmc instanceof DTMCSparse) {
+			DTMCSparse sparse = (DTMCSparse) dtmc;
+			return new OffHeapTwoVectorIteration(dtmc) {
+				@Override
+				public void doIterate(IntSet states)
+				{
+					sparse.mvMultRewParallel(soln, rew, soln2::set, statesArray(states), numThreads);
+				}
+			};
+		}
 		return new TwoVectorIteration(dtmc, null) {
 			@Override
 			public void doIterate(IntSet states)
 			{
-				dtmc.mvMultRew(soln, rew, soln2, states.iterator());
+				if (numThreads > 1 && dtmc instanceof DTMCSparse) {
+					((DTMCSparse) dtmc).mvMultRewParallel(soln, rew, soln2, statesArray(states), numThreads);
+				} else {
+					dtmc.mvMultRew(soln, rew, soln2, states.iterator());
+				}
 			}
 		};
 	}
@@ -97,19 +129,37 @@ public class IterationMethodPower extends IterationMethod {
 			@Override
 			public void doIterate(IntSet states)
 			{
-				dtmc.mvMultRew(soln, rew, soln2, states.iterator());
+				if (numThreads > 1 && dtmc instanceof DTMCSparse) {
+					((DTMCSparse) dtmc).mvMultRewParallel(soln, rew, soln2, statesArray(states), numThreads);
+				} else {
+					dtmc.mvMultRew(soln, rew, soln2, states.iterator());
+				}
 			}
 		};
 	}
 
 	@Override
-	public IterationValIter forMvMultMinMax(MDP<Double> mdp, boolean min, int[] strat)
+	public IterationValIter forMvMultMinMax(MDP<Double> mdp, boolean min, int[] strat) throws PrismException
 	{
+		if (useOffHeap(mdp) && mdp instanceof MDPSparse) {
+			MDPSparse sparse = (MDPSparse) mdp;
+			return new OffHeapTwoVectorIteration(mdp) {
+				@Override
+				public void doIterate(IntSet states)
+				{
+					sparse.mvMultMinMaxParallel(soln, min, soln2::set, statesArray(states), strat, numThreads);
+				}
+			};
+		}
 		return new TwoVectorIteration(mdp, null) {
 			@Override
 			public void doIterate(IntSet states)
 			{
-				mdp.mvMultMinMax(soln, min, soln2, states.iterator(), strat);
+				if (numThreads > 1 && mdp instanceof MDPSparse) {
+					((MDPSparse) mdp).mvMultMinMaxParallel(soln, min, soln2, statesArray(states), strat, numThreads);
+				} else {
+					mdp.mvMultMinMax(soln, min, soln2, states.iterator(), strat);
+				}
 			}
 		};
 	}
@@ -126,7 +176,11 @@ public class IterationMethodPower extends IterationMethod {
 			@Override
 			public void doIterate(IntSet states)
 			{
-				mdp.mvMultMinMax(soln, min, soln2, states.iterator(), strat);
+				if (numThreads > 1 && mdp instanceof MDPSparse) {
+					((MDPSparse) mdp).mvMultMinMaxParallel(soln, min, soln2, statesArray(states), strat, numThreads);
+				} else {
+					mdp.mvMultMinMax(soln, min, soln2, states.iterator(), strat);
+				}
 			}
 		};
 	}
@@ -140,11 +194,25 @@ public class IterationMethodPower extends IterationMethod {
 	@Override
 	public IterationValIter forMvMultRewMinMax(MDP<Double> mdp, MDPRewards<Double> rewards, boolean min, int[] strat) throws PrismException
 	{
+		if (useOffHeap(mdp) && mdp instanceof MDPSparse) {
+			MDPSparse sparse = (MDPSparse) mdp;
+			return new OffHeapTwoVectorIteration(mdp) {
+				@Override
+				public void doIterate(IntSet states)
+				{
+					sparse.mvMultRewMinMaxParallel(soln, rewards, min, soln2::set, statesArray(states), strat, numThreads);
+				}
+			};
+		}
 		return new TwoVectorIteration(mdp, null) {
 			@Override
 			public void doIterate(IntSet states)
 			{
-				mdp.mvMultRewMinMax(soln, rewards, min, soln2, states.iterator(), strat);
+				if (numThreads > 1 && mdp instanceof MDPSparse) {
+					((MDPSparse) mdp).mvMultRewMinMaxParallel(soln, rewards, min, soln2, statesArray(states), strat, numThreads);
+				} else {
+					mdp.mvMultRewMinMax(soln, rewards, min, soln2, states.iterator(), strat);
+				}
 			}
 		};
 	}
@@ -161,7 +229,11 @@ public class IterationMethodPower extends IterationMethod {
 			@Override
 			public void doIterate(IntSet states)
 			{
-				mdp.mvMultRewMinMax(soln, rewards, min, soln2, states.iterator(), strat);
+				if (numThreads > 1 && mdp instanceof MDPSparse) {
+					((MDPSparse) mdp).mvMultRewMinMaxParallel(soln, rewards, min, soln2, statesArray(states), strat, numThreads);
+				} else {
+					mdp.mvMultRewMinMax(soln, rewards, min, soln2, states.iterator(), strat);
+				}
 			}
 		};
 	}
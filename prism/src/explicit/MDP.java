@@ -324,23 +324,34 @@ public interface MDP<Value> extends NondetModel<Value>
 	{
 		for (OfInt it = new IterableStateSet(subset, getNumStates()).iterator(); it.hasNext();) {
 			final int s = it.nextInt();
-			boolean b1 = forall; // there exists or for all
-			for (int choice = 0, numChoices = getNumChoices(s); choice < numChoices; choice++) {
-				boolean b2 = someSuccessorsInSet(s, choice, u);
-				if (forall) {
-					if (!b2) {
-						b1 = false;
-						break;
-					}
-				} else {
-					if (b2) {
-						b1 = true;
-						break;
-					}
+			result.set(s, prob0step(s, u, forall));
+		}
+	}
+
+	/**
+	 * Perform a single step of precomputation algorithm Prob0 for a single state,
+	 * i.e., return whether, for all/some choices,
+	 * there is a transition to a state in {@code u}.
+	 * Quantification over choices is determined by {@code forall}.
+	 * @param s State (row) index
+	 * @param u Set of states {@code u}
+	 * @param forall For-all or there-exists (true=for-all, false=there-exists)
+	 */
+	public default boolean prob0step(final int s, final BitSet u, final boolean forall)
+	{
+		for (int choice = 0, numChoices = getNumChoices(s); choice < numChoices; choice++) {
+			boolean b2 = someSuccessorsInSet(s, choice, u);
+			if (forall) {
+				if (!b2) {
+					return false;
+				}
+			} else {
+				if (b2) {
+					return true;
 				}
 			}
-			result.set(s, b1);
 		}
+		return forall; // there exists or for all
 	}
 
 	/**
@@ -418,26 +429,37 @@ public interface MDP<Value> extends NondetModel<Value>
 	 */
 	public default void prob1step(BitSet subset, BitSet u, BitSet v, boolean forall, BitSet result)
 	{
-		boolean b1, b2;
 		for (OfInt it = new IterableStateSet(subset, getNumStates()).iterator(); it.hasNext();) {
 			final int s = it.nextInt();
-			b1 = forall; // there exists or for all
-			for (int choice = 0, numChoices = getNumChoices(s); choice < numChoices; choice++) {
-				b2 = successorsSafeAndCanReach(s, choice, u, v);
-				if (forall) {
-					if (!b2) {
-						b1 = false;
-						break;
-					}
-				} else {
-					if (b2) {
-						b1 = true;
-						break;
-					}
+			result.set(s, prob1step(s, u, v, forall));
+		}
+	}
+
+	/**
+	 * Perform a single step of precomputation algorithm Prob1 for a single state,
+	 * i.e., return whether, for all/some choices,
+	 * there is a transition to a state in {@code v} and all transitions go to states in {@code u}.
+	 * Quantification over choices is determined by {@code forall}.
+	 * @param s State (row) index
+	 * @param u Set of states {@code u}
+	 * @param v Set of states {@code v}
+	 * @param forall For-all or there-exists (true=for-all, false=there-exists)
+	 */
+	public default boolean prob1step(int s, BitSet u, BitSet v, boolean forall)
+	{
+		for (int choice = 0, numChoices = getNumChoices(s); choice < numChoices; choice++) {
+			boolean b2 = successorsSafeAndCanReach(s, choice, u, v);
+			if (forall) {
+				if (!b2) {
+					return false;
+				}
+			} else {
+				if (b2) {
+					return true;
 				}
 			}
-			result.set(s, b1);
 		}
+		return forall; // there exists or for all
 	}
 
 	/**
@@ -889,8 +911,8 @@ public interface MDP<Value> extends NondetModel<Value>
 	 */
 	public default double mvMultRewSingle(int s, int i, double vect[], MDPRewards<Double> mdpRewards)
 	{
-		double d = mdpRewards.getStateReward(s);
-		d += mdpRewards.getTransitionReward(s, i);
+		double d = mdpRewards.getStateRewardDouble(s);
+		d += mdpRewards.getTransitionRewardDouble(s, i);
 		d += sumOverDoubleTransitions(s, i, (__, t, prob) -> {
 			return prob * vect[t];
 		});
@@ -1058,7 +1080,7 @@ public interface MDP<Value> extends NondetModel<Value>
 	{
 		class Jacobi {
 			double diag = 1.0;
-			double d = mdpRewards.getStateReward(s) + mdpRewards.getTransitionReward(s, i);
+			double d = mdpRewards.getStateRewardDouble(s) + mdpRewards.getTransitionRewardDouble(s, i);
 			boolean onlySelfLoops = true;
 
 			void accept(int s, int t, double prob) {
@@ -0,0 +1,297 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+
+package explicit;
+
+import java.util.AbstractMap;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.Map.Entry;
+
+import explicit.rewards.MDPRewards;
+import prism.PrismException;
+import prism.PrismNotSupportedException;
+
+/**
+ * Sparse matrix (non-mutable) explicit-state representation of an MDP,
+ * with the same layout as {@link MDPSparse}, but stored in memory-mapped sections of a file
+ * rather than on the Java heap. Instances are created by {@link BinaryModelFile}.
+ */
+public class MDPMapped extends MDPExplicit<Double>
+{
+	/** Probabilities for each transition */
+	private final MappedSection nonZeros;
+	/** Column (destination) indices for each transition */
+	private final MappedSection cols;
+	/** Indices into nonZeros/cols giving the start of the transitions for each choice;
+	 * section is of size numDistrs+1 and last entry is always equal to numTransitions */
+	private final MappedSection choiceStarts;
+	/** Indices into choiceStarts giving the start of the choices for each state;
+	 * section is of size numStates+1 and last entry is always equal to numDistrs */
+	private final MappedSection rowStarts;
+
+	/** Index into {@code actionNames} for each choice (-1 for none); null if there are no actions */
+	private final MappedSection actions;
+	/** Distinct action labels */
+	private final String[] actionNames;
+
+	// Other statistics
+	private final int numDistrs;
+	private final int numTransitions;
+	private final int maxNumDistrs;
+
+	/**
+	 * Constructor: Build an MDPMapped over the given sections (which are stored, not copied).
+	 * Initial states, labels, etc. are not set.
+	 * @param numStates Number of states
+	 * @param rowStarts Start of the choices for each state (size numStates+1)
+	 * @param choiceStarts Start of the transitions for each choice (size numDistrs+1)
+	 * @param cols Destination of each transition
+	 * @param nonZeros Probability of each transition
+	 * @param actions Index into {@code actionNames} for each choice, -1 for none (or null if there are no actions)
+	 * @param actionNames Distinct action labels
+	 */
+	public MDPMapped(int numStates, MappedSection rowStarts, MappedSection choiceStarts, MappedSection cols, MappedSection nonZeros, MappedSection actions, String[] actionNames)
+	{
+		initialise(numStates);
+		this.rowStarts = rowStarts;
+		this.choiceStarts = choiceStarts;
+		this.cols = cols;
+		this.nonZeros = nonZeros;
+		this.actions = actions;
+		this.actionNames = actionNames;
+		numDistrs = rowStarts.getInt(numStates);
+		numTransitions = choiceStarts.getInt(numDistrs);
+		int max = 0;
+		for (int s = 0; s < numStates; s++) {
+			max = Math.max(max, rowStarts.getInt(s + 1) - rowStarts.getInt(s));
+		}
+		maxNumDistrs = max;
+	}
+
+	// Mutators (other)
+
+	@Override
+	public void buildFromPrismExplicit(String filename) throws PrismException
+	{
+		throw new PrismNotSupportedException("Building mapped MDP currently not supported from PrismExplicit");
+	}
+
+	// Accessors (for Model)
+
+	@Override
+	public int getNumTransitions()
+	{
+		return numTransitions;
+	}
+
+	@Override
+	public int getNumTransitions(int s)
+	{
+		return choiceStarts.getInt(rowStarts.getInt(s + 1)) - choiceStarts.getInt(rowStarts.getInt(s));
+	}
+
+	private SuccessorsIterator colsIterator(int start, int end, boolean distinct)
+	{
+		return new SuccessorsIterator() {
+			int cur = start;
+
+			@Override
+			public boolean successorsAreDistinct()
+			{
+				return distinct;
+			}
+
+			@Override
+			public boolean hasNext()
+			{
+				return cur < end;
+			}
+
+			@Override
+			public int nextInt()
+			{
+				return cols.getInt(cur++);
+			}
+		};
+	}
+
+	@Override
+	public SuccessorsIterator getSuccessors(final int s)
+	{
+		int start = choiceStarts.getInt(rowStarts.getInt(s));
+		int end = choiceStarts.getInt(rowStarts.getInt(s + 1));
+		// we can guarantee that the successors are distinct if there is at most one successor...
+		boolean distinct = (start == end || start + 1 == end);
+		return colsIterator(start, end, distinct);
+	}
+
+	@Override
+	public void findDeadlocks(boolean fix) throws PrismException
+	{
+		for (int i = 0; i < numStates; i++) {
+			if (getNumChoices(i) == 0) {
+				addDeadlockState(i);
+				if (fix) {
+					throw new PrismException("Can't fix deadlocks in an MDPMapped since it cannot be modified after construction");
+				}
+			}
+		}
+	}
+
+	@Override
+	public void checkForDeadlocks(BitSet except) throws PrismException
+	{
+		for (int i = 0; i < numStates; i++) {
+			if (getNumChoices(i) == 0 && (except == null || !except.get(i)))
+				throw new PrismException("MDP has a deadlock in state " + i);
+		}
+	}
+
+	// Accessors (for NondetModel)
+
+	@Override
+	public int getNumChoices(int s)
+	{
+		return rowStarts.getInt(s + 1) - rowStarts.getInt(s);
+	}
+
+	@Override
+	public int getMaxNumChoices()
+	{
+		return maxNumDistrs;
+	}
+
+	@Override
+	public int getNumChoices()
+	{
+		return numDistrs;
+	}
+
+	@Override
+	public Object getAction(int s, int i)
+	{
+		if (i < 0 || actions == null) {
+			return null;
+		}
+		int a = actions.getInt(rowStarts.getInt(s) + i);
+		return a < 0 ? null : actionNames[a];
+	}
+
+	@Override
+	public SuccessorsIterator getSuccessors(final int s, final int i)
+	{
+		int start = choiceStarts.getInt(rowStarts.getInt(s) + i);
+		int end = choiceStarts.getInt(rowStarts.getInt(s) + i + 1);
+		// we assume here that the successors for a single choice are distinct
+		return colsIterator(start, end, true);
+	}
+
+	// Accessors (for MDP)
+
+	@Override
+	public int getNumTransitions(int s, int i)
+	{
+		return choiceStarts.getInt(rowStarts.getInt(s) + i + 1) - choiceStarts.getInt(rowStarts.getInt(s) + i);
+	}
+
+	@Override
+	public void forEachTransition(int s, int i, TransitionConsumer<Double> c)
+	{
+		for (int col = choiceStarts.getInt(rowStarts.getInt(s) + i), stop = choiceStarts.getInt(rowStarts.getInt(s) + i + 1); col < stop; col++) {
+			c.accept(s, cols.getInt(col), nonZeros.getDouble(col));
+		}
+	}
+
+	@Override
+	public void forEachDoubleTransition(int s, int i, DoubleTransitionConsumer c)
+	{
+		for (int col = choiceStarts.getInt(rowStarts.getInt(s) + i), stop = choiceStarts.getInt(rowStarts.getInt(s) + i + 1); col < stop; col++) {
+			c.accept(s, cols.getInt(col), nonZeros.getDouble(col));
+		}
+	}
+
+	@Override
+	public Iterator<Entry<Integer, Double>> getTransitionsIterator(final int s, final int i)
+	{
+		return new Iterator<Entry<Integer, Double>>()
+		{
+			int col = choiceStarts.getInt(rowStarts.getInt(s) + i);
+			final int end = choiceStarts.getInt(rowStarts.getInt(s) + i + 1);
+
+			@Override
+			public boolean hasNext()
+			{
+				return col < end;
+			}
+
+			@Override
+			public Entry<Integer, Double> next()
+			{
+				final int j = col++;
+				return new AbstractMap.SimpleImmutableEntry<Integer, Double>(cols.getInt(j), nonZeros.getDouble(j));
+			}
+		};
+	}
+
+	@Override
+	public double mvMultSingle(int s, int i, double vect[])
+	{
+		double d = 0.0;
+		for (int col = choiceStarts.getInt(rowStarts.getInt(s) + i), stop = choiceStarts.getInt(rowStarts.getInt(s) + i + 1); col < stop; col++) {
+			d += nonZeros.getDouble(col) * vect[cols.getInt(col)];
+		}
+		return d;
+	}
+
+	@Override
+	public double mvMultJacSingle(int s, int i, double vect[])
+	{
+		double diag = 1.0;
+		double d = 0.0;
+		for (int col = choiceStarts.getInt(rowStarts.getInt(s) + i), stop = choiceStarts.getInt(rowStarts.getInt(s) + i + 1); col < stop; col++) {
+			final int k = cols.getInt(col);
+			if (k != s) {
+				d += nonZeros.getDouble(col) * vect[k];
+			} else {
+				diag -= nonZeros.getDouble(col);
+			}
+		}
+		if (diag > 0) {
+			d /= diag;
+		}
+		return d;
+	}
+
+	@Override
+	public double mvMultRewSingle(int s, int i, double vect[], MDPRewards<Double> mdpRewards)
+	{
+		double d = mdpRewards.getStateRewardDouble(s) + mdpRewards.getTransitionRewardDouble(s, i);
+		for (int col = choiceStarts.getInt(rowStarts.getInt(s) + i), stop = choiceStarts.getInt(rowStarts.getInt(s) + i + 1); col < stop; col++) {
+			d += nonZeros.getDouble(col) * vect[cols.getInt(col)];
+		}
+		return d;
+	}
+}
@@ -312,6 +312,7 @@ public class MDPModelChecker extends ProbModelChecker
 		int n, numYes, numNo;
 		long timer, timerProb0, timerProb1;
 		int strat[] = null;
+		PredecessorRelation pre = null;
 		// Local copy of setting
 		MDPSolnMethod mdpSolnMethod = this.mdpSolnMethod;
 
@@ -404,17 +405,21 @@ public class MDPModelChecker extends ProbModelChecker
 			}
 		}
 
+		if (precomp && (prob0 || prob1) && preRel) {
+			pre = mdp.getPredecessorRelation(this, true);
+		}
+
 		// Precomputation
 		timerProb0 = System.currentTimeMillis();
 		if (precomp && prob0) {
-			no = prob0(mdp, remain, target, min, strat);
+			no = prob0Memoised(mdp, remain, target, min, strat, preRel ? pre : null);
 		} else {
 			no = new BitSet();
 		}
 		timerProb0 = System.currentTimeMillis() - timerProb0;
 		timerProb1 = System.currentTimeMillis();
 		if (precomp && prob1) {
-			yes = prob1(mdp, remain, target, min, strat);
+			yes = prob1Memoised(mdp, remain, target, min, strat, preRel ? pre : null);
 		} else {
 			yes = (BitSet) target.clone();
 		}
@@ -517,10 +522,19 @@ public class MDPModelChecker extends ProbModelChecker
 		IterationMethod iterationMethod = null;
 		switch (method) {
 		case VALUE_ITERATION:
+			if (adaptiveVI) {
+				if (!doIntervalIteration && !getDoTopologicalValueIteration() && precomp && prob0) {
+					res = computeReachProbsAdaptive(mdp, no, yes, min, init, known, strat);
+					break;
+				}
+				mainLog.println("Adaptive value iteration needs Prob0 and is not combined with interval/topological iteration; using value iteration");
+			}
 			iterationMethod = new IterationMethodPower(termCrit == TermCrit.ABSOLUTE, termCritParam);
+			configureIterationMethod(iterationMethod);
 			break;
 		case GAUSS_SEIDEL:
 			iterationMethod = new IterationMethodGS(termCrit == TermCrit.ABSOLUTE, termCritParam, false);
+			configureIterationMethod(iterationMethod);
 			break;
 		case POLICY_ITERATION:
 			if (doIntervalIteration) {
@@ -549,6 +563,48 @@ public class MDPModelChecker extends ProbModelChecker
 		return res;
 	}
 
+	/**
+	 * Prob0 precomputation (see {@link #prob0(MDP, BitSet, BitSet, boolean, int[], PredecessorRelation)}),
+	 * reusing the result of an earlier call with the same arguments on the same model,
+	 * if it is memoised in the model's workspace. This is only done if no strategy is needed.
+	 * @param pre The predecessor relation of the MDP (optional: null means "don't use")
+	 */
+	protected BitSet prob0Memoised(MDP<?> mdp, BitSet remain, BitSet target, boolean min, int strat[], PredecessorRelation pre)
+	{
+		ModelWorkspace workspace = (strat == null) ? getWorkspace(mdp) : null;
+		BitSet soln = (workspace == null) ? null : workspace.getPrecomputation("prob0", remain, target, min);
+		if (soln != null) {
+			if (!silentPrecomputations)
+				mainLog.println("Prob0 (" + (min ? "min" : "max") + ") result reused from earlier computation");
+			return soln;
+		}
+		soln = (pre != null) ? prob0(mdp, remain, target, min, strat, pre) : prob0(mdp, remain, target, min, strat);
+		if (workspace != null)
+			workspace.storePrecomputation("prob0", remain, target, min, soln);
+		return soln;
+	}
+
+	/**
+	 * Prob1 precomputation (see {@link #prob1(MDP, BitSet, BitSet, boolean, int[], PredecessorRelation)}),
+	 * reusing the result of an earlier call with the same arguments on the same model,
+	 * if it is memoised in the model's workspace. This is only done if no strategy is needed.
+	 * @param pre The predecessor relation of the MDP (optional: null means "don't use")
+	 */
+	protected BitSet prob1Memoised(MDP<?> mdp, BitSet remain, BitSet target, boolean min, int strat[], PredecessorRelation pre)
+	{
+		ModelWorkspace workspace = (strat == null) ? getWorkspace(mdp) : null;
+		BitSet soln = (workspace == null) ? null : workspace.getPrecomputation("prob1", remain, target, min);
+		if (soln != null) {
+			if (!silentPrecomputations)
+				mainLog.println("Prob1 (" + (min ? "min" : "max") + ") result reused from earlier computation");
+			return soln;
+		}
+		soln = (pre != null) ? prob1(mdp, remain, target, min, strat, pre) : prob1(mdp, remain, target, min, strat);
+		if (workspace != null)
+			workspace.storePrecomputation("prob1", remain, target, min, soln);
+		return soln;
+	}
+
 	/**
 	 * Prob0 precomputation algorithm.
 	 * i.e. determine the states of an MDP which, with min/max probability 0,
@@ -627,22 +683,106 @@ public class MDPModelChecker extends ProbModelChecker
 
 		// If required, generate strategy. This is for min probs,
 		// so it can be done *after* the main prob0 algorithm (unlike for prob1).
-		// We simply pick, for all "no" states, the first choice for which all transitions stay in "no"
 		if (strat != null) {
-			for (int i = u.nextSetBit(0); i >= 0; i = u.nextSetBit(i + 1)) {
-				int numChoices = mdp.getNumChoices(i);
-				for (int k = 0; k < numChoices; k++) {
-					if (mdp.allSuccessorsInSet(i, k, u)) {
-						strat[i] = k;
-						continue;
-					}
-				}
+			prob0Strategy(mdp, u, strat);
+		}
+
+		return u;
+	}
+
+	/**
+	 * Prob0 precomputation algorithm (using predecessor relation),
+	 * i.e. determine the states of an MDP which, with min/max probability 0,
+	 * reach a state in {@code target}, while remaining in those in {@code remain}.
+	 * {@code min}=true gives Prob0E, {@code min}=false gives Prob0A. 
+	 * Optionally, for min only, store optimal (memoryless) strategy info for 0 states. 
+	 * Rather than a full fixed-point iteration, this only re-evaluates predecessors of newly added states
+	 * (see {@link FrontierFixpoint}), optionally using several threads.
+	 * @param mdp The MDP
+	 * @param remain Remain in these states (optional: null means "all")
+	 * @param target Target states
+	 * @param min Min or max probabilities (true=min, false=max)
+	 * @param strat Storage for (memoryless) strategy choice indices (ignored if null)
+	 * @param pre The predecessor relation of the MDP
+	 */
+	public BitSet prob0(MDP<?> mdp, BitSet remain, BitSet target, boolean min, int strat[], PredecessorRelation pre)
+	{
+		int n;
+		BitSet init, u, unknown;
+		long timer;
+
+		// Start precomputation
+		timer = System.currentTimeMillis();
+		if (!silentPrecomputations)
+			mainLog.println("Starting Prob0 (" + (min ? "min" : "max") + ")...");
+
+		// Special case: no target states
+		if (target.cardinality() == 0) {
+			BitSet soln = new BitSet(mdp.getNumStates());
+			soln.set(0, mdp.getNumStates());
+
+			// for min, generate strategy, any choice (-2) is fine
+			if (min && strat != null) {
+				Arrays.fill(strat, -2);
 			}
+			return soln;
+		}
+
+		// Determine set of states actually need to perform computation for
+		n = mdp.getNumStates();
+		unknown = new BitSet();
+		unknown.set(0, n);
+		unknown.andNot(target);
+		if (remain != null)
+			unknown.and(remain);
+
+		// Least fixed point, starting from 'target'
+		// (plus, for min, any states with no choices, which trivially satisfy the for-all step)
+		FrontierFixpoint.StateTest test = (s, current) -> mdp.prob0step(s, current, min);
+		init = (BitSet) target.clone();
+		init.or(FrontierFixpoint.vacuousStates(mdp, unknown, test));
+		FrontierFixpoint fixpoint = new FrontierFixpoint(pre, numThreads);
+		u = fixpoint.leastFixpoint(unknown, init, test);
+
+		// Negate
+		u.flip(0, n);
+
+		// Finished precomputation
+		timer = System.currentTimeMillis() - timer;
+		if (!silentPrecomputations) {
+			mainLog.print("Prob0 (" + (min ? "min" : "max") + ")");
+			mainLog.println(" took " + fixpoint.getNumIterations() + " iterations and " + timer / 1000.0 + " seconds.");
+		}
+
+		// If required, generate strategy (as for the fixed-point version)
+		if (strat != null) {
+			prob0Strategy(mdp, u, strat);
 		}
 
 		return u;
 	}
 
+	/**
+	 * Generate a (memoryless) strategy for the states of an MDP with min probability 0,
+	 * as computed by Prob0E. We simply pick, for all "no" states,
+	 * a choice for which all transitions stay in "no".
+	 * @param mdp The MDP
+	 * @param no The states with min probability 0
+	 * @param strat Storage for (memoryless) strategy choice indices
+	 */
+	private void prob0Strategy(MDP<?> mdp, BitSet no, int strat[])
+	{
+		for (int i = no.nextSetBit(0); i >= 0; i = no.nextSetBit(i + 1)) {
+			int numChoices = mdp.getNumChoices(i);
+			for (int k = 0; k < numChoices; k++) {
+				if (mdp.allSuccessorsInSet(i, k, no)) {
+					strat[i] = k;
+					continue;
+				}
+			}
+		}
+	}
+
 	/**
 	 * Prob1 precomputation algorithm.
 	 * i.e. determine the states of an MDP which, with min/max probability 1,
@@ -723,22 +863,88 @@ public class MDPModelChecker extends ProbModelChecker
 		// strategy info for non-1 states during early iterations of the outer loop,
 		// which are not straightforward to remove since this method does not know which states
 		// already have valid strategy info from Prob0.
-		// Notice that we only need to look at states in u (since we already know the answer),
-		// so we restrict 'unknown' further 
-		unknown.and(u);
 		if (!min && strat != null) {
-			v_done = false;
-			v.clear();
-			v.or(target);
-			soln.clear();
-			soln.or(target);
-			while (!v_done) {
-				mdp.prob1Estep(unknown, u, v, soln, strat);
-				v_done = soln.equals(v);
-				v.clear();
-				v.or(soln);
-			}
+			prob1Strategy(mdp, unknown, target, u, strat);
+		}
+
+		// Finished precomputation
+		timer = System.currentTimeMillis() - timer;
+		if (!silentPrecomputations) {
+			mainLog.print("Prob1 (" + (min ? "min" : "max") + ")");
+			mainLog.println(" took " + iters + " iterations and " + timer / 1000.0 + " seconds.");
+		}
+
+		return u;
+	}
+
+	/**
+	 * Prob1 precomputation algorithm (using predecessor relation),
+	 * i.e. determine the states of an MDP which, with min/max probability 1,
+	 * reach a state in {@code target}, while remaining in those in {@code remain}.
+	 * {@code min}=true gives Prob1A, {@code min}=false gives Prob1E. 
+	 * Optionally, for max only, store optimal (memoryless) strategy info for 1 states. 
+	 * The inner (least) fixed points only re-evaluate predecessors of newly added states
+	 * (see {@link FrontierFixpoint}), optionally using several threads.
+	 * @param mdp The MDP
+	 * @param remain Remain in these states (optional: null means "all")
+	 * @param target Target states
+	 * @param min Min or max probabilities (true=min, false=max)
+	 * @param strat Storage for (memoryless) strategy choice indices (ignored if null)
+	 * @param pre The predecessor relation of the MDP
+	 */
+	public BitSet prob1(MDP<?> mdp, BitSet remain, BitSet target, boolean min, int strat[], PredecessorRelation pre)
+	{
+		int n, iters;
+		BitSet u, v, init, subset, unknown;
+		boolean u_done;
+		long timer;
+
+		// Start precomputation
+		timer = System.currentTimeMillis();
+		if (!silentPrecomputations)
+			mainLog.println("Starting Prob1 (" + (min ? "min" : "max") + ")...");
+
+		// Special case: no target states
+		if (target.cardinality() == 0) {
+			return new BitSet(mdp.getNumStates());
+		}
+
+		// Determine set of states actually need to perform computation for
+		n = mdp.getNumStates();
+		unknown = new BitSet();
+		unknown.set(0, n);
+		unknown.andNot(target);
+		if (remain != null)
+			unknown.and(remain);
+
+		// Inner least fixed points start from 'target'
+		// (plus, for min, any states with no choices, which trivially satisfy the for-all step)
+		init = (BitSet) target.clone();
+		init.or(FrontierFixpoint.vacuousStates(mdp, unknown, (s, current) -> mdp.prob1step(s, current, current, min)));
+
+		// Nested fixed point loop
+		FrontierFixpoint fixpoint = new FrontierFixpoint(pre, numThreads);
+		iters = 0;
+		u_done = false;
+		// Greatest fixed point
+		u = new BitSet(n);
+		u.set(0, n);
+		while (!u_done) {
+			// States outside u will not be added again, since u only shrinks
+			subset = (BitSet) unknown.clone();
+			subset.and(u);
+			final BitSet uCurrent = u;
+			v = fixpoint.leastFixpoint(subset, init, (s, current) -> mdp.prob1step(s, uCurrent, current, min));
+			iters += fixpoint.getNumIterations();
+			// Check termination (outer)
 			u_done = v.equals(u);
+			// u = v
+			u = v;
+		}
+
+		// If required, generate strategy (as for the fixed-point version)
+		if (!min && strat != null) {
+			prob1Strategy(mdp, unknown, target, u, strat);
 		}
 
 		// Finished precomputation
@@ -751,6 +957,33 @@ public class MDPModelChecker extends ProbModelChecker
 		return u;
 	}
 
+	/**
+	 * Generate a (memoryless) strategy for the states of an MDP with max probability 1,
+	 * as computed by Prob1E, by doing another iteration of the inner loop of Prob1E.
+	 * @param mdp The MDP
+	 * @param unknown The states that the Prob1E computation was performed for (modified by this method)
+	 * @param target Target states
+	 * @param yes The states with max probability 1
+	 * @param strat Storage for (memoryless) strategy choice indices
+	 */
+	private void prob1Strategy(MDP<?> mdp, BitSet unknown, BitSet target, BitSet yes, int strat[])
+	{
+		// Notice that we only need to look at states in yes (since we already know the answer),
+		// so we restrict 'unknown' further 
+		unknown.and(yes);
+		BitSet v = new BitSet();
+		BitSet soln = new BitSet();
+		boolean v_done = false;
+		v.or(target);
+		soln.or(target);
+		while (!v_done) {
+			mdp.prob1Estep(unknown, yes, v, soln, strat);
+			v_done = soln.equals(v);
+			v.clear();
+			v.or(soln);
+		}
+	}
+
 	/**
 	 * Compute reachability probabilities using value iteration.
 	 * Optionally, store optimal (memoryless) strategy info. 
@@ -767,9 +1000,151 @@ public class MDPModelChecker extends ProbModelChecker
 			throws PrismException
 	{
 		IterationMethodPower iterationMethod = new IterationMethodPower(termCrit == TermCrit.ABSOLUTE, termCritParam);
+		configureIterationMethod(iterationMethod);
 		return doValueIterationReachProbs(mdp, no, yes, min, init, known, iterationMethod, false, strat);
 	}
 
+	/**
+	 * Compute reachability probabilities using adaptive value iteration.
+	 * Value iteration is monitored (see {@link ConvergenceMonitor}) and, when convergence stalls,
+	 * the current greedy (memoryless) strategy is evaluated by solving the induced DTMC.
+	 * If the strategy is optimal, its values are returned; otherwise, value iteration
+	 * continues from the improved values (a lower bound for max, an upper bound for min).
+	 * This relies on Prob0 precomputation having been applied to {@code no},
+	 * so that the fixed point is unique for min.
+	 * Optionally, store optimal (memoryless) strategy info.
+	 * @param mdp The MDP
+	 * @param no Probability 0 states
+	 * @param yes Probability 1 states
+	 * @param min Min or max probabilities (true=min, false=max)
+	 * @param init Optionally, an initial solution vector (will be overwritten)
+	 * @param known Optionally, a set of states for which the exact answer is known
+	 * @param strat Storage for (memoryless) strategy choice indices (ignored if null)
+	 * Note: if 'known' is specified (i.e. is non-null), 'init' must also be given and is used for the exact values.
+	 */
+	protected ModelCheckerResult computeReachProbsAdaptive(MDP<Double> mdp, BitSet no, BitSet yes, boolean min, double init[], BitSet known, int strat[])
+			throws PrismException
+	{
+		ModelCheckerResult res;
+		BitSet unknown, remain;
+		int i, n, iters, phaseIters, numPolicies, policyIters;
+		double soln[], soln2[], tmpsoln[], initVal, maxDiff;
+		boolean absolute, done;
+		long timer;
+
+		// Start adaptive value iteration
+		timer = System.currentTimeMillis();
+		mainLog.println("Starting adaptive value iteration (" + (min ? "min" : "max") + ")...");
+		absolute = (termCrit == TermCrit.ABSOLUTE);
+
+		// Store num states
+		n = mdp.getNumStates();
+
+		// Initialise solution vectors (as for value iteration)
+		initVal = (valIterDir == ValIterDir.BELOW) ? 0.0 : 1.0;
+		soln = new double[n];
+		for (i = 0; i < n; i++) {
+			if (known != null && known.get(i))
+				soln[i] = init[i];
+			else
+				soln[i] = yes.get(i) ? 1.0 : no.get(i) ? 0.0 : init != null ? init[i] : initVal;
+		}
+		soln2 = soln.clone();
+
+		// Determine set of states actually need to compute values for
+		unknown = new BitSet();
+		unknown.set(0, n);
+		unknown.andNot(yes);
+		unknown.andNot(no);
+		if (known != null)
+			unknown.andNot(known);
+		remain = new BitSet();
+		remain.set(0, n);
+		remain.andNot(no);
+
+		// Create a DTMC model checker (for evaluating strategies)
+		DTMCModelChecker mcDTMC = new DTMCModelChecker(this);
+		mcDTMC.inheritSettings(this);
+		mcDTMC.setLog(new PrismDevNullLog());
+		int greedy[] = new int[n];
+		Arrays.fill(greedy, -1);
+
+		// Start iterations
+		ConvergenceMonitor monitor = new ConvergenceMonitor(termCritParam);
+		iters = phaseIters = numPolicies = policyIters = 0;
+		maxDiff = Double.POSITIVE_INFINITY;
+		done = false;
+		while (!done && iters < maxIters) {
+			iters++;
+			phaseIters++;
+			// Matrix-vector multiply and min/max ops
+			mdp.mvMultMinMax(soln, min, soln2, unknown, false, strat);
+			// Check termination
+			maxDiff = PrismUtils.measureSupNorm(soln, soln2, absolute);
+			done = PrismUtils.doublesAreClose(soln, soln2, termCritParam, absolute);
+			// Swap vectors for next iter
+			tmpsoln = soln;
+			soln = soln2;
+			soln2 = tmpsoln;
+			if (done) {
+				break;
+			}
+			monitor.record(maxDiff);
+			if (!monitor.stalled()) {
+				continue;
+			}
+			// Convergence has stalled: evaluate the greedy strategy for the current values
+			mainLog.println("Value iteration phase: " + phaseIters + " iterations (estimated contraction rate " + PrismUtils.formatDouble(4, monitor.getRate()) + ")");
+			mdp.mvMultMinMax(soln, min, soln2, unknown, false, greedy);
+			DTMC<Double> dtmc = new DTMCFromMDPMemorylessAdversary<>(mdp, greedy);
+			res = mcDTMC.computeReachProbs(dtmc, remain, yes, known == null ? null : soln.clone(), known);
+			numPolicies++;
+			policyIters += res.numIters;
+			// Check whether the strategy is optimal
+			mdp.mvMultMinMax(res.soln, min, soln2, unknown, false, null);
+			done = PrismUtils.doublesAreClose(res.soln, soln2, IntSet.asIntSet(unknown).iterator(), termCritParam, absolute);
+			mainLog.println("Policy evaluation phase: " + res.numIters + " iterations, strategy is " + (done ? "optimal" : "not optimal"));
+			if (done) {
+				maxDiff = PrismUtils.measureSupNorm(res.soln, soln2, absolute);
+				for (i = unknown.nextSetBit(0); i >= 0; i = unknown.nextSetBit(i + 1)) {
+					soln[i] = res.soln[i];
+					if (strat != null)
+						strat[i] = greedy[i];
+				}
+				break;
+			}
+			// Not optimal: continue value iteration from improved values. For max, both vectors
+			// are lower bounds, so take the maximum; for min, the strategy's values are an upper bound.
+			for (i = unknown.nextSetBit(0); i >= 0; i = unknown.nextSetBit(i + 1)) {
+				soln[i] = min ? res.soln[i] : Math.max(soln[i], res.soln[i]);
+			}
+			monitor.startPhase();
+			phaseIters = 0;
+		}
+
+		// Finished adaptive value iteration
+		timer = System.currentTimeMillis() - timer;
+		mainLog.print("Adaptive value iteration (" + (min ? "min" : "max") + ")");
+		mainLog.print(" took " + iters + " iterations");
+		mainLog.print(" plus " + numPolicies + " policy evaluations (" + policyIters + " iterations)");
+		mainLog.println(" and " + timer / 1000.0 + " seconds.");
+
+		// Non-convergence is an error (usually)
+		if (!done && errorOnNonConverge) {
+			String msg = "Iterative method did not converge within " + iters + " iterations.";
+			msg += "\nConsider using a different numerical method or increasing the maximum number of iterations";
+			throw new PrismException(msg);
+		}
+
+		// Return results
+		res = new ModelCheckerResult();
+		res.soln = soln;
+		res.accuracy = AccuracyFactory.valueIteration(termCritParam, maxDiff, absolute);
+		res.numIters = iters + policyIters;
+		res.timeTaken = timer / 1000.0;
+		return res;
+	}
+
 	/**
 	 * Compute reachability probabilities using value iteration.
 	 * Optionally, store optimal (memoryless) strategy info.
@@ -808,6 +1183,8 @@ public class MDPModelChecker extends ProbModelChecker
 
 		// Store num states
 		n = mdp.getNumStates();
+		ModelWorkspace workspace = getWorkspace(mdp);
+		double initLocal[] = null;
 
 		// Initialise solution vectors. Use (where available) the following in order of preference:
 		// (1) exact answer, if already known; (2) 1.0/0.0 if in yes/no; (3) passed in initial value; (4) initVal
@@ -822,13 +1199,15 @@ public class MDPModelChecker extends ProbModelChecker
 					init[i] = yes.get(i) ? 1.0 : no.get(i) ? 0.0 : init[i];
 			}
 		} else {
-			init = new double[n];
+			// (storage is recycled via the model's workspace, if available)
+			init = (workspace != null) ? workspace.getDoubleArray() : new double[n];
+			initLocal = init;
 			for (i = 0; i < n; i++)
 				init[i] = yes.get(i) ? 1.0 : no.get(i) ? 0.0 : initVal;
 		}
 
 		// Determine set of states actually need to compute values for
-		unknown = new BitSet();
+		unknown = (workspace != null) ? workspace.getBitSet() : new BitSet();
 		unknown.set(0, n);
 		unknown.andNot(yes);
 		unknown.andNot(no);
@@ -842,6 +1221,7 @@ public class MDPModelChecker extends ProbModelChecker
 		iteration.init(init);
 
 		IntSet unknownStates = IntSet.asIntSet(unknown);
+		ModelCheckerResult res;
 
 		if (topological) {
 			// Compute SCCInfo, including trivial SCCs in the subgraph obtained when only considering
@@ -853,11 +1233,19 @@ public class MDPModelChecker extends ProbModelChecker
 			};
 
 			// run the actual value iteration
-			return iterationMethod.doTopologicalValueIteration(this, description, sccs, iteration, singletonSCCSolver, timer, iterationsExport);
+			res = iterationMethod.doTopologicalValueIteration(this, description, sccs, iteration, singletonSCCSolver, timer, iterationsExport);
 		} else {
 			// run the actual value iteration
-			return iterationMethod.doValueIteration(this, description, iteration, unknownStates, timer, iterationsExport);
+			res = iterationMethod.doValueIteration(this, description, iteration, unknownStates, timer, iterationsExport);
 		}
+
+		// Return temporary storage to the workspace
+		if (workspace != null) {
+			workspace.release(unknown);
+			if (initLocal != null && res.soln != initLocal)
+				workspace.release(initLocal);
+		}
+		return res;
 	}
 
 	/**
@@ -983,6 +1371,7 @@ public class MDPModelChecker extends ProbModelChecker
 			throws PrismException
 	{
 		IterationMethodGS iterationMethod = new IterationMethodGS(termCrit == TermCrit.ABSOLUTE, termCritParam, false);
+		configureIterationMethod(iterationMethod);
 		return doValueIterationReachProbs(mdp, no, yes, min, init, known, iterationMethod, false, strat);
 	}
 
@@ -1579,7 +1968,7 @@ public class MDPModelChecker extends ProbModelChecker
 					Entry<Integer, Double> t = it.next();
 					p = Math.min(p, t.getValue());
 
-					double rew = mdpRewards.getStateReward(s) + mdpRewards.getTransitionReward(s, ch);
+					double rew = mdpRewards.getStateRewardDouble(s) + mdpRewards.getTransitionRewardDouble(s, ch);
 					maxRew = Math.max(maxRew, rew);
 				}
 			}
@@ -1694,7 +2083,7 @@ public class MDPModelChecker extends ProbModelChecker
 		for (int s = 0; s < mdp.getNumStates(); s++) {
 			double maxRew = 0;
 			for (int ch = 0; ch < mdp.getNumChoices(s); ch++) {
-				double rew = mdpRewards.getStateReward(s) + mdpRewards.getTransitionReward(s, ch);
+				double rew = mdpRewards.getStateRewardDouble(s) + mdpRewards.getTransitionRewardDouble(s, ch);
 				maxRew = Math.max(maxRew, rew);
 			}
 			maxRews[s] = maxRew;
@@ -1819,7 +2208,7 @@ public class MDPModelChecker extends ProbModelChecker
 		for (int s = 0; s < mdp.getNumStates(); s++) {
 			double maxRew = 0;
 			for (int ch = 0; ch < mdp.getNumChoices(s); ch++) {
-				double rew = mdpRewards.getStateReward(s) + mdpRewards.getTransitionReward(s, ch);
+				double rew = mdpRewards.getStateRewardDouble(s) + mdpRewards.getTransitionRewardDouble(s, ch);
 				maxRew = Math.max(maxRew, rew);
 			}
 			maxRews[s] = maxRew;
@@ -1877,7 +2266,7 @@ public class MDPModelChecker extends ProbModelChecker
 
 		// Initialise solution vectors.
 		for (i = 0; i < n; i++)
-			soln[i] = mdpRewards.getStateReward(i);
+			soln[i] = mdpRewards.getStateRewardDouble(i);
 
 		// Start iterations
 		for (iters = 0; iters < k; iters++) {
@@ -2127,7 +2516,7 @@ public class MDPModelChecker extends ProbModelChecker
 		
 		// Precomputation (not optional)
 		timerProb1 = System.currentTimeMillis();
-		inf = prob1(mdp, null, target, !min, strat);
+		inf = prob1Memoised(mdp, null, target, !min, strat, preRel ? mdp.getPredecessorRelation(this, true) : null);
 		inf.flip(0, n);
 		timerProb1 = System.currentTimeMillis() - timerProb1;
 		
@@ -2223,9 +2612,11 @@ public class MDPModelChecker extends ProbModelChecker
 		switch (method) {
 		case VALUE_ITERATION:
 			iterationMethod = new IterationMethodPower(termCrit == TermCrit.ABSOLUTE, termCritParam);
+			configureIterationMethod(iterationMethod);
 			break;
 		case GAUSS_SEIDEL:
 			iterationMethod = new IterationMethodGS(termCrit == TermCrit.ABSOLUTE, termCritParam, false);
+			configureIterationMethod(iterationMethod);
 			break;
 		case POLICY_ITERATION:
 			if (doIntervalIteration) {
@@ -2265,6 +2656,7 @@ public class MDPModelChecker extends ProbModelChecker
 			throws PrismException
 	{
 		IterationMethodPower iterationMethod = new IterationMethodPower(termCrit == TermCrit.ABSOLUTE, termCritParam);
+		configureIterationMethod(iterationMethod);
 		return doValueIterationReachRewards(mdp, mdpRewards, iterationMethod, target, inf, min, init, known, false, strat);
 	}
 
@@ -2369,6 +2761,7 @@ public class MDPModelChecker extends ProbModelChecker
 			BitSet known, int strat[]) throws PrismException
 	{
 		IterationMethodGS iterationMethod = new IterationMethodGS(termCrit == TermCrit.ABSOLUTE, termCritParam, false);
+		configureIterationMethod(iterationMethod);
 		return doValueIterationReachRewards(mdp, mdpRewards, iterationMethod, target, inf, min, init, known, false, strat);
 	}
 
@@ -202,6 +202,8 @@ public class MDPSimple<Value> extends MDPExplicit<Value> implements NondetModelS
 		maxNumDistrsOk = false;
 		trans.get(s).clear();
 		actions.clearState(s);
+		// Transitions have changed, so discard any stored predecessor relation
+		clearPredecessorRelation();
 	}
 
 	@Override
@@ -218,6 +220,8 @@ public class MDPSimple<Value> extends MDPExplicit<Value> implements NondetModelS
 			trans.add(new ArrayList<Distribution<Value>>());
 			numStates++;
 		}
+		// Transitions have changed, so discard any stored predecessor relation
+		clearPredecessorRelation();
 	}
 
 	@Override
@@ -344,6 +348,8 @@ public class MDPSimple<Value> extends MDPExplicit<Value> implements NondetModelS
 		}
 		set = trans.get(s);
 		set.add(distr);
+		// Transitions have changed, so discard any stored predecessor relation
+		clearPredecessorRelation();
 		// Update stats
 		numDistrs++;
 		maxNumDistrs = Math.max(maxNumDistrs, set.size());
@@ -372,6 +378,8 @@ public class MDPSimple<Value> extends MDPExplicit<Value> implements NondetModelS
 		}
 		set = trans.get(s);
 		set.add(distr);
+		// Transitions have changed, so discard any stored predecessor relation
+		clearPredecessorRelation();
 		// Set action
 		actions.setAction(s, set.size() - 1, action);
 		// Update stats
@@ -390,6 +398,7 @@ public class MDPSimple<Value> extends MDPExplicit<Value> implements NondetModelS
 	public void setAction(int s, int i, Object o)
 	{
 		actions.setAction(s, i, o);
+		clearWorkspace();
 	}
 
 	// Accessors (for Model)
@@ -41,6 +41,8 @@ import java.util.Map.Entry;
 import java.util.TreeMap;
 
 import common.IterableStateSet;
+import common.Parallel;
+import common.functions.IntDoubleConsumer;
 import explicit.rewards.MCRewards;
 import explicit.rewards.MDPRewards;
 import parser.State;
@@ -368,6 +370,31 @@ public class MDPSparse extends MDPExplicit<Double>
 		rowStarts[numStates] = numDistrs;
 	}
 
+	/**
+	 * Constructor: Build an MDPSparse directly from its sparse matrix arrays
+	 * (which are stored, not copied). Initial states, labels, etc. are not set.
+	 * @param numStates Number of states
+	 * @param rowStarts Start of the choices for each state (size numStates+1)
+	 * @param choiceStarts Start of the transitions for each choice (size numDistrs+1)
+	 * @param cols Destination of each transition
+	 * @param nonZeros Probability of each transition
+	 * @param actions Action label for each choice (or null if there are none)
+	 */
+	public MDPSparse(int numStates, int[] rowStarts, int[] choiceStarts, int[] cols, double[] nonZeros, Object[] actions)
+	{
+		initialise(numStates);
+		this.rowStarts = rowStarts;
+		this.choiceStarts = choiceStarts;
+		this.cols = cols;
+		this.nonZeros = nonZeros;
+		this.actions = actions;
+		numDistrs = rowStarts[numStates];
+		numTransitions = choiceStarts[numDistrs];
+		for (int s = 0; s < numStates; s++) {
+			maxNumDistrs = Math.max(maxNumDistrs, rowStarts[s + 1] - rowStarts[s]);
+		}
+	}
+
 	// Mutators (other)
 
 	@Override
@@ -967,7 +994,7 @@ public class MDPSparse extends MDPExplicit<Double>
 		h1 = rowStarts[s + 1];
 		for (j = l1; j < h1; j++) {
 			// Compute sum for this distribution
-			d = mdpRewards.getTransitionReward(s, j - l1);
+			d = mdpRewards.getTransitionRewardDouble(s, j - l1);
 			l2 = choiceStarts[j];
 			h2 = choiceStarts[j + 1];
 			for (k = l2; k < h2; k++) {
@@ -983,7 +1010,7 @@ public class MDPSparse extends MDPExplicit<Double>
 			first = false;
 		}
 		// Add state reward (doesn't affect min/max)
-		minmax += mdpRewards.getStateReward(s);
+		minmax += mdpRewards.getStateRewardDouble(s);
 		// If strategy generation is enabled, store optimal choice
 		if (strat != null & !first) {
 			// For max, only remember strictly better choices
@@ -1033,8 +1060,8 @@ public class MDPSparse extends MDPExplicit<Double>
 			boolean onlySelfloops = true;
 			// Compute sum for this distribution
 			// (note: have to add state rewards in the loop for Jacobi)
-			d = mdpRewards.getStateReward(s);
-			d += mdpRewards.getTransitionReward(s, j - l1);
+			d = mdpRewards.getStateRewardDouble(s);
+			d += mdpRewards.getTransitionRewardDouble(s, j - l1);
 			l2 = choiceStarts[j];
 			h2 = choiceStarts[j + 1];
 			for (k = l2; k < h2; k++) {
@@ -1095,13 +1122,13 @@ public class MDPSparse extends MDPExplicit<Double>
 		h1 = rowStarts[s + 1];
 		for (j = l1; j < h1; j++) {
 			// Compute sum for this distribution
-			d = mdpRewards.getTransitionReward(s, j - l1);
+			d = mdpRewards.getTransitionRewardDouble(s, j - l1);
 			l2 = choiceStarts[j];
 			h2 = choiceStarts[j + 1];
 			for (k = l2; k < h2; k++) {
 				d += nonZeros[k] * vect[cols[k]];
 			}
-			d += mdpRewards.getStateReward(s);
+			d += mdpRewards.getStateRewardDouble(s);
 			// Store strategy info if value matches
 			if (PrismUtils.doublesAreEqual(val, d)) {
 				res.add(j - l1);
@@ -1126,6 +1153,71 @@ public class MDPSparse extends MDPExplicit<Double>
 		}
 	}
 
+	// Parallel matrix-vector kernels
+
+	/**
+	 * Do a matrix-vector multiplication followed by min/max, i.e. one step of value iteration,
+	 * for the states in {@code states}, processing blocks of states in parallel using {@code numThreads} threads.
+	 * The result (and strategy) is identical to that of
+	 * {@link #mvMultMinMax(double[], boolean, double[], java.util.PrimitiveIterator.OfInt, int[])}.
+	 * @param vect Vector to multiply by
+	 * @param min Min or max for (true=min, false=max)
+	 * @param result Vector to store result in
+	 * @param states States to do the multiplication for
+	 * @param strat Storage for (memoryless) strategy choice indices (ignored if null)
+	 * @param numThreads Number of threads to use
+	 */
+	public void mvMultMinMaxParallel(double vect[], boolean min, double result[], int states[], int strat[], int numThreads)
+	{
+		mvMultMinMaxParallel(vect, min, (s, d) -> result[s] = d, states, strat, numThreads);
+	}
+
+	/**
+	 * As {@link #mvMultMinMaxParallel(double[], boolean, double[], int[], int[], int)}, but passing the result for each state
+	 * to {@code result} rather than storing it in an array (e.g. to store it off-heap).
+	 */
+	public void mvMultMinMaxParallel(double vect[], boolean min, IntDoubleConsumer result, int states[], int strat[], int numThreads)
+	{
+		Parallel.forEachBlock(numThreads, 0, states.length, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				int s = states[i];
+				result.accept(s, mvMultMinMaxSingle(s, vect, min, strat));
+			}
+		});
+	}
+
+	/**
+	 * Do a matrix-vector multiplication and sum of rewards followed by min/max, i.e. one step of value iteration,
+	 * for the states in {@code states}, processing blocks of states in parallel using {@code numThreads} threads.
+	 * The result (and strategy) is identical to that of
+	 * {@link #mvMultRewMinMax(double[], MDPRewards, boolean, double[], java.util.PrimitiveIterator.OfInt, int[])}.
+	 * @param vect Vector to multiply by
+	 * @param mdpRewards The rewards
+	 * @param min Min or max for (true=min, false=max)
+	 * @param result Vector to store result in
+	 * @param states States to do the multiplication for
+	 * @param strat Storage for (memoryless) strategy choice indices (ignored if null)
+	 * @param numThreads Number of threads to use
+	 */
+	public void mvMultRewMinMaxParallel(double vect[], MDPRewards<Double> mdpRewards, boolean min, double result[], int states[], int strat[], int numThreads)
+	{
+		mvMultRewMinMaxParallel(vect, mdpRewards, min, (s, d) -> result[s] = d, states, strat, numThreads);
+	}
+
+	/**
+	 * As {@link #mvMultRewMinMaxParallel(double[], MDPRewards, boolean, double[], int[], int[], int)}, but passing the result for each state
+	 * to {@code result} rather than storing it in an array (e.g. to store it off-heap).
+	 */
+	public void mvMultRewMinMaxParallel(double vect[], MDPRewards<Double> mdpRewards, boolean min, IntDoubleConsumer result, int states[], int strat[], int numThreads)
+	{
+		Parallel.forEachBlock(numThreads, 0, states.length, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				int s = states[i];
+				result.accept(s, mvMultRewMinMaxSingle(s, vect, mdpRewards, min, strat));
+			}
+		});
+	}
+
 	// Standard methods
 
 	@Override
@@ -0,0 +1,162 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Read-only, little-endian array section of a file, memory-mapped and indexed by {@code long}.
+ * <br><br>
+ * A single mapped buffer is limited to 2GB, so the section is split into chunks of (at most)
+ * 2^{@value #CHUNK_SHIFT} bytes, in the same way as {@link OffHeapVector}.
+ * Chunk sizes are multiples of 8 bytes, so no entry straddles two chunks.
+ * Entries are accessed by index (not byte offset), for each of the entry types
+ * used by {@link BinaryModelFile}. Access is safe from several threads.
+ */
+public final class MappedSection
+{
+	/** log2 of the (maximum) number of bytes per chunk */
+	public static final int CHUNK_SHIFT = 30;
+
+	/** log2 of the number of bytes per chunk */
+	private final int chunkShift;
+	private final long chunkMask;
+	/** Size in bytes */
+	private final long size;
+	/** Chunks of bytes */
+	private final ByteBuffer chunks[];
+
+	/**
+	 * Map the {@code size} bytes of {@code channel} from position {@code pos},
+	 * in chunks of 2^{@code chunkShift} bytes ({@code chunkShift} is between 3 and 30).
+	 */
+	MappedSection(FileChannel channel, long pos, long size, int chunkShift) throws IOException
+	{
+		if (chunkShift < 3 || chunkShift > CHUNK_SHIFT) {
+			throw new IllegalArgumentException("Invalid chunk size 2^" + chunkShift);
+		}
+		this.chunkShift = chunkShift;
+		this.chunkMask = (1L << chunkShift) - 1;
+		this.size = size;
+		chunks = new ByteBuffer[(int) ((size + chunkMask) >>> chunkShift)];
+		for (int c = 0; c < chunks.length; c++) {
+			long start = (long) c << chunkShift;
+			long length = Math.min(1L << chunkShift, size - start);
+			chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY, pos + start, length).order(ByteOrder.LITTLE_ENDIAN);
+		}
+	}
+
+	/**
+	 * Get the size of the section, in bytes.
+	 */
+	public long size()
+	{
+		return size;
+	}
+
+	/**
+	 * Get the {@code i}th byte.
+	 */
+	public byte getByte(long i)
+	{
+		return chunks[(int) (i >>> chunkShift)].get((int) (i & chunkMask));
+	}
+
+	/**
+	 * Get the {@code i}th short.
+	 */
+	public short getShort(long i)
+	{
+		long offset = i * Short.BYTES;
+		return chunks[(int) (offset >>> chunkShift)].getShort((int) (offset & chunkMask));
+	}
+
+	/**
+	 * Get the {@code i}th int.
+	 */
+	public int getInt(long i)
+	{
+		long offset = i * Integer.BYTES;
+		return chunks[(int) (offset >>> chunkShift)].getInt((int) (offset & chunkMask));
+	}
+
+	/**
+	 * Get the {@code i}th double.
+	 */
+	public double getDouble(long i)
+	{
+		long offset = i * Double.BYTES;
+		return chunks[(int) (offset >>> chunkShift)].getDouble((int) (offset & chunkMask));
+	}
+
+	/**
+	 * Get the number of ints in the section.
+	 */
+	public int numInts()
+	{
+		return (int) (size / Integer.BYTES);
+	}
+
+	/**
+	 * Get the number of doubles in the section.
+	 */
+	public int numDoubles()
+	{
+		return (int) (size / Double.BYTES);
+	}
+
+	/**
+	 * Copy the section, as ints, into a new array.
+	 */
+	public int[] toIntArray()
+	{
+		int[] arr = new int[numInts()];
+		int offset = 0;
+		for (ByteBuffer chunk : chunks) {
+			int n = chunk.limit() / Integer.BYTES;
+			chunk.duplicate().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(arr, offset, n);
+			offset += n;
+		}
+		return arr;
+	}
+
+	/**
+	 * Copy the section, as doubles, into a new array.
+	 */
+	public double[] toDoubleArray()
+	{
+		double[] arr = new double[numDoubles()];
+		int offset = 0;
+		for (ByteBuffer chunk : chunks) {
+			int n = chunk.limit() / Double.BYTES;
+			chunk.duplicate().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(arr, offset, n);
+			offset += n;
+		}
+		return arr;
+	}
+}
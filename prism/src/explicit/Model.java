@@ -663,6 +663,17 @@ public interface Model<Value>
 	/** Clear any stored predecessor relation, e.g., because the model was modified */
 	public void clearPredecessorRelation();
 
+	/**
+	 * Get the workspace (pooled storage, memoised precomputations) shared by
+	 * computations on this model, creating it if necessary.
+	 * Returns null if this model does not support a workspace.
+	 * Default implementation: return null.
+	 */
+	public default ModelWorkspace getWorkspace()
+	{
+		return null;
+	}
+
 	/**
 	 * Get an Evaluator for the values stored in this Model for probabilities etc.
 	 * This is needed, for example, to compute probability sums, check for equality to 0/1, etc.
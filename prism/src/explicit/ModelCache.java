@@ -0,0 +1,258 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+
+package explicit;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import parser.Values;
+import parser.ast.ModulesFile;
+import prism.Evaluator;
+import prism.ModelGenerator;
+import prism.Prism;
+import prism.PrismComponent;
+import prism.PrismException;
+import prism.PrismSettings;
+
+/**
+ * Disk-backed cache of built explicit-state models, so that models can be reused across runs.
+ * <br><br>
+ * Each entry is a file in the cache directory, stored in the {@link BinaryModelFile} format
+ * and named after a key (a SHA-256 hash) computed from the model description,
+ * the values of any defined constants and the settings that affect model construction.
+ * When the total size of the cache exceeds its limit, the least recently used entries are deleted.
+ */
+public class ModelCache extends PrismComponent
+{
+	/** File name extension for cache entries */
+	public static final String EXTENSION = ".prmb";
+
+	/** Cache directory */
+	protected File dir;
+	/** Maximum total size of the cache (in bytes); 0 means unbounded */
+	protected long maxSize;
+	/** Whether to access loaded DTMCs/MDPs directly from the memory-mapped file */
+	protected boolean map = false;
+
+	/**
+	 * Create a model cache, stored in directory {@code dir},
+	 * with maximum total size {@code maxSize} bytes (0 means unbounded).
+	 */
+	public ModelCache(PrismComponent parent, File dir, long maxSize)
+	{
+		super(parent);
+		this.dir = dir;
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Create a model cache as configured in the settings of {@code parent},
+	 * or return null if model caching is disabled.
+	 */
+	public static ModelCache createFromSettings(PrismComponent parent)
+	{
+		PrismSettings settings = parent.getSettings();
+		if (settings == null || "".equals(settings.getString(PrismSettings.PRISM_MODEL_CACHE_DIR))) {
+			return null;
+		}
+		File dir = new File(settings.getString(PrismSettings.PRISM_MODEL_CACHE_DIR));
+		long maxSize = settings.getInteger(PrismSettings.PRISM_MODEL_CACHE_MAX_SIZE) * 1024L * 1024L;
+		ModelCache cache = new ModelCache(parent, dir, maxSize);
+		cache.setMap(settings.getBoolean(PrismSettings.PRISM_MODEL_CACHE_MAP));
+		return cache;
+	}
+
+	/**
+	 * Set whether DTMCs and MDPs loaded from the cache are accessed directly from
+	 * the memory-mapped cache file (see {@link DTMCMapped} and {@link MDPMapped}),
+	 * rather than being copied onto the Java heap.
+	 */
+	public void setMap(boolean map)
+	{
+		this.map = map;
+	}
+
+	/**
+	 * Compute the cache key for a model built from {@code modulesFile},
+	 * with (model) constants given by {@code constantValues}.
+	 */
+	public String computeKey(ModulesFile modulesFile, Values constantValues) throws PrismException
+	{
+		MessageDigest md;
+		try {
+			md = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new PrismException("Cannot compute model cache key: " + e.getMessage());
+		}
+		update(md, "PRISM " + Prism.getVersion());
+		update(md, "format " + BinaryModelFile.VERSION);
+		update(md, modulesFile.toString());
+		update(md, constantValues == null ? "" : constantValues.toString());
+		// Settings which affect the model that is built
+		PrismSettings settings = getSettings();
+		if (settings != null) {
+			update(md, "fixdl=" + settings.getBoolean(PrismSettings.PRISM_FIX_DEADLOCKS));
+			update(md, "probchecks=" + settings.getBoolean(PrismSettings.PRISM_DO_PROB_CHECKS));
+			update(md, "sumroundoff=" + settings.getDouble(PrismSettings.PRISM_SUM_ROUND_OFF));
+			update(md, "exact=" + settings.getBoolean(PrismSettings.PRISM_EXACT_ENABLED));
+		}
+		StringBuilder sb = new StringBuilder();
+		for (byte b : md.digest()) {
+			sb.append(String.format("%02x", b));
+		}
+		return sb.toString();
+	}
+
+	private static void update(MessageDigest md, String s)
+	{
+		md.update(s.getBytes(StandardCharsets.UTF_8));
+		md.update((byte) 0);
+	}
+
+	/**
+	 * Get the file for the cache entry with key {@code key}.
+	 */
+	public File getFile(String key)
+	{
+		return new File(dir, key + EXTENSION);
+	}
+
+	/**
+	 * Load the model with key {@code key} from the cache, or return null if it is not present.
+	 * Constant values, variable info and the evaluator are not stored and need to be attached by the caller.
+	 * Entries which cannot be read are deleted (with a warning).
+	 */
+	public ModelExplicit<Double> load(String key)
+	{
+		File file = getFile(key);
+		if (!file.isFile()) {
+			return null;
+		}
+		try {
+			ModelExplicit<Double> model = BinaryModelFile.open(file, map).getModel();
+			// Record the access, for least-recently-used eviction
+			file.setLastModified(System.currentTimeMillis());
+			return model;
+		} catch (PrismException e) {
+			mainLog.printWarning("Discarding unreadable model cache entry: " + e.getMessage());
+			file.delete();
+			return null;
+		}
+	}
+
+	/**
+	 * Load the model with key {@code key} from the cache, or return null if it is not present,
+	 * attaching the constant values, variable info and evaluator of the model generator it was built from.
+	 */
+	@SuppressWarnings("unchecked")
+	public ModelExplicit<Double> load(String key, ModelGenerator<?> modelGen) throws PrismException
+	{
+		ModelExplicit<Double> model = load(key);
+		if (model != null) {
+			model.setConstantValues(new Values(modelGen.getConstantValues()));
+			model.setVarList(modelGen.createVarList());
+			model.setEvaluator((Evaluator<Double>) modelGen.getEvaluator());
+		}
+		return model;
+	}
+
+	/**
+	 * Store a model in the cache with key {@code key}, if it is of a supported type
+	 * (see {@link BinaryModelFile#isSupported(Model)}).
+	 * Failures are reported as warnings, since the cache is only an optimisation.
+	 * Returns true if the model was stored.
+	 */
+	public boolean store(String key, Model<?> model)
+	{
+		if (!BinaryModelFile.isSupported(model)) {
+			return false;
+		}
+		File tmp = null;
+		try {
+			if (!dir.isDirectory() && !dir.mkdirs()) {
+				throw new PrismException("Could not create directory \"" + dir + "\"");
+			}
+			// Write to a temporary file first and then move it into place,
+			// so that concurrent runs never see a partially written entry
+			tmp = File.createTempFile(key, ".tmp", dir);
+			BinaryModelFile.write(model, tmp);
+			if (maxSize > 0 && tmp.length() > maxSize) {
+				tmp.delete();
+				return false;
+			}
+			try {
+				Files.move(tmp.toPath(), getFile(key).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tmp.toPath(), getFile(key).toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (PrismException | IOException e) {
+			mainLog.printWarning("Could not store model in cache: " + e.getMessage());
+			if (tmp != null) {
+				tmp.delete();
+			}
+			return false;
+		}
+		evict();
+		return true;
+	}
+
+	/**
+	 * Delete the least recently used entries until the total size of the cache is within its limit.
+	 */
+	public void evict()
+	{
+		if (maxSize <= 0) {
+			return;
+		}
+		File[] files = dir.listFiles((d, name) -> name.endsWith(EXTENSION));
+		if (files == null) {
+			return;
+		}
+		long total = 0;
+		long[] lastModified = new long[files.length];
+		for (int i = 0; i < files.length; i++) {
+			total += files[i].length();
+			lastModified[i] = files[i].lastModified();
+		}
+		Integer[] order = new Integer[files.length];
+		Arrays.setAll(order, i -> i);
+		Arrays.sort(order, Comparator.comparingLong(i -> lastModified[i]));
+		for (int i = 0; i < order.length && total > maxSize; i++) {
+			long length = files[order[i]].length();
+			if (files[order[i]].delete()) {
+				total -= length;
+			}
+		}
+	}
+}
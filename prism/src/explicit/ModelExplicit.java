@@ -79,6 +79,11 @@ public abstract class ModelExplicit<Value> implements Model<Value>
 	 */
 	protected PredecessorRelation predecessorRelation = null;
 
+	/**
+	 * (Optionally) the workspace for computations on this model. Discarded when the model is changed.
+	 */
+	protected ModelWorkspace workspace = null;
+
 	// Mutators
 
 	/**
@@ -147,6 +152,8 @@ public abstract class ModelExplicit<Value> implements Model<Value>
 		constantValues = null;
 		varList = null;
 		labels = new TreeMap<String, BitSet>();
+		predecessorRelation = null;
+		workspace = null;
 	}
 
 	/**
@@ -435,7 +442,7 @@ public abstract class ModelExplicit<Value> implements Model<Value>
 	}
 
 	@Override
-	public PredecessorRelation getPredecessorRelation(prism.PrismComponent parent, boolean storeIfNew) {
+	public synchronized PredecessorRelation getPredecessorRelation(prism.PrismComponent parent, boolean storeIfNew) {
 		if (predecessorRelation != null) {
 			return predecessorRelation;
 		}
@@ -449,7 +456,31 @@ public abstract class ModelExplicit<Value> implements Model<Value>
 	}
 
 	@Override
-	public void clearPredecessorRelation() {
+	public synchronized void clearPredecessorRelation() {
 		predecessorRelation = null;
+		// The model has (probably) been modified, so discard the workspace too
+		workspace = null;
+	}
+
+	/**
+	 * Discard the workspace (if any), since the model has been modified.
+	 * This is cheap enough to be called by every mutator.
+	 */
+	protected void clearWorkspace()
+	{
+		if (workspace != null) {
+			synchronized (this) {
+				workspace = null;
+			}
+		}
+	}
+
+	@Override
+	public synchronized ModelWorkspace getWorkspace()
+	{
+		if (workspace == null || !workspace.isValidFor(this)) {
+			workspace = new ModelWorkspace(this);
+		}
+		return workspace;
 	}
 }
@@ -0,0 +1,360 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Storage that is shared by successive computations on the same model, e.g. when
+ * checking many properties on one large model, to reduce allocation and recomputation:
+ * <ul>
+ * <li> a pool of state-sized {@code double} arrays and {@link BitSet}s, which can be
+ *      released by one computation and then recycled by the next;
+ * <li> memoised results of graph-based precomputations (e.g. Prob0/Prob1),
+ *      keyed by the kind of precomputation, the remain/target sets and min/max.
+ * </ul>
+ * The total memory retained (approximately) is bounded; pooled objects are discarded,
+ * and then memoised results evicted (least recently used first), to stay within the limit.
+ * By default, the limit scales with the size of the model, up to a fraction of the heap.
+ * <br><br>
+ * A workspace is obtained from its model via {@link Model#getWorkspace()}
+ * and becomes invalid (and is discarded) if the model is modified.
+ * All methods are thread-safe.
+ */
+public class ModelWorkspace
+{
+	/** Limit on retained memory meaning that it is scaled automatically (see {@link #autoMaxMemory(Model)}) */
+	public static final long AUTO_MAX_MEMORY = -1;
+
+	/** Minimum automatic limit on retained memory (bytes) */
+	private static final long MIN_AUTO_MEMORY = 16L << 20;
+
+	/** Automatic limits on retained memory are at most 1/AUTO_HEAP_FRACTION of the maximum heap size */
+	private static final int AUTO_HEAP_FRACTION = 4;
+
+	/** Maximum number of objects of each type kept in the pool */
+	private static final int MAX_POOLED = 8;
+
+	/** Key for a memoised precomputation */
+	private static class PrecompKey
+	{
+		private final String kind;
+		private final BitSet remain;
+		private final BitSet target;
+		private final boolean min;
+		private final int hash;
+
+		PrecompKey(String kind, BitSet remain, BitSet target, boolean min)
+		{
+			this.kind = kind;
+			this.remain = remain;
+			this.target = target;
+			this.min = min;
+			hash = Objects.hash(kind, remain, target, min);
+		}
+
+		long getMemory()
+		{
+			return bitSetMemory(remain) + bitSetMemory(target);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			if (!(o instanceof PrecompKey))
+				return false;
+			PrecompKey other = (PrecompKey) o;
+			return hash == other.hash && min == other.min && kind.equals(other.kind) && Objects.equals(remain, other.remain) && target.equals(other.target);
+		}
+	}
+
+	/** Number of states of the model */
+	private final int numStates;
+	/** Number of transitions of the model (to detect modifications) */
+	private final long numTransitions;
+	/** Limit on retained memory (bytes) */
+	private long maxMemory;
+	/** Currently retained memory (bytes) */
+	private long memory = 0;
+
+	/** Pooled arrays/bitsets */
+	private final ArrayDeque<double[]> doubleArrays = new ArrayDeque<>();
+	private final ArrayDeque<BitSet> bitSets = new ArrayDeque<>();
+	/** Memoised precomputations, least recently used first */
+	private final LinkedHashMap<PrecompKey, BitSet> precomps = new LinkedHashMap<>(16, 0.75f, true);
+
+	/** Statistics */
+	private int numReused = 0;
+	private int numPrecompHits = 0;
+
+	/**
+	 * Create an (empty) workspace for {@code model}.
+	 */
+	public ModelWorkspace(Model<?> model)
+	{
+		numStates = model.getNumStates();
+		numTransitions = model.getNumTransitions();
+		maxMemory = autoMaxMemory(model);
+	}
+
+	/**
+	 * Get the workspace for {@code model}, with the limit on retained memory set to {@code maxMemory}
+	 * bytes or, if it is {@link #AUTO_MAX_MEMORY} (or any negative value), scaled automatically.
+	 * Returns null if {@code maxMemory} is 0 or the model does not support a workspace.
+	 */
+	public static ModelWorkspace forModel(Model<?> model, long maxMemory)
+	{
+		if (maxMemory == 0) {
+			return null;
+		}
+		ModelWorkspace workspace = model.getWorkspace();
+		if (workspace != null) {
+			workspace.setMaxMemory(maxMemory < 0 ? autoMaxMemory(model) : maxMemory);
+		}
+		return workspace;
+	}
+
+	/**
+	 * Get the automatic limit on retained memory (bytes) for {@code model}: enough for a full pool
+	 * of state-sized vectors, and the same again for bitsets and precomputations (but at least 16MB),
+	 * as long as this is at most a quarter of the maximum heap size.
+	 */
+	public static long autoMaxMemory(Model<?> model)
+	{
+		long scaled = 2L * MAX_POOLED * (16 + 8L * model.getNumStates());
+		long heapShare = Runtime.getRuntime().maxMemory() / AUTO_HEAP_FRACTION;
+		return Math.min(Math.max(MIN_AUTO_MEMORY, scaled), heapShare);
+	}
+
+	/**
+	 * Get the limit on retained memory (bytes).
+	 */
+	public synchronized long getMaxMemory()
+	{
+		return maxMemory;
+	}
+
+	/**
+	 * Is this workspace (still) valid for {@code model}, i.e. has the size of the model not changed?
+	 * This is a cheap sanity check; models should also discard their workspace when modified.
+	 */
+	public boolean isValidFor(Model<?> model)
+	{
+		return numStates == model.getNumStates() && numTransitions == model.getNumTransitions();
+	}
+
+	/**
+	 * Set the limit on retained memory (bytes); 0 means nothing is retained.
+	 */
+	public synchronized void setMaxMemory(long maxMemory)
+	{
+		this.maxMemory = maxMemory;
+		shrink(0);
+	}
+
+	// Pooled storage
+
+	/**
+	 * Get an array of doubles of size numStates, recycled if possible.
+	 * Its contents are arbitrary, i.e. it must be initialised by the caller.
+	 */
+	public double[] getDoubleArray()
+	{
+		synchronized (this) {
+			double[] arr = doubleArrays.poll();
+			if (arr != null) {
+				memory -= doubleArrayMemory(arr);
+				numReused++;
+				return arr;
+			}
+		}
+		return new double[numStates];
+	}
+
+	/**
+	 * Return an array obtained from {@link #getDoubleArray()}, or any other array
+	 * of size numStates that is no longer used by anyone, to the pool.
+	 */
+	public synchronized void release(double[] arr)
+	{
+		if (arr == null || arr.length != numStates || doubleArrays.size() >= MAX_POOLED) {
+			return;
+		}
+		for (double[] a : doubleArrays) {
+			if (a == arr) {
+				return;
+			}
+		}
+		long size = doubleArrayMemory(arr);
+		if (shrink(size)) {
+			doubleArrays.push(arr);
+			memory += size;
+		}
+	}
+
+	/**
+	 * Get an empty BitSet (with capacity for numStates bits), recycled if possible.
+	 */
+	public BitSet getBitSet()
+	{
+		synchronized (this) {
+			BitSet bs = bitSets.poll();
+			if (bs != null) {
+				memory -= bitSetMemory(bs);
+				numReused++;
+				bs.clear();
+				return bs;
+			}
+		}
+		return new BitSet(numStates);
+	}
+
+	/**
+	 * Return a BitSet that is no longer used by anyone to the pool.
+	 */
+	public synchronized void release(BitSet bs)
+	{
+		if (bs == null || bitSets.size() >= MAX_POOLED) {
+			return;
+		}
+		for (BitSet b : bitSets) {
+			if (b == bs) {
+				return;
+			}
+		}
+		long size = bitSetMemory(bs);
+		if (shrink(size)) {
+			bitSets.push(bs);
+			memory += size;
+		}
+	}
+
+	// Memoised precomputations
+
+	/**
+	 * Look up the result of precomputation {@code kind} (e.g. "prob0") for the given
+	 * remain/target sets (remain may be null) and min/max, returning null if not present.
+	 * A new copy of the result is returned, so the caller is free to modify it.
+	 */
+	public synchronized BitSet getPrecomputation(String kind, BitSet remain, BitSet target, boolean min)
+	{
+		BitSet result = precomps.get(new PrecompKey(kind, remain, target, min));
+		if (result == null) {
+			return null;
+		}
+		numPrecompHits++;
+		return (BitSet) result.clone();
+	}
+
+	/**
+	 * Store the result of precomputation {@code kind} (e.g. "prob0") for the given
+	 * remain/target sets (remain may be null) and min/max.
+	 * Copies of all sets are stored, so the caller is free to modify them afterwards.
+	 */
+	public synchronized void storePrecomputation(String kind, BitSet remain, BitSet target, boolean min, BitSet result)
+	{
+		PrecompKey key = new PrecompKey(kind, remain == null ? null : (BitSet) remain.clone(), (BitSet) target.clone(), min);
+		long size = key.getMemory() + bitSetMemory(result);
+		if (precomps.containsKey(key) || !shrink(size)) {
+			return;
+		}
+		precomps.put(key, (BitSet) result.clone());
+		memory += size;
+	}
+
+	// Statistics
+
+	/**
+	 * Get the number of times that a pooled array/bitset has been reused.
+	 */
+	public synchronized int getNumReused()
+	{
+		return numReused;
+	}
+
+	/**
+	 * Get the number of precomputations that have been reused.
+	 */
+	public synchronized int getNumPrecompHits()
+	{
+		return numPrecompHits;
+	}
+
+	/**
+	 * Get the memory currently retained (bytes).
+	 */
+	public synchronized long getMemory()
+	{
+		return memory;
+	}
+
+	// Private helpers
+
+	/**
+	 * Free up retained memory (pooled objects first, then the least recently used
+	 * memoised results) until {@code size} more bytes fit within the limit.
+	 * Returns false if that is not possible.
+	 */
+	private boolean shrink(long size)
+	{
+		if (size > maxMemory) {
+			return false;
+		}
+		while (memory + size > maxMemory && !doubleArrays.isEmpty()) {
+			memory -= doubleArrayMemory(doubleArrays.removeLast());
+		}
+		while (memory + size > maxMemory && !bitSets.isEmpty()) {
+			memory -= bitSetMemory(bitSets.removeLast());
+		}
+		Iterator<Map.Entry<PrecompKey, BitSet>> it = precomps.entrySet().iterator();
+		while (memory + size > maxMemory && it.hasNext()) {
+			Map.Entry<PrecompKey, BitSet> e = it.next();
+			memory -= e.getKey().getMemory() + bitSetMemory(e.getValue());
+			it.remove();
+		}
+		return true;
+	}
+
+	private static long doubleArrayMemory(double[] arr)
+	{
+		return 16 + 8L * arr.length;
+	}
+
+	private static long bitSetMemory(BitSet bs)
+	{
+		return bs == null ? 0 : 32 + bs.size() / 8;
+	}
+}
@@ -0,0 +1,213 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+
+import prism.PrismException;
+
+/**
+ * Vector of doubles stored outside the Java heap, indexed by {@code long}.
+ * <br><br>
+ * The vector is split into chunks of (at most) 2^{@value #CHUNK_SHIFT} entries,
+ * each of which is either a direct buffer or a memory-mapped region of a temporary file.
+ * This keeps large solution vectors (e.g. for value iteration) out of the garbage-collected heap
+ * and, in the memory-mapped case, lets the operating system page them to disk if needed.
+ * Entries are initially 0. Distinct entries can be written concurrently by different threads.
+ * <br><br>
+ * The memory is released once the vector is no longer referenced;
+ * temporary files are deleted as soon as they have been mapped (or, failing that, on exit).
+ */
+public class OffHeapVector
+{
+	/** log2 of the (maximum) number of entries per chunk */
+	public static final int CHUNK_SHIFT = 27;
+
+	/** log2 of the number of entries per chunk */
+	private final int chunkShift;
+	private final long chunkMask;
+	/** Number of entries */
+	private final long length;
+	/** Chunks of entries */
+	private final DoubleBuffer chunks[];
+	/** Is the vector memory-mapped to a file? */
+	private final boolean mapped;
+
+	/**
+	 * Create a vector of {@code length} entries, stored in direct buffers.
+	 * Note that the amount of direct memory available is limited by the JVM
+	 * (see {@code -XX:MaxDirectMemorySize}).
+	 */
+	public OffHeapVector(long length) throws PrismException
+	{
+		this(length, null);
+	}
+
+	/**
+	 * Create a vector of {@code length} entries, memory-mapped to a temporary file in
+	 * directory {@code dir} or, if {@code dir} is null, stored in direct buffers.
+	 */
+	public OffHeapVector(long length, File dir) throws PrismException
+	{
+		this(length, dir, CHUNK_SHIFT);
+	}
+
+	/**
+	 * Create a vector as for {@link #OffHeapVector(long, File)}, but in chunks of
+	 * 2^{@code chunkShift} entries ({@code chunkShift} is between 0 and {@value #CHUNK_SHIFT}).
+	 */
+	OffHeapVector(long length, File dir, int chunkShift) throws PrismException
+	{
+		if (length < 0) {
+			throw new IllegalArgumentException("Negative vector length " + length);
+		}
+		if (chunkShift < 0 || chunkShift > CHUNK_SHIFT) {
+			throw new IllegalArgumentException("Invalid chunk size 2^" + chunkShift);
+		}
+		this.length = length;
+		this.mapped = dir != null;
+		this.chunkShift = chunkShift;
+		this.chunkMask = (1L << chunkShift) - 1;
+		chunks = new DoubleBuffer[(int) ((length + chunkMask) >>> chunkShift)];
+		if (mapped) {
+			mapChunks(dir);
+		} else {
+			try {
+				for (int c = 0; c < chunks.length; c++) {
+					chunks[c] = ByteBuffer.allocateDirect(chunkLength(c) * Double.BYTES).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+				}
+			} catch (OutOfMemoryError e) {
+				throw new PrismException("Could not allocate off-heap vector of " + length + " entries: " + e.getMessage());
+			}
+		}
+	}
+
+	private void mapChunks(File dir) throws PrismException
+	{
+		File file = null;
+		try {
+			file = File.createTempFile("prism-vector", ".bin", dir);
+			try (RandomAccessFile raf = new RandomAccessFile(file, "rw"); FileChannel channel = raf.getChannel()) {
+				raf.setLength(length * Double.BYTES);
+				for (int c = 0; c < chunks.length; c++) {
+					long pos = ((long) c << chunkShift) * Double.BYTES;
+					chunks[c] = channel.map(FileChannel.MapMode.READ_WRITE, pos, (long) chunkLength(c) * Double.BYTES).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+				}
+			}
+		} catch (IOException e) {
+			throw new PrismException("Could not create memory-mapped vector in \"" + dir + "\": " + e.getMessage());
+		} finally {
+			// Mappings remain valid after the file is deleted (where the OS allows this)
+			if (file != null && !file.delete()) {
+				file.deleteOnExit();
+			}
+		}
+	}
+
+	private int chunkLength(int c)
+	{
+		return (int) Math.min(1L << chunkShift, length - ((long) c << chunkShift));
+	}
+
+	/**
+	 * Get the number of entries.
+	 */
+	public long length()
+	{
+		return length;
+	}
+
+	/**
+	 * Is the vector memory-mapped to a file (rather than stored in direct buffers)?
+	 */
+	public boolean isMapped()
+	{
+		return mapped;
+	}
+
+	/**
+	 * Get entry {@code i}.
+	 */
+	public double get(long i)
+	{
+		return chunks[(int) (i >>> chunkShift)].get((int) (i & chunkMask));
+	}
+
+	/**
+	 * Set entry {@code i} to {@code d}.
+	 */
+	public void set(long i, double d)
+	{
+		chunks[(int) (i >>> chunkShift)].put((int) (i & chunkMask), d);
+	}
+
+	/**
+	 * Set all entries to {@code d}.
+	 */
+	public void fill(double d)
+	{
+		for (DoubleBuffer chunk : chunks) {
+			for (int j = 0, n = chunk.capacity(); j < n; j++) {
+				chunk.put(j, d);
+			}
+		}
+	}
+
+	/**
+	 * Copy the entries of {@code src} to the start of this vector.
+	 */
+	public void copyFrom(double src[])
+	{
+		if (src.length > length) {
+			throw new IndexOutOfBoundsException("Array of length " + src.length + " does not fit in vector of length " + length);
+		}
+		for (int c = 0, offset = 0; offset < src.length; c++) {
+			int n = Math.min(chunks[c].capacity(), src.length - offset);
+			chunks[c].put(0, src, offset, n);
+			offset += n;
+		}
+	}
+
+	/**
+	 * Copy the entries at the start of this vector to {@code dest}.
+	 */
+	public void copyTo(double dest[])
+	{
+		if (dest.length > length) {
+			throw new IndexOutOfBoundsException("Array of length " + dest.length + " exceeds vector of length " + length);
+		}
+		for (int c = 0, offset = 0; offset < dest.length; c++) {
+			int n = Math.min(chunks[c].capacity(), dest.length - offset);
+			chunks[c].get(0, dest, offset, n);
+			offset += n;
+		}
+	}
+}
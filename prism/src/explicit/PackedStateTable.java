@@ -0,0 +1,378 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+
+package explicit;
+
+import java.util.Arrays;
+
+import parser.State;
+import parser.VarList;
+import parser.ast.DeclarationClock;
+import parser.ast.DeclarationIntUnbounded;
+import parser.ast.DeclarationType;
+import parser.type.TypeBool;
+import parser.type.TypeInt;
+import prism.PrismException;
+import prism.PrismNotSupportedException;
+
+/**
+ * Hash table mapping states to integer slots, with states stored in packed form.
+ * <br>
+ * Each state is bit-packed into a fixed number of {@code long} words, using
+ * the variable ranges of a {@link VarList} (unbounded integers take 32 bits).
+ * Lookup uses open addressing with linear probing. Removed slots are put on
+ * a free list and handed out again by later additions, so the slot indices
+ * stay dense (at most {@link #getNumSlots()}) even when states are added and
+ * removed continually. Clients can therefore keep per-state data in
+ * primitive arrays indexed by slot.
+ * <br>
+ * The order in which states were added is also kept (a state that is removed
+ * and added again moves to the end), so that clients can process the states
+ * in a deterministic order that does not depend on slot reuse,
+ * see {@link #getFirstSlot()} and {@link #getNextSlot(int)}.
+ */
+public final class PackedStateTable
+{
+	/** Number of variables */
+	private final int numVars;
+	/** For each variable, the word it is stored in */
+	private final int[] varWord;
+	/** For each variable, its bit offset within the word */
+	private final int[] varShift;
+	/** For each variable, the bit mask (after shifting) */
+	private final long[] varMask;
+	/** For each variable, the lower bound (0 for unbounded integers/Booleans) */
+	private final int[] varLow;
+	/** For each variable, whether it is a Boolean */
+	private final boolean[] varBool;
+	/** Number of words per state */
+	private final int numWords;
+
+	/** Packed states, {@code numWords} words per slot */
+	private long[] keys;
+	/** Whether each slot is in use */
+	private boolean[] used;
+	/** Open-addressing table: slot+1, or 0 if empty */
+	private int[] table;
+	/** Free slots (stack) */
+	private int[] freeSlots;
+	/** Number of free slots */
+	private int numFree;
+	/** Number of slots handed out so far (used or free) */
+	private int numSlots;
+	/** Number of states stored */
+	private int size;
+	/** Slots of the stored states in insertion order, as a doubly linked list (-1 = none) */
+	private int[] nextSlot;
+	private int[] prevSlot;
+	private int firstSlot;
+	private int lastSlot;
+	/** Scratch space for packing */
+	private final long[] scratch;
+
+	/**
+	 * Create an empty table for states over the variables in {@code varList}.
+	 * @param varList Variable information
+	 * @param initCapacity Initial number of slots
+	 */
+	public PackedStateTable(VarList varList, int initCapacity) throws PrismException
+	{
+		numVars = varList.getNumVars();
+		varWord = new int[numVars];
+		varShift = new int[numVars];
+		varMask = new long[numVars];
+		varLow = new int[numVars];
+		varBool = new boolean[numVars];
+		int word = 0;
+		int shift = 0;
+		for (int i = 0; i < numVars; i++) {
+			DeclarationType declType = varList.getDeclarationType(i);
+			int bits;
+			if (varList.getType(i) instanceof TypeBool) {
+				varBool[i] = true;
+				bits = 1;
+			} else if (!(varList.getType(i) instanceof TypeInt) || declType instanceof DeclarationClock) {
+				throw new PrismNotSupportedException("Cannot store variable " + varList.getName(i) + " of type " + varList.getType(i) + " in packed form");
+			} else if (declType instanceof DeclarationIntUnbounded) {
+				bits = 32;
+			} else {
+				varLow[i] = varList.getLow(i);
+				bits = Math.max(1, varList.getRangeLogTwo(i));
+			}
+			// Variables never straddle two words
+			if (shift + bits > 64) {
+				word++;
+				shift = 0;
+			}
+			varWord[i] = word;
+			varShift[i] = shift;
+			varMask[i] = bits == 64 ? -1L : (1L << bits) - 1;
+			shift += bits;
+		}
+		numWords = word + 1;
+		scratch = new long[numWords];
+
+		int capacity = Math.max(16, initCapacity);
+		keys = new long[capacity * numWords];
+		used = new boolean[capacity];
+		nextSlot = new int[capacity];
+		prevSlot = new int[capacity];
+		firstSlot = lastSlot = -1;
+		freeSlots = new int[16];
+		table = new int[Integer.highestOneBit(capacity * 2 - 1) * 2];
+		numFree = 0;
+		numSlots = 0;
+		size = 0;
+	}
+
+	/**
+	 * Get the number of states stored.
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Get the number of slots handed out so far (an upper bound on slot indices, exclusive).
+	 * Slots below this value are either in use (see {@link #isUsed(int)}) or free.
+	 */
+	public int getNumSlots()
+	{
+		return numSlots;
+	}
+
+	/**
+	 * Get the current slot capacity, i.e., an upper bound on slot indices
+	 * that can be handed out without the table growing.
+	 */
+	public int getSlotCapacity()
+	{
+		return used.length;
+	}
+
+	/**
+	 * Is slot {@code slot} in use?
+	 */
+	public boolean isUsed(int slot)
+	{
+		return used[slot];
+	}
+
+	/**
+	 * Get the slot of the first stored state, in the order in which states were added,
+	 * or -1 if there are none.
+	 */
+	public int getFirstSlot()
+	{
+		return firstSlot;
+	}
+
+	/**
+	 * Get the slot of the stored state added after the one in (used) slot {@code slot},
+	 * or -1 if there is none.
+	 */
+	public int getNextSlot(int slot)
+	{
+		return nextSlot[slot];
+	}
+
+	/**
+	 * Get the slot of state {@code state}, or -1 if it is not stored.
+	 */
+	public int getSlot(State state) throws PrismException
+	{
+		pack(state, scratch);
+		int mask = table.length - 1;
+		for (int pos = hash(scratch, 0) & mask;; pos = (pos + 1) & mask) {
+			int entry = table[pos];
+			if (entry == 0) {
+				return -1;
+			}
+			if (keyEquals(entry - 1, scratch)) {
+				return entry - 1;
+			}
+		}
+	}
+
+	/**
+	 * Add state {@code state}, which must not be stored already, and return its slot.
+	 * Free slots are reused before new ones are handed out.
+	 */
+	public int add(State state) throws PrismException
+	{
+		pack(state, scratch);
+		int slot;
+		if (numFree > 0) {
+			slot = freeSlots[--numFree];
+		} else {
+			if (numSlots == used.length) {
+				int capacity = used.length * 2;
+				keys = Arrays.copyOf(keys, capacity * numWords);
+				used = Arrays.copyOf(used, capacity);
+				nextSlot = Arrays.copyOf(nextSlot, capacity);
+				prevSlot = Arrays.copyOf(prevSlot, capacity);
+			}
+			slot = numSlots++;
+		}
+		System.arraycopy(scratch, 0, keys, slot * numWords, numWords);
+		used[slot] = true;
+		size++;
+		// Append to insertion order
+		prevSlot[slot] = lastSlot;
+		nextSlot[slot] = -1;
+		if (lastSlot >= 0) {
+			nextSlot[lastSlot] = slot;
+		} else {
+			firstSlot = slot;
+		}
+		lastSlot = slot;
+		if (size * 2 > table.length) {
+			rehash(table.length * 2);
+		} else {
+			insert(slot);
+		}
+		return slot;
+	}
+
+	/**
+	 * Remove the state in slot {@code slot}, which is then put on the free list.
+	 */
+	public void remove(int slot)
+	{
+		int mask = table.length - 1;
+		int pos = hash(keys, slot * numWords) & mask;
+		while (table[pos] != slot + 1) {
+			pos = (pos + 1) & mask;
+		}
+		// Backward-shift deletion: move later entries of the probe sequence into the gap
+		int gap = pos;
+		for (pos = (pos + 1) & mask; table[pos] != 0; pos = (pos + 1) & mask) {
+			int home = hash(keys, (table[pos] - 1) * numWords) & mask;
+			if (((pos - home) & mask) >= ((pos - gap) & mask)) {
+				table[gap] = table[pos];
+				gap = pos;
+			}
+		}
+		table[gap] = 0;
+		used[slot] = false;
+		size--;
+		// Unlink from insertion order
+		if (prevSlot[slot] >= 0) {
+			nextSlot[prevSlot[slot]] = nextSlot[slot];
+		} else {
+			firstSlot = nextSlot[slot];
+		}
+		if (nextSlot[slot] >= 0) {
+			prevSlot[nextSlot[slot]] = prevSlot[slot];
+		} else {
+			lastSlot = prevSlot[slot];
+		}
+		if (numFree == freeSlots.length) {
+			freeSlots = Arrays.copyOf(freeSlots, numFree * 2);
+		}
+		freeSlots[numFree++] = slot;
+	}
+
+	/**
+	 * Get (a newly created copy of) the state stored in slot {@code slot}.
+	 */
+	public State getState(int slot)
+	{
+		State state = new State(numVars);
+		int base = slot * numWords;
+		for (int i = 0; i < numVars; i++) {
+			int val = (int) ((keys[base + varWord[i]] >>> varShift[i]) & varMask[i]);
+			if (varBool[i]) {
+				state.varValues[i] = val != 0;
+			} else {
+				state.varValues[i] = val + varLow[i];
+			}
+		}
+		return state;
+	}
+
+	/**
+	 * Pack {@code state} into {@code words}.
+	 */
+	private void pack(State state, long[] words) throws PrismException
+	{
+		Arrays.fill(words, 0L);
+		for (int i = 0; i < numVars; i++) {
+			Object val = state.varValues[i];
+			long enc;
+			if (varBool[i]) {
+				enc = ((Boolean) val) ? 1 : 0;
+			} else {
+				enc = (((Integer) val) - varLow[i]) & 0xffffffffL;
+				if (enc > varMask[i]) {
+					throw new PrismException("Value " + val + " out of range for variable " + i + " of packed state");
+				}
+			}
+			words[varWord[i]] |= enc << varShift[i];
+		}
+	}
+
+	private boolean keyEquals(int slot, long[] words)
+	{
+		int base = slot * numWords;
+		for (int w = 0; w < numWords; w++) {
+			if (keys[base + w] != words[w]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int hash(long[] words, int base)
+	{
+		long h = 0;
+		for (int w = 0; w < numWords; w++) {
+			h = (h + words[base + w]) * 0x9E3779B97F4A7C15L;
+			h ^= h >>> 29;
+		}
+		return (int) (h ^ (h >>> 32));
+	}
+
+	private void insert(int slot)
+	{
+		int mask = table.length - 1;
+		int pos = hash(keys, slot * numWords) & mask;
+		while (table[pos] != 0) {
+			pos = (pos + 1) & mask;
+		}
+		table[pos] = slot + 1;
+	}
+
+	private void rehash(int tableSize)
+	{
+		table = new int[tableSize];
+		for (int slot = 0; slot < numSlots; slot++) {
+			if (used[slot]) {
+				insert(slot);
+			}
+		}
+	}
+}
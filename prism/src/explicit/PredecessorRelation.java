@@ -26,20 +26,30 @@
 
 package explicit;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Iterator;
-import java.util.List;
-import java.util.Stack;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
 
 import prism.PrismComponent;
-import common.IterableBitSet;
+import prism.PrismSettings;
+import common.Parallel;
+import common.iterable.ArrayIterator;
+import common.iterable.IterableArray;
 
 /**
  * A class for storing and accessing the predecessor relation of an explicit Model.
  * <p>
  * As Model only provide easy access to successors of states,
  * the predecessor relation is computed and stored for subsequent efficient access.
+ * The relation is stored in compressed sparse row (CSR) form, i.e.,
+ * the predecessors of state {@code s} are {@code preStates[preStarts[s]..preStarts[s+1]-1]},
+ * in ascending order.
+ * <p>
+ * Construction is done in two passes over the successor relation (counting, then filling),
+ * each of which can be split across several threads.
  * <p>
  * Note: Naturally, if the model changes, the predecessor relation
  * has to be recomputed to remain accurate.
@@ -47,9 +57,14 @@ import common.IterableBitSet;
 public class PredecessorRelation
 {
 	/**
-	 * pre[i] provides the list of predecessors of state with index i.
+	 * The predecessors of state s are stored in preStates,
+	 * starting at index preStarts[s] (inclusive) and ending at preStarts[s+1] (exclusive).
+	 */
+	protected int[] preStarts;
+	/**
+	 * The predecessor states, grouped by successor state.
 	 */
-	List<ArrayList<Integer>> pre;
+	protected int[] preStates;
 
 	/**
 	 * Constructor. Computes the predecessor relation for the given model
@@ -59,13 +74,24 @@ public class PredecessorRelation
 	 */
 	public PredecessorRelation(Model<?> model)
 	{
-		pre = new ArrayList<ArrayList<Integer>>(model.getNumStates());
-		// construct the (empty) array list for all states
-		for (int s = 0; s < model.getNumStates(); s++) {
-			pre.add(s, new ArrayList<Integer>());
-		}
+		this(model, 1);
+	}
 
-		compute(model);
+	/**
+	 * Constructor. Computes the predecessor relation for the given model
+	 * by considering the successors of each state, using (up to) {@code numThreads} threads.
+	 * The model must support concurrent (read-only) access to its successor relation.
+	 *
+	 * @param model the Model
+	 * @param numThreads the number of threads to use
+	 */
+	public PredecessorRelation(Model<?> model, int numThreads)
+	{
+		if (numThreads > 1) {
+			computeParallel(model, numThreads);
+		} else {
+			compute(model);
+		}
 	}
 
 	/** Compute the predecessor relation using getSuccessorsIterator. */
@@ -73,40 +99,140 @@ public class PredecessorRelation
 	{
 		int n = model.getNumStates();
 
+		// First pass: count the predecessors of each state
+		int[] counts = new int[n + 1];
+		for (int s = 0; s < n; s++) {
+			// As getSuccessorsIterator guarantees that there are no duplicates
+			// in the successors, s will be counted for each successor exactly once.
+			forEachSuccessor(model, s, t -> counts[t + 1]++);
+		}
+		setStarts(counts);
+
+		// Second pass: fill in predecessors,
+		// which are added in ascending order since s is increasing
+		int[] next = Arrays.copyOf(preStarts, n);
+		for (int s = 0; s < n; s++) {
+			final int pred = s;
+			forEachSuccessor(model, s, t -> preStates[next[t]++] = pred);
+		}
+	}
+
+	/** Compute the predecessor relation using getSuccessorsIterator, in parallel. */
+	private void computeParallel(Model<?> model, int numThreads)
+	{
+		int n = model.getNumStates();
+
+		// First pass: count the predecessors of each state
+		AtomicIntegerArray atomicCounts = new AtomicIntegerArray(n);
+		Parallel.forEachBlock(numThreads, 0, n, (from, to) -> {
+			for (int s = from; s < to; s++) {
+				forEachSuccessor(model, s, t -> atomicCounts.incrementAndGet(t));
+			}
+		});
+		int[] counts = new int[n + 1];
+		for (int s = 0; s < n; s++) {
+			counts[s + 1] = atomicCounts.get(s);
+		}
+		setStarts(counts);
+
+		// Second pass: fill in predecessors, reserving slots atomically
+		AtomicIntegerArray next = atomicCounts;
 		for (int s = 0; s < n; s++) {
-			Iterator<Integer> it = model.getSuccessorsIterator(s);
+			next.set(s, preStarts[s]);
+		}
+		Parallel.forEachBlock(numThreads, 0, n, (from, to) -> {
+			for (int s = from; s < to; s++) {
+				final int pred = s;
+				forEachSuccessor(model, s, t -> preStates[next.getAndIncrement(t)] = pred);
+			}
+		});
+
+		// Slots were reserved in arbitrary order, so sort to obtain a deterministic result
+		Parallel.forEachBlock(numThreads, 0, n, (from, to) -> {
+			for (int s = from; s < to; s++) {
+				if (preStarts[s + 1] - preStarts[s] > 1) {
+					Arrays.sort(preStates, preStarts[s], preStarts[s + 1]);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Set up {@code preStarts} (and allocate {@code preStates}) from the
+	 * predecessor counts, where {@code counts[s+1]} is the number of predecessors of s.
+	 * The array {@code counts} is reused for {@code preStarts}.
+	 */
+	private void setStarts(int[] counts)
+	{
+		long total = 0;
+		for (int s = 1; s < counts.length; s++) {
+			total += counts[s];
+			counts[s] = Math.toIntExact(total);
+		}
+		preStarts = counts;
+		preStates = new int[(int) total];
+	}
+
+	/**
+	 * Apply {@code action} to each (distinct) successor of state {@code s},
+	 * avoiding boxing where the model provides a primitive iterator.
+	 */
+	private static void forEachSuccessor(Model<?> model, int s, IntConsumer action)
+	{
+		Iterator<Integer> it = model.getSuccessorsIterator(s);
+		if (it instanceof PrimitiveIterator.OfInt) {
+			((PrimitiveIterator.OfInt) it).forEachRemaining(action);
+		} else {
 			while (it.hasNext()) {
-				Integer successor = it.next();
-
-				// Add the current state s to pre[successor].
-				//
-				// As getSuccessorsIterator guarantees that
-				// there are no duplicates in the successors,
-				// s will be added to successor exactly once.
-				pre.get(successor).add(s);
+				action.accept(it.next());
 			}
 		}
 	}
 
+	/**
+	 * Get the number of states that this relation was computed for.
+	 */
+	public int getNumStates()
+	{
+		return preStarts.length - 1;
+	}
+
+	/**
+	 * Get the number of predecessor states of {@code s}.
+	 */
+	public int getNumPredecessors(int s)
+	{
+		return preStarts[s + 1] - preStarts[s];
+	}
+
+	/**
+	 * Get the total number of edges in this relation.
+	 */
+	public int getNumEdges()
+	{
+		return preStates.length;
+	}
+
 	/**
 	 * Get an Iterable over the predecessor states of {@code s}.
 	 */
-	public Iterable<Integer> getPre(int s)
+	public IterableArray.OfInt getPre(int s)
 	{
-		return pre.get(s);
+		return new IterableArray.OfInt(preStates, preStarts[s], preStarts[s + 1]);
 	}
 
 	/**
 	 * Get an Iterator over the predecessor states of {@code s}.
 	 */
-	public Iterator<Integer> getPredecessorsIterator(int s)
+	public ArrayIterator.OfInt getPredecessorsIterator(int s)
 	{
-		return getPre(s).iterator();
+		return new ArrayIterator.OfInt(preStates, preStarts[s], preStarts[s + 1]);
 	}
 
 	/**
 	 * Static constructor to compute the predecessor relation for the given model.
 	 * Logs diagnostic information to the log of the given PrismComponent.
+	 * The number of threads used is taken from the settings of the PrismComponent (if present).
 	 *
 	 * @param parent a PrismComponent (for obtaining the log and settings)
 	 * @param model the model for which the predecessor relation should be computed
@@ -116,10 +242,15 @@ public class PredecessorRelation
 	{
 		long timer = System.currentTimeMillis();
 		
+		int numThreads = 1;
+		if (parent.getSettings() != null) {
+			numThreads = Parallel.resolveNumThreads(parent.getSettings().getInteger(PrismSettings.PRISM_NUM_THREADS));
+		}
+
 		parent.getLog().print("Calculating predecessor relation for "+model.getModelType().fullName()+"...  ");
 		parent.getLog().flush();
 
-		PredecessorRelation pre = new PredecessorRelation(model);
+		PredecessorRelation pre = new PredecessorRelation(model, numThreads);
 		
 		timer = System.currentTimeMillis() - timer;
 		parent.getLog().println("done (" + timer / 1000.0 + " seconds)");
@@ -154,26 +285,26 @@ public class PredecessorRelation
 		// all target states are in Pre*
 		result = (BitSet)target.clone();
 
-		// the stack of states whose predecessors have to be considered
-		Stack<Integer> todo = new Stack<Integer>();
+		// the stack of states whose predecessors have to be considered;
+		// each state is pushed at most once, when it is added to result
+		int[] todo = new int[getNumStates()];
+		int top = 0;
 
 		// initial todo: all the target states
-		for (Integer s : IterableBitSet.getSetBits(target)) {
-			todo.add(s);
-		};
-
-		// the set of states that are finished
-		BitSet done = new BitSet();
-
-		while (!todo.isEmpty()) {
-			int s = todo.pop();
-			// already considered?
-			if (done.get(s)) continue;
+		for (int t = target.nextSetBit(0); t >= 0; t = target.nextSetBit(t + 1)) {
+			todo[top++] = t;
+		}
 
-			done.set(s);
+		while (top > 0) {
+			int s = todo[--top];
 
 			// for each predecessor in the graph
-			for (int p : getPre(s)) {
+			for (int i = preStarts[s], end = preStarts[s + 1]; i < end; i++) {
+				int p = preStates[i];
+				if (result.get(p)) {
+					// already considered
+					continue;
+				}
 				if (absorbing != null && absorbing.get(p)) {
 					// predecessor is absorbing, thus the edge is considered to not exist
 					continue;
@@ -181,10 +312,8 @@ public class PredecessorRelation
 				if (remain == null || remain.get(p)) {
 					// can reach result (and is in remain)
 					result.set(p);
-					if (!done.get(p)) {
-						// add to stack
-						todo.add(p);
-					}
+					// add to stack
+					todo[top++] = p;
 				}
 			}
 		}
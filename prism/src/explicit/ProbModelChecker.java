@@ -34,6 +34,7 @@ import java.util.Arrays;
 import java.util.BitSet;
 import java.util.List;
 
+import common.Parallel;
 import explicit.rewards.CSGRewards;
 import explicit.rewards.ConstructRewards;
 import explicit.rewards.MCRewards;
@@ -83,6 +84,8 @@ public class ProbModelChecker extends NonProbModelChecker
 
 	// Method used to solve linear equation systems
 	protected LinEqMethod linEqMethod = LinEqMethod.GAUSS_SEIDEL;
+	// Parameter for linear equation solution method (over-relaxation parameter for SOR)
+	protected double linEqMethodParam = 0.9;
 	// Method used to solve MDPs
 	protected MDPSolnMethod mdpSolnMethod = MDPSolnMethod.GAUSS_SEIDEL;
 	// Method used to solve STPGs
@@ -105,6 +108,16 @@ public class ProbModelChecker extends NonProbModelChecker
 	protected boolean silentPrecomputations = false;
 	// Use predecessor relation? (e.g. for precomputation)
 	protected boolean preRel = true;
+	// Number of threads for parallelised computations
+	protected int numThreads = 1;
+	// Minimum number of states for off-heap solution vectors (0 = never)
+	protected int offHeapThreshold = 0;
+	// Directory for memory-mapped off-heap vectors (null = use direct memory)
+	protected File offHeapDir = null;
+	// Memory retained per model for reuse across computations, in MB (0 = don't use model workspaces)
+	protected int workspaceMaxMem = 0;
+	// Switch from value iteration to policy evaluation when convergence stalls?
+	protected boolean adaptiveVI = false;
 	// Direction of convergence for value iteration (lfp/gfp)
 	protected ValIterDir valIterDir = ValIterDir.BELOW;
 	// Method used for numerical solution
@@ -244,6 +257,8 @@ public class ProbModelChecker extends NonProbModelChecker
 			} else {
 				throw new PrismNotSupportedException("Explicit engine does not support linear equation solution method \"" + s + "\"");
 			}
+			// PRISM_LIN_EQ_METHOD_PARAM
+			setLinEqMethodParam(settings.getDouble(PrismSettings.PRISM_LIN_EQ_METHOD_PARAM));
 			// PRISM_MDP_SOLN_METHOD
 			s = settings.getString(PrismSettings.PRISM_MDP_SOLN_METHOD);
 			if (s.equals("Value iteration")) {
@@ -300,6 +315,17 @@ public class ProbModelChecker extends NonProbModelChecker
 			setProb1(settings.getBoolean(PrismSettings.PRISM_PROB1));
 			// PRISM_USE_PRE
 			setPreRel(settings.getBoolean(PrismSettings.PRISM_PRE_REL));
+			// PRISM_NUM_THREADS
+			setNumThreads(Parallel.resolveNumThreads(settings.getInteger(PrismSettings.PRISM_NUM_THREADS)));
+			// PRISM_OFFHEAP_THRESHOLD
+			setOffHeapThreshold(settings.getInteger(PrismSettings.PRISM_OFFHEAP_THRESHOLD));
+			// PRISM_OFFHEAP_DIR
+			String offHeapDirName = settings.getString(PrismSettings.PRISM_OFFHEAP_DIR);
+			setOffHeapDir("".equals(offHeapDirName) ? null : new File(offHeapDirName));
+			// PRISM_WORKSPACE_MAX_MEM
+			setWorkspaceMaxMem(settings.getInteger(PrismSettings.PRISM_WORKSPACE_MAX_MEM));
+			// PRISM_ADAPTIVE_VI
+			setAdaptiveVI(settings.getBoolean(PrismSettings.PRISM_ADAPTIVE_VI));
 			// PRISM_FAIRNESS
 			if (settings.getBoolean(PrismSettings.PRISM_FAIRNESS)) {
 				throw new PrismNotSupportedException("The explicit engine does not support model checking MDPs under fairness");
@@ -318,6 +344,7 @@ public class ProbModelChecker extends NonProbModelChecker
 	{
 		super.inheritSettings(other);
 		setLinEqMethod(other.getLinEqMethod());
+		setLinEqMethodParam(other.getLinEqMethodParam());
 		setMDPSolnMethod(other.getMDPSolnMethod());
 		setSTPGSolnMethod(other.getSTPGSolnMethod());
 		setIMDPSolnMethod(other.getIMDPSolnMethod());
@@ -328,6 +355,11 @@ public class ProbModelChecker extends NonProbModelChecker
 		setPrecomp(other.getPrecomp());
 		setProb0(other.getProb0());
 		setProb1(other.getProb1());
+		setNumThreads(other.getNumThreads());
+		setOffHeapThreshold(other.getOffHeapThreshold());
+		setOffHeapDir(other.getOffHeapDir());
+		setWorkspaceMaxMem(other.getWorkspaceMaxMem());
+		setAdaptiveVI(other.getAdaptiveVI());
 		setValIterDir(other.getValIterDir());
 		setSolnMethod(other.getSolnMethod());
 		setErrorOnNonConverge(other.geterrorOnNonConverge());
@@ -340,6 +372,7 @@ public class ProbModelChecker extends NonProbModelChecker
 	{
 		super.printSettings();
 		mainLog.print("linEqMethod = " + linEqMethod + " ");
+		mainLog.print("linEqMethodParam = " + linEqMethodParam + " ");
 		mainLog.print("mdpSolnMethod = " + mdpSolnMethod + " ");
 		mainLog.print("stpgSolnMethod = " + stpgSolnMethod + " ");
 		mainLog.print("imdpSolnMethod = " + imdpSolnMethod + " ");
@@ -350,6 +383,10 @@ public class ProbModelChecker extends NonProbModelChecker
 		mainLog.print("precomp = " + precomp + " ");
 		mainLog.print("prob0 = " + prob0 + " ");
 		mainLog.print("prob1 = " + prob1 + " ");
+		mainLog.print("numThreads = " + numThreads + " ");
+		mainLog.print("offHeapThreshold = " + offHeapThreshold + " ");
+		mainLog.print("workspaceMaxMem = " + workspaceMaxMem + " ");
+		mainLog.print("adaptiveVI = " + adaptiveVI + " ");
 		mainLog.print("valIterDir = " + valIterDir + " ");
 		mainLog.print("solnMethod = " + solnMethod + " ");
 		mainLog.print("errorOnNonConverge = " + errorOnNonConverge + " ");
@@ -385,6 +422,14 @@ public class ProbModelChecker extends NonProbModelChecker
 		this.linEqMethod = linEqMethod;
 	}
 
+	/**
+	 * Set parameter for linear equation solution method (over-relaxation parameter for SOR).
+	 */
+	public void setLinEqMethodParam(double linEqMethodParam)
+	{
+		this.linEqMethodParam = linEqMethodParam;
+	}
+
 	/**
 	 * Set method used to solve MDPs.
 	 */
@@ -473,6 +518,49 @@ public class ProbModelChecker extends NonProbModelChecker
 		this.preRel = preRel;
 	}
 
+	/**
+	 * Set number of threads to use for parallelised computations (1 = sequential).
+	 */
+	public void setNumThreads(int numThreads)
+	{
+		this.numThreads = numThreads;
+	}
+
+	/**
+	 * Set the minimum number of states for which solution vectors
+	 * of value iteration are (partly) stored off-heap (0 = never).
+	 */
+	public void setOffHeapThreshold(int offHeapThreshold)
+	{
+		this.offHeapThreshold = offHeapThreshold;
+	}
+
+	/**
+	 * Set the directory for memory-mapped off-heap vectors (null = use direct memory).
+	 */
+	public void setOffHeapDir(File offHeapDir)
+	{
+		this.offHeapDir = offHeapDir;
+	}
+
+	/**
+	 * Set the memory (in MB) retained per model for recycling storage and memoising
+	 * precomputations across computations (0 = don't use model workspaces,
+	 * -1 = scale with the model size and heap).
+	 */
+	public void setWorkspaceMaxMem(int workspaceMaxMem)
+	{
+		this.workspaceMaxMem = workspaceMaxMem;
+	}
+
+	/**
+	 * Set whether value iteration may switch to policy evaluation when convergence stalls.
+	 */
+	public void setAdaptiveVI(boolean adaptiveVI)
+	{
+		this.adaptiveVI = adaptiveVI;
+	}
+
 	/**
 	 * Set direction of convergence for value iteration (lfp/gfp).
 	 */
@@ -509,6 +597,11 @@ public class ProbModelChecker extends NonProbModelChecker
 		return linEqMethod;
 	}
 
+	public double getLinEqMethodParam()
+	{
+		return linEqMethodParam;
+	}
+
 	public MDPSolnMethod getMDPSolnMethod()
 	{
 		return mdpSolnMethod;
@@ -564,6 +657,31 @@ public class ProbModelChecker extends NonProbModelChecker
 		return preRel;
 	}
 
+	public int getNumThreads()
+	{
+		return numThreads;
+	}
+
+	public int getOffHeapThreshold()
+	{
+		return offHeapThreshold;
+	}
+
+	public File getOffHeapDir()
+	{
+		return offHeapDir;
+	}
+
+	public int getWorkspaceMaxMem()
+	{
+		return workspaceMaxMem;
+	}
+
+	public boolean getAdaptiveVI()
+	{
+		return adaptiveVI;
+	}
+
 	public ValIterDir getValIterDir()
 	{
 		return valIterDir;
@@ -582,12 +700,50 @@ public class ProbModelChecker extends NonProbModelChecker
 		return errorOnNonConverge;
 	}
 
+	/**
+	 * Pass on the settings relevant to iteration methods
+	 * (number of threads, off-heap vectors, model workspaces) to {@code iterationMethod}.
+	 */
+	protected void configureIterationMethod(IterationMethod iterationMethod)
+	{
+		iterationMethod.setNumThreads(numThreads);
+		iterationMethod.setOffHeapVectors(offHeapThreshold, offHeapDir);
+		iterationMethod.setWorkspaceMaxMemory(getWorkspaceMaxMemBytes());
+	}
+
+	/**
+	 * Get the workspace for computations on {@code model} (see {@link Model#getWorkspace()}),
+	 * or null if workspaces are disabled or not supported by the model.
+	 */
+	protected ModelWorkspace getWorkspace(Model<?> model)
+	{
+		return ModelWorkspace.forModel(model, getWorkspaceMaxMemBytes());
+	}
+
+	/**
+	 * Get the limit on memory retained in model workspaces, in bytes
+	 * (or {@link ModelWorkspace#AUTO_MAX_MEMORY} if it is scaled automatically).
+	 */
+	protected long getWorkspaceMaxMemBytes()
+	{
+		return workspaceMaxMem < 0 ? ModelWorkspace.AUTO_MAX_MEMORY : (long) workspaceMaxMem << 20;
+	}
+
 	// Model checking functions
 
 	@Override
 	public StateValues checkExpression(Model<?> model, Expression expr, BitSet statesOfInterest) throws PrismException
 	{
 		StateValues res;
+		// Results of P/R/S operators may be shared with other model checkers (unless a strategy is needed)
+		boolean cacheable = subformulaCache != null && !genStrat && (expr instanceof ExpressionProb || expr instanceof ExpressionReward || expr instanceof ExpressionSS);
+		if (cacheable) {
+			res = subformulaCache.get(model, expr);
+			if (res != null) {
+				mainLog.println("\nReusing cached result for " + expr);
+				return res;
+			}
+		}
 		// <<>> or [[]] operator
 		if (expr instanceof ExpressionStrategy) {
 			res = checkExpressionStrategy(model, (ExpressionStrategy) expr, statesOfInterest);
@@ -613,6 +769,11 @@ public class ProbModelChecker extends NonProbModelChecker
 			res = super.checkExpression(model, expr, statesOfInterest);
 		}
 
+		// Results are only complete (and thus can be cached) if all states were of interest
+		if (cacheable && statesOfInterest == null) {
+			subformulaCache.put(model, expr, res);
+		}
+
 		return res;
 	}
 
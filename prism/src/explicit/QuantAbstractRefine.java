@@ -28,7 +28,10 @@ package explicit;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinTask;
 
+import common.Parallel;
 import prism.*;
 import explicit.ProbModelChecker.TermCrit;
 import explicit.ProbModelChecker.ValIterDir;
@@ -79,6 +82,8 @@ public abstract class QuantAbstractRefine extends PrismComponent
 
 	// Private flags/settings
 	protected boolean sanityChecks = false;
+	// Number of threads used for bound computation/refinement (1 = sequential)
+	protected int numThreads = 1;
 
 	// Enums for flags/settings
 
@@ -120,6 +125,7 @@ public abstract class QuantAbstractRefine extends PrismComponent
 	
 	// Stuff for refinement loop
 	protected ModelType abstractionType;
+	protected ProbModelChecker mcUb; // Model checker for upper bounds (same as mc unless parallel)
 	protected double[] lbSoln;
 	protected double[] ubSoln;
 	protected double[] lbLastSoln;
@@ -182,6 +188,7 @@ public abstract class QuantAbstractRefine extends PrismComponent
 		mainLog.print(" above = " + above);
 		mainLog.print(" refineStratWhere = " + refineStratWhere);
 		mainLog.print(" refineStratHow = " + refineStratHow);
+		mainLog.print(" numThreads = " + numThreads);
 		mainLog.println();
 		mainLog.print("\nMC Settings: ");
 		mcOptions.printSettings();
@@ -253,6 +260,11 @@ public abstract class QuantAbstractRefine extends PrismComponent
 		this.refineStratHow = refineStratHow;
 	}
 
+	public void setNumThreads(int numThreads)
+	{
+		this.numThreads = numThreads;
+	}
+
 	/**
 	 * Convenience method: parse an option specified as a (command-line style) string
 	 */
@@ -349,6 +361,14 @@ public abstract class QuantAbstractRefine extends PrismComponent
 			setAbove(true);
 		} else if (opt.equals("below")) {
 			setAbove(false);
+		} else if (opt.equals("parallel")) {
+			try {
+				setNumThreads(Parallel.resolveNumThreads((optVal == null) ? 0 : Integer.parseInt(optVal)));
+			} catch (NumberFormatException e) {
+				throw new PrismException("Invalid value \"" + optVal + "\" for abstraction-refinement setting \"" + opt + "\"");
+			}
+		} else if (opt.equals("noparallel")) {
+			setNumThreads(1);
 		} else {
 			throw new PrismException("Unknown switch " + opt);
 		}
@@ -385,6 +405,9 @@ public abstract class QuantAbstractRefine extends PrismComponent
 		mainLog.println(" * exportdot - export dot files for each refinement");
 		mainLog.println(" * above - start numerical soluton from above");
 		mainLog.println(" * below - start numerical soluton from below");
+		mainLog.println(" * parallel[=<n>] - compute lower/upper bounds concurrently and refine states in parallel");
+		mainLog.println("     (using <n> threads, default: number of processors)");
+		mainLog.println(" * noparallel - disable parallel mode");
 	}
 	
 	// Abstract methods that must be implemented for abstraction-refinement loop
@@ -455,25 +478,24 @@ public abstract class QuantAbstractRefine extends PrismComponent
 		}
 
 		// Store what abstract model type is
-		// and create appropriate model checker
-		// (which inherits log/options from mcOptions)
+		// and create appropriate model checker(s)
 		switch (modelType) {
 		case DTMC:
 			abstractionType = ModelType.MDP;
-			mc = new MDPModelChecker(null);
 			break;
 		case CTMC:
 			abstractionType = ModelType.CTMDP;
-			mc = new CTMDPModelChecker(null);
 			break;
 		case MDP:
 			abstractionType = ModelType.STPG;
-			mc = new STPGModelChecker(null);
 			break;
 		default:
 			throw new PrismNotSupportedException("Cannot handle model type " + modelType);
 		}
-		mc.inheritSettings(mcOptions);
+		mc = createModelChecker();
+		// When bounds are computed concurrently, the upper bound needs
+		// its own model checker (since settings such as ValIterDir differ)
+		mcUb = numThreads > 1 ? createModelChecker() : mc;
 		// But limit verbosity (since model checking will be done many times)
 		//mc.setVerbosity(verbosity - 1);
 
@@ -534,6 +556,30 @@ public abstract class QuantAbstractRefine extends PrismComponent
 		return (lbInit + ubInit) / 2;
 	}
 
+	/**
+	 * Create a model checker for the abstraction type
+	 * (which inherits PRISM settings, if any, from this object, and log/options from mcOptions).
+	 */
+	protected ProbModelChecker createModelChecker() throws PrismException
+	{
+		ProbModelChecker mc;
+		switch (abstractionType) {
+		case MDP:
+			mc = new MDPModelChecker(this);
+			break;
+		case CTMDP:
+			mc = new CTMDPModelChecker(this);
+			break;
+		case STPG:
+			mc = new STPGModelChecker(this);
+			break;
+		default:
+			throw new PrismNotSupportedException("Cannot model check " + abstractionType);
+		}
+		mc.inheritSettings(mcOptions);
+		return mc;
+	}
+
 	protected int cheapCheckRefine() throws PrismException
 	{
 		if (propertyType != PropertyType.PROB_REACH)
@@ -667,91 +713,169 @@ public abstract class QuantAbstractRefine extends PrismComponent
 		mainLog.println(lbInit + " - " + ubInit);
 	}
 
+	/**
+	 * Computation of a lower or upper bound on the abstraction, using model checker {@code mc}.
+	 */
+	@FunctionalInterface
+	protected interface BoundComputation
+	{
+		ModelCheckerResult compute(ProbModelChecker mc) throws PrismException;
+	}
+
+	/**
+	 * Compute lower and upper bounds concurrently: the former in the current thread,
+	 * using {@link #mc}, and the latter in a separate one, using {@link #mcUb}.
+	 * Log output from the upper bound computation is buffered and printed afterwards.
+	 * Returns the two results, lower bound first.
+	 */
+	protected ModelCheckerResult[] computeBoundsConcurrently(BoundComputation lb, BoundComputation ub) throws PrismException
+	{
+		ModelCheckerResult lbRes = null, ubRes = null;
+		PrismException error = null;
+
+		// Build the predecessor relation (if needed) now, rather than in both threads
+		if (mc.getPrecomp() && mc.getPreRel()) {
+			abstraction.getPredecessorRelation(mc, true);
+		}
+		ByteArrayOutputStream ubLogBuffer = new ByteArrayOutputStream();
+		mcUb.setLog(new PrismPrintStreamLog(new PrintStream(ubLogBuffer, true)));
+		ForkJoinTask<ModelCheckerResult> ubTask = Parallel.getPool(numThreads).submit(() -> ub.compute(mcUb));
+		try {
+			lbRes = lb.compute(mc);
+		} catch (PrismException e) {
+			error = e;
+		}
+		// Always wait for the upper bound, since it uses the abstraction
+		try {
+			ubRes = ubTask.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (error == null) {
+				error = (e.getCause() instanceof PrismException) ? (PrismException) e.getCause() : new PrismException(e.getCause().toString());
+			}
+		} catch (InterruptedException e) {
+			if (error == null) {
+				error = new PrismException("Interrupted while computing upper bounds");
+			}
+		}
+		mainLog.print(ubLogBuffer.toString());
+		if (error != null) {
+			throw error;
+		}
+		return new ModelCheckerResult[] { lbRes, ubRes };
+	}
+
+	/**
+	 * Add the statistics for lower/upper bound computations {@code res} to the totals.
+	 */
+	protected void addCheckStatistics(ModelCheckerResult res[])
+	{
+		timeCheckLb += res[0].timeTaken;
+		timeCheckUb += res[1].timeTaken;
+		for (ModelCheckerResult r : res) {
+			timeCheckProb0 += r.timeProb0;
+			timeCheckPre += r.timePre;
+			itersTotal += r.numIters;
+		}
+	}
+
 	/**
 	 * Do model checking for probabilistic reachability; store results in lbSoln, ubSoln.
 	 */
 	protected void modelCheckAbstractionProbReach(boolean min) throws PrismException
 	{
-		ModelCheckerResult res = null;
-		int i, n;
+		ModelCheckerResult res[];
+
+		if (numThreads > 1) {
+			// Upper bounds cannot wait for the new lower bounds, so (if starting from below)
+			// they start from those of the previous abstraction, which are no higher
+			double lbPrev[] = Utils.cloneDoubleArray(lbSoln);
+			res = computeBoundsConcurrently(mc -> modelCheckAbstractionProbReachLower(mc, min),
+					mc -> modelCheckAbstractionProbReachUpper(mc, min, lbPrev));
+		} else {
+			res = new ModelCheckerResult[2];
+			res[0] = modelCheckAbstractionProbReachLower(mc, min);
+			res[1] = modelCheckAbstractionProbReachUpper(mc, min, res[0].soln);
+		}
+		lbSoln = res[0].soln;
+		lbLastSoln = lbSoln; // TODO: fix (if nec.)
+		ubSoln = res[1].soln;
+		ubLastSoln = ubSoln; // TODO: fix (if nec.)
+		addCheckStatistics(res);
+	}
 
-		// Compute lower bounds
+	/**
+	 * Compute lower bounds for probabilistic reachability, using model checker {@code mc}.
+	 * After refinement (if optimisations are enabled), computation is warm-started
+	 * from the lower bounds of the previous abstraction (in {@link #lbSoln}).
+	 */
+	protected ModelCheckerResult modelCheckAbstractionProbReachLower(ProbModelChecker mc, boolean min) throws PrismException
+	{
 		switch (abstractionType) {
 		case MDP:
 			if (optimise && refinementNum > 0) {
-				mc.setValIterDir(MDPModelChecker.ValIterDir.BELOW);
-				// TODO
+				mc.setValIterDir(ValIterDir.BELOW);
+				return ((MDPModelChecker) mc).computeReachProbs((MDP) abstraction, null, target, true, lbSoln, known);
 			} else {
-				res = ((MDPModelChecker) mc).computeReachProbs((MDP) abstraction, target, true);
+				return ((MDPModelChecker) mc).computeReachProbs((MDP) abstraction, target, true);
 			}
-			break;
 		case CTMDP:
-			if (optimise && refinementNum > 0) {
-				mc.setValIterDir(MDPModelChecker.ValIterDir.BELOW);
-				// TODO
-			} else {
-				res = ((CTMDPModelChecker) mc).computeReachProbs((CTMDP) abstraction, target, true);
-			}
-			break;
+			// No warm start available for CTMDPs
+			return ((CTMDPModelChecker) mc).computeReachProbs((CTMDP) abstraction, target, true);
 		case STPG:
 			if (optimise && refinementNum > 0) {
-				mc.setValIterDir(MDPModelChecker.ValIterDir.BELOW);
-				res = ((STPGModelChecker) mc).computeReachProbs((STPG) abstraction, null, target, true, min, lbSoln, known);
+				mc.setValIterDir(ValIterDir.BELOW);
+				return ((STPGModelChecker) mc).computeReachProbs((STPG) abstraction, null, target, true, min, lbSoln, known);
 			} else {
-				res = ((STPGModelChecker) mc).computeReachProbs((STPG) abstraction, null, target, true, min, null, null);
+				return ((STPGModelChecker) mc).computeReachProbs((STPG) abstraction, null, target, true, min, null, null);
 			}
-			break;
 		default:
 			throw new PrismNotSupportedException("Cannot model check " + abstractionType);
 		}
-		lbSoln = res.soln;
-		lbLastSoln = lbSoln; // TODO: fix (if nec.)
-		timeCheckLb += res.timeTaken;
-		timeCheckProb0 += res.timeProb0;
-		timeCheckPre += res.timePre;
-		itersTotal += res.numIters;
-		//mainLog.println(lbSoln);
+	}
 
-		// Compute upper bounds
+	/**
+	 * Compute upper bounds for probabilistic reachability, using model checker {@code mc}.
+	 * If optimisations are enabled, computation starts either from above, using the upper bounds
+	 * of the previous abstraction (in {@link #ubSoln}), or from below, using (a copy of) {@code lb}.
+	 */
+	protected ModelCheckerResult modelCheckAbstractionProbReachUpper(ProbModelChecker mc, boolean min, double lb[]) throws PrismException
+	{
 		switch (abstractionType) {
 		case MDP:
 			if (optimise) {
-				// TODO
+				if (above) {
+					mc.setValIterDir(ValIterDir.ABOVE);
+					return ((MDPModelChecker) mc).computeReachProbs((MDP) abstraction, null, target, false, ubSoln, known);
+				} else {
+					mc.setValIterDir(ValIterDir.BELOW);
+					double lbCopy[] = Utils.cloneDoubleArray(lb);
+					return ((MDPModelChecker) mc).computeReachProbs((MDP) abstraction, null, target, false, lbCopy, known);
+				}
 			} else {
-				res = ((MDPModelChecker) mc).computeReachProbs((MDP) abstraction, target, false);
+				return ((MDPModelChecker) mc).computeReachProbs((MDP) abstraction, target, false);
 			}
-			break;
 		case CTMDP:
-			if (optimise) {
-				// TODO
-			} else {
-				res = ((CTMDPModelChecker) mc).computeReachProbs((CTMDP) abstraction, target, false);
-			}
-			break;
+			// No warm start available for CTMDPs
+			return ((CTMDPModelChecker) mc).computeReachProbs((CTMDP) abstraction, target, false);
 		case STPG:
 			if (optimise) {
 				if (above) {
 					mc.setValIterDir(ValIterDir.ABOVE);
-					res = ((STPGModelChecker) mc).computeReachProbs((STPG) abstraction, null, target, false, min, ubSoln, known);
+					return ((STPGModelChecker) mc).computeReachProbs((STPG) abstraction, null, target, false, min, ubSoln, known);
 				} else {
 					mc.setValIterDir(ValIterDir.BELOW);
-					double lbCopy[] = Utils.cloneDoubleArray(lbSoln);
-					res = ((STPGModelChecker) mc).computeReachProbs((STPG) abstraction, null, target, false, min, lbCopy, known);
+					double lbCopy[] = Utils.cloneDoubleArray(lb);
+					return ((STPGModelChecker) mc).computeReachProbs((STPG) abstraction, null, target, false, min, lbCopy, known);
 				}
 			} else {
-				res = ((STPGModelChecker) mc).computeReachProbs((STPG) abstraction, null, target, false, min, null, null);
+				return ((STPGModelChecker) mc).computeReachProbs((STPG) abstraction, null, target, false, min, null, null);
 			}
-			break;
 		default:
 			throw new PrismNotSupportedException("Cannot model check " + abstractionType);
 		}
-		ubSoln = res.soln;
-		ubLastSoln = ubSoln; // TODO: fix (if nec.)
-		timeCheckUb += res.timeTaken;
-		timeCheckProb0 += res.timeProb0;
-		timeCheckPre += res.timePre;
-		itersTotal += res.numIters;
-		//mainLog.println(ubSoln);
 	}
 
 	/*
@@ -759,64 +883,51 @@ public abstract class QuantAbstractRefine extends PrismComponent
 	 */
 	protected void modelCheckAbstractionReachBounded(boolean min) throws PrismException
 	{
-		ModelCheckerResult res;
-		double results[] = new double[reachBound + 1];
-
-		// Compute lower bounds
-		switch (abstractionType) {
-		case MDP:
-			res = ((MDPModelChecker) mc).computeBoundedReachProbs((MDP) abstraction, null, target, reachBound, true, null, results);
-			break;
-		case CTMDP:
-			res = ((CTMDPModelChecker) mc).computeBoundedReachProbs((CTMDP) abstraction, null, target, (double) reachBound, true,
-					null, results);
-			break;
-		case STPG:
-			res = ((STPGModelChecker) mc).computeBoundedReachProbs((STPG) abstraction, null, target, reachBound, true, min, null,
-					results);
-			break;
-		default:
-			throw new PrismNotSupportedException("Cannot model check " + abstractionType);
+		ModelCheckerResult res[];
+		double resultsLb[] = new double[reachBound + 1];
+		double resultsUb[] = new double[reachBound + 1];
+
+		// Lower/upper bounds are independent
+		BoundComputation lb = mc -> modelCheckAbstractionReachBounded(mc, true, min, resultsLb);
+		BoundComputation ub = mc -> modelCheckAbstractionReachBounded(mc, false, min, resultsUb);
+		if (numThreads > 1) {
+			res = computeBoundsConcurrently(lb, ub);
+		} else {
+			res = new ModelCheckerResult[] { lb.compute(mc), ub.compute(mc) };
 		}
-		lbSoln = res.soln;
-		lbLastSoln = res.lastSoln;
-		timeCheckLb += res.timeTaken;
-		timeCheckProb0 += res.timeProb0;
-		timeCheckPre += res.timePre;
-		itersTotal += res.numIters;
-
-		mainLog.print("#");
-		for (int i = 0; i < reachBound + 1; i++)
-			mainLog.print(" " + results[i]);
-		mainLog.println();
+		lbSoln = res[0].soln;
+		lbLastSoln = res[0].lastSoln;
+		ubSoln = res[1].soln;
+		ubLastSoln = res[1].lastSoln;
+		addCheckStatistics(res);
+
+		for (double results[] : new double[][] { resultsLb, resultsUb }) {
+			mainLog.print("#");
+			for (int i = 0; i < reachBound + 1; i++)
+				mainLog.print(" " + results[i]);
+			mainLog.println();
+		}
+	}
 
-		// Compute upper bounds
+	/**
+	 * Compute lower ({@code lower}=true) or upper bounds for bounded probabilistic reachability,
+	 * using model checker {@code mc}; store the probabilities for each step in {@code results}.
+	 */
+	protected ModelCheckerResult modelCheckAbstractionReachBounded(ProbModelChecker mc, boolean lower, boolean min, double results[])
+			throws PrismException
+	{
 		switch (abstractionType) {
 		case MDP:
-			res = ((MDPModelChecker) mc).computeBoundedReachProbs((MDP) abstraction, null, target, reachBound, false, null, results);
-			break;
+			return ((MDPModelChecker) mc).computeBoundedReachProbs((MDP) abstraction, null, target, reachBound, lower, null, results);
 		case CTMDP:
-			res = ((CTMDPModelChecker) mc).computeBoundedReachProbs((CTMDP) abstraction, null, target, (double) reachBound, false,
+			return ((CTMDPModelChecker) mc).computeBoundedReachProbs((CTMDP) abstraction, null, target, (double) reachBound, lower,
 					null, results);
-			break;
 		case STPG:
-			res = ((STPGModelChecker) mc).computeBoundedReachProbs((STPG) abstraction, null, target, reachBound, false, min, null,
+			return ((STPGModelChecker) mc).computeBoundedReachProbs((STPG) abstraction, null, target, reachBound, lower, min, null,
 					results);
-			break;
 		default:
 			throw new PrismNotSupportedException("Cannot model check " + abstractionType);
 		}
-		ubSoln = res.soln;
-		ubLastSoln = res.lastSoln;
-		timeCheckUb += res.timeTaken;
-		timeCheckProb0 += res.timeProb0;
-		timeCheckPre += res.timePre;
-		itersTotal += res.numIters;
-
-		mainLog.print("#");
-		for (int i = 0; i < reachBound + 1; i++)
-			mainLog.print(" " + results[i]);
-		mainLog.println();
 	}
 
 	/**
@@ -824,51 +935,66 @@ public abstract class QuantAbstractRefine extends PrismComponent
 	 */
 	protected void modelCheckAbstractionExpReach(boolean min) throws PrismException
 	{
-		ModelCheckerResult res = null;
-		int i, n;
-
-		// Pass settings to model checker
-		mc.termCrit = TermCrit.RELATIVE;
-		mc.termCritParam = 1e-8;
+		ModelCheckerResult res[];
+
+		// Pass settings to model checker(s)
+		mc.termCrit = mcUb.termCrit = TermCrit.RELATIVE;
+		mc.termCritParam = mcUb.termCritParam = 1e-8;
+
+		if (numThreads > 1) {
+			// Upper bounds cannot wait for the new lower bounds,
+			// so start from those of the previous abstraction, which are no higher
+			double lbPrev[] = Utils.cloneDoubleArray(lbSoln);
+			res = computeBoundsConcurrently(mc -> modelCheckAbstractionExpReachLower(mc),
+					mc -> modelCheckAbstractionExpReachUpper(mc, lbPrev));
+		} else {
+			res = new ModelCheckerResult[2];
+			res[0] = modelCheckAbstractionExpReachLower(mc);
+			res[1] = modelCheckAbstractionExpReachUpper(mc, res[0].soln);
+		}
+		lbSoln = res[0].soln;
+		lbLastSoln = lbSoln; // TODO: fix (if nec.)
+		ubSoln = res[1].soln;
+		ubLastSoln = ubSoln; // TODO: fix (if nec.)
+		addCheckStatistics(res);
+	}
 
-		// Value iteration parameters depend on optimisations used 
+	/**
+	 * Compute lower bounds for expected reachability, using model checker {@code mc}.
+	 * After refinement (if optimisations are enabled), computation is warm-started
+	 * from the lower bounds of the previous abstraction (in {@link #lbSoln}).
+	 */
+	protected ModelCheckerResult modelCheckAbstractionExpReachLower(ProbModelChecker mc) throws PrismException
+	{
 		switch (abstractionType) {
 		case MDP:
 			if (optimise && refinementNum > 0) {
-				res = ((MDPModelChecker) mc).computeReachRewards((MDP) abstraction, null, target, true, lbSoln, known);
+				return ((MDPModelChecker) mc).computeReachRewards((MDP) abstraction, null, target, true, lbSoln, known);
 			} else {
-				res = ((MDPModelChecker) mc).computeReachRewards((MDP) abstraction, null, target, true, null, null);
+				return ((MDPModelChecker) mc).computeReachRewards((MDP) abstraction, null, target, true, null, null);
 			}
-			break;
 		default:
 			throw new PrismNotSupportedException("Cannot model check " + abstractionType);
 		}
-		lbSoln = res.soln;
-		lbLastSoln = lbSoln; // TODO: fix (if nec.)
-		timeCheckLb += res.timeTaken;
-		timeCheckProb0 += res.timeProb0;
-		timeCheckPre += res.timePre;
-		itersTotal += res.numIters;
+	}
 
-		// Compute upper bounds
+	/**
+	 * Compute upper bounds for expected reachability, using model checker {@code mc}.
+	 * If optimisations are enabled, computation starts from (a copy of) {@code lb}.
+	 */
+	protected ModelCheckerResult modelCheckAbstractionExpReachUpper(ProbModelChecker mc, double lb[]) throws PrismException
+	{
 		switch (abstractionType) {
 		case MDP:
 			if (optimise) {
-				double lbCopy[] = Utils.cloneDoubleArray(lbSoln);
-				res = ((MDPModelChecker) mc).computeReachRewards((MDP) abstraction, null, target, false, lbCopy, known);
+				double lbCopy[] = Utils.cloneDoubleArray(lb);
+				return ((MDPModelChecker) mc).computeReachRewards((MDP) abstraction, null, target, false, lbCopy, known);
 			} else {
-				res = ((MDPModelChecker) mc).computeReachRewards((MDP) abstraction, null, target, false, null, null);
+				return ((MDPModelChecker) mc).computeReachRewards((MDP) abstraction, null, target, false, null, null);
 			}
-			break;
 		default:
 			throw new PrismNotSupportedException("Cannot model check " + abstractionType);
 		}
-		ubSoln = res.soln;
-		ubLastSoln = ubSoln; // TODO: fix (if nec.)
-		timeCheckUb += res.timeTaken;
-		timeCheckProb0 += res.timeProb0;
-		timeCheckPre += res.timePre;
-		itersTotal += res.numIters;
 	}
 
 	/*
@@ -968,12 +1094,15 @@ public abstract class QuantAbstractRefine extends PrismComponent
 
 		numSuccRefines = 0;
 		n = refineStates.size();
+		// In parallel mode, first decide (concurrently) how each state will be split;
+		// this does not modify the abstraction, so the splits can still be done in order below
+		List<List<List<Integer>>> allChoiceLists = (numThreads > 1 && n > 1) ? computeChoiceListsConcurrently(refineStates) : null;
 		// Go through list in reverse order
 		for (i = n - 1; i >= 0; i--) {
 			if (verbosity >= 1)
 				mainLog.println("Refinement " + refinementNum + "." + (n - i) + "...");
 			refineState = refineStates.get(i);
-			numNewStates = refineState(refineState, rebuiltStates, rebuildStates);
+			numNewStates = refineState(refineState, allChoiceLists == null ? null : allChoiceLists.get(i), rebuiltStates, rebuildStates);
 			if (numNewStates > 1)
 				numSuccRefines++;
 		}
@@ -1009,9 +1138,22 @@ public abstract class QuantAbstractRefine extends PrismComponent
 	protected int refineState(int refineState, Set<Integer> rebuiltStates, Set<Integer> rebuildStates)
 			throws PrismException
 	{
-		List<List<Integer>> choiceLists;
-		List<Integer> lbStrat = null, ubStrat = null;
-		int i, n, numStates, numNewStates;
+		return refineState(refineState, null, rebuiltStates, rebuildStates);
+	}
+
+	/**
+	 * Refine a single state, as for {@link #refineState(int, Set, Set)}, but optionally
+	 * with the split already decided (by {@link #computeChoiceLists(int)}) beforehand.
+	 * @param refineState State to refine.
+	 * @param choiceLists Lists of nondeterministic choices defining split (null = compute now).
+	 * @param rebuiltStates States that have been rebuilt as a result will be added here.
+	 * @param rebuildStates States that need rebuilding as a result will be added here.
+	 * @return Number of states into which split (i.e. 1 denotes refinement failed).
+	 */
+	protected int refineState(int refineState, List<List<Integer>> choiceLists, Set<Integer> rebuiltStates, Set<Integer> rebuildStates)
+			throws PrismException
+	{
+		int numStates, numNewStates;
 
 		// Sanity checks - pointless refinements...
 		if (sanityChecks) {
@@ -1034,7 +1176,72 @@ public abstract class QuantAbstractRefine extends PrismComponent
 			return 1;
 		}
 
-		// Decide how this state will be split up (in terms of player 1 choices)
+		// Decide how this state will be split up (in terms of player 1 choices), if not done already
+		if (choiceLists == null) {
+			choiceLists = computeChoiceLists(refineState);
+		}
+		if (choiceLists.isEmpty()) {
+			return 1;
+		}
+
+		// Get (old) number of states
+		numStates = abstraction.getNumStates();
+
+		// Split the state, based on nondet choices selected above
+		numNewStates = splitState(refineState, choiceLists, rebuiltStates, rebuildStates);
+
+		// Update existing solution vectors (if any)
+		lbSoln = Utils.extendDoubleArray(lbSoln, numStates, numStates + numNewStates - 1, lbSoln[refineState]);
+		lbLastSoln = Utils.extendDoubleArray(lbLastSoln, numStates, numStates + numNewStates - 1,
+				lbLastSoln[refineState]);
+		ubSoln = Utils.extendDoubleArray(ubSoln, numStates, numStates + numNewStates - 1, ubSoln[refineState]);
+		ubLastSoln = Utils.extendDoubleArray(ubLastSoln, numStates, numStates + numNewStates - 1,
+				ubLastSoln[refineState]);
+
+		// Note: we don't have to update 'known' since implicit new elements of a BitSet are assumed false
+
+		return numNewStates;
+	}
+
+	/**
+	 * Decide how each of the states in {@code refineStates} will be split, concurrently
+	 * (see {@link #computeChoiceLists(int)}). Returns the choice lists, indexed as {@code refineStates}.
+	 */
+	protected List<List<List<Integer>>> computeChoiceListsConcurrently(List<Integer> refineStates) throws PrismException
+	{
+		int n = refineStates.size();
+		// Pre-sized, so that each block only sets its own indices (no structural modification)
+		List<List<List<Integer>>> allChoiceLists = new ArrayList<List<List<Integer>>>(Collections.nCopies(n, null));
+		PrismException errors[] = new PrismException[n];
+		Parallel.forEachBlock(numThreads, 0, n, Math.max(1, n / (4 * numThreads)), (from, to) -> {
+			for (int i = from; i < to; i++) {
+				try {
+					allChoiceLists.set(i, computeChoiceLists(refineStates.get(i)));
+				} catch (PrismException e) {
+					errors[i] = e;
+				}
+			}
+		});
+		for (PrismException e : errors) {
+			if (e != null) {
+				throw e;
+			}
+		}
+		return allChoiceLists;
+	}
+
+	/**
+	 * Decide how a state will be split up for refinement (in terms of player 1 choices),
+	 * using the current refinement strategy. Returns an empty list if it should not be split.
+	 * This does not modify the abstraction or solution vectors, so can be called concurrently.
+	 * @param refineState State to refine.
+	 */
+	protected List<List<Integer>> computeChoiceLists(int refineState) throws PrismException
+	{
+		List<List<Integer>> choiceLists;
+		List<Integer> lbStrat = null, ubStrat = null;
+		int i, n;
+
 		choiceLists = new ArrayList<List<Integer>>();
 		switch (refineStratHow) {
 		case VAL:
@@ -1088,7 +1295,7 @@ public abstract class QuantAbstractRefine extends PrismComponent
 				if (verbosity >= 1)
 					mainLog.printWarning("Skipping refinement of #" + refineState
 							+ " for which lb/ub strategy sets are equal and covering.");
-				return 1;
+				return choiceLists;
 			}
 			if (verbosity >= 1)
 				mainLog.println("lbStrat: " + lbStrat + ", ubStrat: " + ubStrat);
@@ -1146,23 +1353,7 @@ public abstract class QuantAbstractRefine extends PrismComponent
 			throw new PrismException("Unknown (how) refinement strategy \"" + refineStratWhere.name() + "\"");
 		}
 
-		// Get (old) number of states
-		numStates = abstraction.getNumStates();
-
-		// Split the state, based on nondet choices selected above
-		numNewStates = splitState(refineState, choiceLists, rebuiltStates, rebuildStates);
-
-		// Update existing solution vectors (if any)
-		lbSoln = Utils.extendDoubleArray(lbSoln, numStates, numStates + numNewStates - 1, lbSoln[refineState]);
-		lbLastSoln = Utils.extendDoubleArray(lbLastSoln, numStates, numStates + numNewStates - 1,
-				lbLastSoln[refineState]);
-		ubSoln = Utils.extendDoubleArray(ubSoln, numStates, numStates + numNewStates - 1, ubSoln[refineState]);
-		ubLastSoln = Utils.extendDoubleArray(ubLastSoln, numStates, numStates + numNewStates - 1,
-				ubLastSoln[refineState]);
-
-		// Note: we don't have to update 'known' since implicit new elements of a BitSet are assumed false
-
-		return numNewStates;
+		return choiceLists;
 	}
 
 	/**
@@ -88,7 +88,7 @@ public class QuantAbstractRefineExample extends QuantAbstractRefine
 		// Get initial (concrete) states
 		initialConcrete = new BitSet(nConcrete);
 		for (int in: modelConcrete.getInitialStates())
-			initialConcrete.set(in, 1);
+			initialConcrete.set(in);
 		
 		// Get target (concrete) states
 		statesList = modelConcrete.getStatesList();
@@ -124,6 +124,9 @@ public class QuantAbstractRefineExample extends QuantAbstractRefine
 		// Create (empty) abstraction and store initial states info
 		nAbstract = existsRest ? 3 : 2;
 		switch (modelType) {
+		case DTMC:
+			abstraction = new MDPSimple<Double>(nAbstract);
+			break;
 		case MDP:
 			abstraction = new STPGAbstrSimple(nAbstract);
 			break;
@@ -147,6 +150,9 @@ public class QuantAbstractRefineExample extends QuantAbstractRefine
 		for (c = 0; c < nConcrete; c++) {
 			a = concreteToAbstract[c];
 			switch (modelType) {
+			case DTMC:
+				j = ((MDPSimple<Double>) abstraction).addChoice(a, buildAbstractDistribution(c, (DTMCSimple<Double>) modelConcrete));
+				break;
 			case MDP:
 				set = buildAbstractDistributionSet(c, (MDPSimple) modelConcrete, (STPG) abstraction);
 				j = ((STPGAbstrSimple) abstraction).addDistributionSet(a, set);
@@ -161,6 +167,14 @@ public class QuantAbstractRefineExample extends QuantAbstractRefine
 		}
 	}
 
+	/**
+	 * Abstract a concrete state c of a DTMC ready to add (as a choice) to an MDP state.
+	 */
+	protected Distribution<Double> buildAbstractDistribution(int c, DTMCSimple<Double> dtmc)
+	{
+		return dtmc.getTransitions(c).map(concreteToAbstract);
+	}
+
 	/**
 	 * Abstract a concrete state c of an MDP ready to add to an STPG state.
 	 */
@@ -285,6 +299,9 @@ public class QuantAbstractRefineExample extends QuantAbstractRefine
 				if (a != i)
 					throw new PrismException("Oops");
 				switch (modelType) {
+				case DTMC:
+					j = ((MDPSimple<Double>) abstraction).addChoice(a, buildAbstractDistribution(c, (DTMCSimple<Double>) modelConcrete));
+					break;
 				case MDP:
 					set = buildAbstractDistributionSet(c, (MDPSimple) modelConcrete, (STPG) abstraction);
 					j = ((STPGAbstrSimple) abstraction).addDistributionSet(a, set);
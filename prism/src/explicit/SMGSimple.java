@@ -186,61 +186,55 @@ public class SMGSimple<Value> extends MDPSimple<Value> implements SMG<Value>
 	@Override
 	public void prob0step(BitSet subset, BitSet u, boolean forall1, boolean forall2, BitSet result)
 	{
-		int i;
-		boolean b1, b2;
-		boolean forall = false;
-
-		for (i = 0; i < numStates; i++) {
-			if (subset.get(i)) {
-				forall = (getPlayer(i) == 0) ? forall1 : forall2;
-				b1 = forall; // there exists or for all
-				for (Distribution<Value> distr : trans.get(i)) {
-					b2 = distr.containsOneOf(u);
-					if (forall) {
-						if (!b2) {
-							b1 = false;
-							continue;
-						}
-					} else {
-						if (b2) {
-							b1 = true;
-							continue;
-						}
-					}
+		for (int i = subset.nextSetBit(0); i >= 0 && i < numStates; i = subset.nextSetBit(i + 1)) {
+			result.set(i, prob0step(i, u, forall1, forall2));
+		}
+	}
+	
+	@Override
+	public boolean prob0step(int s, BitSet u, boolean forall1, boolean forall2)
+	{
+		boolean forall = (getPlayer(s) == 0) ? forall1 : forall2;
+		for (Distribution<Value> distr : trans.get(s)) {
+			boolean b2 = distr.containsOneOf(u);
+			if (forall) {
+				if (!b2) {
+					return false;
+				}
+			} else {
+				if (b2) {
+					return true;
 				}
-				result.set(i, b1);
 			}
 		}
+		return forall; // there exists or for all
 	}
 	
 	@Override
 	public void prob1step(BitSet subset, BitSet u, BitSet v, boolean forall1, boolean forall2, BitSet result)
 	{
-		int i;
-		boolean b1, b2;
-		boolean forall = false;
+		for (int i = subset.nextSetBit(0); i >= 0 && i < numStates; i = subset.nextSetBit(i + 1)) {
+			result.set(i, prob1step(i, u, v, forall1, forall2));
+		}
+	}
 
-		for (i = 0; i < numStates; i++) {
-			if (subset.get(i)) {
-				forall = (getPlayer(i) == 0) ? forall1 : forall2;
-				b1 = forall; // there exists or for all
-				for (Distribution<Value> distr : trans.get(i)) {
-					b2 = distr.containsOneOf(v) && distr.isSubsetOf(u);
-					if (forall) {
-						if (!b2) {
-							b1 = false;
-							continue;
-						}
-					} else {
-						if (b2) {
-							b1 = true;
-							continue;
-						}
-					}
+	@Override
+	public boolean prob1step(int s, BitSet u, BitSet v, boolean forall1, boolean forall2)
+	{
+		boolean forall = (getPlayer(s) == 0) ? forall1 : forall2;
+		for (Distribution<Value> distr : trans.get(s)) {
+			boolean b2 = distr.containsOneOf(v) && distr.isSubsetOf(u);
+			if (forall) {
+				if (!b2) {
+					return false;
+				}
+			} else {
+				if (b2) {
+					return true;
 				}
-				result.set(i, b1);
 			}
 		}
+		return forall; // there exists or for all
 	}
 
 	@Override
@@ -402,7 +396,7 @@ public class SMGSimple<Value> extends MDPSimple<Value> implements SMG<Value>
 		first = true;
 		for (int j = 0, numChoices = getNumChoices(s); j < numChoices; j++) {
 			// Compute sum for this distribution
-			d = mdpRewards.getTransitionReward(s, j);
+			d = mdpRewards.getTransitionRewardDouble(s, j);
 			d += sumOverDoubleTransitions(s, j, (__, t, prob) -> {
 				return prob * vect[t] * disc;
 			});
@@ -425,7 +419,7 @@ public class SMGSimple<Value> extends MDPSimple<Value> implements SMG<Value>
 		}
 
 		// Add state reward (doesn't affect min/max)
-		minmax += mdpRewards.getStateReward(s);
+		minmax += mdpRewards.getStateRewardDouble(s);
 
 		return minmax;
 	}
@@ -137,6 +137,49 @@ public interface STPG<Value> extends MDP<Value>
 	 */
 	public void prob1step(BitSet subset, BitSet u, BitSet v, boolean forall1, boolean forall2, BitSet result);
 
+	/**
+	 * Perform a single step of precomputation algorithm Prob0 for a single state,
+	 * i.e., return whether, for all/some player 1 choices, for all/some player 2 choices,
+	 * there is a transition to a state in {@code u}.
+	 * Quantification over player 1/2 choices is determined by {@code forall1}, {@code forall2}.
+	 * <br>
+	 * <i>Default implementation</i>: Calls the set-based {@code prob0step} for {@code s}.
+	 * @param s State (row) index
+	 * @param u Set of states {@code u}
+	 * @param forall1 For-all or there-exists for player 1 (true=for-all, false=there-exists)
+	 * @param forall2 For-all or there-exists for player 2 (true=for-all, false=there-exists)
+	 */
+	public default boolean prob0step(int s, BitSet u, boolean forall1, boolean forall2)
+	{
+		BitSet subset = new BitSet();
+		subset.set(s);
+		BitSet result = new BitSet();
+		prob0step(subset, u, forall1, forall2, result);
+		return result.get(s);
+	}
+
+	/**
+	 * Perform a single step of precomputation algorithm Prob1 for a single state,
+	 * i.e., return whether, for all/some player 1 choices, for all/some player 2 choices,
+	 * there is a transition to a state in {@code v} and all transitions go to states in {@code u}.
+	 * Quantification over player 1/2 choices is determined by {@code forall1}, {@code forall2}.
+	 * <br>
+	 * <i>Default implementation</i>: Calls the set-based {@code prob1step} for {@code s}.
+	 * @param s State (row) index
+	 * @param u Set of states {@code u}
+	 * @param v Set of states {@code v}
+	 * @param forall1 For-all or there-exists for player 1 (true=for-all, false=there-exists)
+	 * @param forall2 For-all or there-exists for player 2 (true=for-all, false=there-exists)
+	 */
+	public default boolean prob1step(int s, BitSet u, BitSet v, boolean forall1, boolean forall2)
+	{
+		BitSet subset = new BitSet();
+		subset.set(s);
+		BitSet result = new BitSet();
+		prob1step(subset, u, v, forall1, forall2, result);
+		return result.get(s);
+	}
+
 	/**
 	 * Do a matrix-vector multiplication followed by two min/max ops, i.e. one step of value iteration,
 	 * i.e. for all s: result[s] = min/max_{k1,k2} { sum_j P_{k1,k2}(s,j)*vect[j] }
@@ -144,6 +144,8 @@ public class STPGAbstrSimple<Value> extends ModelExplicit<Value> implements STPG
 		//TODO: recompute maxNumDistrs
 		// Remove all distribution sets
 		trans.set(i, new ArrayList<>(0));
+		// Transitions have changed, so discard any stored predecessor relation
+		clearPredecessorRelation();
 	}
 
 	@Override
@@ -160,6 +162,8 @@ public class STPGAbstrSimple<Value> extends ModelExplicit<Value> implements STPG
 			trans.add(new ArrayList<>());
 		}
 		numStates += numToAdd;
+		// Transitions have changed, so discard any stored predecessor relation
+		clearPredecessorRelation();
 	}
 
 	@Override
@@ -275,6 +279,8 @@ public class STPGAbstrSimple<Value> extends ModelExplicit<Value> implements STPG
 				return i;
 		}
 		set.add(newSet);
+		// Transitions have changed, so discard any stored predecessor relation
+		clearPredecessorRelation();
 		// Update stats
 		numDistrSets++;
 		maxNumDistrSets = Math.max(maxNumDistrSets, set.size());
@@ -518,61 +524,73 @@ public class STPGAbstrSimple<Value> extends ModelExplicit<Value> implements STPG
 	@Override
 	public void prob0step(BitSet subset, BitSet u, boolean forall1, boolean forall2, BitSet result)
 	{
-		boolean b1, b2, b3;
 		for (int i : new IterableStateSet(subset, numStates)) {
-			b1 = forall1; // there exists or for all player 1 choices
-			for (DistributionSet<Value> distrs : trans.get(i)) {
-				b2 = forall2; // there exists or for all player 2 choices
-				for (Distribution<Value> distr : distrs) {
-					b3 = distr.containsOneOf(u);
-					if (forall2) {
-						if (!b3)
-							b2 = false;
-					} else {
-						if (b3)
-							b2 = true;
-					}
-				}
-				if (forall1) {
-					if (!b2)
-						b1 = false;
+			result.set(i, prob0step(i, u, forall1, forall2));
+		}
+	}
+
+	@Override
+	public boolean prob0step(int s, BitSet u, boolean forall1, boolean forall2)
+	{
+		boolean b1, b2, b3;
+		b1 = forall1; // there exists or for all player 1 choices
+		for (DistributionSet<Value> distrs : trans.get(s)) {
+			b2 = forall2; // there exists or for all player 2 choices
+			for (Distribution<Value> distr : distrs) {
+				b3 = distr.containsOneOf(u);
+				if (forall2) {
+					if (!b3)
+						b2 = false;
 				} else {
-					if (b2)
-						b1 = true;
+					if (b3)
+						b2 = true;
 				}
 			}
-			result.set(i, b1);
+			if (forall1) {
+				if (!b2)
+					b1 = false;
+			} else {
+				if (b2)
+					b1 = true;
+			}
 		}
+		return b1;
 	}
 
 	@Override
 	public void prob1step(BitSet subset, BitSet u, BitSet v, boolean forall1, boolean forall2, BitSet result)
 	{
-		boolean b1, b2, b3;
 		for (int i : new IterableStateSet(subset, numStates)) {
-			b1 = forall1; // there exists or for all player 1 choices
-			for (DistributionSet<Value> distrs : trans.get(i)) {
-				b2 = forall2; // there exists or for all player 2 choices
-				for (Distribution<Value> distr : distrs) {
-					b3 = distr.containsOneOf(v) && distr.isSubsetOf(u);
-					if (forall2) {
-						if (!b3)
-							b2 = false;
-					} else {
-						if (b3)
-							b2 = true;
-					}
-				}
-				if (forall1) {
-					if (!b2)
-						b1 = false;
+			result.set(i, prob1step(i, u, v, forall1, forall2));
+		}
+	}
+
+	@Override
+	public boolean prob1step(int s, BitSet u, BitSet v, boolean forall1, boolean forall2)
+	{
+		boolean b1, b2, b3;
+		b1 = forall1; // there exists or for all player 1 choices
+		for (DistributionSet<Value> distrs : trans.get(s)) {
+			b2 = forall2; // there exists or for all player 2 choices
+			for (Distribution<Value> distr : distrs) {
+				b3 = distr.containsOneOf(v) && distr.isSubsetOf(u);
+				if (forall2) {
+					if (!b3)
+						b2 = false;
 				} else {
-					if (b2)
-						b1 = true;
+					if (b3)
+						b2 = true;
 				}
 			}
-			result.set(i, b1);
+			if (forall1) {
+				if (!b2)
+					b1 = false;
+			} else {
+				if (b2)
+					b1 = true;
+			}
 		}
+		return b1;
 	}
 
 	@Override
@@ -28,6 +28,7 @@
 package explicit;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -36,7 +37,9 @@ import java.util.Map;
 import java.util.Map.Entry;
 
 import acceptance.AcceptanceReach;
+import common.IntSet;
 import common.IterableBitSet;
+import explicit.modelviews.MDPDroppedChoicesCached;
 import explicit.rewards.MDPRewardsSimple;
 import explicit.rewards.STPGRewards;
 import explicit.rewards.STPGRewardsSimple;
@@ -44,6 +47,7 @@ import explicit.rewards.StateRewardsConstant;
 import parser.ast.Expression;
 import prism.AccuracyFactory;
 import prism.PrismComponent;
+import prism.PrismDevNullLog;
 import prism.PrismException;
 import prism.PrismFileLog;
 import prism.PrismLog;
@@ -265,6 +269,7 @@ public class STPGModelChecker extends ProbModelChecker
 		BitSet no, yes;
 		int n, numYes, numNo;
 		long timer, timerProb0, timerProb1;
+		PredecessorRelation pre = null;
 
 		// Check for some unsupported combinations
 		if (stpgSolnMethod == STPGSolnMethod.VALUE_ITERATION && valIterDir == ValIterDir.ABOVE && !(precomp && prob0)) {
@@ -293,17 +298,29 @@ public class STPGModelChecker extends ProbModelChecker
 			target = targetNew;
 		}
 
+		if (precomp && (prob0 || (prob1 && !genStrat)) && preRel) {
+			pre = stpg.getPredecessorRelation(this, true);
+		}
+
 		// Precomputation
 		timerProb0 = System.currentTimeMillis();
 		if (precomp && prob0) {
-			no = prob0(stpg, remain, target, min1, min2);
+			if (preRel) {
+				no = prob0(stpg, remain, target, min1, min2, pre);
+			} else {
+				no = prob0(stpg, remain, target, min1, min2);
+			}
 		} else {
 			no = new BitSet();
 		}
 		timerProb0 = System.currentTimeMillis() - timerProb0;
 		timerProb1 = System.currentTimeMillis();
 		if (precomp && prob1 && !genStrat) {
-			yes = prob1(stpg, remain, target, min1, min2);
+			if (preRel) {
+				yes = prob1(stpg, remain, target, min1, min2, pre);
+			} else {
+				yes = prob1(stpg, remain, target, min1, min2);
+			}
 		} else {
 			yes = (BitSet) target.clone();
 		}
@@ -320,7 +337,13 @@ public class STPGModelChecker extends ProbModelChecker
 			// Compute probabilities
 			switch (stpgSolnMethod) {
 			case VALUE_ITERATION:
-				res = computeReachProbsValIter(stpg, no, yes, min1, min2, init, known);
+				if (adaptiveVI && (!min1 || !min2) && !(stpg instanceof STPGAbstrSimple)) {
+					res = computeReachProbsAdaptive(stpg, no, yes, min1, min2, init, known);
+				} else {
+					if (adaptiveVI)
+						mainLog.println("Adaptive value iteration needs a maximising player and non-nested choices; using value iteration");
+					res = computeReachProbsValIter(stpg, no, yes, min1, min2, init, known);
+				}
 				break;
 			case GAUSS_SEIDEL:
 				res = computeReachProbsGaussSeidel(stpg, no, yes, min1, min2, init, known);
@@ -502,6 +525,139 @@ public class STPGModelChecker extends ProbModelChecker
 		return u;
 	}
 
+	/**
+	 * Prob0 precomputation algorithm (using predecessor relation),
+	 * i.e. determine the states of an STPG which, with min/max probability 0,
+	 * reach a state in {@code target}, while remaining in those in {@code remain}.
+	 * Rather than a full fixed-point iteration, this only re-evaluates predecessors of newly added states
+	 * (see {@link FrontierFixpoint}), optionally using several threads.
+	 * @param stpg The STPG
+	 * @param remain Remain in these states (optional: null means "all")
+	 * @param target Target states
+	 * @param min1 Min or max probabilities for player 1 (true=min, false=max)
+	 * @param min2 Min or max probabilities for player 2 (true=min, false=max)
+	 * @param pre The predecessor relation of the STPG
+	 */
+	public BitSet prob0(STPG<?> stpg, BitSet remain, BitSet target, boolean min1, boolean min2, PredecessorRelation pre)
+	{
+		int n;
+		BitSet init, u, unknown;
+		long timer;
+
+		// Start precomputation
+		timer = System.currentTimeMillis();
+		if (verbosity >= 1)
+			mainLog.println("Starting Prob0 (" + (min1 ? "min" : "max") + (min2 ? "min" : "max") + ")...");
+
+		// Special case: no target states
+		if (target.cardinality() == 0) {
+			BitSet soln = new BitSet(stpg.getNumStates());
+			soln.set(0, stpg.getNumStates());
+			return soln;
+		}
+
+		// Determine set of states actually need to perform computation for
+		n = stpg.getNumStates();
+		unknown = new BitSet();
+		unknown.set(0, n);
+		unknown.andNot(target);
+		if (remain != null)
+			unknown.and(remain);
+
+		// Least fixed point, starting from 'target'
+		// (plus any states with no choices, or an empty choice, that trivially satisfy a for-all step)
+		FrontierFixpoint.StateTest test = (s, current) -> stpg.prob0step(s, current, min1, min2);
+		init = (BitSet) target.clone();
+		init.or(FrontierFixpoint.vacuousStates(stpg, unknown, test));
+		FrontierFixpoint fixpoint = new FrontierFixpoint(pre, numThreads);
+		u = fixpoint.leastFixpoint(unknown, init, test);
+
+		// Negate
+		u.flip(0, n);
+
+		// Finished precomputation
+		timer = System.currentTimeMillis() - timer;
+		if (verbosity >= 1) {
+			mainLog.print("Prob0 (" + (min1 ? "min" : "max") + (min2 ? "min" : "max") + ")");
+			mainLog.println(" took " + fixpoint.getNumIterations() + " iterations and " + timer / 1000.0 + " seconds.");
+		}
+
+		return u;
+	}
+
+	/**
+	 * Prob1 precomputation algorithm (using predecessor relation),
+	 * i.e. determine the states of an STPG which, with min/max probability 1,
+	 * reach a state in {@code target}, while remaining in those in {@code remain}.
+	 * The inner (least) fixed points only re-evaluate predecessors of newly added states
+	 * (see {@link FrontierFixpoint}), optionally using several threads.
+	 * @param stpg The STPG
+	 * @param remain Remain in these states (optional: null means "all")
+	 * @param target Target states
+	 * @param min1 Min or max probabilities for player 1 (true=min, false=max)
+	 * @param min2 Min or max probabilities for player 2 (true=min, false=max)
+	 * @param pre The predecessor relation of the STPG
+	 */
+	public BitSet prob1(STPG<?> stpg, BitSet remain, BitSet target, boolean min1, boolean min2, PredecessorRelation pre)
+	{
+		int n, iters;
+		BitSet u, v, init, subset, unknown;
+		boolean u_done;
+		long timer;
+
+		// Start precomputation
+		timer = System.currentTimeMillis();
+		if (verbosity >= 1)
+			mainLog.println("Starting Prob1 (" + (min1 ? "min" : "max") + (min2 ? "min" : "max") + ")...");
+
+		// Special case: no target states
+		if (target.cardinality() == 0) {
+			return new BitSet(stpg.getNumStates());
+		}
+
+		// Determine set of states actually need to perform computation for
+		n = stpg.getNumStates();
+		unknown = new BitSet();
+		unknown.set(0, n);
+		unknown.andNot(target);
+		if (remain != null)
+			unknown.and(remain);
+
+		// Inner least fixed points start from 'target'
+		// (plus any states with no choices, or an empty choice, that trivially satisfy a for-all step)
+		init = (BitSet) target.clone();
+		init.or(FrontierFixpoint.vacuousStates(stpg, unknown, (s, current) -> stpg.prob1step(s, current, current, min1, min2)));
+
+		// Nested fixed point loop
+		FrontierFixpoint fixpoint = new FrontierFixpoint(pre, numThreads);
+		iters = 0;
+		u_done = false;
+		// Greatest fixed point
+		u = new BitSet(n);
+		u.set(0, n);
+		while (!u_done) {
+			// States outside u will not be added again, since u only shrinks
+			subset = (BitSet) unknown.clone();
+			subset.and(u);
+			final BitSet uCurrent = u;
+			v = fixpoint.leastFixpoint(subset, init, (s, current) -> stpg.prob1step(s, uCurrent, current, min1, min2));
+			iters += fixpoint.getNumIterations();
+			// Check termination (outer)
+			u_done = v.equals(u);
+			// u = v
+			u = v;
+		}
+
+		// Finished precomputation
+		timer = System.currentTimeMillis() - timer;
+		if (verbosity >= 1) {
+			mainLog.print("Prob1 (" + (min1 ? "min" : "max") + (min2 ? "min" : "max") + ")");
+			mainLog.println(" took " + iters + " iterations and " + timer / 1000.0 + " seconds.");
+		}
+
+		return u;
+	}
+
 	/**
 	 * Compute reachability probabilities using value iteration.
 	 * @param stpg The STPG
@@ -622,6 +778,177 @@ public class STPGModelChecker extends ProbModelChecker
 		return res;
 	}
 
+	/**
+	 * Compute reachability probabilities using adaptive value iteration.
+	 * Value iteration is monitored (see {@link ConvergenceMonitor}) and, when convergence stalls,
+	 * the current greedy strategy of a maximising player is fixed and the resulting MDP
+	 * (for the other player) is solved, using policy iteration. The values of this MDP are a lower bound on the
+	 * values of the game; if they are a fixed point, they are returned, otherwise value
+	 * iteration continues from the improved values.
+	 * At least one player must maximise and choices must not be nested.
+	 * @param stpg The STPG
+	 * @param no Probability 0 states
+	 * @param yes Probability 1 states
+	 * @param min1 Min or max probabilities for player 1 (true=min, false=max)
+	 * @param min2 Min or max probabilities for player 2 (true=min, false=max)
+	 * @param init Optionally, an initial solution vector (will be overwritten) 
+	 * @param known Optionally, a set of states for which the exact answer is known
+	 * Note: if 'known' is specified (i.e. is non-null, 'init' must also be given and is used for the exact values.  
+	 */
+	protected ModelCheckerResult computeReachProbsAdaptive(STPG<Double> stpg, BitSet no, BitSet yes, boolean min1, boolean min2, double init[], BitSet known)
+			throws PrismException
+	{
+		ModelCheckerResult res;
+		BitSet unknown, remain;
+		int i, n, iters, phaseIters, numPolicies, policyIters;
+		double soln[], soln2[], tmpsoln[], initVal, maxDiff;
+		boolean absolute, done, policyDone;
+		long timer;
+
+		// Start adaptive value iteration
+		timer = System.currentTimeMillis();
+		if (verbosity >= 1)
+			mainLog.println("Starting adaptive value iteration (" + (min1 ? "min" : "max") + (min2 ? "min" : "max") + ")...");
+		absolute = (termCrit == TermCrit.ABSOLUTE);
+
+		// Store num states
+		n = stpg.getNumStates();
+
+		// Initialise solution vectors (as for value iteration)
+		initVal = (valIterDir == ValIterDir.BELOW) ? 0.0 : 1.0;
+		soln = new double[n];
+		for (i = 0; i < n; i++) {
+			if (known != null && known.get(i))
+				soln[i] = init[i];
+			else
+				soln[i] = yes.get(i) ? 1.0 : no.get(i) ? 0.0 : init != null ? init[i] : initVal;
+		}
+		soln2 = soln.clone();
+
+		// Determine set of states actually need to compute values for
+		unknown = new BitSet();
+		unknown.set(0, n);
+		unknown.andNot(yes);
+		unknown.andNot(no);
+		if (known != null)
+			unknown.andNot(known);
+		remain = new BitSet();
+		remain.set(0, n);
+		remain.andNot(no);
+
+		// If required, create/initialise strategy storage
+		// Set choices to -1, denoting unknown
+		int strat[] = null;
+		if (genStrat) {
+			strat = new int[n];
+			for (i = 0; i < n; i++) {
+				strat[i] = -1;
+			}
+			for (i = no.nextSetBit(0); i >= 0; i = no.nextSetBit(i + 1)) {
+				int numChoices = stpg.getNumChoices(i);
+				for (int k = 0; k < numChoices; k++) {
+					if (stpg.allSuccessorsInSet(i, k, no)) {
+						strat[i] = k;
+						break;
+					}
+				}
+			}
+		}
+
+		// The strategy of a maximising player is fixed; the other player is left to the MDP solver
+		final int fixedPlayer = !min1 ? 0 : 1;
+		boolean minMDP = (fixedPlayer == 0) ? min2 : min1;
+		MDPModelChecker mcMDP = new MDPModelChecker(this);
+		mcMDP.inheritSettings(this);
+		mcMDP.setAdaptiveVI(false);
+		mcMDP.setMDPSolnMethod(MDPSolnMethod.POLICY_ITERATION);
+		mcMDP.setDoIntervalIteration(false);
+		mcMDP.setLog(new PrismDevNullLog());
+		final int greedy[] = new int[n];
+
+		// Start iterations
+		ConvergenceMonitor monitor = new ConvergenceMonitor(termCritParam);
+		iters = phaseIters = numPolicies = policyIters = 0;
+		maxDiff = Double.POSITIVE_INFINITY;
+		done = policyDone = false;
+		while (!done && iters < maxIters) {
+			iters++;
+			phaseIters++;
+			// Matrix-vector multiply and min/max ops
+			stpg.mvMultMinMax(soln, min1, min2, soln2, unknown, false, strat);
+			// Check termination
+			maxDiff = PrismUtils.measureSupNorm(soln, soln2, absolute);
+			done = PrismUtils.doublesAreClose(soln, soln2, termCritParam, absolute);
+			// Swap vectors for next iter
+			tmpsoln = soln;
+			soln = soln2;
+			soln2 = tmpsoln;
+			if (done) {
+				break;
+			}
+			monitor.record(maxDiff);
+			if (!monitor.stalled()) {
+				continue;
+			}
+			// Convergence has stalled: fix the greedy strategy of the maximising player and solve the induced MDP
+			if (verbosity >= 1)
+				mainLog.println("Value iteration phase: " + phaseIters + " iterations (estimated contraction rate " + PrismUtils.formatDouble(4, monitor.getRate()) + ")");
+			Arrays.fill(greedy, -1);
+			stpg.mvMultMinMax(soln, min1, min2, soln2, unknown, false, greedy);
+			MDP<Double> mdp = new MDPDroppedChoicesCached<>(stpg, (s, k) -> greedy[s] >= 0 && stpg.getPlayer(s) == fixedPlayer && k != greedy[s]);
+			res = mcMDP.computeReachProbs(mdp, remain, yes, minMDP, known == null ? null : soln.clone(), known);
+			numPolicies++;
+			policyIters += res.numIters;
+			// Check whether the values are a fixed point
+			stpg.mvMultMinMax(res.soln, min1, min2, soln2, unknown, false, null);
+			done = PrismUtils.doublesAreClose(res.soln, soln2, IntSet.asIntSet(unknown).iterator(), termCritParam, absolute);
+			if (verbosity >= 1)
+				mainLog.println("Policy evaluation phase: " + res.numIters + " iterations, strategy is " + (done ? "optimal" : "not optimal"));
+			// Continue from improved values (both vectors are lower bounds, so take the maximum)
+			for (i = unknown.nextSetBit(0); i >= 0; i = unknown.nextSetBit(i + 1)) {
+				soln[i] = done ? res.soln[i] : Math.max(soln[i], res.soln[i]);
+			}
+			if (done) {
+				policyDone = true;
+				maxDiff = PrismUtils.measureSupNorm(res.soln, soln2, absolute);
+				// Extract (greedy) strategy for the final values
+				if (strat != null)
+					stpg.mvMultMinMax(soln, min1, min2, soln2, unknown, false, strat);
+				break;
+			}
+			monitor.startPhase();
+			phaseIters = 0;
+		}
+
+		// Finished adaptive value iteration
+		// (one summary line, including which phase produced the result, is always shown)
+		timer = System.currentTimeMillis() - timer;
+		mainLog.print("Adaptive value iteration (" + (min1 ? "min" : "max") + (min2 ? "min" : "max") + ")");
+		mainLog.print(" took " + iters + " iterations");
+		mainLog.print(" plus " + numPolicies + " policy evaluations (" + policyIters + " iterations)");
+		mainLog.print(" and " + timer / 1000.0 + " seconds");
+		mainLog.println(done ? " (result from " + (policyDone ? "policy evaluation" : "value iteration") + ")." : ".");
+
+		// Non-convergence is an error (usually)
+		if (!done && errorOnNonConverge) {
+			String msg = "Iterative method did not converge within " + iters + " iterations.";
+			msg += "\nConsider using a different numerical method or increasing the maximum number of iterations";
+			throw new PrismException(msg);
+		}
+
+		// Store results/strategy
+		res = new ModelCheckerResult();
+		res.soln = soln;
+		res.accuracy = AccuracyFactory.valueIteration(termCritParam, maxDiff, absolute);
+		res.numIters = iters + policyIters;
+		res.timeTaken = timer / 1000.0;
+		if (genStrat) {
+			res.strat = new MDStrategyArray<>(stpg, strat);
+		}
+
+		return res;
+	}
+
 	/**
 	 * Compute reachability probabilities using Gauss-Seidel.
 	 * @param stpg The STPG
@@ -698,13 +1025,28 @@ public class STPGModelChecker extends ProbModelChecker
 			}
 		}
 
+		// If using multiple threads, colour states for parallel Gauss-Seidel
+		GaussSeidelColouring colouring = null;
+		GaussSeidelColouring.StateUpdate update = null;
+		if (numThreads > 1) {
+			colouring = new GaussSeidelColouring(stpg, IntSet.asIntSet(unknown).iterator(), numThreads);
+			final int stratFinal[] = strat;
+			update = (s, vect) -> stpg.mvMultJacMinMaxSingle(s, vect, min1, min2, stratFinal);
+			if (verbosity >= 1)
+				mainLog.println("Using " + colouring.getNumColours() + " colours for parallel Gauss-Seidel");
+		}
+
 		// Start iterations
 		iters = 0;
 		done = false;
 		while (!done && iters < maxIters) {
 			iters++;
 			// Matrix-vector multiply and min/max ops
-			maxDiff = stpg.mvMultGSMinMax(soln, min1, min2, unknown, false, termCrit == TermCrit.ABSOLUTE, strat);
+			if (colouring != null) {
+				maxDiff = colouring.sweep(soln, update, 1.0, termCrit == TermCrit.ABSOLUTE);
+			} else {
+				maxDiff = stpg.mvMultGSMinMax(soln, min1, min2, unknown, false, termCrit == TermCrit.ABSOLUTE, strat);
+			}
 			// Check termination
 			done = maxDiff < termCritParam;
 		}
@@ -1122,7 +1464,11 @@ public class STPGModelChecker extends ProbModelChecker
 		timerProb1 = System.currentTimeMillis();
 
 		// identify infinite values
-		inf = prob1(stpg, null, target, !min1, !min2);
+		if (preRel) {
+			inf = prob1(stpg, null, target, !min1, !min2, stpg.getPredecessorRelation(this, true));
+		} else {
+			inf = prob1(stpg, null, target, !min1, !min2);
+		}
 		inf.flip(0, n);
 
 		timerProb1 = System.currentTimeMillis() - timerProb1;
@@ -1741,7 +2087,7 @@ public class STPGModelChecker extends ProbModelChecker
 					double stateRew = -1;
 					for (int c = 0; c < stpg.getNumChoices(s); c++) {
 						double choiceRew = 0;
-						double r = rewards.getStateReward(s) + rewards.getTransitionReward(s, c);
+						double r = rewards.getStateRewardDouble(s) + rewards.getTransitionRewardDouble(s, c);
 						int index = (int) r; // the reward determines in
 						// which
 						// array we will look
@@ -1957,7 +2303,7 @@ public class STPGModelChecker extends ProbModelChecker
 
 		// Initialise solution vectors.
 		for (i = 0; i < n; i++)
-			soln[i] = rewards.getStateReward(i);
+			soln[i] = rewards.getStateRewardDouble(i);
 
 		// Start iterations
 		for (iters = 0; iters < k; iters++) {
@@ -65,8 +65,10 @@ import parser.ast.LabelList;
 import parser.ast.ModulesFile;
 import parser.ast.PropertiesFile;
 import parser.ast.Property;
+import parser.type.Type;
 import parser.type.TypeBool;
 import parser.type.TypeDouble;
+import parser.type.TypeInt;
 import parser.visitor.ASTTraverseModify;
 import parser.visitor.ReplaceLabels;
 import prism.Accuracy;
@@ -131,6 +133,9 @@ public class StateModelChecker extends PrismComponent
 	// Do bisimulation minimisation before model checking?
 	protected boolean doBisim = false;
 
+	// Cache of subformula results shared with other model checkers (null if none)
+	protected SubformulaCache subformulaCache = null;
+
 	// Do topological value iteration?
 	protected boolean doTopologicalValueIteration = false;
 
@@ -264,6 +269,7 @@ public class StateModelChecker extends PrismComponent
 		setGenStrat(other.getGenStrat());
 		setRestrictStratToReach(other.getRestrictStratToReach());
 		setDoBisim(other.getDoBisim());
+		setSubformulaCache(other.getSubformulaCache());
 		tolerance = other.tolerance;
 		setDoIntervalIteration(other.getDoIntervalIteration());
 		setDoPmaxQuotient(other.getDoPmaxQuotient());
@@ -357,6 +363,15 @@ public class StateModelChecker extends PrismComponent
 		this.restrictStratToReach = restrictStratToReach;
 	}
 
+	/**
+	 * Set a cache of subformula results, shared with other model checkers
+	 * checking properties on the same model (null means no caching).
+	 */
+	public void setSubformulaCache(SubformulaCache subformulaCache)
+	{
+		this.subformulaCache = subformulaCache;
+	}
+
 	/**
 	 * Specify whether or not to do bisimulation minimisation before model checking.
 	 */
@@ -468,6 +483,14 @@ public class StateModelChecker extends PrismComponent
 		return doBisim;
 	}
 
+	/**
+	 * Get the cache of subformula results shared with other model checkers (null if none).
+	 */
+	public SubformulaCache getSubformulaCache()
+	{
+		return subformulaCache;
+	}
+
 	/**
 	 * Whether or not to do topological value iteration.
 	 */
@@ -772,13 +795,78 @@ public class StateModelChecker extends PrismComponent
 				res1.clear();
 			throw e;
 		}
-		// Apply operation
-		res1.applyFunction(expr.getType(), (v1, v2) -> expr.apply(v1, v2, EvalMode.FP), res2, statesOfInterest);
+		// Apply operation (on primitive values, for numerical operands, if possible)
+		if (!applyBinaryOpNumerical(expr, res1, res2, statesOfInterest)) {
+			res1.applyFunction(expr.getType(), (v1, v2) -> expr.apply(v1, v2, EvalMode.FP), res2, statesOfInterest);
+		}
 		res2.clear();
 
 		return res1;
 	}
 
+	/**
+	 * Apply a binary operator whose operands are both double- or integer-valued,
+	 * operating directly on the primitive values, i.e., without boxing.
+	 * The result is stored in {@code res1}.
+	 * Returns false (and does nothing) if the operator/operands are not supported,
+	 * in which case the general-purpose {@link StateValues#applyFunction} should be used.
+	 */
+	protected boolean applyBinaryOpNumerical(ExpressionBinaryOp expr, StateValues res1, StateValues res2, BitSet statesOfInterest) throws PrismException
+	{
+		Type type1 = res1.getType();
+		Type type2 = res2.getType();
+		if (!(type1 instanceof TypeInt || type1 instanceof TypeDouble) || !(type2 instanceof TypeInt || type2 instanceof TypeDouble)) {
+			return false;
+		}
+		boolean ints = type1 instanceof TypeInt && type2 instanceof TypeInt;
+		try {
+			switch (expr.getOperator()) {
+			case ExpressionBinaryOp.PLUS:
+				if (ints) {
+					res1.applyIntFunction(Math::addExact, res2, statesOfInterest);
+				} else {
+					res1.applyDoubleFunction((d1, d2) -> d1 + d2, res2, statesOfInterest);
+				}
+				return true;
+			case ExpressionBinaryOp.MINUS:
+				if (ints) {
+					res1.applyIntFunction(Math::subtractExact, res2, statesOfInterest);
+				} else {
+					res1.applyDoubleFunction((d1, d2) -> d1 - d2, res2, statesOfInterest);
+				}
+				return true;
+			case ExpressionBinaryOp.TIMES:
+				if (ints) {
+					res1.applyIntFunction(Math::multiplyExact, res2, statesOfInterest);
+				} else {
+					res1.applyDoubleFunction((d1, d2) -> d1 * d2, res2, statesOfInterest);
+				}
+				return true;
+			case ExpressionBinaryOp.DIVIDE:
+				res1.applyDoubleFunction((d1, d2) -> d1 / d2, res2, statesOfInterest);
+				return true;
+			// Relations (conversion of ints to doubles is exact, so can compare as doubles)
+			case ExpressionBinaryOp.GT:
+				res1.applyDoublePredicate((d1, d2) -> d1 > d2, res2, statesOfInterest);
+				return true;
+			case ExpressionBinaryOp.GE:
+				res1.applyDoublePredicate((d1, d2) -> d1 >= d2, res2, statesOfInterest);
+				return true;
+			case ExpressionBinaryOp.LT:
+				res1.applyDoublePredicate((d1, d2) -> d1 < d2, res2, statesOfInterest);
+				return true;
+			case ExpressionBinaryOp.LE:
+				res1.applyDoublePredicate((d1, d2) -> d1 <= d2, res2, statesOfInterest);
+				return true;
+			default:
+				// (In)equality uses equals() on boxed values, so leave to general case
+				return false;
+			}
+		} catch (ArithmeticException e) {
+			throw new PrismLangException(e.getMessage(), expr);
+		}
+	}
+
 	/**
 	 * Model check a unary operator.
 	 * @param statesOfInterest the states of interest, see checkExpression()
@@ -795,8 +883,12 @@ public class StateModelChecker extends PrismComponent
 		if (op == ExpressionUnaryOp.PARENTH)
 			return res1;
 
-		// Apply operation
-		res1.applyFunction(expr.getType(), v -> expr.apply(v, EvalMode.FP), statesOfInterest);
+		// Apply operation (unboxed, for double-valued negation)
+		if (op == ExpressionUnaryOp.MINUS && res1.getType() instanceof TypeDouble) {
+			res1.applyDoubleFunction(d -> -d, statesOfInterest);
+		} else {
+			res1.applyFunction(expr.getType(), v -> expr.apply(v, EvalMode.FP), statesOfInterest);
+		}
 
 		return res1;
 	}
@@ -891,9 +983,14 @@ public class StateModelChecker extends PrismComponent
 					res2.clear();
 				throw e;
 			}
-			// Apply operation
+			// Apply operation (unboxed, for double-valued min/max)
 			try {
-				res1.applyFunction(expr.getType(), (v1, v2) -> expr.applyBinary(v1, v2, EvalMode.FP), res2, statesOfInterest);
+				if (expr.getType() instanceof TypeDouble && (res1.getType() instanceof TypeInt || res1.getType() instanceof TypeDouble)
+						&& (res2.getType() instanceof TypeInt || res2.getType() instanceof TypeDouble)) {
+					res1.applyDoubleFunction(expr.getNameCode() == ExpressionFunc.MIN ? Math::min : Math::max, res2, statesOfInterest);
+				} else {
+					res1.applyFunction(expr.getType(), (v1, v2) -> expr.applyBinary(v1, v2, EvalMode.FP), res2, statesOfInterest);
+				}
 				res2.clear();
 			} catch (PrismException e) {
 				if (res1 != null)
@@ -25,13 +25,18 @@
 package explicit;
 
 import java.io.BufferedReader;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.Writer;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntBinaryOperator;
 import java.util.function.IntFunction;
 
 import common.IterableStateSet;
@@ -47,15 +52,20 @@ import prism.AccuracyFactory;
 import prism.PrismException;
 import prism.PrismLangException;
 import prism.PrismLog;
+import prism.PrismNotSupportedException;
 import prism.ResultTesting;
 import prism.StateVector;
+import prism.StreamingExporter;
 
 /**
  * Class for explicit-state storage of a state-indexed vector of values.
  * <br><br>
  * The values can be of any supported {@link Type}.
- * They are stored as the corresponding {@link Object}
- * as specified by the return type of {@link Type#castValueTo(Object)}.
+ * Boolean, double and integer values are stored in primitive form
+ * (a BitSet, double[] or int[], respectively); values of other types are stored
+ * as the corresponding {@link Object} as specified by the return type of {@link Type#castValueTo(Object)}.
+ * Values are only boxed when accessed as Objects, e.g. via {@link #getValue(int)};
+ * the {@code applyDouble...}/{@code applyInt...} methods operate on the primitive values directly.
  */
 public class StateValues implements StateVector, Iterable<Object>
 {
@@ -77,6 +87,10 @@ public class StateValues implements StateVector, Iterable<Object>
 	
 	/** Specialised storage for boolean values */
 	protected BitSet valuesB;
+	/** Specialised storage for double values */
+	protected double[] valuesD;
+	/** Specialised storage for integer values */
+	protected int[] valuesI;
 	/** General purpose storage for other value types */
 	protected Object[] valuesO;
 	
@@ -112,6 +126,12 @@ public class StateValues implements StateVector, Iterable<Object>
 		public Object apply(int i) throws PrismException;
 	}
 	
+	@FunctionalInterface
+	public interface DoubleBinaryPredicate
+	{
+		public boolean test(double v1, double v2);
+	}
+	
 	// Constructors
 
 	/**
@@ -123,6 +143,8 @@ public class StateValues implements StateVector, Iterable<Object>
 		type = null;
 		size = 0;
 		valuesB = null;
+		valuesD = null;
+		valuesI = null;
 		valuesO = null;
 	}
 
@@ -168,6 +190,8 @@ public class StateValues implements StateVector, Iterable<Object>
 		this.size = model.getNumStates();
 		this.statesList = model.getStatesList();
 		this.valuesB = null;
+		this.valuesD = null;
+		this.valuesI = null;
 		this.valuesO = null;
 	}
 
@@ -180,6 +204,8 @@ public class StateValues implements StateVector, Iterable<Object>
 		this.size = statesList.size();
 		this.statesList = statesList;
 		this.valuesB = null;
+		this.valuesD = null;
+		this.valuesI = null;
 		this.valuesO = null;
 	}
 
@@ -211,6 +237,10 @@ public class StateValues implements StateVector, Iterable<Object>
 			} else {
 				valuesB = new BitSet();
 			}
+		} else if (type instanceof TypeDouble) {
+			Arrays.fill(valuesD, ((Number) value).doubleValue());
+		} else if (type instanceof TypeInt) {
+			Arrays.fill(valuesI, (int) value);
 		} else {
 			for (int i = 0; i < size; i++) {
 				valuesO[i] = value;
@@ -228,6 +258,14 @@ public class StateValues implements StateVector, Iterable<Object>
 			if (valuesB == null) {
 				valuesB = new BitSet();
 			}
+		} else if (typeNew instanceof TypeDouble) {
+			if (valuesD == null) {
+				valuesD = new double[size];
+			}
+		} else if (typeNew instanceof TypeInt) {
+			if (valuesI == null) {
+				valuesI = new int[size];
+			}
 		} else {
 			if (valuesO == null) {
 				valuesO = new Object[size];
@@ -241,11 +279,18 @@ public class StateValues implements StateVector, Iterable<Object>
 	private void clearOldStorage()
 	{
 		if (type != null) {
-			if (type instanceof TypeBool) {
-				valuesO = null;
-			} else {
+			if (!(type instanceof TypeBool)) {
 				valuesB = null;
 			}
+			if (!(type instanceof TypeDouble)) {
+				valuesD = null;
+			}
+			if (!(type instanceof TypeInt)) {
+				valuesI = null;
+			}
+			if (type instanceof TypeBool || type instanceof TypeDouble || type instanceof TypeInt) {
+				valuesO = null;
+			}
 		}
 	}
 	
@@ -279,34 +324,53 @@ public class StateValues implements StateVector, Iterable<Object>
 
 	/**
 	 * Create a new state values vector from an existing array of values.
-	 * The array is stored directly, not copied.
+	 * The array is stored directly, not copied, unless the values are stored
+	 * in primitive form (Boolean, double or integer types), in which case they are unboxed.
 	 * Also set associated model (whose state space size should match vector size).
 	 */
 	public static StateValues createFromObjectArray(Type type, Object[] array, Model<?> model)
 	{
 		StateValues sv = new StateValues();
 		sv.initialise(type, model);
-		sv.valuesO = array;
+		if (type instanceof TypeDouble) {
+			sv.valuesD = new double[sv.size];
+			Arrays.setAll(sv.valuesD, i -> ((Number) array[i]).doubleValue());
+		} else if (type instanceof TypeInt) {
+			sv.valuesI = new int[sv.size];
+			Arrays.setAll(sv.valuesI, i -> (int) array[i]);
+		} else if (type instanceof TypeBool) {
+			sv.valuesB = new BitSet();
+			for (int i = 0; i < sv.size; i++) {
+				sv.valuesB.set(i, (boolean) array[i]);
+			}
+		} else {
+			sv.valuesO = array;
+		}
 		return sv;
 	}
 
 	/**
 	 * Create a new (double-valued) state values vector from an existing array of doubles.
+	 * The array is copied, not stored.
 	 * Also set associated model (whose state space size should match vector size).
 	 */
 	public static StateValues createFromDoubleArray(double[] array, Model<?> model) throws PrismException
 	{
-		return create(TypeDouble.getInstance(), i -> array[i], model);
+		StateValues sv = new StateValues();
+		sv.initialise(TypeDouble.getInstance(), model);
+		sv.valuesD = Arrays.copyOf(array, sv.size);
+		return sv;
 	}
 
 	/**
 	 * Create a new (double-valued) state values vector from an existing array of doubles.
+	 * The array is copied, not stored.
 	 */
 	public static StateValues createFromDoubleArray(double[] array, List<State> statesList) throws PrismException
 	{
 		StateValues sv = new StateValues();
 		sv.initialise(TypeDouble.getInstance(), statesList);
-		sv.setFromValueDefinition(i -> array[i]);
+		sv.valuesD = Arrays.copyOf(array, sv.size);
 		return sv;
 	}
 
@@ -344,7 +408,12 @@ public class StateValues implements StateVector, Iterable<Object>
 	 */
 	public static StateValues createFromBitSetAsDoubles(BitSet bitset, Model<?> model) throws PrismException
 	{
-		StateValues sv = create(TypeDouble.getInstance(), i -> bitset.get(i) ? 1.0 : 0.0, model);
+		StateValues sv = new StateValues();
+		sv.initialise(TypeDouble.getInstance(), model);
+		sv.valuesD = new double[sv.size];
+		for (int i = bitset.nextSetBit(0); i >= 0 && i < sv.size; i = bitset.nextSetBit(i + 1)) {
+			sv.valuesD[i] = 1.0;
+		}
 		sv.setAccuracy(AccuracyFactory.doublesFromQualitative());
 		return sv;
 	}
@@ -422,6 +491,8 @@ public class StateValues implements StateVector, Iterable<Object>
 	{
 		// Actually, just set pointers to null and wait for later garbage collection.
 		valuesB = null;
+		valuesD = null;
+		valuesI = null;
 		valuesO = null;
 	}
 	
@@ -432,11 +503,7 @@ public class StateValues implements StateVector, Iterable<Object>
 	 */
 	public void setValue(int i, Object value) throws PrismLangException
 	{
-		if (type instanceof TypeBool) {
-			valuesB.set(i, (boolean) value);
-		} else {
-			valuesO[i] = value;
-		}
+		setValue(i, value, type);
 	}
 
 	/**
@@ -451,6 +518,10 @@ public class StateValues implements StateVector, Iterable<Object>
 	{
 		if (typeOverride instanceof TypeBool) {
 			valuesB.set(i, (boolean) value);
+		} else if (typeOverride instanceof TypeDouble) {
+			valuesD[i] = ((Number) value).doubleValue();
+		} else if (typeOverride instanceof TypeInt) {
+			valuesI[i] = (int) value;
 		} else {
 			valuesO[i] = value;
 		}
@@ -575,6 +646,101 @@ public class StateValues implements StateVector, Iterable<Object>
 		clearOldStorage();
 	}
 	
+	/**
+	 * Modify the vector by applying (pointwise) a unary function on doubles,
+	 * only over the states in {@code subset}. The result is double-valued.
+	 * This vector must be double- or integer-valued; values are not boxed.
+	 * @param func Function definition
+	 * @param subset Subset of states for application (all if null)
+	 */
+	public void applyDoubleFunction(DoubleUnaryOperator func, BitSet subset) throws PrismException
+	{
+		checkNumeric();
+		double[] res = valuesD != null ? valuesD : new double[size];
+		for (FunctionalPrimitiveIterator.OfInt iter = new IterableStateSet(subset, size).iterator(); iter.hasNext();) {
+			int i = iter.nextInt();
+			res[i] = func.applyAsDouble(getDoubleValue(i));
+		}
+		valuesD = res;
+		type = TypeDouble.getInstance();
+		clearOldStorage();
+	}
+
+	/**
+	 * Modify the vector by applying (pointwise) a binary function on doubles
+	 * to this and another vector, only over the states in {@code subset}. The result is double-valued.
+	 * Both vectors must be double- or integer-valued; values are not boxed.
+	 * @param func Function definition
+	 * @param sv2 Vector 2
+	 * @param subset Subset of states for application (all if null)
+	 */
+	public void applyDoubleFunction(DoubleBinaryOperator func, StateValues sv2, BitSet subset) throws PrismException
+	{
+		checkNumeric();
+		sv2.checkNumeric();
+		double[] res = valuesD != null ? valuesD : new double[size];
+		for (FunctionalPrimitiveIterator.OfInt iter = new IterableStateSet(subset, size).iterator(); iter.hasNext();) {
+			int i = iter.nextInt();
+			res[i] = func.applyAsDouble(getDoubleValue(i), sv2.getDoubleValue(i));
+		}
+		valuesD = res;
+		type = TypeDouble.getInstance();
+		clearOldStorage();
+	}
+
+	/**
+	 * Modify the vector by applying (pointwise) a binary function on ints
+	 * to this and another vector, only over the states in {@code subset}. The result is integer-valued.
+	 * Both vectors must be integer-valued; values are not boxed.
+	 * @param func Function definition
+	 * @param sv2 Vector 2
+	 * @param subset Subset of states for application (all if null)
+	 */
+	public void applyIntFunction(IntBinaryOperator func, StateValues sv2, BitSet subset) throws PrismException
+	{
+		if (!(type instanceof TypeInt) || !(sv2.getType() instanceof TypeInt)) {
+			throw new PrismException("Integer function can only be applied to integer vectors");
+		}
+		for (FunctionalPrimitiveIterator.OfInt iter = new IterableStateSet(subset, size).iterator(); iter.hasNext();) {
+			int i = iter.nextInt();
+			valuesI[i] = func.applyAsInt(valuesI[i], sv2.valuesI[i]);
+		}
+	}
+
+	/**
+	 * Modify the vector by applying (pointwise) a binary predicate on doubles
+	 * to this and another vector, only over the states in {@code subset}. The result is Boolean-valued.
+	 * Both vectors must be double- or integer-valued; values are not boxed.
+	 * @param predicate Predicate definition
+	 * @param sv2 Vector 2
+	 * @param subset Subset of states for application (all if null)
+	 */
+	public void applyDoublePredicate(DoubleBinaryPredicate predicate, StateValues sv2, BitSet subset) throws PrismException
+	{
+		checkNumeric();
+		sv2.checkNumeric();
+		BitSet res = new BitSet();
+		for (FunctionalPrimitiveIterator.OfInt iter = new IterableStateSet(subset, size).iterator(); iter.hasNext();) {
+			int i = iter.nextInt();
+			if (predicate.test(getDoubleValue(i), sv2.getDoubleValue(i))) {
+				res.set(i);
+			}
+		}
+		valuesB = res;
+		type = TypeBool.getInstance();
+		clearOldStorage();
+	}
+
+	/**
+	 * Check that this vector is double- or integer-valued
+	 */
+	private void checkNumeric() throws PrismException
+	{
+		if (!(type instanceof TypeDouble || type instanceof TypeInt)) {
+			throw new PrismException("Numerical function can only be applied to double or integer vectors");
+		}
+	}
+
 	/**
 	 * Set the elements of this vector by reading them in from a file.
 	 * The values in the file should match the existing type of this StateValues.
@@ -725,11 +891,38 @@ public class StateValues implements StateVector, Iterable<Object>
 	{
 		if (type instanceof TypeBool) {
 			return valuesB.get(i);
+		} else if (type instanceof TypeDouble) {
+			return valuesD[i];
+		} else if (type instanceof TypeInt) {
+			return valuesI[i];
 		} else {
 			return valuesO[i];
 		}
 	}
 
+	/**
+	 * For double- or integer-valued vectors, get the value for state index {@code i} as a double
+	 * (without boxing it).
+	 */
+	public double getDoubleValue(int i)
+	{
+		if (type instanceof TypeInt) {
+			return valuesI[i];
+		} else if (valuesD != null) {
+			return valuesD[i];
+		} else {
+			return ((Number) valuesO[i]).doubleValue();
+		}
+	}
+
+	/**
+	 * For integer-valued vectors, get the value for state index {@code i} (without boxing it).
+	 */
+	public int getIntValue(int i)
+	{
+		return valuesI[i];
+	}
+
 	/**
 	 * Get the value of first vector element that is in the (BitSet) filter.
 	 */
@@ -805,11 +998,14 @@ public class StateValues implements StateVector, Iterable<Object>
 	 */
 	public double[] getDoubleArray()
 	{
-		double[] valuesD = new double[size];
+		if (valuesD != null) {
+			return valuesD.clone();
+		}
+		double[] arr = new double[size];
 		for (int i = 0; i < size; i++) {
-			valuesD[i] = (double) valuesO[i];
+			arr[i] = getDoubleValue(i);
 		}
-		return valuesD;
+		return arr;
 	}
 
 	/**
@@ -939,25 +1135,27 @@ public class StateValues implements StateVector, Iterable<Object>
 	 */
 	private void doPrinting(PrismLog log, int limit, BitSet filter, boolean printSparse, boolean printMatlab, boolean printStates, boolean printIndices)
 	{
-		int i, count = 0;
-
-		if (limit == -1)
-			limit = Integer.MAX_VALUE;
+		long count = 0;
 
 		// Header for Matlab format
 		if (printMatlab)
 			log.println(!printSparse ? "v = [" : "v = sparse(" + size + ",1);");
 
 		// Print vector
-		if (filter == null) {
-			for (i = 0; i < size & count < limit; i++) {
-				if (printLine(log, i, printSparse, printMatlab, printStates, printIndices))
-					count++;
-			}
+		if (limit == -1) {
+			// Stream in chunks, rather than printing to the log line by line
+			StreamingExporter exporter = new StreamingExporter().setFilter(filter);
+			count = exporter.exportText(size, (i, sb) -> formatLine(sb, i, printSparse, printMatlab, printStates, printIndices), log);
 		} else {
-			for (i = filter.nextSetBit(0); i >= 0 && count < limit; i = filter.nextSetBit(i + 1)) {
-				if (printLine(log, i, printSparse, printMatlab, printStates, printIndices))
+			StringBuilder sb = new StringBuilder();
+			int i = (filter == null) ? 0 : filter.nextSetBit(0);
+			while (i >= 0 && i < size && count < limit) {
+				sb.setLength(0);
+				if (formatLine(sb, i, printSparse, printMatlab, printStates, printIndices)) {
+					log.print(sb.toString());
 					count++;
+				}
+				i = (filter == null) ? i + 1 : filter.nextSetBit(i + 1);
 			}
 		}
 
@@ -972,32 +1170,40 @@ public class StateValues implements StateVector, Iterable<Object>
 			log.println("];");
 	}
 
-	private boolean printLine(PrismLog log, int n, boolean printSparse, boolean printMatlab, boolean printStates, boolean printIndices)
+	/**
+	 * Append the line for element {@code n} (if any) to {@code sb}, in the format used by {@link #doPrinting};
+	 * return true if a line was appended.
+	 */
+	private boolean formatLine(StringBuilder sb, int n, boolean printSparse, boolean printMatlab, boolean printStates, boolean printIndices)
 	{
-		if (!printSparse || isValueNonZero(getValue(n))) {
+		if (!printSparse || isValueNonZero(n)) {
 			if (printMatlab) {
 				if (printSparse) {
-					log.println("v(" + (n + 1) + ")=" + getValue(n) + ";");
+					sb.append("v(").append(n + 1).append(")=");
+					appendValue(sb, n);
+					sb.append(";\n");
 				} else {
-					log.println(getValue(n));
+					appendValue(sb, n);
+					sb.append('\n');
 				}
 			} else {
 				if (printIndices) {
-					log.print(n);
+					sb.append(n);
 				}
 				if (printStates && statesList != null) {
 					if (printIndices) {
-						log.print(":");
+						sb.append(':');
 					}
-					log.print(statesList.get(n).toString());
+					sb.append(statesList.get(n).toString());
 				}
 				if (printSparse && type instanceof TypeBool) {
-					log.println();
+					sb.append('\n');
 				} else {
 					if (printIndices || printStates) {
-						log.print("=");
+						sb.append('=');
 					}
-					log.println(getValue(n));
+					appendValue(sb, n);
+					sb.append('\n');
 				}
 			}
 			return true;
@@ -1006,6 +1212,111 @@ public class StateValues implements StateVector, Iterable<Object>
 		}
 	}
 
+	/**
+	 * Append the value of element {@code n} to {@code sb} (as printed by {@link #getValue(int)}.toString(),
+	 * but without boxing primitive values).
+	 */
+	private void appendValue(StringBuilder sb, int n)
+	{
+		if (type instanceof TypeDouble) {
+			sb.append(valuesD[n]);
+		} else if (type instanceof TypeInt) {
+			sb.append(valuesI[n]);
+		} else {
+			sb.append(getValue(n));
+		}
+	}
+
+	/**
+	 * Is the value of element {@code n} non-zero/non-false? (for sparse printing)
+	 */
+	private boolean isValueNonZero(int n)
+	{
+		if (type instanceof TypeDouble) {
+			return valuesD[n] != 0.0;
+		} else if (type instanceof TypeInt) {
+			return valuesI[n] != 0;
+		}
+		return isValueNonZero(getValue(n));
+	}
+
+	/**
+	 * Export vector to a file, streaming it (see {@link StreamingExporter}) rather than
+	 * printing it line by line. If the file name ends with ".bin" (or ".bin.gz"), the
+	 * binary format described in {@link #exportBinary} is used; otherwise, the text
+	 * format of {@link #printFiltered}. Names ending with ".gz" give gzip-compressed output.
+	 * @param file The file to export to
+	 * @param filter A BitSet specifying which states to export (null if all)
+	 * @param printSparse Print non-zero/non-false elements only? (text format only)
+	 * @param printStates Print states (variable values) for each element? (text format only)
+	 * @param printIndices Print state indices for each element? (text format only)
+	 * @param numThreads Number of threads to use for formatting text
+	 */
+	public void exportToFile(File file, BitSet filter, boolean printSparse, boolean printStates, boolean printIndices, int numThreads) throws PrismException
+	{
+		StreamingExporter exporter = new StreamingExporter().setFilter(filter).setNumThreads(numThreads);
+		boolean compress = StreamingExporter.isCompressedFile(file);
+		try {
+			if (StreamingExporter.isBinaryFile(file)) {
+				try (DataOutputStream out = new DataOutputStream(StreamingExporter.openFile(file, compress))) {
+					exportBinary(exporter, out);
+				}
+			} else {
+				try (Writer out = StreamingExporter.openTextFile(file, compress)) {
+					long count = exporter.exportText(size, (i, sb) -> formatLine(sb, i, printSparse, false, printStates, printIndices), out);
+					if (printSparse && count == 0) {
+						out.write(type == TypeBool.getInstance() ? "(none)\n" : "(all zero)\n");
+					}
+				}
+			}
+		} catch (IOException e) {
+			throw new PrismException("Could not export vector to file \"" + file + "\": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Write vector in binary format: the 8 characters "PRISMVEC", then a type code
+	 * ('B', 'I' or 'D', for Boolean, integer or double), the vector size (as an int),
+	 * then, for each exported element, its index (an int) followed by its value
+	 * (omitted for Booleans, where only true elements are exported; otherwise, an int or double),
+	 * and finally an index of -1. Data is written as by {@link DataOutputStream}, i.e. big-endian.
+	 */
+	private void exportBinary(StreamingExporter exporter, DataOutputStream out) throws IOException, PrismException
+	{
+		StreamingExporter.StateWriter writer;
+		char code;
+		if (type instanceof TypeBool) {
+			code = 'B';
+			writer = (i, o) -> {
+				if (!valuesB.get(i))
+					return false;
+				o.writeInt(i);
+				return true;
+			};
+		} else if (type instanceof TypeInt) {
+			code = 'I';
+			writer = (i, o) -> {
+				o.writeInt(i);
+				o.writeInt(valuesI[i]);
+				return true;
+			};
+		} else if (type instanceof TypeDouble) {
+			code = 'D';
+			writer = (i, o) -> {
+				o.writeInt(i);
+				o.writeDouble(valuesD[i]);
+				return true;
+			};
+		} else {
+			throw new PrismNotSupportedException("Binary export not supported for vectors of type " + type);
+		}
+		out.writeBytes("PRISMVEC");
+		out.writeByte(code);
+		out.writeInt(size);
+		exporter.exportBinary(size, writer, out);
+		out.writeInt(-1);
+	}
+
 	/**
 	 * Is the given vector value non-zero/non-false? (for sparse printing)
 	 */
@@ -1036,6 +1347,12 @@ public class StateValues implements StateVector, Iterable<Object>
 		if (valuesB != null) {
 			sv.valuesB = (BitSet) valuesB.clone();
 		}
+		if (valuesD != null) {
+			sv.valuesD = valuesD.clone();
+		}
+		if (valuesI != null) {
+			sv.valuesI = valuesI.clone();
+		}
 		if (valuesO != null) {
 			sv.valuesO = valuesO.clone();
 		}
@@ -1047,6 +1364,10 @@ public class StateValues implements StateVector, Iterable<Object>
 	{
 		if (type instanceof TypeBool) {
 			return valuesB.toString();
+		} else if (type instanceof TypeDouble) {
+			return Arrays.toString(valuesD);
+		} else if (type instanceof TypeInt) {
+			return Arrays.toString(valuesI);
 		} else {
 			return Arrays.toString(valuesO);
 		}
@@ -0,0 +1,97 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import parser.ast.Expression;
+import prism.PrismException;
+
+/**
+ * Cache of the results (for all states) of subformulas, e.g. nested P/R/S operators,
+ * shared by the model checkers for several properties on the same model,
+ * so that subformulas occurring in more than one property are only checked once.
+ * <br><br>
+ * Results are stored for a single model, which must not change while the cache is in use,
+ * and keyed by the (string representation of the) expression, so all properties must be
+ * checked with the same constant values. Copies of results are stored and returned,
+ * since model checkers may modify them. The cache is thread-safe, so it can be used
+ * by model checkers running concurrently.
+ */
+public class SubformulaCache
+{
+	/** The model that results are stored for */
+	private final Model<?> model;
+	/** Cached results */
+	private final ConcurrentHashMap<String, StateValues> results = new ConcurrentHashMap<>();
+	/** Number of cache hits */
+	private final AtomicInteger numHits = new AtomicInteger();
+
+	/**
+	 * Create an empty cache for results on {@code model}.
+	 */
+	public SubformulaCache(Model<?> model)
+	{
+		this.model = model;
+	}
+
+	/**
+	 * Get (a copy of) the stored result of {@code expr} on {@code model},
+	 * or null if there is none (or the model is not the one for this cache).
+	 */
+	public StateValues get(Model<?> model, Expression expr) throws PrismException
+	{
+		if (model != this.model) {
+			return null;
+		}
+		StateValues vals = results.get(expr.toString());
+		if (vals == null) {
+			return null;
+		}
+		numHits.incrementAndGet();
+		return vals.deepCopy();
+	}
+
+	/**
+	 * Store (a copy of) {@code vals}, the result of {@code expr} for all states of {@code model}
+	 * (ignored if the model is not the one for this cache).
+	 */
+	public void put(Model<?> model, Expression expr, StateValues vals) throws PrismException
+	{
+		if (model != this.model) {
+			return;
+		}
+		results.putIfAbsent(expr.toString(), vals.deepCopy());
+	}
+
+	/**
+	 * Get the number of cache hits so far.
+	 */
+	public int getNumHits()
+	{
+		return numHits.get();
+	}
+}
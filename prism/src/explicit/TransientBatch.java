@@ -0,0 +1,133 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package explicit;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+import parser.Values;
+import parser.ast.Expression;
+import prism.PrismException;
+import prism.PrismLangException;
+
+/**
+ * Values of (property) constants for a sequence of model checking calls,
+ * e.g. an experiment ranging over a time bound, plus a cache of transient
+ * probabilities computed for several of these time points in a single uniformisation pass.
+ * <br>
+ * The cache stores results for one combination of model, target and non-absorbing states,
+ * and each result is handed out (and removed) once.
+ */
+public class TransientBatch
+{
+	/** Values of the (property) constants for each call in the sequence */
+	private List<Values> constantsList;
+	/** Maximum memory (bytes) used for cached result vectors */
+	private long maxMemory;
+
+	// Cached results, and what they were computed for
+	private Model<?> model;
+	private BitSet target;
+	private BitSet nonAbs;
+	private Map<Double, double[]> solns = new HashMap<>();
+
+	/**
+	 * Create a batch for the sequence of constant values in {@code constantsList},
+	 * storing at most {@code maxMemory} bytes of cached result vectors.
+	 */
+	public TransientBatch(List<Values> constantsList, long maxMemory)
+	{
+		this.constantsList = new ArrayList<>(constantsList);
+		this.maxMemory = maxMemory;
+	}
+
+	/**
+	 * Get the maximum number of time points for which results for a model
+	 * with {@code numStates} states are computed at once, using at most
+	 * {@code maxMemory} bytes for the result vectors (but always at least 1).
+	 */
+	public static int getMaxBatchSize(int numStates, long maxMemory)
+	{
+		return (int) Math.max(1, Math.min(Integer.MAX_VALUE, maxMemory / (8L * Math.max(1, numStates))));
+	}
+
+	/**
+	 * Get the time points (sorted, without duplicates) to compute results for when
+	 * time point {@code t} is requested: the values of {@code bound} for each call in the sequence
+	 * (where the constants of the call override those in {@code constantValues}) that are at least {@code t},
+	 * up to the maximum batch size for a model with {@code numStates} states.
+	 */
+	public double[] getTimePoints(Expression bound, Values constantValues, double t, int numStates) throws PrismException
+	{
+		TreeSet<Double> times = new TreeSet<>();
+		times.add(t);
+		for (Values values : constantsList) {
+			Values valuesAll = new Values(constantValues);
+			valuesAll.setValues(values);
+			try {
+				double time = bound.evaluateDouble(valuesAll);
+				if (time >= t) {
+					times.add(time);
+				}
+			} catch (PrismLangException e) {
+				// Ignore time points that cannot be evaluated; they will be computed separately
+			}
+		}
+		int max = getMaxBatchSize(numStates, maxMemory);
+		return times.stream().limit(max).mapToDouble(Double::doubleValue).toArray();
+	}
+
+	/**
+	 * Store results {@code solnsNew[j]} for each time point {@code times[j]},
+	 * computed for the given model, target and non-absorbing states (replacing any previous ones).
+	 */
+	public void put(Model<?> model, BitSet target, BitSet nonAbs, double times[], double solnsNew[][])
+	{
+		this.model = model;
+		this.target = (BitSet) target.clone();
+		this.nonAbs = nonAbs == null ? null : (BitSet) nonAbs.clone();
+		solns.clear();
+		for (int j = 0; j < times.length; j++) {
+			solns.put(times[j], solnsNew[j]);
+		}
+	}
+
+	/**
+	 * Get (and remove) the stored result for time point {@code t}, if it is available
+	 * and was computed for the given model, target and non-absorbing states; otherwise, return null.
+	 */
+	public double[] remove(Model<?> model, BitSet target, BitSet nonAbs, double t)
+	{
+		if (model != this.model || !target.equals(this.target) || !Objects.equals(nonAbs, this.nonAbs)) {
+			return null;
+		}
+		return solns.remove(t);
+	}
+}
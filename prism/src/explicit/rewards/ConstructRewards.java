@@ -178,6 +178,7 @@ public class ConstructRewards extends PrismComponent
 				}
 			}
 		}
+		rewSimple.freeze(mdp);
 		return rewSimple;
 	}
 	
@@ -213,6 +214,7 @@ public class ConstructRewards extends PrismComponent
 				}
 			}
 		}
+		rewSimple.freeze(stpg);
 		return rewSimple;
 	}
 	
@@ -248,6 +250,7 @@ public class ConstructRewards extends PrismComponent
 				}
 			}
 		}
+		rewSimple.freeze(smg);
 		return rewSimple;
 	}
 	
@@ -283,6 +286,7 @@ public class ConstructRewards extends PrismComponent
 				}
 			}
 		}
+		rewSimple.freeze(csg);
 		return rewSimple;
 	}
 	
@@ -466,6 +470,7 @@ public class ConstructRewards extends PrismComponent
 					}
 				}
 			}
+			rewSimple.freeze(mdp);
 			return rewSimple;
 		}
 	}
@@ -523,6 +528,7 @@ public class ConstructRewards extends PrismComponent
 					}
 				}
 			}
+			rewSimple.freeze(stpg);
 			return rewSimple;
 		}
 	}
@@ -581,6 +587,7 @@ public class ConstructRewards extends PrismComponent
 					}
 				}
 			}
+			rewSimple.freeze(smg);
 			return rewSimple;
 		}
 	}
@@ -651,6 +658,7 @@ public class ConstructRewards extends PrismComponent
 					}
 				}
 			}		
+			rewSimple.freeze(csg);
 		}
 		return rewSimple;
 	}
@@ -783,6 +791,7 @@ public class ConstructRewards extends PrismComponent
 			}
 		}
 
+		rs.freeze(mdp);
 		return rs;
 	}
 
@@ -44,6 +44,25 @@ public interface MDPRewards<Value> extends Rewards<Value>
 	 */
 	public abstract Value getTransitionReward(int s, int i);
 
+	/**
+	 * Get the state reward for state {@code s}, as a double (for double-valued rewards only).
+	 * Implementations that store rewards as primitives override this to avoid boxing.
+	 */
+	public default double getStateRewardDouble(int s)
+	{
+		return ((Number) getStateReward(s)).doubleValue();
+	}
+
+	/**
+	 * Get the transition reward for the {@code i}th choice from state {@code s},
+	 * as a double (for double-valued rewards only).
+	 * Implementations that store rewards as primitives override this to avoid boxing.
+	 */
+	public default double getTransitionRewardDouble(int s, int i)
+	{
+		return ((Number) getTransitionReward(s, i)).doubleValue();
+	}
+
 	@Override
 	public MDPRewards<Value> liftFromModel(Product<?> product);
 
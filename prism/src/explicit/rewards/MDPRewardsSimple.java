@@ -27,14 +27,23 @@
 package explicit.rewards;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import explicit.Model;
+import explicit.NondetModel;
 import explicit.Product;
 
 /**
  * Simple explicit-state storage of rewards for an MDP.
  * Like the related class MDPSimple, this is not especially efficient, but mutable (in terms of size).
+ * <br><br>
+ * For double-valued rewards, once construction is complete, the rewards can be "frozen"
+ * (see {@link #freeze(NondetModel)}), after which they are stored in primitive arrays,
+ * with transition rewards indexed by choice, in the same (CSR) layout as {@link explicit.MDPSparse}.
+ * Frozen rewards can be read via {@link #getStateRewardDouble(int)} and
+ * {@link #getTransitionRewardDouble(int, int)} without boxing.
+ * Modifying frozen rewards reverts to the (list-based) mutable storage.
  */
 public class MDPRewardsSimple<Value> extends RewardsExplicit<Value> implements MDPRewards<Value>
 {
@@ -48,6 +57,18 @@ public class MDPRewardsSimple<Value> extends RewardsExplicit<Value> implements M
 	/** The number returned when the real reward is unset or 0.0 */
 	protected Value zeroReplacement;
 
+	// Frozen storage (only used if frozen is true, in which case the lists above are null)
+
+	/** Are the rewards frozen, i.e., stored in the arrays below? */
+	protected boolean frozen = false;
+	/** State rewards (null denotes all 0) */
+	protected double[] stateRewardsArray;
+	/** Transition rewards, for each choice (null denotes all 0) */
+	protected double[] transRewardsArray;
+	/** Indices into transRewardsArray giving the start of the choices for each state;
+	 * array is of size numStates+1 (null if transRewardsArray is null) */
+	protected int[] transRewardsStarts;
+
 	/**
 	 * Constructor: all zero rewards.
 	 * @param numStates Number of states
@@ -68,6 +89,12 @@ public class MDPRewardsSimple<Value> extends RewardsExplicit<Value> implements M
 	{
 		setEvaluator(rews.getEvaluator());
 		numStates = rews.numStates;
+		if (rews.frozen) {
+			frozen = true;
+			stateRewardsArray = rews.stateRewardsArray == null ? null : rews.stateRewardsArray.clone();
+			transRewardsArray = rews.transRewardsArray == null ? null : rews.transRewardsArray.clone();
+			transRewardsStarts = rews.transRewardsStarts;
+		}
 		if (rews.stateRewards == null) {
 			stateRewards = null;
 		} else {
@@ -99,11 +126,85 @@ public class MDPRewardsSimple<Value> extends RewardsExplicit<Value> implements M
 
 	// Mutators
 
+	/**
+	 * Freeze the rewards, i.e., move them into primitive arrays, with transition rewards
+	 * indexed by choice, aligned with the choices of {@code model}.
+	 * This is only done for double-valued rewards; otherwise, this method does nothing.
+	 * Subsequent modifications are still possible, but revert to the (slower) mutable storage.
+	 * @param model The model that these rewards are for
+	 */
+	@SuppressWarnings("unchecked")
+	public void freeze(NondetModel<?> model)
+	{
+		if (frozen || !(getEvaluator().one() instanceof Double)) {
+			return;
+		}
+		if (stateRewards != null) {
+			stateRewardsArray = new double[numStates];
+			for (int s = 0; s < numStates; s++) {
+				stateRewardsArray[s] = (Double) stateRewards.get(s);
+			}
+		}
+		if (transRewards != null) {
+			transRewardsStarts = new int[numStates + 1];
+			for (int s = 0; s < numStates; s++) {
+				List<Value> list = transRewards.get(s);
+				int n = Math.max(model.getNumChoices(s), list == null ? 0 : list.size());
+				transRewardsStarts[s + 1] = transRewardsStarts[s] + n;
+			}
+			transRewardsArray = new double[transRewardsStarts[numStates]];
+			for (int s = 0; s < numStates; s++) {
+				List<Value> list = transRewards.get(s);
+				if (list != null) {
+					for (int i = 0, n = list.size(); i < n; i++) {
+						transRewardsArray[transRewardsStarts[s] + i] = (Double) list.get(i);
+					}
+				}
+			}
+		}
+		stateRewards = null;
+		transRewards = null;
+		frozen = true;
+	}
+
+	/**
+	 * If the rewards are frozen, move them back into the mutable (list-based) storage.
+	 */
+	@SuppressWarnings("unchecked")
+	protected void unfreeze()
+	{
+		if (!frozen) {
+			return;
+		}
+		if (stateRewardsArray != null) {
+			stateRewards = new ArrayList<Value>(numStates);
+			for (int s = 0; s < numStates; s++) {
+				stateRewards.add((Value) Double.valueOf(stateRewardsArray[s]));
+			}
+		}
+		if (transRewardsArray != null) {
+			transRewards = new ArrayList<List<Value>>(numStates);
+			for (int s = 0; s < numStates; s++) {
+				int n = transRewardsStarts[s + 1] - transRewardsStarts[s];
+				List<Value> list = new ArrayList<Value>(n);
+				for (int i = 0; i < n; i++) {
+					list.add((Value) Double.valueOf(transRewardsArray[transRewardsStarts[s] + i]));
+				}
+				transRewards.add(list);
+			}
+		}
+		stateRewardsArray = null;
+		transRewardsArray = null;
+		transRewardsStarts = null;
+		frozen = false;
+	}
+
 	/**
 	 * Set the state reward for state {@code s} to {@code r}.
 	 */
 	public void setStateReward(int s, Value r)
 	{
+		unfreeze();
 		// If no rewards array created yet, create it
 		if (stateRewards == null) {
 			stateRewards = new ArrayList<Value>(numStates);
@@ -128,6 +229,7 @@ public class MDPRewardsSimple<Value> extends RewardsExplicit<Value> implements M
 	public void setTransitionReward(int s, int i, Value r)
 	{
 		List<Value> list;
+		unfreeze();
 		// If no rewards array created yet, create it
 		if (transRewards == null) {
 			transRewards = new ArrayList<List<Value>>(numStates);
@@ -196,18 +298,32 @@ public class MDPRewardsSimple<Value> extends RewardsExplicit<Value> implements M
 
 	// Accessors
 
+	/**
+	 * Are the rewards currently frozen (see {@link #freeze(NondetModel)})?
+	 */
+	public boolean isFrozen()
+	{
+		return frozen;
+	}
+
 	@Override
+	@SuppressWarnings("unchecked")
 	public Value getStateReward(int s)
 	{
+		if (frozen)
+			return (Value) Double.valueOf(getStateRewardDouble(s));
 		if (stateRewards == null)
 			return getZeroReplacement();
 		return (!getEvaluator().isZero(stateRewards.get(s))) ? stateRewards.get(s) : getZeroReplacement();
 	}
 
 	@Override
+	@SuppressWarnings("unchecked")
 	public Value getTransitionReward(int s, int i)
 	{
 		List<Value> list;
+		if (frozen)
+			return (Value) Double.valueOf(getTransitionRewardDouble(s, i));
 		if (transRewards == null || (list = transRewards.get(s)) == null)
 			return getZeroReplacement();
 		if (list.size() <= i)
@@ -215,15 +331,59 @@ public class MDPRewardsSimple<Value> extends RewardsExplicit<Value> implements M
 		return (!getEvaluator().isZero(list.get(i))) ? list.get(i) : getZeroReplacement();
 	}
 
+	@Override
+	public double getStateRewardDouble(int s)
+	{
+		if (!frozen)
+			return MDPRewards.super.getStateRewardDouble(s);
+		double r = stateRewardsArray == null ? 0.0 : stateRewardsArray[s];
+		return r != 0.0 ? r : ((Number) getZeroReplacement()).doubleValue();
+	}
+
+	@Override
+	public double getTransitionRewardDouble(int s, int i)
+	{
+		if (!frozen)
+			return MDPRewards.super.getTransitionRewardDouble(s, i);
+		double r = 0.0;
+		if (transRewardsArray != null) {
+			int j = transRewardsStarts[s] + i;
+			if (j < transRewardsStarts[s + 1])
+				r = transRewardsArray[j];
+		}
+		return r != 0.0 ? r : ((Number) getZeroReplacement()).doubleValue();
+	}
+
 	// Converters
 	
 	@Override
+	@SuppressWarnings("unchecked")
 	public MDPRewards<Value> liftFromModel(Product<?> product)
 	{
 		Model<?> modelProd = product.getProductModel();
 		int numStatesProd = modelProd.getNumStates();		
 		MDPRewardsSimple<Value> rewardsProd = new MDPRewardsSimple<>(numStatesProd);
 		rewardsProd.setEvaluator(getEvaluator());
+		if (frozen) {
+			// Choices of product states match those of the corresponding model states
+			if (stateRewardsArray != null) {
+				for (int s = 0; s < numStatesProd; s++) {
+					rewardsProd.setStateReward(s, (Value) Double.valueOf(stateRewardsArray[product.getModelState(s)]));
+				}
+			}
+			if (transRewardsArray != null) {
+				for (int s = 0; s < numStatesProd; s++) {
+					int sModel = product.getModelState(s);
+					for (int j = transRewardsStarts[sModel], stop = transRewardsStarts[sModel + 1]; j < stop; j++) {
+						rewardsProd.setTransitionReward(s, j - transRewardsStarts[sModel], (Value) Double.valueOf(transRewardsArray[j]));
+					}
+				}
+			}
+			if (modelProd instanceof NondetModel) {
+				rewardsProd.freeze((NondetModel<?>) modelProd);
+			}
+			return rewardsProd;
+		}
 		if (stateRewards != null) {
 			for (int s = 0; s < numStatesProd; s++) {
 				rewardsProd.setStateReward(s, stateRewards.get(product.getModelState(s)));
@@ -246,12 +406,14 @@ public class MDPRewardsSimple<Value> extends RewardsExplicit<Value> implements M
 	@Override
 	public String toString()
 	{
+		if (frozen)
+			return "st: " + Arrays.toString(stateRewardsArray) + "; tr:" + Arrays.toString(transRewardsArray);
 		return "st: " + this.stateRewards + "; tr:" + this.transRewards;
 	}
 
 	@Override
 	public boolean hasTransitionRewards()
 	{
-		return transRewards != null;
+		return frozen ? transRewardsArray != null : transRewards != null;
 	}
 }
@@ -58,6 +58,10 @@ public class STPGRewardsSimple<Value> extends MDPRewardsSimple<Value> implements
 	@Override
 	public STPGRewards<Value> liftFromModel(Product<?> product)
 	{
+		// Frozen rewards: lift as for MDPRewardsSimple (which keeps them frozen), then copy
+		if (frozen) {
+			return new STPGRewardsSimple<>((MDPRewardsSimple<Value>) super.liftFromModel(product));
+		}
 		// Same as for MDPRewardsSimple, but more efficient than calling that code and then copying
 		Model<?> modelProd = product.getProductModel();
 		int numStatesProd = modelProd.getNumStates();
@@ -45,6 +45,12 @@ public abstract class StateRewards<Value> extends RewardsExplicit<Value> impleme
 		return getEvaluator().zero();
 	}
 	
+	@Override
+	public double getTransitionRewardDouble(int s, int i)
+	{
+		return 0.0;
+	}
+	
 	@Override
 	public MDPRewards<Value> buildMDPRewards()
 	{
@@ -84,6 +84,12 @@ public class StateRewardsArray extends StateRewards<Double>
 		return stateRewards[s];
 	}
 	
+	@Override
+	public double getStateRewardDouble(int s)
+	{
+		return stateRewards[s];
+	}
+	
 	// Converters
 	
 	@Override
@@ -654,6 +654,129 @@ JNIEXPORT jlong __jlongpointer JNICALL Java_jdd_JDD_DD_1MatrixMultiply(JNIEnv *e
 //------------------------------------------------------------------------------
 
 
+// Opcodes for DD programs (must match jdd.JDDProgram)
+
+#define PROG_CONST 0
+#define PROG_COPY 1
+#define PROG_NOT 2
+#define PROG_AND 3
+#define PROG_OR 4
+#define PROG_APPLY 5
+#define PROG_MONADIC_APPLY 6
+#define PROG_ITE 7
+#define PROG_PERMUTE 8
+#define PROG_SWAP 9
+#define PROG_THERE_EXISTS 10
+#define PROG_FOR_ALL 11
+#define PROG_SUM_ABSTRACT 12
+#define PROG_MIN_ABSTRACT 13
+#define PROG_MAX_ABSTRACT 14
+#define PROG_MATRIX_MULTIPLY 15
+#define PROG_EQUAL_SUP_NORM 16
+
+#define PROG_INSTR_SIZE 7
+
+// Execute a DD program (see jdd.JDDProgram) in a single native call.
+// Each register in regs holds either a referenced DdNode or 0; on entry, only inputs are set.
+// A register owns its reference while it is non-zero: operands are cleared as soon as they are
+// handed to an operation, so that no reference is ever dereferenced twice.
+// On success, registers listed in outputs are left set, all others are dereferenced.
+// On failure, all registers still set are dereferenced and false is returned
+// (operands of the failed operation may leak, since it may have freed some of them).
+
+JNIEXPORT jboolean JNICALL Java_jdd_JDD_DD_1RunProgram(JNIEnv *env, jclass cls, jintArray code_arr, jlongArray regs_arr, jlongArray consts_arr, jlongArray vars_arr, jintArray num_vars_arr, jdoubleArray doubles_arr, jbooleanArray flags_arr, jintArray outputs_arr)
+{
+	jsize code_len = env->GetArrayLength(code_arr);
+	jsize num_regs = env->GetArrayLength(regs_arr);
+	jsize num_outputs = env->GetArrayLength(outputs_arr);
+	jint *code = env->GetIntArrayElements(code_arr, 0);
+	jlong *regs = env->GetLongArrayElements(regs_arr, 0);
+	jlong *consts = env->GetLongArrayElements(consts_arr, 0);
+	jlong *vars = env->GetLongArrayElements(vars_arr, 0);
+	jint *num_vars = env->GetIntArrayElements(num_vars_arr, 0);
+	jdouble *doubles = env->GetDoubleArrayElements(doubles_arr, 0);
+	jboolean *flags = env->GetBooleanArrayElements(flags_arr, 0);
+	jint *outputs = env->GetIntArrayElements(outputs_arr, 0);
+	bool ok = true;
+
+	for (jsize pc = 0; ok && pc < code_len; pc += PROG_INSTR_SIZE) {
+		jint dest = code[pc + 1], s1 = code[pc + 2], s2 = code[pc + 3], s3 = code[pc + 4];
+		jint arg1 = code[pc + 5], arg2 = code[pc + 6];
+		DdNode *a = (s1 >= 0) ? jlong_to_DdNode(regs[s1]) : NULL;
+		DdNode *b = (s2 >= 0) ? jlong_to_DdNode(regs[s2]) : NULL;
+		DdNode *c = (s3 >= 0) ? jlong_to_DdNode(regs[s3]) : NULL;
+		DdNode *res = NULL;
+		// All operations but a copy or a comparison consume their operands (even if they fail),
+		// so ownership passes from the registers to the operation here.
+		// A register used twice would hold only one of the two references needed.
+		if (code[pc] != PROG_COPY && code[pc] != PROG_EQUAL_SUP_NORM) {
+			if ((s1 >= 0 && (s1 == s2 || s1 == s3)) || (s2 >= 0 && s2 == s3)) {
+				ok = false;
+				continue;
+			}
+			if (s1 >= 0) regs[s1] = 0;
+			if (s2 >= 0) regs[s2] = 0;
+			if (s3 >= 0) regs[s3] = 0;
+		}
+		switch (code[pc]) {
+			case PROG_CONST: res = jlong_to_DdNode(consts[arg1]); Cudd_Ref(res); break;
+			case PROG_COPY: res = a; Cudd_Ref(res); break;
+			case PROG_NOT: res = DD_Not(ddman, a); break;
+			case PROG_AND: res = DD_And(ddman, a, b); break;
+			case PROG_OR: res = DD_Or(ddman, a, b); break;
+			case PROG_APPLY: res = DD_Apply(ddman, arg1, a, b); break;
+			case PROG_MONADIC_APPLY: res = DD_MonadicApply(ddman, arg1, a); break;
+			case PROG_ITE: res = DD_ITE(ddman, a, b, c); break;
+			case PROG_PERMUTE: res = DD_PermuteVariables(ddman, a, jlong_to_DdNode_array(vars[arg1]), jlong_to_DdNode_array(vars[arg2]), num_vars[arg1]); break;
+			case PROG_SWAP: res = DD_SwapVariables(ddman, a, jlong_to_DdNode_array(vars[arg1]), jlong_to_DdNode_array(vars[arg2]), num_vars[arg1]); break;
+			case PROG_THERE_EXISTS: res = DD_ThereExists(ddman, a, jlong_to_DdNode_array(vars[arg1]), num_vars[arg1]); break;
+			case PROG_FOR_ALL: res = DD_ForAll(ddman, a, jlong_to_DdNode_array(vars[arg1]), num_vars[arg1]); break;
+			case PROG_SUM_ABSTRACT: res = DD_SumAbstract(ddman, a, jlong_to_DdNode_array(vars[arg1]), num_vars[arg1]); break;
+			case PROG_MIN_ABSTRACT: res = DD_MinAbstract(ddman, a, jlong_to_DdNode_array(vars[arg1]), num_vars[arg1]); break;
+			case PROG_MAX_ABSTRACT: res = DD_MaxAbstract(ddman, a, jlong_to_DdNode_array(vars[arg1]), num_vars[arg1]); break;
+			case PROG_MATRIX_MULTIPLY: res = DD_MatrixMultiply(ddman, a, b, jlong_to_DdNode_array(vars[arg1]), num_vars[arg1], arg2); break;
+			case PROG_EQUAL_SUP_NORM:
+				flags[arg1] = DD_EqualSupNorm(ddman, a, b, doubles[arg2]);
+				ok = !DD_GetErrorFlag(ddman);
+				continue;
+			default: ok = false; continue;
+		}
+		if (res == NULL) {
+			// Operands are no longer owned by any register, so are not freed below
+			ok = false;
+			continue;
+		}
+		regs[dest] = ptr_to_jlong(res);
+	}
+
+	// Free everything that is not returned to the caller (or everything, on failure)
+	for (jsize i = 0; i < num_regs; i++) {
+		if (regs[i] == 0) continue;
+		bool keep = false;
+		for (jsize j = 0; ok && j < num_outputs; j++) {
+			if (outputs[j] == i) keep = true;
+		}
+		if (!keep) {
+			Cudd_RecursiveDeref(ddman, jlong_to_DdNode(regs[i]));
+			regs[i] = 0;
+		}
+	}
+
+	env->ReleaseIntArrayElements(outputs_arr, outputs, JNI_ABORT);
+	env->ReleaseBooleanArrayElements(flags_arr, flags, 0);
+	env->ReleaseDoubleArrayElements(doubles_arr, doubles, JNI_ABORT);
+	env->ReleaseIntArrayElements(num_vars_arr, num_vars, JNI_ABORT);
+	env->ReleaseLongArrayElements(vars_arr, vars, JNI_ABORT);
+	env->ReleaseLongArrayElements(consts_arr, consts, JNI_ABORT);
+	env->ReleaseLongArrayElements(regs_arr, regs, 0);
+	env->ReleaseIntArrayElements(code_arr, code, JNI_ABORT);
+
+	return ok;
+}
+
+//------------------------------------------------------------------------------
+
+
 JNIEXPORT void JNICALL Java_jdd_JDD_DD_1PrintVector(JNIEnv *env, jclass cls, jlong __jlongpointer dd, jlong __jlongpointer vars, jint num_vars, jint acc)
 {
 	DD_PrintVector(ddman, jlong_to_DdNode(dd), jlong_to_DdNode_array(vars), num_vars, acc);
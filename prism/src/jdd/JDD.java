@@ -114,6 +114,7 @@ public class JDD
 	private static native long DD_Identity(long rvars, long cvars, int num_vars);
 	private static native long DD_Transpose(long dd, long rvars, long cvars, int num_vars);
 	private static native long DD_MatrixMultiply(long dd1, long dd2, long vars, int num_vars, int method);
+	static native boolean DD_RunProgram(int[] code, long[] regs, long[] consts, long[] vars, int[] num_vars, double[] doubles, boolean[] flags, int[] outputs);
 	private static native void DD_PrintVector(long dd, long vars, int num_vars, int accuracy);
 	private static native void DD_PrintMatrix(long dd, long rvars, int num_rvars, long cvars, int num_cvars, int accuracy);
 	private static native void DD_PrintVectorFiltered(long dd, long filter, long vars, int num_vars, int accuracy);
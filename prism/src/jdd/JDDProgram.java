@@ -0,0 +1,441 @@
+//==============================================================================
+//
+//	Copyright (c) 2002-
+//	Authors:
+//	* Dave Parker <david.parker@comlab.ox.ac.uk> (University of Oxford, formerly University of Birmingham)
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package jdd;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A straight-line sequence of JDD operations ("DD program") that is recorded once
+ * and then executed, possibly many times, with a single call into native code.
+ * This is intended for tight symbolic loops (e.g. value iteration), where the cost
+ * of crossing the JNI boundary once per operation is otherwise paid every iteration.
+ * <br><br>
+ * Operations work on numbered registers, each holding a single reference to an MTBDD.
+ * As for the corresponding methods in {@link JDD}, each operation consumes (dereferences)
+ * its register arguments, so a register can be used as an operand at most once;
+ * use {@link #copy(int)} to obtain a second reference. Registers are filled from
+ * the arguments of {@link #run(JDDNode...)} ({@link #input()}), from nodes owned
+ * by the caller ({@link #constant(JDDNode)}) or as the result of an operation.
+ * Registers marked using {@link #output(int)} are returned by {@link #run(JDDNode...)};
+ * any other register still live at the end of the program is dereferenced.
+ * <br><br>
+ * If {@link DebugJDD} or {@link SanityJDD} is enabled, the program is interpreted
+ * in Java using the normal {@link JDD} methods, so reference tracking and checks still apply.
+ * A program object is not thread-safe.
+ */
+public class JDDProgram
+{
+	// Instruction opcodes (must match DD_RunProgram in JDD.cc)
+	static final int OP_CONST = 0;
+	static final int OP_COPY = 1;
+	static final int OP_NOT = 2;
+	static final int OP_AND = 3;
+	static final int OP_OR = 4;
+	static final int OP_APPLY = 5;
+	static final int OP_MONADIC_APPLY = 6;
+	static final int OP_ITE = 7;
+	static final int OP_PERMUTE = 8;
+	static final int OP_SWAP = 9;
+	static final int OP_THERE_EXISTS = 10;
+	static final int OP_FOR_ALL = 11;
+	static final int OP_SUM_ABSTRACT = 12;
+	static final int OP_MIN_ABSTRACT = 13;
+	static final int OP_MAX_ABSTRACT = 14;
+	static final int OP_MATRIX_MULTIPLY = 15;
+	static final int OP_EQUAL_SUP_NORM = 16;
+
+	/** Number of ints per instruction: opcode, dest, src1, src2, src3, arg1, arg2 */
+	static final int INSTR_SIZE = 7;
+
+	// Instructions (flattened)
+	private int[] code = new int[16 * INSTR_SIZE];
+	private int codeLength = 0;
+	// Registers
+	private int numRegs = 0;
+	private List<Boolean> live = new ArrayList<>();
+	private List<Integer> inputRegs = new ArrayList<>();
+	private List<Integer> outputRegs = new ArrayList<>();
+	// Operands stored outside the instructions
+	private List<JDDNode> constants = new ArrayList<>();
+	private List<JDDVars> varss = new ArrayList<>();
+	private List<Double> doubles = new ArrayList<>();
+	private int numFlags = 0;
+	// Flags computed during the last run
+	private boolean[] flags = new boolean[0];
+
+	// Methods to build the program
+
+	/**
+	 * Allocate a register that will be filled from the next argument of {@link #run(JDDNode...)}.
+	 * Returns the register index.
+	 */
+	public int input()
+	{
+		int r = newReg();
+		inputRegs.add(r);
+		return r;
+	}
+
+	/**
+	 * Allocate a register holding a new reference to {@code dd} each time the program runs.
+	 * The caller keeps ownership of {@code dd}, which must remain valid while the program is used.
+	 * Returns the register index.
+	 */
+	public int constant(JDDNode dd)
+	{
+		constants.add(dd);
+		return emit(OP_CONST, -1, -1, -1, constants.size() - 1, 0);
+	}
+
+	/**
+	 * A second reference to the MTBDD in register {@code r} (which is not consumed).
+	 */
+	public int copy(int r)
+	{
+		checkLive(r);
+		return emit(OP_COPY, r, -1, -1, 0, 0);
+	}
+
+	/** Cf. {@link JDD#Not(JDDNode)} */
+	public int not(int r)
+	{
+		consume(r);
+		return emit(OP_NOT, r, -1, -1, 0, 0);
+	}
+
+	/** Cf. {@link JDD#And(JDDNode, JDDNode)} */
+	public int and(int r1, int r2)
+	{
+		consume(r1, r2);
+		return emit(OP_AND, r1, r2, -1, 0, 0);
+	}
+
+	/** Cf. {@link JDD#Or(JDDNode, JDDNode)} */
+	public int or(int r1, int r2)
+	{
+		consume(r1, r2);
+		return emit(OP_OR, r1, r2, -1, 0, 0);
+	}
+
+	/** Cf. {@link JDD#Apply(int, JDDNode, JDDNode)} */
+	public int apply(int op, int r1, int r2)
+	{
+		consume(r1, r2);
+		return emit(OP_APPLY, r1, r2, -1, op, 0);
+	}
+
+	/** Cf. {@link JDD#MonadicApply(int, JDDNode)} */
+	public int monadicApply(int op, int r)
+	{
+		consume(r);
+		return emit(OP_MONADIC_APPLY, r, -1, -1, op, 0);
+	}
+
+	/** Cf. {@link JDD#ITE(JDDNode, JDDNode, JDDNode)} */
+	public int ite(int r1, int r2, int r3)
+	{
+		consume(r1, r2, r3);
+		return emit(OP_ITE, r1, r2, r3, 0, 0);
+	}
+
+	/** Cf. {@link JDD#PermuteVariables(JDDNode, JDDVars, JDDVars)} */
+	public int permuteVariables(int r, JDDVars oldVars, JDDVars newVars)
+	{
+		consume(r);
+		return emit(OP_PERMUTE, r, -1, -1, addVars(oldVars), addVars(newVars));
+	}
+
+	/** Cf. {@link JDD#SwapVariables(JDDNode, JDDVars, JDDVars)} */
+	public int swapVariables(int r, JDDVars oldVars, JDDVars newVars)
+	{
+		consume(r);
+		return emit(OP_SWAP, r, -1, -1, addVars(oldVars), addVars(newVars));
+	}
+
+	/** Cf. {@link JDD#ThereExists(JDDNode, JDDVars)} */
+	public int thereExists(int r, JDDVars vars)
+	{
+		consume(r);
+		return emit(OP_THERE_EXISTS, r, -1, -1, addVars(vars), 0);
+	}
+
+	/** Cf. {@link JDD#ForAll(JDDNode, JDDVars)} */
+	public int forAll(int r, JDDVars vars)
+	{
+		consume(r);
+		return emit(OP_FOR_ALL, r, -1, -1, addVars(vars), 0);
+	}
+
+	/** Cf. {@link JDD#SumAbstract(JDDNode, JDDVars)} */
+	public int sumAbstract(int r, JDDVars vars)
+	{
+		consume(r);
+		return emit(OP_SUM_ABSTRACT, r, -1, -1, addVars(vars), 0);
+	}
+
+	/** Cf. {@link JDD#MinAbstract(JDDNode, JDDVars)} */
+	public int minAbstract(int r, JDDVars vars)
+	{
+		consume(r);
+		return emit(OP_MIN_ABSTRACT, r, -1, -1, addVars(vars), 0);
+	}
+
+	/** Cf. {@link JDD#MaxAbstract(JDDNode, JDDVars)} */
+	public int maxAbstract(int r, JDDVars vars)
+	{
+		consume(r);
+		return emit(OP_MAX_ABSTRACT, r, -1, -1, addVars(vars), 0);
+	}
+
+	/** Cf. {@link JDD#MatrixMultiply(JDDNode, JDDNode, JDDVars, int)} */
+	public int matrixMultiply(int r1, int r2, JDDVars vars, int method)
+	{
+		consume(r1, r2);
+		return emit(OP_MATRIX_MULTIPLY, r1, r2, -1, addVars(vars), method);
+	}
+
+	/**
+	 * Cf. {@link JDD#EqualSupNorm(JDDNode, JDDNode, double)}.
+	 * Registers {@code r1} and {@code r2} are not consumed.
+	 * Returns the index of the flag holding the result, see {@link #getFlag(int)}.
+	 */
+	public int equalSupNorm(int r1, int r2, double epsilon)
+	{
+		checkLive(r1);
+		checkLive(r2);
+		doubles.add(epsilon);
+		int flag = numFlags++;
+		emitInstr(OP_EQUAL_SUP_NORM, -1, r1, r2, -1, flag, doubles.size() - 1);
+		return flag;
+	}
+
+	/**
+	 * Mark register {@code r} as an output of the program.
+	 * Outputs are returned by {@link #run(JDDNode...)} in the order in which they were marked.
+	 */
+	public void output(int r)
+	{
+		consume(r);
+		outputRegs.add(r);
+	}
+
+	// Methods to run the program
+
+	/**
+	 * Run the program, filling the input registers from {@code inputs}.
+	 * Returns the output registers.
+	 * <br>[ REFS: <i>outputs</i>, DEREFS: <i>inputs</i> ]
+	 */
+	public JDDNode[] run(JDDNode... inputs)
+	{
+		if (inputs.length != inputRegs.size()) {
+			throw new IllegalArgumentException("DD program expects " + inputRegs.size() + " inputs, got " + inputs.length);
+		}
+		flags = new boolean[numFlags];
+		if (DebugJDD.debugEnabled || SanityJDD.enabled) {
+			return interpret(inputs);
+		}
+		long[] regs = new long[numRegs];
+		for (int i = 0; i < inputs.length; i++) {
+			regs[inputRegs.get(i)] = inputs[i].ptr();
+		}
+		long[] constPtrs = new long[constants.size()];
+		for (int i = 0; i < constPtrs.length; i++) {
+			constPtrs[i] = constants.get(i).ptr();
+		}
+		long[] varsPtrs = new long[varss.size()];
+		int[] varsCounts = new int[varss.size()];
+		for (int i = 0; i < varsPtrs.length; i++) {
+			varsPtrs[i] = varss.get(i).array();
+			varsCounts[i] = varss.get(i).n();
+		}
+		double[] doublesArray = new double[doubles.size()];
+		for (int i = 0; i < doublesArray.length; i++) {
+			doublesArray[i] = doubles.get(i);
+		}
+		int[] outputsArray = outputRegs.stream().mapToInt(Integer::intValue).toArray();
+		int[] codeArray = Arrays.copyOf(code, codeLength);
+		// On failure, the native code has already dereferenced all registers
+		if (!JDD.DD_RunProgram(codeArray, regs, constPtrs, varsPtrs, varsCounts, doublesArray, flags, outputsArray)) {
+			throw new JDD.CuddOutOfMemoryException();
+		}
+		JDDNode[] outputs = new JDDNode[outputsArray.length];
+		for (int i = 0; i < outputs.length; i++) {
+			outputs[i] = JDD.ptrToNode(regs[outputsArray[i]]);
+		}
+		return outputs;
+	}
+
+	/**
+	 * Get the value of a flag (see {@link #equalSupNorm(int, int, double)}) computed by the last run.
+	 */
+	public boolean getFlag(int flag)
+	{
+		return flags[flag];
+	}
+
+	/**
+	 * Execute the program in Java, one JDD call per instruction.
+	 */
+	private JDDNode[] interpret(JDDNode... inputs)
+	{
+		JDDNode[] regs = new JDDNode[numRegs];
+		for (int i = 0; i < inputs.length; i++) {
+			regs[inputRegs.get(i)] = inputs[i];
+		}
+		for (int pc = 0; pc < codeLength; pc += INSTR_SIZE) {
+			int dest = code[pc + 1], s1 = code[pc + 2], s2 = code[pc + 3], s3 = code[pc + 4];
+			int arg1 = code[pc + 5], arg2 = code[pc + 6];
+			JDDNode res = null;
+			switch (code[pc]) {
+			case OP_CONST:
+				res = constants.get(arg1).copy();
+				break;
+			case OP_COPY:
+				res = regs[s1].copy();
+				break;
+			case OP_NOT:
+				res = JDD.Not(regs[s1]);
+				break;
+			case OP_AND:
+				res = JDD.And(regs[s1], regs[s2]);
+				break;
+			case OP_OR:
+				res = JDD.Or(regs[s1], regs[s2]);
+				break;
+			case OP_APPLY:
+				res = JDD.Apply(arg1, regs[s1], regs[s2]);
+				break;
+			case OP_MONADIC_APPLY:
+				res = JDD.MonadicApply(arg1, regs[s1]);
+				break;
+			case OP_ITE:
+				res = JDD.ITE(regs[s1], regs[s2], regs[s3]);
+				break;
+			case OP_PERMUTE:
+				res = JDD.PermuteVariables(regs[s1], varss.get(arg1), varss.get(arg2));
+				break;
+			case OP_SWAP:
+				res = JDD.SwapVariables(regs[s1], varss.get(arg1), varss.get(arg2));
+				break;
+			case OP_THERE_EXISTS:
+				res = JDD.ThereExists(regs[s1], varss.get(arg1));
+				break;
+			case OP_FOR_ALL:
+				res = JDD.ForAll(regs[s1], varss.get(arg1));
+				break;
+			case OP_SUM_ABSTRACT:
+				res = JDD.SumAbstract(regs[s1], varss.get(arg1));
+				break;
+			case OP_MIN_ABSTRACT:
+				res = JDD.MinAbstract(regs[s1], varss.get(arg1));
+				break;
+			case OP_MAX_ABSTRACT:
+				res = JDD.MaxAbstract(regs[s1], varss.get(arg1));
+				break;
+			case OP_MATRIX_MULTIPLY:
+				res = JDD.MatrixMultiply(regs[s1], regs[s2], varss.get(arg1), arg2);
+				break;
+			case OP_EQUAL_SUP_NORM:
+				flags[arg1] = JDD.EqualSupNorm(regs[s1], regs[s2], doubles.get(arg2));
+				continue;
+			default:
+				throw new IllegalStateException("Unknown DD program opcode " + code[pc]);
+			}
+			// Operands have been consumed (apart from by a copy)
+			if (code[pc] != OP_COPY) {
+				if (s1 >= 0) regs[s1] = null;
+				if (s2 >= 0) regs[s2] = null;
+				if (s3 >= 0) regs[s3] = null;
+			}
+			regs[dest] = res;
+		}
+		JDDNode[] outputs = new JDDNode[outputRegs.size()];
+		for (int i = 0; i < outputs.length; i++) {
+			outputs[i] = regs[outputRegs.get(i)];
+			regs[outputRegs.get(i)] = null;
+		}
+		JDD.DerefNonNull(regs);
+		return outputs;
+	}
+
+	// Local utility methods
+
+	private int newReg()
+	{
+		live.add(true);
+		return numRegs++;
+	}
+
+	private void checkLive(int r)
+	{
+		if (r < 0 || r >= numRegs || !live.get(r)) {
+			throw new IllegalArgumentException("DD program register " + r + " is not live");
+		}
+	}
+
+	private void consume(int... rs)
+	{
+		for (int r : rs) {
+			checkLive(r);
+			live.set(r, false);
+		}
+	}
+
+	private int addVars(JDDVars vars)
+	{
+		int i = varss.indexOf(vars);
+		if (i == -1) {
+			varss.add(vars);
+			i = varss.size() - 1;
+		}
+		return i;
+	}
+
+	private int emit(int opcode, int s1, int s2, int s3, int arg1, int arg2)
+	{
+		int dest = newReg();
+		emitInstr(opcode, dest, s1, s2, s3, arg1, arg2);
+		return dest;
+	}
+
+	private void emitInstr(int opcode, int dest, int s1, int s2, int s3, int arg1, int arg2)
+	{
+		if (codeLength + INSTR_SIZE > code.length) {
+			code = Arrays.copyOf(code, 2 * code.length);
+		}
+		code[codeLength++] = opcode;
+		code[codeLength++] = dest;
+		code[codeLength++] = s1;
+		code[codeLength++] = s2;
+		code[codeLength++] = s3;
+		code[codeLength++] = arg1;
+		code[codeLength++] = arg2;
+	}
+}
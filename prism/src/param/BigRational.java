@@ -34,6 +34,10 @@ import prism.PrismLangException;
  * Provides a class to store big rational numbers.
  * Numerator and denominator of a number stored using this class are not
  * necessarily coprime. However, cancellation is applied by default.
+ * Numbers whose numerator and denominator both fit into a {@code long} are
+ * stored as two {@code long}s, and arithmetic on them is carried out with
+ * overflow-checked {@code long} operations; {@code BigInteger}s are only
+ * used once the values get too large.
  * The special values infinity (INF), minus infinity (MINF) and not a number
  * (NAN)are provided. For them, the usual rules apply (INF * INF = INF,
  * MINF&INF=MINF, etc.), with the exception that INF+MINF=0, INF-INF=0, etc
@@ -70,10 +74,14 @@ public final class BigRational extends Number implements Comparable<BigRational>
 	/** the BigRational "not a number" */
 	public final static BigRational NAN = new BigRational(BigInteger.ZERO, BigInteger.ZERO);
 
-	/** numerator */
+	/** numerator (null if the number is stored in {@code lnum}/{@code lden}) */
 	private BigInteger num;
-	/** denominator */
+	/** denominator (null if the number is stored in {@code lnum}/{@code lden}) */
 	private BigInteger den;
+	/** numerator, if {@code num} is null; never {@code Long.MIN_VALUE} */
+	private long lnum;
+	/** denominator, if {@code num} is null; never {@code Long.MIN_VALUE} */
+	private long lden;
 
 	// constructors
 
@@ -82,8 +90,8 @@ public final class BigRational extends Number implements Comparable<BigRational>
 	 */
 	public BigRational()
 	{
-		this.num = BigInteger.ZERO;
-		this.den = BigInteger.ONE;
+		this.lnum = 0;
+		this.lden = 1;
 	}
 
 	/**
@@ -93,8 +101,7 @@ public final class BigRational extends Number implements Comparable<BigRational>
 	 */
 	public BigRational(BigInteger num)
 	{
-		this.num = num;
-		this.den = BigInteger.ONE;
+		assign(num, BigInteger.ONE);
 	}
 
 	/**
@@ -120,6 +127,19 @@ public final class BigRational extends Number implements Comparable<BigRational>
 	 */
 	public BigRational(BigInteger num, BigInteger den, boolean cancel)
 	{
+		init(num, den, cancel);
+	}
+
+	/**
+	 * Sets this BigRational to {@code num} / {@code den}, see
+	 * {@link #BigRational(BigInteger, BigInteger, boolean)}.
+	 */
+	private void init(BigInteger num, BigInteger den, boolean cancel)
+	{
+		if (fitsLong(num) && fitsLong(den)) {
+			init(num.longValue(), den.longValue(), cancel);
+			return;
+		}
 		if (den.equals(BigInteger.ZERO)) {
 			int cmp = num.compareTo(BigInteger.ZERO);
 			switch (cmp) {
@@ -133,12 +153,121 @@ public final class BigRational extends Number implements Comparable<BigRational>
 		}
 		if (cancel) {
 			canceled(num, den);
+		} else {
+			assign(num, den);
+		}
+	}
+
+	/**
+	 * Sets this BigRational to {@code num} / {@code den}, see
+	 * {@link #BigRational(long, long, boolean)}.
+	 */
+	private void init(long num, long den, boolean cancel)
+	{
+		if (num == Long.MIN_VALUE || den == Long.MIN_VALUE) {
+			init(BigInteger.valueOf(num), BigInteger.valueOf(den), cancel);
+			return;
+		}
+		if (den == 0) {
+			num = Long.signum(num);
+		}
+		if (cancel) {
+			if (num == 0) {
+				if (den != 0) {
+					den = 1;
+				}
+			} else {
+				long gcd = gcd(Math.abs(num), Math.abs(den));
+				num /= gcd;
+				den /= gcd;
+				if (den < 0) {
+					num = -num;
+					den = -den;
+				}
+			}
+		}
+		this.lnum = num;
+		this.lden = den;
+	}
+
+	/**
+	 * Stores {@code num} / {@code den} as is, using the {@code long}
+	 * representation if possible.
+	 */
+	private void assign(BigInteger num, BigInteger den)
+	{
+		if (fitsLong(num) && fitsLong(den)) {
+			this.num = null;
+			this.den = null;
+			this.lnum = num.longValue();
+			this.lden = den.longValue();
 		} else {
 			this.num = num;
 			this.den = den;
 		}
 	}
 
+	/**
+	 * Sets this BigRational to the same numerator and denominator as {@code other}.
+	 */
+	private void assign(BigRational other)
+	{
+		this.num = other.num;
+		this.den = other.den;
+		this.lnum = other.lnum;
+		this.lden = other.lden;
+	}
+
+	/**
+	 * Returns true iff {@code value} can be stored in the {@code long}
+	 * representation, i.e., is a {@code long} other than {@code Long.MIN_VALUE}.
+	 */
+	private static boolean fitsLong(BigInteger value)
+	{
+		return value.bitLength() < 64 && value.longValue() != Long.MIN_VALUE;
+	}
+
+	/**
+	 * Greatest common divisor of two non-negative {@code long}s (Euclid).
+	 */
+	private static long gcd(long a, long b)
+	{
+		while (b != 0) {
+			long t = a % b;
+			a = b;
+			b = t;
+		}
+		return a;
+	}
+
+	/**
+	 * Returns true iff {@code a * b} overflows a {@code long}
+	 * or yields {@code Long.MIN_VALUE}.
+	 */
+	private static boolean multiplyOverflows(long a, long b)
+	{
+		long lo = a * b;
+		return Math.multiplyHigh(a, b) != (lo >> 63) || lo == Long.MIN_VALUE;
+	}
+
+	/**
+	 * Returns true iff {@code a + b} overflows a {@code long}
+	 * or yields {@code Long.MIN_VALUE}.
+	 */
+	private static boolean addOverflows(long a, long b)
+	{
+		long r = a + b;
+		return ((a ^ r) & (b ^ r)) < 0 || r == Long.MIN_VALUE;
+	}
+
+	/**
+	 * Returns true iff this number is stored in the {@code long} representation.
+	 */
+	private boolean isSmall()
+	{
+		return num == null;
+	}
+
 	protected void canceled(BigInteger num, BigInteger den)
 	{
 		if (num.equals(BigInteger.ZERO)) {
@@ -157,8 +286,7 @@ public final class BigRational extends Number implements Comparable<BigRational>
 				den = den.negate();
 			}
 		}
-		this.num = num;
-		this.den = den;
+		assign(num, den);
 	}
 
 	/**
@@ -170,7 +298,21 @@ public final class BigRational extends Number implements Comparable<BigRational>
 	 */
 	public BigRational(long num, long den)
 	{
-		this(BigInteger.valueOf(num), BigInteger.valueOf(den));
+		this(num, den, true);
+	}
+
+	/**
+	 * Creates a new BigRational with value {@code num} / {@code den}.
+	 * Whether cancellation between {@code num} and {@code den} is applied depends
+	 * on {@code cancel}.
+	 *
+	 * @param num numerator of this BigRational
+	 * @param den denominator of this BigRational
+	 * @param cancel true to ensure resulting BigRational is coprime
+	 */
+	public BigRational(long num, long den, boolean cancel)
+	{
+		init(num, den, cancel);
 	}
 
 	/**
@@ -192,16 +334,13 @@ public final class BigRational extends Number implements Comparable<BigRational>
 	public  BigRational(double value)
 	{
 		if (java.lang.Double.isNaN(value)) {
-			this.num = BigInteger.ZERO;
-			this.den = BigInteger.ZERO;
+			assign(BigInteger.ZERO, BigInteger.ZERO);
 		}
 		if (value == java.lang.Double.POSITIVE_INFINITY) {
-			this.num = BigInteger.ONE;
-			this.den = BigInteger.ZERO;
+			assign(BigInteger.ONE, BigInteger.ZERO);
 		}
 		if (value == java.lang.Double.NEGATIVE_INFINITY) {
-			this.num = BMONE;
-			this.den = BigInteger.ZERO;
+			assign(BMONE, BigInteger.ZERO);
 		}
 		// Test whether value must be an integer
 		if (value <= -0x1.0P52 || value >= 0x1.0P52) {
@@ -213,8 +352,7 @@ public final class BigRational extends Number implements Comparable<BigRational>
 				exp += 1;
 			}
 			// No need to cancel as denumerator is one
-			this.num = BigInteger.valueOf((long) value).shiftLeft(exp);
-			this.den = BigInteger.ONE;
+			assign(BigInteger.valueOf((long) value).shiftLeft(exp), BigInteger.ONE);
 		} else {
 			// Determine smallest exponent such that value = long_value / 2^exp
 			int exp = 0;
@@ -224,8 +362,7 @@ public final class BigRational extends Number implements Comparable<BigRational>
 				exp += 1;
 			}
 			// No need to cancel as exp is the smallest exponent
-			this.num = BigInteger.valueOf((long) value);
-			this.den = BigInteger.ONE.shiftLeft(exp);
+			assign(BigInteger.valueOf((long) value), BigInteger.ONE.shiftLeft(exp));
 		}
 	}
 
@@ -239,16 +376,13 @@ public final class BigRational extends Number implements Comparable<BigRational>
 	public BigRational(String string)
 	{
 		if (string.equals("Infinity") || string.equals("+Infinity") || string.equals("Inf") || string.equals("+Inf")) {
-			this.num = BigInteger.ONE;
-			this.den = BigInteger.ZERO;
+			assign(BigInteger.ONE, BigInteger.ZERO);
 			return;
 		} else if (string.equals("-Infinity") || string.equals("-Inf")) {
-			this.num = BigInteger.ONE.negate();
-			this.den = BigInteger.ZERO;
+			assign(BigInteger.ONE.negate(), BigInteger.ZERO);
 			return;
 		} else if (string.equals("NaN")) {
-			this.num = BigInteger.ZERO;
-			this.den = BigInteger.ZERO;
+			assign(BigInteger.ZERO, BigInteger.ZERO);
 			return;
 		}
 		string = string.trim();
@@ -293,8 +427,7 @@ public final class BigRational extends Number implements Comparable<BigRational>
 				den = ten.pow(-expo);
 			}
 			BigRational result = new BigRational(num, den, true);
-			this.num = result.num;
-			this.den = result.den;
+			assign(result);
 		} else {
 			// fractional
 			if (slashIdx == 0 || slashIdx == string.length()-1) {
@@ -305,8 +438,7 @@ public final class BigRational extends Number implements Comparable<BigRational>
 			BigRational num = new BigRational(string.substring(0, slashIdx));
 			BigRational den = new BigRational(string.substring(slashIdx + 1, string.length()));
 			BigRational r = num.divide(den);
-			this.num = r.num;
-			this.den = r.den;
+			assign(r);
 			return;
 		}
 	}
@@ -320,6 +452,9 @@ public final class BigRational extends Number implements Comparable<BigRational>
 	{
 		if (value instanceof BigRational) {
 			BigRational v = (BigRational)value;
+			if (v.isSmall()) {
+				return new BigRational(v.lnum, v.lden);
+			}
 			return new BigRational(v.num, v.den);
 		} else if (value instanceof BigInteger) {
 			return new BigRational((BigInteger) value);
@@ -348,6 +483,9 @@ public final class BigRational extends Number implements Comparable<BigRational>
 	 */
 	public BigRational negate()
 	{
+		if (isSmall()) {
+			return new BigRational(-lnum, lden, false);
+		}
 		return new BigRational(num.negate(), den, false);
 	}
 
@@ -358,6 +496,9 @@ public final class BigRational extends Number implements Comparable<BigRational>
 	 */
 	public BigRational cancel()
 	{
+		if (isSmall()) {
+			return new BigRational(lnum, lden, true);
+		}
 		return new BigRational(this.num, this.den, true);
 	}
 
@@ -377,8 +518,14 @@ public final class BigRational extends Number implements Comparable<BigRational>
 		if (this.isMInf() || other.isMInf()) {
 			return MINF;
 		}
-		BigInteger num = this.num.multiply(other.den).add(other.num.multiply(this.den));
-		BigInteger den = this.den.multiply(other.den);
+		if (this.isSmall() && other.isSmall()
+				&& !multiplyOverflows(this.lnum, other.lden) && !multiplyOverflows(other.lnum, this.lden)
+				&& !multiplyOverflows(this.lden, other.lden)
+				&& !addOverflows(this.lnum * other.lden, other.lnum * this.lden)) {
+			return new BigRational(this.lnum * other.lden + other.lnum * this.lden, this.lden * other.lden, cancel);
+		}
+		BigInteger num = this.getNum().multiply(other.getDen()).add(other.getNum().multiply(this.getDen()));
+		BigInteger den = this.getDen().multiply(other.getDen());
 		return new BigRational(num, den, cancel);
 	}
 
@@ -407,8 +554,14 @@ public final class BigRational extends Number implements Comparable<BigRational>
 		if (other.isMInf()) {
 			return MINF;
 		}
-		BigInteger num = this.num.multiply(other.den).subtract(other.num.multiply(this.den));
-		BigInteger den = this.den.multiply(other.den);
+		if (this.isSmall() && other.isSmall()
+				&& !multiplyOverflows(this.lnum, other.lden) && !multiplyOverflows(other.lnum, this.lden)
+				&& !multiplyOverflows(this.lden, other.lden)
+				&& !addOverflows(this.lnum * other.lden, -(other.lnum * this.lden))) {
+			return new BigRational(this.lnum * other.lden - other.lnum * this.lden, this.lden * other.lden);
+		}
+		BigInteger num = this.getNum().multiply(other.getDen()).subtract(other.getNum().multiply(this.getDen()));
+		BigInteger den = this.getDen().multiply(other.getDen());
 		return new BigRational(num, den);
 	}
 
@@ -429,8 +582,12 @@ public final class BigRational extends Number implements Comparable<BigRational>
 		if (this.isInf() || other.isInf()) {
 			return this.signum() * other.signum() == 1 ? INF : MINF;
 		}
-		BigInteger num = this.num.multiply(other.num);
-		BigInteger den = this.den.multiply(other.den);
+		if (this.isSmall() && other.isSmall()
+				&& !multiplyOverflows(this.lnum, other.lnum) && !multiplyOverflows(this.lden, other.lden)) {
+			return new BigRational(this.lnum * other.lnum, this.lden * other.lden, cancel);
+		}
+		BigInteger num = this.getNum().multiply(other.getNum());
+		BigInteger den = this.getDen().multiply(other.getDen());
 		return new BigRational(num, den, cancel);
 	}
 
@@ -488,7 +645,9 @@ public final class BigRational extends Number implements Comparable<BigRational>
 			}
 		}
 
-		BigRational inverseOther = new BigRational(other.den, other.num, cancel);
+		BigRational inverseOther = other.isSmall()
+				? new BigRational(other.lden, other.lnum, cancel)
+				: new BigRational(other.den, other.num, cancel);
 		return multiply(inverseOther, cancel);
 	}
 
@@ -525,6 +684,9 @@ public final class BigRational extends Number implements Comparable<BigRational>
 	{
 		if (isInf()) return 1;
 		if (isMInf()) return -1;
+		if (isSmall()) {
+			return Long.signum(lnum) * Long.signum(lden);
+		}
 		return num.signum() * den.signum();
 	}
 
@@ -541,12 +703,12 @@ public final class BigRational extends Number implements Comparable<BigRational>
 		if (exponent == 0) {
 			return ONE;
 		} else if (exponent > 0) {
-			num = this.num.pow(exponent);
-			den = this.den.pow(exponent);
+			num = getNum().pow(exponent);
+			den = getDen().pow(exponent);
 		} else { // exponent < 0
 			exponent = -exponent;
-			num = this.den.pow(exponent);
-			den = this.num.pow(exponent);
+			num = getDen().pow(exponent);
+			den = getNum().pow(exponent);
 		}
 		return new BigRational(num, den, false);
 	}
@@ -575,6 +737,11 @@ public final class BigRational extends Number implements Comparable<BigRational>
 		if (isMInf()) {
 			return other.isMInf();
 		}
+		// the long representation is used whenever possible, so it
+		// suffices to compare within the same representation
+		if (this.isSmall() || other.isSmall()) {
+			return this.isSmall() && other.isSmall() && this.lnum == other.lnum && this.lden == other.lden;
+		}
 		return this.num.equals(other.num) && this.den.equals(other.den);
 	}
 
@@ -586,9 +753,24 @@ public final class BigRational extends Number implements Comparable<BigRational>
 	@Override
 	public int hashCode()
 	{
+		if (isSmall()) {
+			return 37 * bigIntegerHashCode(lnum) + bigIntegerHashCode(lden);
+		}
 		return 37 * num.hashCode() + den.hashCode();
 	}
 
+	/**
+	 * Returns the same value as {@code BigInteger.valueOf(value).hashCode()},
+	 * so that hash codes do not depend on the representation.
+	 */
+	private static int bigIntegerHashCode(long value)
+	{
+		long mag = Math.abs(value);
+		int hash = (int) (mag >>> 32);
+		hash = 31 * hash + (int) mag;
+		return hash * Long.signum(value);
+	}
+
 	/**
 	 * Returns a double approximation of value represented by this BigRational.
 	 * There are no guarantees on preciseness currently, so this function
@@ -613,9 +795,9 @@ public final class BigRational extends Number implements Comparable<BigRational>
 			return 0.0;
 		}
 		BigInteger shiftedNum;
-		int signum = num.signum() * den.signum();
-		BigInteger posNum = num.abs();
-		BigInteger posDen = den.abs();
+		int signum = signum();
+		BigInteger posNum = getNum().abs();
+		BigInteger posDen = getDen().abs();
 		shiftedNum = posNum.shiftLeft(55);
 		BigInteger div = shiftedNum.divide(posDen);
 		if (shiftedNum.remainder(posDen).multiply(BITWO).compareTo(posDen) == 1) {
@@ -748,6 +930,8 @@ public final class BigRational extends Number implements Comparable<BigRational>
 			return "Inf";
 		} else if (isMInf()) {
 			return "-Inf";
+		} else if (isSmall()) {
+			return lden == 1 ? Long.toString(lnum) : lnum + "/" + lden;
 		} else if (den.equals(BigInteger.ONE)) {
 			return num.toString();
 		} else {
@@ -777,7 +961,11 @@ public final class BigRational extends Number implements Comparable<BigRational>
 				return -1;
 			}
 		}
-		return this.num.multiply(other.den).compareTo(other.num.multiply(this.den));
+		if (this.isSmall() && other.isSmall()
+				&& !multiplyOverflows(this.lnum, other.lden) && !multiplyOverflows(other.lnum, this.lden)) {
+			return Long.compare(this.lnum * other.lden, other.lnum * this.lden);
+		}
+		return this.getNum().multiply(other.getDen()).compareTo(other.getNum().multiply(this.getDen()));
 	}
 
 	/**
@@ -821,7 +1009,7 @@ public final class BigRational extends Number implements Comparable<BigRational>
 	 */
 	public BigInteger getNum()
 	{
-		return num;
+		return isSmall() ? BigInteger.valueOf(lnum) : num;
 	}
 
 	/**
@@ -831,7 +1019,7 @@ public final class BigRational extends Number implements Comparable<BigRational>
 	 */
 	public BigInteger getDen()
 	{
-		return den;
+		return isSmall() ? BigInteger.valueOf(lden) : den;
 	}
 
 	/**
@@ -841,6 +1029,9 @@ public final class BigRational extends Number implements Comparable<BigRational>
 	 */
 	public BigRational abs()
 	{
+		if (isSmall()) {
+			return lnum < 0 ? new BigRational(-lnum, lden) : this;
+		}
 		if (num.signum() == -1) {
 			return new BigRational(num.negate(), den);
 		} else {
@@ -944,6 +1135,9 @@ public final class BigRational extends Number implements Comparable<BigRational>
 	 */
 	public boolean isZero()
 	{
+		if (isSmall()) {
+			return lnum == 0 && lden == 1;
+		}
 		return num.equals(BigInteger.ZERO) && den.equals(BigInteger.ONE);
 	}
 
@@ -954,6 +1148,9 @@ public final class BigRational extends Number implements Comparable<BigRational>
 	 */
 	public boolean isOne()
 	{
+		if (isSmall()) {
+			return lnum == 1 && lden == 1;
+		}
 		return num.equals(BigInteger.ONE) && den.equals(BigInteger.ONE);
 	}
 
@@ -964,6 +1161,9 @@ public final class BigRational extends Number implements Comparable<BigRational>
 	 */
 	public boolean isNaN()
 	{
+		if (isSmall()) {
+			return lnum == 0 && lden == 0;
+		}
 		return num.equals(BigInteger.ZERO) && den.equals(BigInteger.ZERO);
 	}
 
@@ -974,6 +1174,9 @@ public final class BigRational extends Number implements Comparable<BigRational>
 	 */
 	public boolean isInf()
 	{
+		if (isSmall()) {
+			return lnum == 1 && lden == 0;
+		}
 		return num.equals(BigInteger.ONE) && den.equals(BigInteger.ZERO);
 	}
 
@@ -984,6 +1187,9 @@ public final class BigRational extends Number implements Comparable<BigRational>
 	 */
 	public boolean isMInf()
 	{
+		if (isSmall()) {
+			return lnum == -1 && lden == 0;
+		}
 		return num.equals(BMONE) && den.equals(BigInteger.ZERO);
 	}
 
@@ -37,18 +37,25 @@ final class CachedFunction extends Function {
 	private int number;
 	/** factory this function belongs to */
 	private CachedFunctionFactory factory;
+	/** function of the underlying factory this function represents */
+	private Function function;
+	/** hash code of {@code function} */
+	private int hash;
 	
 	/**
 	 * Constructs a new cached function.
 	 * 
 	 * @param factory function factory this function belongs to
 	 * @param number unique number of cached function this function represents
+	 * @param function function of the underlying factory represented
 	 */
-	CachedFunction(CachedFunctionFactory factory, int number)
+	CachedFunction(CachedFunctionFactory factory, int number, Function function)
 	{
 		super(factory);
 		this.factory = factory;
 		this.number = number;
+		this.function = function;
+		this.hash = function.hashCode();
 	}
 	
 	/**
@@ -60,11 +67,21 @@ final class CachedFunction extends Function {
 	{
 		return number;
 	}
+
+	/**
+	 * Returns the function of the underlying factory this function represents.
+	 * 
+	 * @return represented function
+	 */
+	Function getFunction()
+	{
+		return function;
+	}
 	
 	@Override
 	public String toString()
 	{
-		return factory.getFunction(number).toString();
+		return function.toString();
 	}
 	
 	@Override
@@ -72,13 +89,17 @@ final class CachedFunction extends Function {
 		if (!(obj instanceof CachedFunction)) {
 			return false;
 		}
-		CachedFunction function = (CachedFunction) obj;
-		return number == function.number;
+		CachedFunction other = (CachedFunction) obj;
+		if (number == other.number) {
+			return true;
+		}
+		// the same function may have been cached again after eviction
+		return hash == other.hash && function.equals(other.function);
 	}
 	
 	@Override
 	public int hashCode() {
-		return number;
+		return hash;
 	}
 	
 	@Override
@@ -26,8 +26,8 @@
 
 package param;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Function factory implementing a cache for functions from other factories.
@@ -36,6 +36,12 @@ import java.util.HashMap;
  * cache for operations on functions, so that if an operation on the same
  * two functions has already been performed before, the result will be
  * looked up instead of being performed again.
+ * <br>
+ * All caches are bounded (least-recently-used entries are evicted once the
+ * maximum size is reached). They are not synchronised, so the factory must
+ * only be used from one thread at a time. Each {@link CachedFunction} keeps
+ * a reference to the function it represents, so evicting it from the cache
+ * does not invalidate handles still in use.
  * 
  * @author Ernst Moritz Hahn <emhahn@cs.ox.ac.uk> (University of Oxford)
  * @see FunctionFactory
@@ -84,15 +90,80 @@ final class CachedFunctionFactory extends FunctionFactory {
 			return hash;
 		}
 	}
-	
+
+	/**
+	 * Bounded map with least-recently-used eviction, based on an
+	 * access-ordered {@link LinkedHashMap}. Hits, misses and evictions
+	 * are counted.
+	 */
+	private static final class BoundedCache<K, V> extends LinkedHashMap<K, V>
+	{
+		private static final long serialVersionUID = 1L;
+
+		/** maximal number of entries, or 0 for no bound */
+		private final int maxSize;
+		/** number of lookups which found an entry */
+		private long hits;
+		/** number of lookups which did not find an entry */
+		private long misses;
+		/** number of entries removed to respect the size bound */
+		private long evictions;
+
+		/**
+		 * Constructs a new cache.
+		 * 
+		 * @param maxSize maximal number of entries, or 0 for no bound
+		 */
+		BoundedCache(int maxSize)
+		{
+			super(16, 0.75f, true);
+			this.maxSize = maxSize;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<K, V> eldest)
+		{
+			if (maxSize > 0 && size() > maxSize) {
+				evictions++;
+				return true;
+			}
+			return false;
+		}
+
+		/**
+		 * Returns the value stored for {@code key}, or null if there is none,
+		 * and counts the lookup as a hit or a miss.
+		 */
+		V lookup(K key)
+		{
+			V value = get(key);
+			if (value != null) {
+				hits++;
+			} else {
+				misses++;
+			}
+			return value;
+		}
+
+		@Override
+		public String toString()
+		{
+			long numLookups = hits + misses;
+			String result = size() + " entries, " + hits + "/" + numLookups + " hits";
+			if (numLookups > 0) {
+				result += String.format(" (%.1f%%)", 100.0 * hits / numLookups);
+			}
+			return result + ", " + evictions + " evictions";
+		}
+	}
+
+	/** default maximal number of entries of each cache */
+	static final int DEFAULT_MAX_CACHE_SIZE = 1000000;
+
 	/** function factory of which we cache functions */
 	private FunctionFactory context;
-	/** maps each function from {@code context} to a unique integer */
-	private HashMap<Function, Integer> functionToNumber;
-	/** maps each integer to function from {@code context}, cf. also {@code functionToNumber} */
-	private ArrayList<Function> functions;
-	/** list of all function of this function factory */ 
-	private ArrayList<CachedFunction> cachedFunctions;
+	/** maps each function from {@code context} to its unique cached representative */
+	private BoundedCache<Function, CachedFunction> functionCache;
 	/** next new function will be assigned this number */
 	private int nextFunctionNumber;
 	/** function representing one (1) */
@@ -102,11 +173,11 @@ final class CachedFunctionFactory extends FunctionFactory {
 	/** true iff operation cache is to be used */
 	private boolean useOpCache;
 	/** cache for additions (and indirectly subtractions) */		
-	private HashMap<OpCacheKey, CachedFunction> addCache;
+	private BoundedCache<OpCacheKey, CachedFunction> addCache;
 	/** cache for multiplications (and indirectly divisions) */	
-	private HashMap<OpCacheKey, CachedFunction> multCache;
+	private BoundedCache<OpCacheKey, CachedFunction> multCache;
 	/** cache for star operation */
-	private HashMap<CachedFunction, CachedFunction> starCache;
+	private BoundedCache<CachedFunction, CachedFunction> starCache;
 	
 	/**
 	 * Constructs a new cached function factory.
@@ -115,19 +186,41 @@ final class CachedFunctionFactory extends FunctionFactory {
 	 * @param context function factory to cache functions of
 	 */
 	public CachedFunctionFactory(FunctionFactory context) {
+		this(context, DEFAULT_MAX_CACHE_SIZE);
+	}
+
+	/**
+	 * Constructs a new cached function factory.
+	 * Will cache functions of the given {@code context}, keeping at most
+	 * {@code maxCacheSize} entries in each of its caches.
+	 * 
+	 * @param context function factory to cache functions of
+	 * @param maxCacheSize maximal number of entries per cache (0 for no bound)
+	 */
+	public CachedFunctionFactory(FunctionFactory context, int maxCacheSize) {
 		super(context.parameterNames, context.lowerBounds, context.upperBounds);
 		this.context = context;
-		functionToNumber = new HashMap<Function, Integer>();
-		cachedFunctions = new ArrayList<CachedFunction>();
-		functions = new ArrayList<Function>();
+		functionCache = new BoundedCache<Function, CachedFunction>(maxCacheSize);
 		nextFunctionNumber = 0;
 		one = makeUnique(context.getOne());
 		zero = makeUnique(context.getZero());
-		addCache = new HashMap<OpCacheKey, CachedFunction>();
-		multCache = new HashMap<OpCacheKey, CachedFunction>();
-		starCache = new HashMap<CachedFunction, CachedFunction>();
+		addCache = new BoundedCache<OpCacheKey, CachedFunction>(maxCacheSize);
+		multCache = new BoundedCache<OpCacheKey, CachedFunction>(maxCacheSize);
+		starCache = new BoundedCache<CachedFunction, CachedFunction>(maxCacheSize);
 		useOpCache = true;
 	}
+
+	/**
+	 * Returns a summary of the size and hit rates of the caches.
+	 */
+	String getCacheStatistics()
+	{
+		String stats = "functions: " + functionCache;
+		if (useOpCache) {
+			stats += "; add: " + addCache + "; multiply: " + multCache + "; star: " + starCache;
+		}
+		return stats;
+	}
 	
 	/**
 	 * Returns whether operations cache is used.
@@ -140,38 +233,24 @@ final class CachedFunctionFactory extends FunctionFactory {
 	}
 	
 	/**
-	 * Returns the unique integer representing the given function.
+	 * Returns the unique cached function representing the given function.
 	 * In case the function already exists in the function cache, returns
-	 * the assigned integer. Otherwise, inserts function in the cache and
-	 * returns the newly assigned integer.
+	 * the existing representative. Otherwise, inserts function in the cache
+	 * with a newly assigned number and returns it.
 	 * 
-	 * @param function function to return unique integer of
-	 * @return unique integer representing function
+	 * @param function function to return unique representative of
+	 * @return unique cached function representing function
 	 */
 	private CachedFunction makeUnique(Function function)
 	{
-		Integer number = functionToNumber.get(function);
-		if (number != null) {
-			return cachedFunctions.get(number);
-		} else {
-			CachedFunction cachedFunction = new CachedFunction(this, nextFunctionNumber);
-			functionToNumber.put(function, nextFunctionNumber);
-			cachedFunctions.add(cachedFunction);
-			functions.add(function);
-			nextFunctionNumber++;
+		CachedFunction cachedFunction = functionCache.lookup(function);
+		if (cachedFunction != null) {
 			return cachedFunction;
 		}
-	}
-	
-	/**
-	 * Returns integer with the given unique number.
-	 * 
-	 * @param number number of function to return
-	 * @return function with the given number
-	 */
-	Function getFunction(int number)
-	{
-		return functions.get(number);
+		cachedFunction = new CachedFunction(this, nextFunctionNumber, function);
+		nextFunctionNumber++;
+		functionCache.put(function, cachedFunction);
+		return cachedFunction;
 	}
 	
 	@Override
@@ -188,7 +267,7 @@ final class CachedFunctionFactory extends FunctionFactory {
 
 	private Function getFunctionFromCache(Function cached)
 	{
-		return functions.get(((CachedFunction) cached).getNumber());
+		return ((CachedFunction) cached).getFunction();
 	}
 	
 	Function add(Function cached1, Function cached2)
@@ -197,7 +276,7 @@ final class CachedFunctionFactory extends FunctionFactory {
 		OpCacheKey opCacheKey = null;
 		if (useOpCache) {
 			opCacheKey = new OpCacheKey((CachedFunction) cached1, (CachedFunction) cached2);
-			result = addCache.get(opCacheKey);
+			result = addCache.lookup(opCacheKey);
 			if (result != null) {
 				return result;
 			}
@@ -223,7 +302,7 @@ final class CachedFunctionFactory extends FunctionFactory {
 		OpCacheKey opCacheKey = null;
 		if (useOpCache) {
 			opCacheKey = new OpCacheKey((CachedFunction) cached1, (CachedFunction) cached2);
-			result = multCache.get(opCacheKey);
+			result = multCache.lookup(opCacheKey);
 			if (result != null) {
 				return result;
 			}
@@ -247,7 +326,7 @@ final class CachedFunctionFactory extends FunctionFactory {
 	Function star(Function cached) {
 		Function result;
 		if (useOpCache) {
-			result = starCache.get(cached);
+			result = starCache.lookup((CachedFunction) cached);
 			if (result != null) {
 				return result;
 			}
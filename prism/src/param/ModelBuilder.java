@@ -62,6 +62,8 @@ public final class ModelBuilder extends PrismComponent
 	private String functionType;
 	/** maximal error probability of DAG function representation */
 	private double dagMaxError;
+	/** maximal number of entries per cache of cached function representation */
+	private int functionCacheSize = CachedFunctionFactory.DEFAULT_MAX_CACHE_SIZE;
 
 	/** local storage made static for use in anonymous class */
 	private static Map<String,Expression> constExprs;
@@ -77,6 +79,7 @@ public final class ModelBuilder extends PrismComponent
 		if (settings != null) {
 			functionType = settings.getString(PrismSettings.PRISM_PARAM_FUNCTION);
 			dagMaxError = settings.getDouble(PrismSettings.PRISM_PARAM_DAG_MAX_ERROR);
+			functionCacheSize = settings.getInteger(PrismSettings.PRISM_PARAM_FUNCTION_CACHE_SIZE);
 		}
 	}
 	
@@ -103,7 +106,7 @@ public final class ModelBuilder extends PrismComponent
 		if (functionType.equals("JAS")) {
 			functionFactory = new JasFunctionFactory(paramNames, lower, upper);
 		} else if (functionType.equals("JAS-cached")) {
-			functionFactory = new CachedFunctionFactory(new JasFunctionFactory(paramNames, lower, upper));
+			functionFactory = new CachedFunctionFactory(new JasFunctionFactory(paramNames, lower, upper), functionCacheSize);
 		} else if (functionType.equals("DAG")) {
 			functionFactory = new DagFunctionFactory(paramNames, lower, upper, dagMaxError, false);
 		}
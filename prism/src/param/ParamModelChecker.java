@@ -174,6 +174,10 @@ final public class ParamModelChecker extends PrismComponent
 			eliminationOrder = EliminationOrder.BACKWARD_REVERSED;
 		} else if (eliminationOrderString.equals("Random")) {
 			eliminationOrder = EliminationOrder.RANDOM;
+		} else if (eliminationOrderString.equals("Min-degree")) {
+			eliminationOrder = EliminationOrder.MIN_DEGREE;
+		} else if (eliminationOrderString.equals("Min-fill")) {
+			eliminationOrder = EliminationOrder.MIN_FILL;
 		} else {
 			throw new PrismException("unknown state elimination order " + eliminationOrderString);				
 		}
@@ -253,6 +257,9 @@ final public class ParamModelChecker extends PrismComponent
 		RegionValues vals = checkExpression(paramModel, expr, needStates);
 		timer = System.currentTimeMillis() - timer;
 		mainLog.println("\nTime for model checking: " + timer / 1000.0 + " seconds.");
+		if (functionFactory instanceof CachedFunctionFactory) {
+			mainLog.println("Function cache statistics: " + ((CachedFunctionFactory) functionFactory).getCacheStatistics());
+		}
 
 		if (constraintChecker.unsoundCheckWasUsed()) {
 			mainLog.printWarning("Computation of Boolean values / parameter regions used heuristic sampling, results are potentially inaccurate.");
@@ -31,21 +31,41 @@ import java.util.List;
 import java.util.PriorityQueue;
 
 /**
+ * Queue of regions still to be analysed, largest regions first.
+ * Regions of equal volume are returned in the order they were added,
+ * so that the order of analysis is deterministic.
+ * 
  * @author Ernst Moritz Hahn <emhahn@cs.ox.ac.uk> (University of Oxford)
  */
 final class RegionsTODO {
-	class RegionsByVolumeComparator implements Comparator<Region> {
+	/**
+	 * Region together with the position at which it was added to the queue.
+	 */
+	private static class Entry {
+		final Region region;
+		final long number;
+
+		Entry(Region region, long number) {
+			this.region = region;
+			this.number = number;
+		}
+	}
+
+	class RegionsByVolumeComparator implements Comparator<Entry> {
 
 		@Override
-		public int compare(Region reg1, Region reg2) {
-			return reg1.volume().compareTo(reg2.volume()) * -1;
+		public int compare(Entry entry1, Entry entry2) {
+			int cmp = entry1.region.volume().compareTo(entry2.region.volume()) * -1;
+			return cmp != 0 ? cmp : Long.compare(entry1.number, entry2.number);
 		}
 	}
 
-	private PriorityQueue<Region> regions;
+	private PriorityQueue<Entry> regions;
+	private long numAdded;
 
 	public RegionsTODO() {
-		regions = new PriorityQueue<Region>(11, new RegionsByVolumeComparator());
+		regions = new PriorityQueue<Entry>(11, new RegionsByVolumeComparator());
+		numAdded = 0;
 	}
 	
 	int size() {
@@ -59,17 +79,19 @@ final class RegionsTODO {
 
 	void add(Region e)
 	{
-		regions.add(e);
+		regions.add(new Entry(e, numAdded++));
 	}
 	
 	void addAll(List<Region> newRegions)
 	{
-		regions.addAll(newRegions);
+		for (Region region : newRegions) {
+			add(region);
+		}
 	}
 
 	Region poll()
 	{
-		Region result = regions.poll();
-		return result;
+		Entry result = regions.poll();
+		return result == null ? null : result.region;
 	}
 }
@@ -32,6 +32,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.PriorityQueue;
 
 /**
  * Performs computation of reachability probabilities and rewards.
@@ -62,7 +63,11 @@ final class StateEliminator {
 		/** states close to target states last */
 		BACKWARD_REVERSED,
 		/** random */
-		RANDOM;	
+		RANDOM,
+		/** states with fewest incoming plus outgoing transitions first (updated as states are eliminated) */
+		MIN_DEGREE,
+		/** states with fewest incoming times outgoing transitions (estimated fill-in) first (updated as states are eliminated) */
+		MIN_FILL;
 	}
 	
 	/** the mutable parametric Markov chain to compute values of */
@@ -284,6 +289,10 @@ final class StateEliminator {
 				states[state] = statesList.get(state);
 			}
 			break;
+		case MIN_DEGREE:
+		case MIN_FILL:
+			eliminateByCost();
+			return;
 		default:
 			throw new RuntimeException("unknown state elimination order");
 		}
@@ -293,6 +302,57 @@ final class StateEliminator {
 		}
 	}
 
+	/**
+	 * Returns the estimated cost of eliminating a given state, according
+	 * to the (cost-driven) elimination order. This is computed from the
+	 * current numbers of incoming and outgoing transitions of the state.
+	 * 
+	 * @param state state to compute elimination cost of
+	 * @return estimated elimination cost
+	 */
+	private long eliminationCost(int state)
+	{
+		long numIn = pmc.incoming.get(state).size();
+		long numOut = pmc.transitionTargets.get(state).size();
+		long cost = (eliminationOrder == EliminationOrder.MIN_DEGREE) ? numIn + numOut : numIn * numOut;
+		return Math.min(cost, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Eliminates all states, cheapest first according to {@code eliminationCost}.
+	 * Costs are recomputed for the neighbours (predecessors and successors)
+	 * of each eliminated state.
+	 */
+	private void eliminateByCost()
+	{
+		int numStates = pmc.getNumStates();
+		/* queue entries are (cost << 32 | state); entries whose cost is
+		 * out of date, or whose state is already eliminated, are skipped */
+		PriorityQueue<Long> queue = new PriorityQueue<Long>(Math.max(1, numStates));
+		for (int state = 0; state < numStates; state++) {
+			queue.add((eliminationCost(state) << 32) | state);
+		}
+		BitSet eliminated = new BitSet(numStates);
+		HashSet<Integer> neighbours = new HashSet<Integer>();
+		while (!queue.isEmpty()) {
+			long entry = queue.poll();
+			int state = (int) entry;
+			if (eliminated.get(state) || (entry >>> 32) != eliminationCost(state)) {
+				continue;
+			}
+			neighbours.clear();
+			neighbours.addAll(pmc.incoming.get(state));
+			neighbours.addAll(pmc.transitionTargets.get(state));
+			eliminate(state);
+			eliminated.set(state);
+			for (int neighbour : neighbours) {
+				if (!eliminated.get(neighbour)) {
+					queue.add((eliminationCost(neighbour) << 32) | neighbour);
+				}
+			}
+		}
+	}
+
 	/**
 	 * Stores a transition which shall be added to the model later.
 	 */
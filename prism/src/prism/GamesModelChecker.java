@@ -29,9 +29,11 @@ package prism;
 
 import java.util.List;
 
+import dv.DoubleVector;
 import explicit.MinMax;
 import jdd.JDD;
 import jdd.JDDNode;
+import jdd.JDDProgram;
 import jdd.JDDVars;
 import parser.ast.Coalition;
 import parser.ast.Expression;
@@ -45,6 +47,7 @@ import parser.ast.PropertiesFile;
 import parser.type.TypeBool;
 import parser.type.TypePathBool;
 import parser.type.TypePathDouble;
+import sparse.PrismSparse;
 
 public class GamesModelChecker extends NonProbModelChecker
 {
@@ -91,6 +94,12 @@ public class GamesModelChecker extends NonProbModelChecker
 		prob0 = prism.getProb0();
 		prob1 = prism.getProb1();
 		maxIters = prism.getMaxIters();
+
+		// Pass some options onto native code (used by the sparse engine).
+		PrismNative.setCompact(prism.getCompact());
+		PrismNative.setTermCrit(prism.getTermCrit());
+		PrismNative.setTermCritParam(prism.getTermCritParam());
+		PrismNative.setMaxIters(prism.getMaxIters());
 	}
 
 	// Model checking functions
@@ -838,9 +847,20 @@ public class GamesModelChecker extends NonProbModelChecker
 		else {
 			// Compute probabilities
 			mainLog.println("\nComputing probabilities...");
+			int engine = getGameEngine();
 			mainLog.println("Engine: " + Prism.getEngineString(engine));
-			sol = computeReachProbsValIter(yes, maybe, k, min1, min2);
-			result = new StateValuesMTBDD(sol, model);
+			if (engine == Prism.SPARSE) {
+				JDDNode player1 = computePlayer1States();
+				try {
+					DoubleVector probsDV = PrismSparse.GameBoundedUntil(trans, odd, allDDRowVars, allDDColVars, allDDNondetVars, yes, maybe, player1, k, min1, min2);
+					result = new StateValuesDV(probsDV, model);
+				} finally {
+					JDD.Deref(player1);
+				}
+			} else {
+				sol = computeReachProbsValIter(yes, maybe, k, min1, min2);
+				result = new StateValuesMTBDD(sol, model);
+			}
 		}
 
 		// Derefs
@@ -914,10 +934,21 @@ public class GamesModelChecker extends NonProbModelChecker
 		else {
 			// Compute probabilities
 			mainLog.println("\nComputing probabilities...");
+			int engine = getGameEngine();
 			mainLog.println("Engine: " + Prism.getEngineString(engine));
 			try {
-				sol = computeReachProbsValIter(yes, maybe, -1, min1, min2);
-				result = new StateValuesMTBDD(sol, model);
+				if (engine == Prism.SPARSE) {
+					JDDNode player1 = computePlayer1States();
+					try {
+						DoubleVector probsDV = PrismSparse.GameUntil(trans, odd, allDDRowVars, allDDColVars, allDDNondetVars, yes, maybe, player1, min1, min2);
+						result = new StateValuesDV(probsDV, model);
+					} finally {
+						JDD.Deref(player1);
+					}
+				} else {
+					sol = computeReachProbsValIter(yes, maybe, -1, min1, min2);
+					result = new StateValuesMTBDD(sol, model);
+				}
 			} catch (PrismException e) {
 				JDD.Deref(no);
 				JDD.Deref(yes);
@@ -941,7 +972,7 @@ public class GamesModelChecker extends NonProbModelChecker
 	 */
 	protected JDDNode computeReachProbsValIter(JDDNode yes, JDDNode maybe, int k, boolean min1, boolean min2) throws PrismException
 	{
-		JDDNode sol, tmp, tr;
+		JDDNode sol, tr;
 		long timer;
 		int iters;
 		boolean done = false;
@@ -953,20 +984,26 @@ public class GamesModelChecker extends NonProbModelChecker
 		// Prepare DDs for transition function
 		tr = JDD.Times(trans.copy(), maybe.copy());
 
+		// Record a single iteration as a DD program (executed with one native call)
+		JDDProgram iteration = new JDDProgram();
+		int rSol = iteration.input();
+		int rOld = iteration.copy(rSol);
+		// Matrix multiply: trans * target
+		int r = iteration.matrixMultiply(iteration.constant(tr), iteration.permuteVariables(rSol, allDDRowVars, allDDColVars), allDDColVars, JDD.CMU);
+		// Max (P1) and min (P2)
+		r = computeMaxMin(iteration, r, null, min1, min2);
+		// Yes states
+		r = iteration.apply(JDD.MAX, r, iteration.constant(yes));
+		// Check convergence
+		int fConverged = iteration.equalSupNorm(r, rOld, termCritParam);
+		iteration.output(r);
+
 		// Value iteration loop
 		sol = yes.copy();
 		iters = 0;
 		while (!done) {
-			tmp = sol.copy();
-			// Matrix multiply: trans * target
-			sol = JDD.MatrixMultiply(tr.copy(), JDD.PermuteVariables(sol, allDDRowVars, allDDColVars), allDDColVars, JDD.CMU);
-			// Max (P1) and min (P2)
-			sol = computeMaxMin(sol, min1, min2);
-			// Yes states
-			sol = JDD.Max(sol, yes.copy());
-			// Check convergence
-			done = JDD.EqualSupNorm(sol, tmp, termCritParam);
-			JDD.Deref(tmp);
+			sol = iteration.run(sol)[0];
+			done = iteration.getFlag(fConverged);
 			iters++;
 			if (iters == maxIters) {
 				break;
@@ -1077,6 +1114,7 @@ public class GamesModelChecker extends NonProbModelChecker
 		JDDNode target, inf, init, res;
 
 		mainLog.println("\nStarting expected reachability...");
+		int engine = getGameEngine();
 		mainLog.println("Engine: " + Prism.getEngineString(engine));
 
 		target = checkExpressionDD(expr.getOperand2(), model.getReach().copy());
@@ -1121,6 +1159,30 @@ public class GamesModelChecker extends NonProbModelChecker
 		JDD.Ref(target);
 		sttRewardsMod = JDD.Times(JDD.Plus(sttRewardsMod, strw), reach, JDD.Not(target), JDD.Not(inf.copy())); // This probably can and should be simplified
 
+		if (engine == Prism.SPARSE) {
+			JDDNode maybe = JDD.And(reach.copy(), JDD.Not(JDD.Or(inf.copy(), target.copy())));
+			JDDNode player1 = computePlayer1States();
+			DoubleVector initDV = null;
+			try {
+				mainLog.println("Computing the upper bound where " + epsilon + " is used instead of 0.0.");
+				initDV = PrismSparse.GameReachReward(trans, sttRewardsMod, actRewardsMod, odd, allDDRowVars, allDDColVars, allDDNondetVars, target, inf, maybe, player1, min1, min2, null);
+				DoubleVector rewardsDV = PrismSparse.GameReachReward(trans, strw, trrw, odd, allDDRowVars, allDDColVars, allDDNondetVars, target, inf, maybe, player1, min1, min2, initDV);
+				result = new StateValuesDV(rewardsDV, model);
+			} finally {
+				if (initDV != null) {
+					initDV.clear();
+				}
+				setCoalition(null);
+				JDD.Deref(maybe);
+				JDD.Deref(player1);
+				JDD.Deref(inf);
+				JDD.Deref(target);
+				JDD.Deref(sttRewardsMod);
+				JDD.Deref(actRewardsMod);
+			}
+			return result;
+		}
+
 		init = null;
 		try {
 			mainLog.println("Computing the upper bound where " + epsilon + " is used instead of 0.0.");
@@ -1165,7 +1227,7 @@ public class GamesModelChecker extends NonProbModelChecker
 	protected JDDNode computeReachRewardsValIter(JDDNode init, JDDNode inf, JDDNode target, JDDNode strw, JDDNode trrw, int k, boolean min1, boolean min2)
 			throws PrismException
 	{
-		JDDNode nondetmaskrew, sol, tmp, tr, sr, trr;
+		JDDNode nondetmaskrew, plusInf, sol, tmp, tr, sr, trr;
 		long timer;
 		int iters;
 		boolean done = false;
@@ -1213,8 +1275,25 @@ public class GamesModelChecker extends NonProbModelChecker
 		iters = 0;
 
 		nondetmaskrew = JDD.ITE(nondetMask.copy(), JDD.PlusInfinity(), JDD.Constant(0));
-
-		tmp = null;
+		plusInf = JDD.PlusInfinity();
+
+		// Record a single iteration as a DD program (executed with one native call)
+		JDDProgram iteration = new JDDProgram();
+		int rSol = iteration.input();
+		int rOld = iteration.input();
+		// Matrix multiply: trans * target; add transition rewards
+		int r = iteration.matrixMultiply(iteration.constant(tr), rSol, allDDColVars, JDD.CMU);
+		r = iteration.apply(JDD.PLUS, r, iteration.constant(trr));
+		// Max (P1) and min (P2)
+		r = computeMaxMin(iteration, r, nondetmaskrew, min1, min2);
+		// Add state rewards
+		r = iteration.apply(JDD.PLUS, r, iteration.constant(sr));
+		if (inf != null) {
+			r = iteration.ite(iteration.constant(inf), iteration.constant(plusInf), r);
+		}
+		r = iteration.swapVariables(r, allDDRowVars, allDDColVars);
+		int fConverged = iteration.equalSupNorm(r, rOld, termCritParam);
+		iteration.output(r);
 
 		if (k == 0) {
 			done = true;
@@ -1222,22 +1301,8 @@ public class GamesModelChecker extends NonProbModelChecker
 		while (!done) {
 
 			tmp = (iters != 0) ? sol.copy() : JDD.PlusInfinity();
-
-			// Matrix multiply: trans * target; add transition rewards
-			sol = JDD.MatrixMultiply(tr.copy(), sol, allDDColVars, JDD.CMU);
-			sol = JDD.Apply(JDD.PLUS, sol, trr.copy());
-			// Max (P1) and min (P2)
-			sol = computeMaxMin(sol, nondetmaskrew, min1, min2);
-			// Add state rewards
-			sol = JDD.Plus(sol, sr.copy());
-
-			if (inf != null) {
-				sol = JDD.ITE(inf.copy(), JDD.PlusInfinity(), sol);
-			}
-			sol = JDD.SwapVariables(sol, allDDRowVars, allDDColVars);
-			done = JDD.EqualSupNorm(sol, tmp, termCritParam);
-
-			JDD.Deref(tmp);
+			sol = iteration.run(sol, tmp)[0];
+			done = iteration.getFlag(fConverged);
 			iters++;
 
 			if (iters == maxIters) {
@@ -1269,6 +1334,7 @@ public class GamesModelChecker extends NonProbModelChecker
 			JDD.Deref(tr);
 			JDD.Deref(sol);
 			JDD.Deref(nondetmaskrew);
+			JDD.Deref(plusInf);
 			JDD.Deref(sr);
 			JDD.Deref(trr);
 			throw new PrismException("Could not converge after " + iters + " iterations.\nConsider increasing the maximum number of iterations");
@@ -1276,6 +1342,7 @@ public class GamesModelChecker extends NonProbModelChecker
 
 		JDD.Deref(tr);
 		JDD.Deref(nondetmaskrew);
+		JDD.Deref(plusInf);
 		JDD.Deref(sr);
 		JDD.Deref(trr);
 
@@ -1459,6 +1526,32 @@ public class GamesModelChecker extends NonProbModelChecker
 
 	// Auxiliary functions
 	
+	/**
+	 * Get the engine to use for numerical computation on games.
+	 * The sparse engine has native game kernels; the hybrid engine does not, so switches to sparse.
+	 */
+	protected int getGameEngine()
+	{
+		if (engine == Prism.HYBRID) {
+			mainLog.println("Switching engine since hybrid engine does yet support this computation...");
+			return Prism.SPARSE;
+		}
+		return engine;
+	}
+
+	/**
+	 * Compute the (reachable) states owned by player 1, i.e. those with a choice for a player in ddc1.
+	 * Since the game is turn-based, all other states with choices belong to player 2.
+	 * Requires the current coalition to have been set (see {@link #setCoalition(Coalition)}).
+	 * <br>[ REFS: <i>result</i>; DEREFS: <i>none</i> ]
+	 */
+	protected JDDNode computePlayer1States()
+	{
+		JDDNode player1 = JDD.And(trans01.copy(), ddc1.copy());
+		player1 = JDD.ThereExists(player1, allDDColVars);
+		return JDD.ThereExists(player1, allDDNondetVars);
+	}
+
 	/**
 	 * Set a coalition of players for the current SMG
 	 * (which effectively makes it an STPG with player 1 representing the coalition and 2 the rest).
@@ -1532,6 +1625,33 @@ public class GamesModelChecker extends NonProbModelChecker
 		return JDD.Apply(JDD.PLUS, res1, res2);
 	}
 
+	/**
+	 * Append to a DD program the min/max over actions done by {@link #computeMaxMin(JDDNode, JDDNode, boolean, boolean)}.
+	 * The mask (if non-null) must stay referenced while the program is used.
+	 * Returns the register holding the result; register {@code vals} is consumed.
+	 */
+	protected int computeMaxMin(JDDProgram prog, int vals, JDDNode mask, boolean min1, boolean min2)
+	{
+		// Min/max for player 1
+		int res1 = prog.apply(JDD.TIMES, prog.copy(vals), prog.constant(ddc1));
+		if (min1) {
+			res1 = prog.apply(JDD.MAX, res1, prog.constant(mask == null ? nondetMask : mask));
+			res1 = prog.minAbstract(res1, allDDNondetVars);
+		} else {
+			res1 = prog.maxAbstract(res1, allDDNondetVars);
+		}
+		// Min/max for player 2
+		int res2 = prog.apply(JDD.TIMES, vals, prog.constant(ddc2));
+		if (min2) {
+			res2 = prog.apply(JDD.MAX, res2, prog.constant(mask == null ? nondetMask : mask));
+			res2 = prog.minAbstract(res2, allDDNondetVars);
+		} else {
+			res2 = prog.maxAbstract(res2, allDDNondetVars);
+		}
+		// Combine/return
+		return prog.apply(JDD.PLUS, res1, res2);
+	}
+
 	/**
 	 * Perform the exists/forall over actions for a state-action set
 	 * (if exists1 is true, exists for player 1 and forall for player 2; otherwise reverse)
@@ -27,13 +27,20 @@
 package prism;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
+import common.Parallel;
 import common.iterable.Range;
 import dv.DoubleVector;
 import explicit.CTMC;
@@ -44,8 +51,11 @@ import explicit.DTMCModelChecker;
 import explicit.ExplicitFiles2Model;
 import explicit.FastAdaptiveUniformisation;
 import explicit.FastAdaptiveUniformisationModelChecker;
+import explicit.ModelCache;
 import explicit.ModelModelGenerator;
 import explicit.PartiallyObservableModel;
+import explicit.SubformulaCache;
+import explicit.TransientBatch;
 import hybrid.PrismHybrid;
 import jdd.JDD;
 import jdd.JDDNode;
@@ -285,6 +295,9 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 
 	// The last strategy that was generated
 	private Strategy<?> strategy = null;
+
+	// Property constant values for a sequence of model checking calls (e.g. an experiment), if any
+	private TransientBatch transientBatch = null;
 	
 	// Info for explicit files load
 	private File explicitFilesStatesFile = null;
@@ -623,6 +636,32 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		this.storeVector = storeVector;
 	}
 
+	/**
+	 * Specify that a property is about to be model checked for each of the values of
+	 * its undefined constants given by {@code undefinedConstants} (e.g. in an experiment).
+	 * Where supported (currently, time-bounded until for CTMCs in the explicit engine),
+	 * the results for all of these values are then computed in a single pass.
+	 * The iterator of {@code undefinedConstants} is left in its initial position.
+	 * Call {@link #clearPropertyConstantsBatch()} afterwards.
+	 */
+	public void setPropertyConstantsBatch(UndefinedConstants undefinedConstants)
+	{
+		List<Values> constantsList = new ArrayList<>();
+		for (int i = 0; i < undefinedConstants.getNumPropertyIterations(); i++) {
+			constantsList.add(undefinedConstants.getPFConstantValues());
+			undefinedConstants.iterateProperty();
+		}
+		transientBatch = new TransientBatch(constantsList, (long) settings.getInteger(PrismSettings.PRISM_TRANSIENT_BATCH_MAX_MEM) << 20);
+	}
+
+	/**
+	 * Discard any info passed in via {@link #setPropertyConstantsBatch(UndefinedConstants)}.
+	 */
+	public void clearPropertyConstantsBatch()
+	{
+		transientBatch = null;
+	}
+
 	/**
 	 * Specify whether or not a strategy should be generated during model checking.
 	 */
@@ -2005,7 +2044,9 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 			case SMG:
 			case STPG:
 			case CTMDP:
-				if (getCurrentEngine() == PrismEngine.SYMBOLIC && !(currentModelType == ModelType.SMG && getEngine() == MTBDD)) {
+				// (SMGs are also supported by the symbolic engines: MTBDD, sparse and hybrid,
+				// but not for all properties, so only stay with one if it was explicitly chosen)
+				if (getCurrentEngine() == PrismEngine.SYMBOLIC && !(currentModelType == ModelType.SMG && settings.isEngineChosen())) {
 					mainLog.println("\nSwitching to explicit engine, which supports " + currentModelType + "s...");
 					engineOld = getEngine();
 					engineSwitched = true;
@@ -2095,9 +2136,29 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 					} catch (PrismException e){
 						throw e.prepend("Explicit engine: ");
 					}
-					ConstructModel constructModel = new ConstructModel(this);
-					constructModel.setFixDeadlocks(getFixDeadlocks());
-					currentModelExpl = constructModel.constructModel(currentModelGenerator);
+					// If enabled, try the (disk-backed) model cache first
+					ModelCache modelCache = currentModelSource == ModelSource.PRISM_MODEL ? ModelCache.createFromSettings(this) : null;
+					if (modelCache != null && currentModelType.multiplePlayers()) {
+						mainLog.printWarning("Model cache does not support games; building the model without it.");
+						modelCache = null;
+					}
+					String modelCacheKey = null;
+					currentModelExpl = null;
+					if (modelCache != null) {
+						modelCacheKey = modelCache.computeKey(currentModulesFile, currentDefinedMFConstants);
+						currentModelExpl = modelCache.load(modelCacheKey, currentModelGenerator);
+						if (currentModelExpl != null) {
+							mainLog.println("\nLoaded model from cache file " + modelCache.getFile(modelCacheKey));
+						}
+					}
+					if (currentModelExpl == null) {
+						ConstructModel constructModel = new ConstructModel(this);
+						constructModel.setFixDeadlocks(getFixDeadlocks());
+						currentModelExpl = constructModel.constructModel(currentModelGenerator);
+						if (modelCache != null && modelCache.store(modelCacheKey, currentModelExpl)) {
+							mainLog.println("\nStored model in cache file " + modelCache.getFile(modelCacheKey));
+						}
+					}
 					currentModel = null;
 					currentModelBuildType = ModelBuildType.EXPLICIT;
 					break;
@@ -3229,6 +3290,129 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		return res;
 	}
 
+	/**
+	 * Perform model checking of several properties on the currently loaded model and return the results,
+	 * in the same order as the properties. If an error occurs for a property, its result is the exception.
+	 * With the explicit engine, the model is built once and then the properties are checked concurrently,
+	 * using up to {@code numThreads} threads (0 means all available processors), each with its own
+	 * model checker; results of subformulas common to several properties are only computed once.
+	 * Log output for each property is buffered and then printed in order.
+	 * Otherwise (or if {@code numThreads} is 1), the properties are checked one after another.
+	 * @param propertiesFile Parent property file of properties (for labels/constants/...)
+	 * @param props The properties to check
+	 * @param computePareto Compute Pareto sets?
+	 * @param numThreads Number of threads
+	 */
+	public Result[] modelCheckConcurrently(PropertiesFile propertiesFile, List<Property> props, boolean computePareto, int numThreads) throws PrismException
+	{
+		Result[] results = new Result[props.size()];
+		numThreads = Math.min(Parallel.resolveNumThreads(numThreads), props.size());
+		if (numThreads <= 1 || !canModelCheckConcurrently()) {
+			for (int i = 0; i < props.size(); i++) {
+				try {
+					results[i] = modelCheck(propertiesFile, props.get(i), computePareto);
+				} catch (PrismException e) {
+					results[i] = new Result(e);
+				}
+			}
+			return results;
+		}
+
+		// Build the model once, up front
+		buildModelIfRequired();
+		clearStrategy();
+		mainLog.println("\nChecking " + props.size() + " properties concurrently (" + numThreads + " threads)...");
+		SubformulaCache subformulaCache = new SubformulaCache(currentModelExpl);
+
+		// Check each property in a separate task, buffering its log output
+		ForkJoinPool pool = Parallel.getPool(numThreads);
+		List<Future<Result>> futures = new ArrayList<>(props.size());
+		ByteArrayOutputStream[] logs = new ByteArrayOutputStream[props.size()];
+		for (int i = 0; i < props.size(); i++) {
+			Property prop = props.get(i);
+			ByteArrayOutputStream buffer = logs[i] = new ByteArrayOutputStream();
+			futures.add(pool.submit(() -> {
+				PrismLog log = new PrismPrintStreamLog(new PrintStream(buffer, true, StandardCharsets.UTF_8));
+				try {
+					return modelCheckExplicit(propertiesFile, prop, computePareto, subformulaCache, log);
+				} catch (PrismException e) {
+					return new Result(e);
+				} finally {
+					log.flush();
+				}
+			}));
+		}
+
+		// Collect results (and log output) in order
+		for (int i = 0; i < props.size(); i++) {
+			try {
+				results[i] = futures.get(i).get();
+			} catch (InterruptedException | ExecutionException e) {
+				Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+				results[i] = new Result(new PrismException("Error checking property concurrently: " + cause));
+			}
+			mainLog.print(logs[i].toString(StandardCharsets.UTF_8));
+			mainLog.flush();
+			// If model checking generated a strategy, store it
+			if (results[i].getStrategy() != null) {
+				strategy = results[i].getStrategy();
+			}
+		}
+		if (subformulaCache.getNumHits() > 0) {
+			mainLog.println("\nSubformula results reused across properties: " + subformulaCache.getNumHits());
+		}
+		return results;
+	}
+
+	/**
+	 * Can properties be checked concurrently on the current model,
+	 * i.e. is it checked with the explicit engine and without any options that
+	 * need a different route or write to shared files/state (see {@link #modelCheck(PropertiesFile, Property, boolean)})?
+	 */
+	private boolean canModelCheckConcurrently() throws PrismException
+	{
+		if (getCurrentEngine() != PrismEngine.EXPLICIT || currentModelType.realTime()) {
+			return false;
+		}
+		if (settings.getBoolean(PrismSettings.PRISM_EXACT_ENABLED) || settings.getBoolean(PrismSettings.PRISM_EXPORT_ITERATIONS)) {
+			return false;
+		}
+		if (currentModelType == ModelType.CTMC && settings.getString(PrismSettings.PRISM_TRANSIENT_METHOD).equals("Fast adaptive uniformisation")) {
+			return false;
+		}
+		if (settings.getString(PrismSettings.PRISM_HEURISTIC).equals("Speed")) {
+			return false;
+		}
+		return !(genStrat || exportTarget || exportProductTrans || exportProductStates || exportProductVector);
+	}
+
+	/**
+	 * Check a property on the (already built) explicit model with a new model checker,
+	 * sending log output to {@code log} and sharing subformula results via {@code subformulaCache}.
+	 * Used by {@link #modelCheckConcurrently(PropertiesFile, List, boolean, int)}, so must not modify any state of this object.
+	 */
+	private Result modelCheckExplicit(PropertiesFile propertiesFile, Property prop, boolean computePareto, SubformulaCache subformulaCache, PrismLog log) throws PrismException
+	{
+		Values definedPFConstants = propertiesFile.getConstantValues();
+		log.printSeparator();
+		log.println("\nModel checking: " + prop);
+		if (currentDefinedMFConstants != null && currentDefinedMFConstants.getNumValues() > 0)
+			log.println("Model constants: " + currentDefinedMFConstants);
+		if (definedPFConstants != null && definedPFConstants.getNumValues() > 0)
+			log.println("Property constants: " + definedPFConstants);
+
+		// Check that property is valid for the current model type
+		prop.getExpression().checkValid(currentModelType);
+
+		// Resolve property references in the property, then do model checking
+		Expression e = (Expression) prop.getExpression().expandPropRefsAndLabels(propertiesFile, null);
+		explicit.StateModelChecker mc = createModelCheckerExplicit(propertiesFile);
+		mc.setLog(log);
+		mc.setComputeParetoSet(computePareto);
+		mc.setSubformulaCache(subformulaCache);
+		return mc.check(currentModelExpl, e);
+	}
+
 	/**
 	 * Perform model checking of a property on the currently loaded PTA PRISM model and return result.
 	 * @param propertiesFile Parent property file of property (for labels/constants/...)
@@ -3640,9 +3824,14 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		mainLog.println(getDestinationStringForFile(file));
 
 		// Export to file (or use main log)
+		// (file output is buffered, since exports print many small items)
 		PrismLog tmpLog = getPrismLogForFile(file);
+		if (file != null) {
+			tmpLog = new PrismBufferedLog(tmpLog);
+		}
 		exportOptions = exportOptions.clone();
 		exportOptions.setModelPrecision(settings.getInteger(PrismSettings.PRISM_EXPORT_MODEL_PRECISION));
+		exportOptions.setNumThreads(Parallel.resolveNumThreads(settings.getInteger(PrismSettings.PRISM_NUM_THREADS)));
 		strat.export(tmpLog, exportOptions);
 		if (file != null) {
 			tmpLog.close();
@@ -3924,6 +4113,15 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		if (exportType == EXPORT_ROWS)
 			exportType = EXPORT_PLAIN; // rows format does not apply to states output
 
+		// For the explicit engine, (batches of) CTMC time points are computed in a single pass
+		explicit.StateValues probsExplBatch[] = null;
+		int batchStart = 0;
+		List<Values> timesList = new ArrayList<>();
+		for (i = 0; i < times.getNumPropertyIterations(); i++) {
+			timesList.add(times.getPFConstantValues());
+			times.iterateProperty();
+		}
+
 		// Step through required time points
 		for (i = 0; i < times.getNumPropertyIterations(); i++) {
 
@@ -3985,7 +4183,18 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 						initDistExpl = mc.readDistributionFromFile(fileIn, currentModelExpl);
 						initTimeDouble = 0;
 					}
-					probsExpl = mc.doTransient((CTMC<Double>) currentModelExpl, timeDouble - initTimeDouble, initDistExpl);
+					// Compute the next batch of time points, relative to the last one computed
+					if (probsExplBatch == null || i - batchStart >= probsExplBatch.length) {
+						long batchMaxMem = (long) settings.getInteger(PrismSettings.PRISM_TRANSIENT_BATCH_MAX_MEM) << 20;
+						int batchSize = Math.min(timesList.size() - i, TransientBatch.getMaxBatchSize(currentModelExpl.getNumStates(), batchMaxMem));
+						double batchTimes[] = new double[batchSize];
+						for (int j = 0; j < batchSize; j++) {
+							batchTimes[j] = ((Double) timesList.get(i + j).getValue(0)).doubleValue() - initTimeDouble;
+						}
+						probsExplBatch = mc.doTransient((CTMC<Double>) currentModelExpl, batchTimes, initDistExpl);
+						batchStart = i;
+					}
+					probsExpl = probsExplBatch[i - batchStart];
 				} else {
 					DTMCModelChecker mc = new DTMCModelChecker(this);
 					if (i == 0) {
@@ -4177,6 +4386,9 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		mc.setGenStrat(genStrat);
 		mc.setRestrictStratToReach(restrictStratToReach);
 		mc.setDoBisim(doBisim);
+		if (mc instanceof CTMCModelChecker) {
+			((CTMCModelChecker) mc).setTransientBatch(transientBatch);
+		}
 
 		return mc;
 	}
@@ -0,0 +1,178 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package prism;
+
+/**
+ * PrismLog that buffers output to another log, passing it on in large blocks.
+ * This is useful for exports which print many small items to a {@link PrismFileLog},
+ * where each call otherwise goes through native code.
+ * The buffer is flushed before the file pointer is handed out (for native output).
+ */
+public class PrismBufferedLog extends PrismLog
+{
+	/** Default buffer size (in characters) */
+	public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+	/** Underlying log */
+	protected PrismLog log;
+	/** Buffered output */
+	protected StringBuilder buffer;
+	/** Size at which the buffer is passed on */
+	protected int bufferSize;
+
+	/**
+	 * Create a log buffering output to {@code log}.
+	 */
+	public PrismBufferedLog(PrismLog log)
+	{
+		this(log, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Create a log buffering output to {@code log}, passing it on in blocks of {@code bufferSize} characters.
+	 */
+	public PrismBufferedLog(PrismLog log, int bufferSize)
+	{
+		this.log = log;
+		this.bufferSize = bufferSize;
+		buffer = new StringBuilder(bufferSize + 256);
+	}
+
+	/**
+	 * Pass any buffered output on to the underlying log.
+	 */
+	protected void flushBuffer()
+	{
+		if (buffer.length() > 0) {
+			log.print(buffer.toString());
+			buffer.setLength(0);
+		}
+	}
+
+	private void checkBuffer()
+	{
+		if (buffer.length() >= bufferSize) {
+			flushBuffer();
+		}
+	}
+
+	@Override
+	public boolean ready()
+	{
+		return log.ready();
+	}
+
+	@Override
+	public long getFilePointer()
+	{
+		flushBuffer();
+		return log.getFilePointer();
+	}
+
+	@Override
+	public void flush()
+	{
+		flushBuffer();
+		log.flush();
+	}
+
+	@Override
+	public void close()
+	{
+		flushBuffer();
+		log.close();
+	}
+
+	// Basic print methods
+
+	@Override
+	public void print(boolean b)
+	{
+		buffer.append(b);
+		checkBuffer();
+	}
+
+	@Override
+	public void print(char c)
+	{
+		buffer.append(c);
+		checkBuffer();
+	}
+
+	@Override
+	public void print(double d)
+	{
+		buffer.append(d);
+		checkBuffer();
+	}
+
+	@Override
+	public void print(float f)
+	{
+		buffer.append(f);
+		checkBuffer();
+	}
+
+	@Override
+	public void print(int i)
+	{
+		buffer.append(i);
+		checkBuffer();
+	}
+
+	@Override
+	public void print(long l)
+	{
+		buffer.append(l);
+		checkBuffer();
+	}
+
+	@Override
+	public void print(Object obj)
+	{
+		buffer.append(obj);
+		checkBuffer();
+	}
+
+	@Override
+	public void print(String s)
+	{
+		// Pass large strings straight on (e.g. chunks from StreamingExporter)
+		if (s != null && s.length() >= bufferSize) {
+			flushBuffer();
+			log.print(s);
+			return;
+		}
+		buffer.append(s);
+		checkBuffer();
+	}
+
+	@Override
+	public void println()
+	{
+		buffer.append('\n');
+		checkBuffer();
+	}
+}
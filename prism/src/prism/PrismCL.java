@@ -39,8 +39,10 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map.Entry;
 
+import common.Parallel;
 import common.StackTraceHelper;
 import csv.CsvFormatException;
+import parser.EvaluateContext;
 import parser.Values;
 import parser.ast.Expression;
 import parser.ast.ExpressionReward;
@@ -396,6 +398,9 @@ public class PrismCL implements PrismModelListener
 			if (modelBuildFail)
 				continue;
 
+			// If possible, check all properties concurrently first (results are processed in order below)
+			Result[] concurrentResults = checkPropertiesConcurrently();
+
 			// Work through list of properties to be checked
 			for (j = 0; j < numPropertiesToCheck; j++) {
 
@@ -415,7 +420,11 @@ public class PrismCL implements PrismModelListener
 					}
 				}
 				// otherwise, treat each case individually
+				// (but let the model checker know all values, so it can share work between them)
 				else {
+					if (!simulate && !param && undefinedConstants[j].getNumPropertyIterations() > 1) {
+						prism.setPropertyConstantsBatch(undefinedConstants[j]);
+					}
 					for (k = 0; k < undefinedConstants[j].getNumPropertyIterations(); k++) {
 
 						try {
@@ -424,8 +433,15 @@ public class PrismCL implements PrismModelListener
 								definedPFConstants = undefinedConstants[j].getPFConstantValues();
 								propertiesFile.setSomeUndefinedConstants(definedPFConstants, exactConstants);
 							}
+							// Result already computed concurrently
+							if (concurrentResults != null) {
+								res = concurrentResults[j];
+								if (res.getResult() instanceof PrismException) {
+									throw (PrismException) res.getResult();
+								}
+							}
 							// Normal model checking
-							if (!simulate && !param) {
+							else if (!simulate && !param) {
 							        res = prism.modelCheck(propertiesFile, propertiesToCheck.get(j), computePareto);
 							}
 							// Parametric model checking
@@ -493,18 +509,28 @@ public class PrismCL implements PrismModelListener
 						if (exportvector && res.getVector() != null) {
 							mainLog.print("\nExporting vector of results for all states ");
 							mainLog.println(exportVectorFilename.equals("stdout") ? "below:" : "to file \"" + exportVectorFilename + "\"...");
-							PrismFileLog tmpLog = new PrismFileLog(exportVectorFilename);
-							if (!tmpLog.ready()) {
-								errorAndExit("Couldn't open file \"" + exportVectorFilename + "\" for output");
-							}
 							boolean toStdout = exportVectorFilename.equals("stdout");
-							try {
-								res.getVector().print(tmpLog, false, false, toStdout, toStdout);
-							} catch (PrismException e) {
-								error(e.getMessage());
+							if (!toStdout && res.getVector() instanceof explicit.StateValues) {
+								// Explicit vectors are streamed (and can be exported in binary/compressed form)
+								try {
+									int numThreads = Parallel.resolveNumThreads(prism.getSettings().getInteger(PrismSettings.PRISM_NUM_THREADS));
+									((explicit.StateValues) res.getVector()).exportToFile(new File(exportVectorFilename), null, false, false, false, numThreads);
+								} catch (PrismException e) {
+									error(e.getMessage());
+								}
+							} else {
+								PrismFileLog tmpLog = new PrismFileLog(exportVectorFilename);
+								if (!tmpLog.ready()) {
+									errorAndExit("Couldn't open file \"" + exportVectorFilename + "\" for output");
+								}
+								try {
+									res.getVector().print(tmpLog, false, false, toStdout, toStdout);
+								} catch (PrismException e) {
+									error(e.getMessage());
+								}
+								tmpLog.close();
 							}
 							res.getVector().clear();
-							tmpLog.close();
 						}
 						
 						// if required, check result against expected value
@@ -515,6 +541,7 @@ public class PrismCL implements PrismModelListener
 						// iterate to next property
 						undefinedConstants[j].iterateProperty();
 					}
+					prism.clearPropertyConstantsBatch();
 				}
 
 				// in case of build failure during model checking, store as result for any further properties and continue
@@ -1026,6 +1053,36 @@ public class PrismCL implements PrismModelListener
 		}
 	}
 
+	/**
+	 * If enabled (-propthreads), and all properties are checked with normal model checking
+	 * for a single set of constant values, check them all concurrently on the current model.
+	 * Returns the results (in the order of the properties), or null if not applicable
+	 * or if something went wrong, e.g. building the model (which is reported as a warning),
+	 * in which case they should be checked one by one.
+	 */
+	private Result[] checkPropertiesConcurrently()
+	{
+		int numPropThreads = prism.getSettings().getInteger(PrismSettings.PRISM_PROPERTY_THREADS);
+		if (numPropThreads == 1 || numPropertiesToCheck < 2 || simulate || param || propertiesFile == null) {
+			return null;
+		}
+		Values allPFConstants = new Values();
+		for (int j = 0; j < numPropertiesToCheck; j++) {
+			if (undefinedConstants[j].getNumPropertyIterations() != 1) {
+				return null;
+			}
+			allPFConstants.setValues(undefinedConstants[j].getPFConstantValues());
+		}
+		try {
+			propertiesFile.setSomeUndefinedConstants(EvaluateContext.create(allPFConstants, exactConstants));
+			return prism.modelCheckConcurrently(propertiesFile, propertiesToCheck, computePareto, numPropThreads);
+		} catch (PrismException e) {
+			// Fall back to checking properties one by one (which will report any errors individually)
+			mainLog.printWarning("Could not check properties concurrently (" + e.getMessage() + "), so checking them one by one");
+			return null;
+		}
+	}
+
 	/**
 	 * Do steady-state probability computation (if required).
 	 */
@@ -2839,6 +2896,15 @@ public class PrismCL implements PrismModelListener
 			mainLog.println(" * dataframe - Export results as dataframe in comma-separated values)");
 			mainLog.println(" * comment - Export results in comment format for regression testing)");
 		}
+		// -exportvector
+		else if (sw.equals("exportvector")) {
+			mainLog.println("Switch: -exportvector <file>\n");
+			mainLog.println("Exports the results of model checking for all states to <file> (or to the screen if <file>=\"stdout\").");
+			mainLog.println("The default is a text file, with one value per line. For vectors computed by the explicit engine,");
+			mainLog.println("the format can also be switched by the file name:");
+			mainLog.println(" * <file> ending in .bin - export in binary form (header \"PRISMVEC\", type, size, then index/value pairs)");
+			mainLog.println(" * <file> ending in .gz - export gzip-compressed, e.g. out.txt.gz or out.bin.gz");
+		}
 		// -exportlabels
 		else if (sw.equals("exportlabels")) {
 			mainLog.println("Switch: -exportlabels <files[:options]>\n");
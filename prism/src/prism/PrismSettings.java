@@ -84,7 +84,16 @@ public class PrismSettings implements Observer
 	public static final	String PRISM_PROB0							= "prism.prob0";
 	public static final	String PRISM_PROB1							= "prism.prob1";
 	public static final	String PRISM_PRE_REL					= "prism.preRel";
+	public static final	String PRISM_NUM_THREADS					= "prism.numThreads";
+	public static final	String PRISM_PROPERTY_THREADS				= "prism.propertyThreads";
+	public static final	String PRISM_OFFHEAP_THRESHOLD				= "prism.offHeapThreshold";
+	public static final	String PRISM_OFFHEAP_DIR					= "prism.offHeapDir";
+	public static final	String PRISM_WORKSPACE_MAX_MEM				= "prism.workspaceMaxMem";
+	public static final	String PRISM_ADAPTIVE_VI					= "prism.adaptiveVI";
 	public static final	String PRISM_FIX_DEADLOCKS					= "prism.fixDeadlocks";
+	public static final	String PRISM_MODEL_CACHE_DIR				= "prism.modelCacheDir";
+	public static final	String PRISM_MODEL_CACHE_MAX_SIZE			= "prism.modelCacheMaxSize";
+	public static final	String PRISM_MODEL_CACHE_MAP				= "prism.modelCacheMap";
 	public static final	String PRISM_DO_PROB_CHECKS					= "prism.doProbChecks";
 	public static final	String PRISM_SUM_ROUND_OFF					= "prism.sumRoundOff";
 	public static final	String PRISM_COMPACT						= "prism.compact";
@@ -122,6 +131,7 @@ public class PrismSettings implements Observer
 	public static final	String PRISM_EXACT_ENABLED					= "prism.exact.enabled";
 	public static final String PRISM_PTA_METHOD					= "prism.ptaMethod";
 	public static final String PRISM_TRANSIENT_METHOD				= "prism.transientMethod";
+	public static final String PRISM_TRANSIENT_BATCH_MAX_MEM			= "prism.transientBatchMaxMem";
 	public static final String PRISM_SMT_SOLVER					= "prism.smtsolver";
 	public static final String PRISM_AR_OPTIONS					= "prism.arOptions";
 	public static final String PRISM_PATH_VIA_AUTOMATA				= "prism.pathViaAutomata";
@@ -158,6 +168,8 @@ public class PrismSettings implements Observer
 	
 	public static final String PRISM_LTL2DA_TOOL					= "prism.ltl2daTool";
 	public static final String PRISM_LTL2DA_SYNTAX					= "prism.ltl2daSyntax";
+	public static final String PRISM_LTL2DA_CACHE					= "prism.ltl2daCache";
+	public static final String PRISM_LTL2DA_CACHE_DIR				= "prism.ltl2daCacheDir";
 
 	public static final	String PRISM_JDD_SANITY_CHECKS					= "prism.ddsanity";
 
@@ -170,6 +182,7 @@ public class PrismSettings implements Observer
 	public static final	String PRISM_PARAM_RANDOM_POINTS			= "prism.param.randomPoints";
 	public static final	String PRISM_PARAM_SUBSUME_REGIONS			= "prism.param.subsumeRegions";
 	public static final String PRISM_PARAM_DAG_MAX_ERROR			= "prism.param.functionDagMaxError";
+	public static final String PRISM_PARAM_FUNCTION_CACHE_SIZE		= "prism.param.functionCacheSize";
 
 	public static final String PRISM_FAU_EPSILON					= "prism.fau.epsilon";
 	public static final String PRISM_FAU_DELTA						= "prism.fau.delta";
@@ -277,6 +290,8 @@ public class PrismSettings implements Observer
 																			"Which method to use for model checking of PTAs." },
 			{ CHOICE_TYPE,		PRISM_TRANSIENT_METHOD,					"Transient probability computation method",	"3.3",		"Uniformisation",															"Uniformisation,Fast adaptive uniformisation",																
 																			"Which method to use for computing transient probabilities in CTMCs." },
+			{ INTEGER_TYPE,		PRISM_TRANSIENT_BATCH_MAX_MEM,			"Transient batch memory limit (MB)",	"4.8",			Integer.valueOf(32),														"0,",
+																			"Maximum memory in megabytes used by the explicit engine to store CTMC transient probabilities computed in advance for several time points in one pass (0 means one time point at a time)." },
 			{ CHOICE_TYPE,		PRISM_SMT_SOLVER,						"SMT solver",	"4.5",		"Z3",															"Z3,Yices",																
 																			"Which external solver to use for SMT problems." },
 			// NUMERICAL SOLUTION OPTIONS:
@@ -294,6 +309,8 @@ public class PrismSettings implements Observer
 																	"Interval iteration options, a comma-separated list of the following:\n" + OptionsIntervalIteration.getOptionsDescription() },
 			{ CHOICE_TYPE,		PRISM_MDP_SOLN_METHOD,					"MDP solution method",				"4.0",			"Value iteration",																"Value iteration,Gauss-Seidel,Policy iteration,Modified policy iteration,Linear programming",
 																			"Which method to use when solving Markov decision processes." },
+			{ BOOLEAN_TYPE,		PRISM_ADAPTIVE_VI,						"Adaptive value iteration",				"4.8",			Boolean.valueOf(false),														"",
+																			"When value iteration for MDPs/STPGs converges slowly, switch to solving the current greedy strategy exactly and continue from its values." },
 			{ CHOICE_TYPE,		PRISM_MDP_MULTI_SOLN_METHOD,			"MDP multi-objective solution method",				"4.0.3",			"Value iteration",											"Value iteration,Gauss-Seidel,Linear programming",
 																			"Which method to use when solving multi-objective queries on Markov decision processes." },
 			{ CHOICE_TYPE,		PRISM_STPG_SOLN_METHOD,					"STPG solution method",				"4.7",			"Gauss-Seidel",																"Value iteration,Gauss-Seidel",
@@ -323,10 +340,26 @@ public class PrismSettings implements Observer
 																			"Whether to use model checking precomputation algorithm Prob1 (if precomputation enabled)." },
 			{ BOOLEAN_TYPE,		PRISM_PRE_REL,							"Use predecessor relation",		"4.2.1",		Boolean.valueOf(true),											"",
 																			"Whether to use a pre-computed predecessor relation in several algorithms." },
+			{ INTEGER_TYPE,		PRISM_NUM_THREADS,						"Number of threads",					"4.8",			Integer.valueOf(1),															"0,",
+																			"Number of threads to use for parallelised parts of the explicit engine (0 means use all available processors)." },
+			{ INTEGER_TYPE,		PRISM_PROPERTY_THREADS,					"Number of property threads",			"4.8",			Integer.valueOf(1),															"0,",
+																			"Number of properties checked concurrently on the same model by the explicit engine (1 means one after another; 0 means use all available processors)." },
+			{ INTEGER_TYPE,		PRISM_OFFHEAP_THRESHOLD,				"Off-heap vector threshold",			"4.8",			Integer.valueOf(100000000),													"0,",
+																			"Minimum number of states for which the explicit engine stores the second solution vector of (non-interval) value iteration off the Java heap (0 means never). The first vector stays on the heap, so this does not lift the limit of 2^31 states." },
+			{ STRING_TYPE,		PRISM_OFFHEAP_DIR,						"Off-heap vector directory",			"4.8",			"",																	"",
+																			"Directory for memory-mapped temporary files holding off-heap solution vectors (empty means use direct memory instead)." },
+			{ INTEGER_TYPE,		PRISM_WORKSPACE_MAX_MEM,				"Model workspace memory limit (MB)",	"4.8",			Integer.valueOf(-1),														"-1,",
+																			"Maximum memory in megabytes retained per model by the explicit engine for recycling solution vectors and memoising precomputations across properties (0 means disabled, -1 means scaled with the model size, up to a quarter of the Java heap)." },
 			{ BOOLEAN_TYPE,		PRISM_FAIRNESS,							"Use fairness",							"2.1",			Boolean.valueOf(false),															"",																							
 																			"Constrain to fair adversaries when model checking MDPs." },
 			{ BOOLEAN_TYPE,		PRISM_FIX_DEADLOCKS,					"Automatically fix deadlocks",			"4.0.3",		Boolean.valueOf(true),															"",																							
 																			"Automatically fix deadlocks, where necessary, when constructing probabilistic models." },
+			{ STRING_TYPE,		PRISM_MODEL_CACHE_DIR,					"Model cache directory",				"4.8",			"",																	"",
+																			"Directory in which models (other than games) built by the explicit engine are cached for reuse in later runs (empty means no caching)." },
+			{ INTEGER_TYPE,		PRISM_MODEL_CACHE_MAX_SIZE,				"Model cache size limit (MB)",			"4.8",			Integer.valueOf(1024),														"0,",
+																			"Maximum total size of the model cache in megabytes; least recently used models are deleted beyond this (0 means unbounded)." },
+			{ BOOLEAN_TYPE,		PRISM_MODEL_CACHE_MAP,					"Map cached models",					"4.8",			Boolean.valueOf(false),															"",
+																			"Access DTMCs and MDPs loaded from the model cache directly from the memory-mapped cache file, rather than copying them onto the Java heap." },
 			{ BOOLEAN_TYPE,		PRISM_DO_PROB_CHECKS,					"Do probability/rate checks",			"2.1",			Boolean.valueOf(true),															"",																							
 																			"Perform sanity checks on model probabilities/rates when constructing probabilistic models." },
 			{ DOUBLE_TYPE,		PRISM_SUM_ROUND_OFF,					"Probability sum threshold",					"2.1",			Double.valueOf(1.0E-5),													"0.0,",
@@ -415,6 +448,10 @@ public class PrismSettings implements Observer
 
 			{ CHOICE_TYPE,		PRISM_LTL2DA_SYNTAX,					"LTL syntax for external LTL->DA tool",		"4.2.1",			"LBT",		"LBT,Spin,Spot,Rabinizer",
 																			"The syntax for LTL formulas passed to the external LTL->DA tool."},
+			{ BOOLEAN_TYPE,		PRISM_LTL2DA_CACHE,						"Cache LTL->DA translations",		"4.8",			Boolean.valueOf(true),		"",
+																			"Reuse deterministic automata already constructed for the same LTL formula (after replacing state formulas with labels)."},
+			{ STRING_TYPE,		PRISM_LTL2DA_CACHE_DIR,					"LTL->DA cache directory",		"4.8",			"",		"",
+																			"If non-empty, also store cached LTL->DA translations (in HOA format) in this directory, for reuse across runs."},
 
 			// DEBUG / SANITY CHECK OPTIONS:
 			{ BOOLEAN_TYPE,		PRISM_JDD_SANITY_CHECKS,					"Do BDD sanity checks",			"4.3.1",			Boolean.valueOf(false),		"",
@@ -431,7 +468,7 @@ public class PrismSettings implements Observer
 																			"Type of bisimulation used to reduce model size during paramteric model checking. For reward-based properties, weak bisimulation cannot be used." },
 			{ CHOICE_TYPE,		PRISM_PARAM_FUNCTION,					"Parametric model checking function representation",				"4.1",			"JAS-cached",																"JAS-cached,JAS,DAG",
 																			"Type of representation for functions used during parametric model checking." },
-			{ CHOICE_TYPE,		PRISM_PARAM_ELIM_ORDER,					"Parametric model checking state elimination order",			"4.1",			"Backward",																		"Arbitrary,Forward,Forward-reversed,Backward,Backward-reversed,Random",
+			{ CHOICE_TYPE,		PRISM_PARAM_ELIM_ORDER,					"Parametric model checking state elimination order",			"4.1",			"Backward",																		"Arbitrary,Forward,Forward-reversed,Backward,Backward-reversed,Random,Min-degree,Min-fill",
 																			"Order in which states are eliminated during unbounded parametric model checking analysis." },
 			{ INTEGER_TYPE,		PRISM_PARAM_RANDOM_POINTS,				"Parametric model checking random evaluations",		"4.1",			Integer.valueOf(5),																"",
 																			"Number of random points to evaluate per region to increase chance of correctness during parametric model checking." },
@@ -439,6 +476,8 @@ public class PrismSettings implements Observer
 																			"Subsume adjacent regions during parametric model checking." },
 			{ DOUBLE_TYPE,		PRISM_PARAM_DAG_MAX_ERROR,				"Parametric model checking max. DAG error",	"4.1",			Double.valueOf(1E-100),															"",
 																			"Maximal error probability (i.e. maximum probability of of a wrong result) in DAG function representation used for parametric model checking." },
+			{ INTEGER_TYPE,		PRISM_PARAM_FUNCTION_CACHE_SIZE,		"Parametric model checking function cache size",	"4.8",			Integer.valueOf(1000000),															"0,",
+																			"Maximal number of entries in each of the function and operation caches of the cached JAS function representation (least recently used entries are evicted; 0 means unbounded)." },
 			
 			// FAST ADAPTIVE UNIFORMISATION																
 			{ DOUBLE_TYPE,      PRISM_FAU_EPSILON,						"FAU epsilon",		 					"4.1",   	 	Double.valueOf(1E-6),     													"",
@@ -523,6 +562,8 @@ public class PrismSettings implements Observer
 	public DefaultSettingOwner[] optionOwners;
 	private Hashtable<String,Setting> data;
 	private boolean modified;
+	/** Was the engine chosen by a command-line switch (rather than left as the default)? */
+	private boolean engineChosen = false;
 	
 	private ArrayList<PrismSettingsListener> settingsListeners;
 	
@@ -659,6 +700,7 @@ public class PrismSettings implements Observer
 		// (that way, we get a fresh set of Setting objects)
 		this();
 		// Then, copy across options
+		engineChosen = settings.engineChosen;
 		for (Map.Entry<String,Setting> e : settings.data.entrySet()) {
 			try {
 				set(e.getKey(), e.getValue().getValue());
@@ -1065,15 +1107,19 @@ public class PrismSettings implements Observer
 		// Main model checking engine
 		if (sw.equals("mtbdd") || sw.equals("m")) {
 			set(PRISM_ENGINE, "MTBDD");
+			engineChosen = true;
 		}
 		else if (sw.equals("sparse") || sw.equals("s")) {
 			set(PRISM_ENGINE, "Sparse");
+			engineChosen = true;
 		}
 		else if (sw.equals("hybrid") || sw.equals("h")) {
 			set(PRISM_ENGINE, "Hybrid");
+			engineChosen = true;
 		}
 		else if (sw.equals("explicit") || sw.equals("ex")) {
 			set(PRISM_ENGINE, "Explicit");
+			engineChosen = true;
 		}
 		// Exact model checking
 		else if (sw.equals("exact")) {
@@ -1109,6 +1155,20 @@ public class PrismSettings implements Observer
 				throw new PrismException("No parameter specified for -" + sw + " switch");
 			}
 		}
+		else if (sw.equals("transientbatchmem")) {
+			if (i < args.length - 1) {
+				try {
+					j = Integer.parseInt(args[++i]);
+					if (j < 0)
+						throw new NumberFormatException("");
+					set(PRISM_TRANSIENT_BATCH_MAX_MEM, j);
+				} catch (NumberFormatException e) {
+					throw new PrismException("Invalid value for -" + sw + " switch");
+				}
+			} else {
+				throw new PrismException("No value specified for -" + sw + " switch");
+			}
+		}
 		// Solvers
 		else if (sw.equals("smtsolver")) {
 			if (i < args.length - 1) {
@@ -1229,6 +1289,11 @@ public class PrismSettings implements Observer
 			set(PRISM_TOPOLOGICAL_VI, true);
 		}
 
+		// Adaptive VI (switch to policy evaluation on slow convergence)
+		else if (sw.equals("adaptivevi")) {
+			set(PRISM_ADAPTIVE_VI, true);
+		}
+
 		// Linear equation solver over-relaxation parameter
 		else if (sw.equals("omega")) {
 			if (i < args.length - 1) {
@@ -1334,6 +1399,73 @@ public class PrismSettings implements Observer
 		else if (sw.equals("noprerel")) {
 			set(PRISM_PRE_REL, false);
 		}
+		// Number of threads
+		else if (sw.equals("threads")) {
+			if (i < args.length - 1) {
+				try {
+					j = Integer.parseInt(args[++i]);
+					if (j < 0)
+						throw new NumberFormatException("");
+					set(PRISM_NUM_THREADS, j);
+				} catch (NumberFormatException e) {
+					throw new PrismException("Invalid value for -" + sw + " switch");
+				}
+			} else {
+				throw new PrismException("No value specified for -" + sw + " switch");
+			}
+		}
+		// Number of properties checked concurrently
+		else if (sw.equals("propthreads")) {
+			if (i < args.length - 1) {
+				try {
+					j = Integer.parseInt(args[++i]);
+					if (j < 0)
+						throw new NumberFormatException("");
+					set(PRISM_PROPERTY_THREADS, j);
+				} catch (NumberFormatException e) {
+					throw new PrismException("Invalid value for -" + sw + " switch");
+				}
+			} else {
+				throw new PrismException("No value specified for -" + sw + " switch");
+			}
+		}
+		// Off-heap solution vectors
+		else if (sw.equals("offheapthreshold")) {
+			if (i < args.length - 1) {
+				try {
+					j = Integer.parseInt(args[++i]);
+					if (j < 0)
+						throw new NumberFormatException("");
+					set(PRISM_OFFHEAP_THRESHOLD, j);
+				} catch (NumberFormatException e) {
+					throw new PrismException("Invalid value for -" + sw + " switch");
+				}
+			} else {
+				throw new PrismException("No value specified for -" + sw + " switch");
+			}
+		}
+		else if (sw.equals("offheapdir")) {
+			if (i < args.length - 1) {
+				set(PRISM_OFFHEAP_DIR, args[++i]);
+			} else {
+				throw new PrismException("No value specified for -" + sw + " switch");
+			}
+		}
+		// Model workspace
+		else if (sw.equals("workspacemem")) {
+			if (i < args.length - 1) {
+				try {
+					j = Integer.parseInt(args[++i]);
+					if (j < -1)
+						throw new NumberFormatException("");
+					set(PRISM_WORKSPACE_MAX_MEM, j);
+				} catch (NumberFormatException e) {
+					throw new PrismException("Invalid value for -" + sw + " switch");
+				}
+			} else {
+				throw new PrismException("No value specified for -" + sw + " switch");
+			}
+		}
 		// Fix deadlocks on/off
 		else if (sw.equals("fixdl")) {
 			set(PRISM_FIX_DEADLOCKS, true);
@@ -1341,6 +1473,31 @@ public class PrismSettings implements Observer
 		else if (sw.equals("nofixdl")) {
 			set(PRISM_FIX_DEADLOCKS, false);
 		}
+		// Model cache
+		else if (sw.equals("modelcache")) {
+			if (i < args.length - 1) {
+				set(PRISM_MODEL_CACHE_DIR, args[++i]);
+			} else {
+				throw new PrismException("No value specified for -" + sw + " switch");
+			}
+		}
+		else if (sw.equals("modelcachemap")) {
+			set(PRISM_MODEL_CACHE_MAP, true);
+		}
+		else if (sw.equals("modelcachesize")) {
+			if (i < args.length - 1) {
+				try {
+					j = Integer.parseInt(args[++i]);
+					if (j < 0)
+						throw new NumberFormatException("");
+					set(PRISM_MODEL_CACHE_MAX_SIZE, j);
+				} catch (NumberFormatException e) {
+					throw new PrismException("Invalid value for -" + sw + " switch");
+				}
+			} else {
+				throw new PrismException("No value specified for -" + sw + " switch");
+			}
+		}
 		// Fairness on/off
 		else if (sw.equals("fair")) {
 			set(PRISM_FAIRNESS, true);
@@ -1769,6 +1926,16 @@ public class PrismSettings implements Observer
 				throw new PrismException("The -" + sw + " switch requires one argument (options are: lbt, spin, spot, rabinizer)");
 			}
 		}
+		else if (sw.equals("noltl2dacache")) {
+			set(PRISM_LTL2DA_CACHE, false);
+		}
+		else if (sw.equals("ltl2dacache")) {
+			if (i < args.length - 1) {
+				set(PRISM_LTL2DA_CACHE_DIR, args[++i]);
+			} else {
+				throw new PrismException("No directory specified for -" + sw + " switch");
+			}
+		}
 
 		// DEBUGGING / SANITY CHECKS
 		else if (sw.equals("ddsanity")) {
@@ -1845,8 +2012,12 @@ public class PrismSettings implements Observer
 					set(PRISM_PARAM_ELIM_ORDER, "Backward-reversed");
 				else if (s.equals("rand"))
 					set(PRISM_PARAM_ELIM_ORDER, "Random");
+				else if (s.equals("mindeg"))
+					set(PRISM_PARAM_ELIM_ORDER, "Min-degree");
+				else if (s.equals("minfill"))
+					set(PRISM_PARAM_ELIM_ORDER, "Min-fill");
 				else
-					throw new PrismException("Unrecognised option for -" + sw + " switch (options are: arb,fw,fwrev,bw,bwrev,rand)");
+					throw new PrismException("Unrecognised option for -" + sw + " switch (options are: arb,fw,fwrev,bw,bwrev,rand,mindeg,minfill)");
 			} else {
 				throw new PrismException("No value specified for -" + sw + " switch");
 			}
@@ -1875,6 +2046,16 @@ public class PrismSettings implements Observer
 				throw new PrismException("Invalid value for -" + sw + " switch");
 			}
 		}
+		else if (sw.equals("paramfunctioncachesize")) {
+			try {
+				j = Integer.parseInt(args[++i]);
+				if (j < 0)
+					throw new NumberFormatException();
+				set(PRISM_PARAM_FUNCTION_CACHE_SIZE, j);
+			} catch (NumberFormatException e) {
+				throw new PrismException("Invalid value for -" + sw + " switch");
+			}
+		}
 		
 		// FAST ADAPTIVE UNIFORMISATION
 		
@@ -2057,6 +2238,7 @@ public class PrismSettings implements Observer
 		mainLog.println("-exact ......................... Perform exact (arbitrary precision) model checking");
 		mainLog.println("-ptamethod <name> .............. Specify PTA engine (games, digital, backwards) [default: games]");
 		mainLog.println("-transientmethod <name> ........ CTMC transient analysis methof (unif, fau) [default: unif]");
+		mainLog.println("-transientbatchmem <n> ......... Memory (MB) for transient probabilities computed for several time points in one pass [default: 32]");
 		mainLog.println("-smtsolver <name> .............. SMT solver (z3, yices) [default: z3]");
 		mainLog.println("-heuristic <mode> .............. Automatic choice of engines/settings (none, speed, memory) [default: none]");
 		mainLog.println();
@@ -2081,6 +2263,7 @@ public class PrismSettings implements Observer
 		mainLog.println("-modpoliter .................... Use modified policy iteration for solving MDPs");
 		mainLog.println("-intervaliter (or -ii) ......... Use interval iteration to solve MDPs/MCs (see -help -ii)");
 		mainLog.println("-topological ................... Use topological value iteration");
+		mainLog.println("-adaptivevi .................... Switch value iteration to policy evaluation when convergence stalls");
 		mainLog.println();
 		mainLog.println("SOLUTION METHOD SETTINGS");
 		mainLog.println("-relative (or -rel) ............ Use relative error for detecting convergence [default]");
@@ -2095,10 +2278,18 @@ public class PrismSettings implements Observer
 		mainLog.println("-noprob0 ....................... Skip precomputation algorithm Prob0 (where optional)");
 		mainLog.println("-noprob1 ....................... Skip precomputation algorithm Prob1 (where optional)");
 		mainLog.println("-noprerel ...................... Do not pre-compute/use predecessor relation, e.g. for precomputation");
+		mainLog.println("-threads <n> ................... Number of threads for parallel parts of explicit engine (0 = all) [default: 1]");
+		mainLog.println("-propthreads <n> ............... Number of properties to check concurrently with explicit engine (0 = all) [default: 1]");
+		mainLog.println("-offheapthreshold <n> .......... Store 2nd value iteration vector off-heap for models with >= <n> states (0 = never) [default: 100000000]");
+		mainLog.println("-offheapdir <dir> .............. Memory-map off-heap vectors to temporary files in <dir> (default: use direct memory)");
+		mainLog.println("-workspacemem <n> .............. Memory (MB) kept per model for reusing vectors/precomputations across properties (0 = off, -1 = auto) [default: -1]");
 		mainLog.println("-fair .......................... Use fairness (for model checking of MDPs)");
 		mainLog.println("-nofair ........................ Don't use fairness (for model checking of MDPs) [default]");
 		mainLog.println("-fixdl ......................... Automatically put self-loops in deadlock states [default]");
 		mainLog.println("-nofixdl ....................... Do not automatically put self-loops in deadlock states");
+		mainLog.println("-modelcache <dir> .............. Cache models (not games) built by the explicit engine in <dir> for reuse across runs");
+		mainLog.println("-modelcachesize <n> ............ Maximum total size of the model cache in MB (0 = unbounded) [default: 1024]");
+		mainLog.println("-modelcachemap ................. Access cached DTMCs/MDPs from the memory-mapped cache file (zero-copy)");
 		mainLog.println("-noprobchecks .................. Disable checks on model probabilities/rates");
 		mainLog.println("-sumroundoff <x> ............... Set probability sum threshold [default: 1-e5]");
 		mainLog.println("-zerorewardcheck ............... Check for absence of zero-reward loops");
@@ -2112,6 +2303,8 @@ public class PrismSettings implements Observer
 		mainLog.println("-exportadvmdp <file> ........... Export an adversary from MDP model checking (as an MDP)");
 		mainLog.println("-ltl2datool <exec> ............. Run executable <exec> to convert LTL formulas to deterministic automata");
 		mainLog.println("-ltl2dasyntax <x> .............. Specify output format for -ltl2datool switch (lbt, spin, spot, rabinizer)");
+		mainLog.println("-ltl2dacache <dir> ............. Also store LTL->DA translations in <dir> for reuse across runs");
+		mainLog.println("-noltl2dacache ................. Do not reuse LTL->DA translations between properties");
 		mainLog.println("-exportiterations .............. Export vectors for iteration algorithms to file");
 		mainLog.println("-pmaxquotient .................. For Pmax computations in MDPs, compute in the MEC quotient");
 		mainLog.println();
@@ -2161,10 +2354,11 @@ public class PrismSettings implements Observer
 		mainLog.println("-paramsplit <name> ............. Set method to split parameter regions (longest,all) [default: longest]");
 		mainLog.println("-parambisim <name> ............. Set bisimulation minimisation for parameter synthesis (weak,strong,none) [default: weak]");
 		mainLog.println("-paramfunction <name> .......... Set function representation for parameter synthesis (jascached,jas) [default: jascached]");
-		mainLog.println("-paramelimorder <name> ......... Set elimination order for parameter synthesis (arb,fw,fwrev,bw,bwrev,rand) [default: bw]");
+		mainLog.println("-paramelimorder <name> ......... Set elimination order for parameter synthesis (arb,fw,fwrev,bw,bwrev,rand,mindeg,minfill) [default: bw]");
 		mainLog.println("-paramrandompoints <n> ......... Set number of random points to evaluate per region [default: 5]");
 		mainLog.println("-paramsubsumeregions <b> ....... Subsume adjacent regions during analysis [default: true]");
 		mainLog.println("-paramdagmaxerror <b> .......... Maximal error probability allowed for DAG function representation [default: 1E-100]");
+		mainLog.println("-paramfunctioncachesize <n> .... Max entries per function/operation cache for jascached (0 = unbounded) [default: 1000000]");
 		mainLog.println();
 		mainLog.println("FAST ADAPTIVE UNIFORMISATION (FAU) OPTIONS:");
 		mainLog.println("-fauepsilon <x> ................ Set probability threshold of birth process in FAU [default: 1e-6]");
@@ -2194,6 +2388,18 @@ public class PrismSettings implements Observer
 			mainLog.println(OptionsIntervalIteration.getOptionsDescription());
 			return true;
 		}
+		else if (sw.equals("offheapthreshold")) {
+			mainLog.println("Switch: -offheapthreshold <n>\n");
+			mainLog.println("For models with at least <n> states (0 = never), the explicit engine stores the second");
+			mainLog.println("solution vector of Jacobi/power value iteration off the Java heap, in direct memory or,");
+			mainLog.println("with -offheapdir <dir>, in memory-mapped temporary files in <dir>. This halves the heap");
+			mainLog.println("needed for the solution vectors. Limitations:");
+			mainLog.println(" * only for DTMCs/MDPs stored sparsely, and not for interval iteration;");
+			mainLog.println(" * the first solution vector (and the result) stays on the heap, so models are still");
+			mainLog.println("   limited to 2^31 states;");
+			mainLog.println(" * each iteration does an extra pass to swap the new values into the first vector.");
+			return true;
+		}
 
 		return false;
 	}
@@ -2362,6 +2568,15 @@ public class PrismSettings implements Observer
 	{
 		return modified;
 	}
+
+	/**
+	 * Was the engine chosen by a command-line switch (e.g. -m, -s, -h, -ex),
+	 * rather than left as the default?
+	 */
+	public boolean isEngineChosen()
+	{
+		return engineChosen;
+	}
 	
 	public void update(Observable obs, Object obj)
 	{
@@ -0,0 +1,270 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package prism;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.function.IntPredicate;
+import java.util.zip.GZIPOutputStream;
+
+import common.Parallel;
+
+/**
+ * Streaming export of per-state information, e.g. vectors of results or strategies.
+ * <br><br>
+ * States are processed in chunks. For text output, each chunk is formatted into
+ * a buffer (several chunks in parallel, if more than one thread is requested)
+ * and then written out, in order, with a single call; this avoids one (native) log call
+ * per state and keeps memory usage bounded by a few chunks. States can optionally be
+ * restricted by a filter, which is checked on the fly. Binary output, optionally
+ * compressed, is available by writing to a stream obtained from {@link #openFile}.
+ */
+public class StreamingExporter
+{
+	/** Default number of states per chunk */
+	public static final int DEFAULT_CHUNK_SIZE = 1 << 14;
+
+	/** Number of chunks formatted (per thread) before output */
+	private static final int CHUNKS_PER_THREAD = 4;
+
+	/**
+	 * Formatting of the text for a single state.
+	 */
+	@FunctionalInterface
+	public interface StateFormatter
+	{
+		/**
+		 * Append the text for state {@code s} to {@code sb};
+		 * return false if nothing was appended (e.g. zero values in sparse output).
+		 * This may be called concurrently for different states.
+		 */
+		boolean format(int s, StringBuilder sb);
+	}
+
+	/**
+	 * Writing of the binary data for a single state.
+	 */
+	@FunctionalInterface
+	public interface StateWriter
+	{
+		/**
+		 * Write the data for state {@code s} to {@code out};
+		 * return false if nothing was written.
+		 */
+		boolean write(int s, DataOutputStream out) throws IOException;
+	}
+
+	/**
+	 * Destination for chunks of text.
+	 */
+	@FunctionalInterface
+	private interface TextSink
+	{
+		void write(CharSequence text) throws IOException;
+	}
+
+	// Settings
+
+	/** Number of threads used for formatting */
+	protected int numThreads = 1;
+	/** Number of states per chunk */
+	protected int chunkSize = DEFAULT_CHUNK_SIZE;
+	/** States to export (null = all) */
+	protected IntPredicate filter = null;
+
+	// Setters
+
+	/**
+	 * Set the number of threads to use for formatting text (1 = sequential).
+	 */
+	public StreamingExporter setNumThreads(int numThreads)
+	{
+		this.numThreads = Math.max(1, numThreads);
+		return this;
+	}
+
+	/**
+	 * Set the number of states per chunk.
+	 */
+	public StreamingExporter setChunkSize(int chunkSize)
+	{
+		this.chunkSize = Math.max(1, chunkSize);
+		return this;
+	}
+
+	/**
+	 * Only export states satisfying {@code filter} (null = all).
+	 * If text is formatted in parallel, the filter must be safe to call concurrently.
+	 */
+	public StreamingExporter setFilter(IntPredicate filter)
+	{
+		this.filter = filter;
+		return this;
+	}
+
+	/**
+	 * Only export states in the set {@code filter} (null = all).
+	 */
+	public StreamingExporter setFilter(BitSet filter)
+	{
+		this.filter = (filter == null) ? null : filter::get;
+		return this;
+	}
+
+	// Export methods
+
+	/**
+	 * Export text for states 0,...,{@code numStates}-1 to a log.
+	 * Returns the number of states for which something was written.
+	 */
+	public long exportText(int numStates, StateFormatter formatter, PrismLog out)
+	{
+		try {
+			return exportText(numStates, formatter, text -> out.print(text.toString()));
+		} catch (IOException e) {
+			// Can't happen (logs don't throw exceptions)
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Export text for states 0,...,{@code numStates}-1 to a writer.
+	 * Returns the number of states for which something was written.
+	 */
+	public long exportText(int numStates, StateFormatter formatter, Writer out) throws IOException
+	{
+		return exportText(numStates, formatter, text -> out.append(text));
+	}
+
+	/**
+	 * Export binary data for states 0,...,{@code numStates}-1 to a stream.
+	 * Returns the number of states for which something was written.
+	 */
+	public long exportBinary(int numStates, StateWriter writer, DataOutputStream out) throws IOException
+	{
+		long count = 0;
+		for (int s = 0; s < numStates; s++) {
+			if ((filter == null || filter.test(s)) && writer.write(s, out)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private long exportText(int numStates, StateFormatter formatter, TextSink out) throws IOException
+	{
+		int numChunks = (int) (((long) numStates + chunkSize - 1) / chunkSize);
+		int window = (numThreads > 1) ? numThreads * CHUNKS_PER_THREAD : 1;
+		StringBuilder buffers[] = new StringBuilder[Math.min(window, Math.max(1, numChunks))];
+		long counts[] = new long[buffers.length];
+		long count = 0;
+		for (int i = 0; i < buffers.length; i++) {
+			buffers[i] = new StringBuilder();
+		}
+		// Format a window of chunks (in parallel, if requested), then write them out in order
+		for (int first = 0; first < numChunks; first += buffers.length) {
+			int firstChunk = first;
+			int numInWindow = Math.min(buffers.length, numChunks - first);
+			Parallel.forEachBlock(numThreads, 0, numInWindow, 1, (from, to) -> {
+				for (int c = from; c < to; c++) {
+					counts[c] = formatChunk(firstChunk + c, numStates, formatter, buffers[c]);
+				}
+			});
+			for (int c = 0; c < numInWindow; c++) {
+				if (buffers[c].length() > 0) {
+					out.write(buffers[c]);
+				}
+				count += counts[c];
+			}
+		}
+		return count;
+	}
+
+	private long formatChunk(int chunk, int numStates, StateFormatter formatter, StringBuilder sb)
+	{
+		int from = chunk * chunkSize;
+		int to = (int) Math.min((long) from + chunkSize, numStates);
+		long count = 0;
+		sb.setLength(0);
+		for (int s = from; s < to; s++) {
+			if ((filter == null || filter.test(s)) && formatter.format(s, sb)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	// Utility methods
+
+	/**
+	 * Open a file for (buffered) streaming output, gzip-compressed if {@code compress} is true.
+	 */
+	public static OutputStream openFile(File file, boolean compress) throws PrismException
+	{
+		try {
+			OutputStream out = new FileOutputStream(file);
+			return compress ? new GZIPOutputStream(out, 1 << 16) : new BufferedOutputStream(out, 1 << 16);
+		} catch (IOException e) {
+			throw new PrismException("Could not open file \"" + file + "\" for output");
+		}
+	}
+
+	/**
+	 * Open a file for (buffered) streaming text output, gzip-compressed if {@code compress} is true.
+	 */
+	public static Writer openTextFile(File file, boolean compress) throws PrismException
+	{
+		return new OutputStreamWriter(openFile(file, compress), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Should a file be gzip-compressed, based on its name (i.e. does it end with ".gz")?
+	 */
+	public static boolean isCompressedFile(File file)
+	{
+		return file.getName().endsWith(".gz");
+	}
+
+	/**
+	 * Should a file be written in binary format, based on its name
+	 * (i.e. does it end with ".bin", ignoring any ".gz" suffix)?
+	 */
+	public static boolean isBinaryFile(File file)
+	{
+		String name = file.getName();
+		if (name.endsWith(".gz")) {
+			name = name.substring(0, name.length() - 3);
+		}
+		return name.endsWith(".bin");
+	}
+}
@@ -0,0 +1,104 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+
+package pta;
+
+import java.util.ArrayDeque;
+
+/**
+ * Pool of DBMs for a single PTA, used to recycle temporary zones during zone-graph
+ * exploration (e.g. successor zones that turn out to be empty or already covered)
+ * instead of allocating a fresh matrix for each one.
+ * The pool can be shared between threads.
+ */
+public class DBMPool
+{
+	/** Default maximum number of DBMs kept for reuse */
+	public static final int DEFAULT_MAX_SIZE = 1024;
+
+	// PTA whose DBMs are pooled
+	protected PTA pta;
+	// DBMs available for reuse
+	protected ArrayDeque<DBM> free;
+	// Maximum number of DBMs kept for reuse
+	protected int maxSize;
+
+	/**
+	 * Create a pool for DBMs of {@code pta}.
+	 */
+	public DBMPool(PTA pta)
+	{
+		this(pta, DEFAULT_MAX_SIZE);
+	}
+
+	/**
+	 * Create a pool for DBMs of {@code pta}, keeping at most {@code maxSize} of them for reuse.
+	 */
+	public DBMPool(PTA pta, int maxSize)
+	{
+		this.pta = pta;
+		this.free = new ArrayDeque<DBM>();
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Get a copy of {@code dbm}, reusing a previously released DBM if possible.
+	 */
+	public DBM copyOf(DBM dbm)
+	{
+		DBM copy;
+		synchronized (free) {
+			copy = free.pollFirst();
+		}
+		if (copy == null) {
+			return dbm.deepCopy();
+		}
+		copy.copyFrom(dbm);
+		return copy;
+	}
+
+	/**
+	 * Get a copy of location/zone pair {@code lz}, reusing a previously released DBM if possible.
+	 */
+	public LocZone copyOf(LocZone lz)
+	{
+		return new LocZone(lz.loc, copyOf((DBM) lz.zone));
+	}
+
+	/**
+	 * Return a zone which is no longer referenced anywhere to the pool.
+	 * Zones that are not DBMs of the pool's PTA are ignored.
+	 */
+	public void release(Zone zone)
+	{
+		if (zone instanceof DBM && zone.getPTA() == pta) {
+			synchronized (free) {
+				if (free.size() < maxSize) {
+					free.addFirst((DBM) zone);
+				}
+			}
+		}
+	}
+}
@@ -28,6 +28,7 @@ package pta;
 
 import java.util.*;
 
+import common.Parallel;
 import prism.*;
 import explicit.*;
 
@@ -40,6 +41,11 @@ public class ForwardsReach
 	protected BitSet targetLocs;
 	protected Constraint targetConstraint;
 
+	// Number of threads used to explore symbolic states
+	protected int numThreads = 1;
+	// Number of symbolic states explored per parallel task
+	private static final int EXPAND_BLOCK_SIZE = 16;
+
 	// Extra information associated with reachability graph
 	protected BitSet target; // Bit set specifying target states
 	protected List<Integer> initialStates; // Initial states
@@ -56,6 +62,15 @@ public class ForwardsReach
 		this.mainLog = log;
 	}
 
+	/**
+	 * Set the number of threads used to explore symbolic states
+	 * (the resulting graph does not depend on this).
+	 */
+	public void setNumThreads(int numThreads)
+	{
+		this.numThreads = Math.max(1, numThreads);
+	}
+
 	// Accessors for other info generated during construction of reachability graph
 
 	public BitSet getTarget()
@@ -83,17 +98,23 @@ public class ForwardsReach
 	
 	/**
 	 * Implementation of {@link #buildForwardsGraph} using FORMATS'10 definition.
+	 * <br>
+	 * Exploration proceeds breadth-first, one level (the current contents of the
+	 * waiting list) at a time. The symbolic successors of all states in a level are
+	 * computed in parallel (if {@code numThreads} > 1), also looking up zones that
+	 * cover them among the states stored before the level. They are then stored
+	 * sequentially, in order, so that state numbering, zone subsumption and any
+	 * errors reported are exactly as for a purely sequential exploration.
 	 */
 	private ReachabilityGraph buildForwardsGraphFormats10(PTA pta, BitSet targetLocs, Constraint targetConstraint)
 	throws PrismException
 	{
-		LocZone init, lz, lz2;
-		LinkedList<LocZone> X;
-		StateStorage<LocZone> Yset;
-		//LocZoneSetOld Zset;
+		LocZone init;
+		ArrayList<LocZone> X;
+		LocZoneSet Yset;
+		DBMPool pool;
 		ReachabilityGraph graph;
 		int src, dest, count, dests[];
-		boolean canDiverge;
 		long timer;
 
 		// Store target info
@@ -101,7 +122,10 @@ public class ForwardsReach
 		this.targetConstraint = targetConstraint;
 
 		// Starting reachability...
-		mainLog.print("\nBuilding forwards reachability graph...");
+		mainLog.print("\nBuilding forwards reachability graph");
+		if (numThreads > 1)
+			mainLog.print(" (" + numThreads + " threads)");
+		mainLog.print("...");
 		mainLog.flush();
 		ProgressDisplay progress = new ProgressDisplay(mainLog);
 		progress.start();
@@ -112,9 +136,12 @@ public class ForwardsReach
 			pta.recomputeMaxClockConstraint(targetConstraint);
 		
 		// Initialise data structures
+		// (zones covered by an existing one for the same location are merged into it,
+		// unless a target constraint is used, since then the target status could differ)
 		graph = new ReachabilityGraph(pta);
-		Yset = new IndexedSet<LocZone>();
-		X = new LinkedList<LocZone>();
+		Yset = new LocZoneSet(targetConstraint == null);
+		X = new ArrayList<LocZone>();
+		pool = new DBMPool(pta);
 		target = new BitSet();
 
 		// Build initial symbolic state (NB: assume initial location = 0)
@@ -126,114 +153,97 @@ public class ForwardsReach
 		src = -1;
 		// While there are unexplored symbolic states (in X)...
 		while (!X.isEmpty()) {
-			// Pick next state to explore
-			// X is a list containing states in order found
-			// (so we know index of lz is src+1)
-			lz = X.removeFirst();
-			src++;
-			// Compute timed post for this zone (NB: do this before checking if target)
-			lz = lz.deepCopy();
-			lz.tPost(pta);
-			// Is this a target state? (If so, don't explore)
-			if (targetLocs.get(lz.loc) && (targetConstraint == null || lz.zone.isSatisfied(targetConstraint))) {
-				target.set(src);
-				// Add null for this state (no need to store info)
-				graph.addState();
-				continue;
-			}
-			// Check if time can diverge in this state
-			// (note we already did tPost above)
-			canDiverge = lz.zone.allClocksAreUnbounded();
-			// Explore this symbolic state
-			// First, check for one possible cause of timelock:
-			// no PTA transitions and not possible for time to diverge
-			if (!canDiverge && pta.getTransitions(lz.loc).size() == 0) {
-				throw new PrismException("Timelock (no transitions) in PTA at location " + pta.getLocationNameString(lz.loc));
-			}
-			// Add current state to reachability graph
-			graph.addState();
-			// For unbounded case, add a special self-loop transition to model divergence
-			if (canDiverge) {
-				dests = new int[1];
-				dests[0] = src;
-				Transition trNew = new Transition(pta, lz.loc, "_diverge");
-				trNew.addEdge(1.0, lz.loc);
-				graph.addTransition(src, trNew, dests, null);
-			}
-			// And for the non-unbounded case, need to do a check for time-locks
-			else {
-				Zone zone;
-				NCZone ncZone;
-				// Build union of tPre of each guard
-				ncZone = DBMList.createFalse(pta);
-				for (Transition transition : pta.getTransitions(lz.loc)) {
-					zone = DBM.createFromConstraints(pta, transition.getGuardConstraints());
-					zone.down();
-					ncZone.union(zone);
+			// Explore the current level: X contains states in order found
+			// (so we know index of the i-th one is src+1+i)
+			final List<LocZone> level = X;
+			final int levelStart = Yset.size();
+			final Expansion[] expansions = new Expansion[level.size()];
+			Parallel.forEachBlock(numThreads, 0, level.size(), EXPAND_BLOCK_SIZE, (from, to) -> {
+				for (int i = from; i < to; i++) {
+					expansions[i] = expand(pta, level.get(i), Yset, levelStart, pool);
 				}
-				// Make sure tPost of this zone is not bigger (tPost done above)
-				// (i.e. intersection with complement of union is empty)
-				ncZone.complement();
-				ncZone.intersect(lz.zone);
-				if (!ncZone.isEmpty()) {
-					String s = "Timelock in PTA at location " + pta.getLocationNameString(lz.loc);
-					s += " when " + ncZone.getAZone();
-					throw new PrismException(s);
+			});
+			X = new ArrayList<LocZone>();
+			for (Expansion exp : expansions) {
+				src++;
+				LocZone lz = exp.lz;
+				// Is this a target state? (If so, don't explore)
+				if (exp.isTarget) {
+					target.set(src);
+					// Add null for this state (no need to store info)
+					graph.addState();
+					pool.release(lz.zone);
+					continue;
 				}
-			}
-			// For each outgoing transition...
-			for (Transition transition : pta.getTransitions(lz.loc)) {
-				dests = new int[transition.getNumEdges()];
-				boolean enabled = false;
-				boolean unenabled = false;
-				Edge unenabledEdge = null;
-				count = 0;
-				for (Edge edge : transition.getEdges()) {
-					// Do "discrete post" for this edge
-					// (followed by c-closure)
-					lz2 = lz.deepCopy();
-					lz2.dPost(edge);
-					lz2.cClosure(pta);
-					// If non-empty, create edge, also adding state to X if new 
-					if (!lz2.zone.isEmpty()) {
-						if (Yset.add(lz2)) {
-							X.add(lz2);
+				if (exp.error != null) {
+					throw new PrismException(exp.error);
+				}
+				// Add current state to reachability graph
+				graph.addState();
+				// For unbounded case, add a special self-loop transition to model divergence
+				if (exp.canDiverge) {
+					dests = new int[1];
+					dests[0] = src;
+					Transition trNew = new Transition(pta, lz.loc, "_diverge");
+					trNew.addEdge(1.0, lz.loc);
+					graph.addTransition(src, trNew, dests, null);
+				}
+				// For each outgoing transition...
+				int numTransitions = exp.transitions.size();
+				for (int t = 0; t < numTransitions; t++) {
+					Transition transition = exp.transitions.get(t);
+					LocZone succs[] = exp.succs[t];
+					dests = new int[succs.length];
+					boolean enabled = false;
+					boolean unenabled = false;
+					Edge unenabledEdge = null;
+					count = 0;
+					for (Edge edge : transition.getEdges()) {
+						LocZone lz2 = succs[count];
+						// If non-empty, create edge, also adding state to X if new 
+						if (lz2 != null) {
+							if (Yset.add(lz2, exp.covering[t][count], levelStart)) {
+								X.add(lz2);
+							} else {
+								pool.release(lz2.zone);
+							}
+							dest = Yset.getIndexOfLastAdd();
+							enabled = true;
+							dests[count] = dest;
+						} else {
+							unenabled = true;
+							// Store first unenabled edge
+							unenabledEdge = (unenabledEdge == null) ? edge : unenabledEdge;
+							dests[count] = -1;
 						}
-						dest = Yset.getIndexOfLastAdd();
-						enabled = true;
-						dests[count] = dest;
-					} else {
-						unenabled = true;
-						// Store first unenabled edge
-						unenabledEdge = (unenabledEdge == null) ? edge : unenabledEdge;
-						dests[count] = -1;
+						count++;
 					}
-					count++;
-				}
-				if (enabled) {
-					if (unenabled) {
-						String s = "Badly formed PTA at location " + pta.getLocationNameString(lz.loc) + " when " + lz.zone;
-						s += ": \"" + transition.getAction() + "\"-labelled transition to ";
-						s += pta.getLocationNameString(unenabledEdge.getDestination());
-						s += " leads to state where invariant is not satisfied";
-						throw new PrismException(s);
+					if (enabled) {
+						if (unenabled) {
+							String s = "Badly formed PTA at location " + pta.getLocationNameString(lz.loc) + " when " + lz.zone;
+							s += ": \"" + transition.getAction() + "\"-labelled transition to ";
+							s += pta.getLocationNameString(unenabledEdge.getDestination());
+							s += " leads to state where invariant is not satisfied";
+							throw new PrismException(s);
+						}
+						graph.addTransition(src, transition, dests, null);
 					}
-					graph.addTransition(src, transition, dests, null);
 				}
+				// Check for another possible cause of timelock:
+				// no PTA transitions *enabled* and not possible for time to diverge
+				// (NB: This should be defunct now because of earlier timelock check)
+				// (NB2: Strictly speaking, don't need to check canDiverge - if it was
+				// true, we would have added a loop transition that is definitely enabled)
+				if (!exp.canDiverge && graph.trans.get(src).size() == 0) {
+					String s = "Timelock in PTA (no enabled transitions) at location " + pta.getLocationNameString(lz.loc);
+					s += " when " + lz.zone;
+					throw new PrismException(s);
+				}
+				pool.release(lz.zone);
+				// Print some progress info occasionally
+				if (progress.ready())
+					progress.update(Yset.size());
 			}
-			// Check for another possible cause of timelock:
-			// no PTA transitions *enabled* and not possible for time to diverge
-			// (NB: This should be defunct now because of earlier timelock check)
-			// (NB2: Strictly speaking, don't need to check canDiverge - if it was
-			// true, we would have added a loop transition that is definitely enabled)
-			if (!canDiverge && graph.trans.get(src).size() == 0) {
-				String s = "Timelock in PTA (no enabled transitions) at location " + pta.getLocationNameString(lz.loc);
-				s += " when " + lz.zone;
-				throw new PrismException(s);
-			}
-			// Print some progress info occasionally
-			if (progress.ready())
-				progress.update(Yset.size());
 		}
 
 		// Tidy up progress display
@@ -252,6 +262,8 @@ public class ForwardsReach
 		mainLog.println("Graph constructed in " + (timer / 1000.0) + " secs.");
 		mainLog.print("Graph: " + graph.states.size() + " symbolic states");
 		mainLog.println(" (" + initialStates.size() + " initial, " + target.cardinality() + " target)");
+		if (Yset.getNumSubsumed() > 0)
+			mainLog.println("Zones merged into covering zones: " + Yset.getNumSubsumed());
 
 		// Print a warning if there are no target states
 		if (target.cardinality() == 0)
@@ -259,6 +271,104 @@ public class ForwardsReach
 
 		return graph;
 	}
+
+	/**
+	 * Result of exploring a single symbolic state (without storing its successors).
+	 */
+	private static class Expansion
+	{
+		// The state, after timed post
+		LocZone lz;
+		// Is this a target state (not explored further)?
+		boolean isTarget;
+		// Can time diverge in this state?
+		boolean canDiverge;
+		// Error (timelock) found for this state, if any
+		String error;
+		// Outgoing transitions
+		List<Transition> transitions;
+		// Successor for each edge of each transition (null if empty)
+		LocZone succs[][];
+		// For each successor, index of a covering state stored before the current level (or -1)
+		int covering[][];
+	}
+
+	/**
+	 * Explore symbolic state {@code lz0}: compute its timed post, check whether it is
+	 * a target, check for timelocks and compute the successor for each edge.
+	 * The set of stored states {@code Yset} is only read (to find states with index
+	 * below {@code levelStart} covering the successors), so this can be called
+	 * concurrently for different states, as long as {@code Yset} is not modified.
+	 */
+	private Expansion expand(PTA pta, LocZone lz0, LocZoneSet Yset, int levelStart, DBMPool pool)
+	{
+		Expansion exp = new Expansion();
+		// Compute timed post for this zone (NB: do this before checking if target)
+		LocZone lz = pool.copyOf(lz0);
+		lz.tPost(pta);
+		exp.lz = lz;
+		// Is this a target state? (If so, don't explore)
+		if (targetLocs.get(lz.loc) && (targetConstraint == null || lz.zone.isSatisfied(targetConstraint))) {
+			exp.isTarget = true;
+			return exp;
+		}
+		// Check if time can diverge in this state
+		// (note we already did tPost above)
+		exp.canDiverge = lz.zone.allClocksAreUnbounded();
+		// Explore this symbolic state
+		// First, check for one possible cause of timelock:
+		// no PTA transitions and not possible for time to diverge
+		exp.transitions = pta.getTransitions(lz.loc);
+		if (!exp.canDiverge && exp.transitions.size() == 0) {
+			exp.error = "Timelock (no transitions) in PTA at location " + pta.getLocationNameString(lz.loc);
+			return exp;
+		}
+		// And for the non-unbounded case, need to do a check for time-locks
+		if (!exp.canDiverge) {
+			Zone zone;
+			NCZone ncZone;
+			// Build union of tPre of each guard
+			ncZone = DBMList.createFalse(pta);
+			for (Transition transition : exp.transitions) {
+				zone = DBM.createFromConstraints(pta, transition.getGuardConstraints());
+				zone.down();
+				ncZone.union(zone);
+			}
+			// Make sure tPost of this zone is not bigger (tPost done above)
+			// (i.e. intersection with complement of union is empty)
+			ncZone.complement();
+			ncZone.intersect(lz.zone);
+			if (!ncZone.isEmpty()) {
+				exp.error = "Timelock in PTA at location " + pta.getLocationNameString(lz.loc) + " when " + ncZone.getAZone();
+				return exp;
+			}
+		}
+		// For each outgoing transition/edge, do "discrete post"
+		// (followed by c-closure) and look for an existing covering state
+		int numTransitions = exp.transitions.size();
+		exp.succs = new LocZone[numTransitions][];
+		exp.covering = new int[numTransitions][];
+		for (int t = 0; t < numTransitions; t++) {
+			Transition transition = exp.transitions.get(t);
+			int numEdges = transition.getNumEdges();
+			exp.succs[t] = new LocZone[numEdges];
+			exp.covering[t] = new int[numEdges];
+			int count = 0;
+			for (Edge edge : transition.getEdges()) {
+				LocZone lz2 = pool.copyOf(lz);
+				lz2.dPost(edge);
+				lz2.cClosure(pta);
+				if (lz2.zone.isEmpty()) {
+					pool.release(lz2.zone);
+					lz2 = null;
+				}
+				exp.succs[t][count] = lz2;
+				exp.covering[t][count] = (lz2 == null || !Yset.usesSubsumption()) ? -1 : Yset.findIncluding(lz2, 0, levelStart);
+				count++;
+			}
+		}
+		return exp;
+	}
 	
 	/**
 	 * Implementation of {@link #buildForwardsGraph} using FORMATS'09 definition.
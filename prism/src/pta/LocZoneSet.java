@@ -28,14 +28,44 @@ package pta;
 
 import java.util.*;
 
+/**
+ * Set of location/zone pairs, each assigned an index in order of addition,
+ * used as the passed/waiting list of zone-graph exploration.
+ * Zones are also indexed by location and, if subsumption is enabled,
+ * a pair whose (convex) zone is included in one already stored for the
+ * same location is not added; the covering pair is reported instead.
+ * Lookups ({@link #contains}, {@link #findIncluding}) may be done concurrently,
+ * provided that no pairs are being added at the same time.
+ */
 public class LocZoneSet
 {
+	// Exact lookup of stored pairs
 	private HashMap<LocZone, Integer> set;
+	// Stored pairs, by index
+	private ArrayList<LocZone> list;
+	// Indices of stored pairs, by location
+	private ArrayList<ArrayList<Integer>> byLoc;
+	// Whether to check for inclusion in stored zones
+	private boolean subsumption;
+	// Number of additions skipped because of inclusion in a stored zone
+	private int numSubsumed;
 	private int indexOfLastAdd;
 
 	public LocZoneSet()
+	{
+		this(false);
+	}
+
+	/**
+	 * Create an empty set, optionally with subsumption-based inclusion checks.
+	 */
+	public LocZoneSet(boolean subsumption)
 	{
 		set = new HashMap<LocZone, Integer>();
+		list = new ArrayList<LocZone>();
+		byLoc = new ArrayList<ArrayList<Integer>>();
+		this.subsumption = subsumption;
+		numSubsumed = 0;
 		indexOfLastAdd = -1;
 	}
 
@@ -44,17 +74,75 @@ public class LocZoneSet
 		return add(new LocZone(loc, z));
 	}
 
+	/**
+	 * Add a location/zone pair, unless it (or, with subsumption, a pair
+	 * for the same location whose zone includes it) is already present.
+	 * Returns true if it was added. Either way, the index of the new or
+	 * covering pair is available from {@link #getIndexOfLastAdd()}.
+	 */
 	public boolean add(LocZone lz)
+	{
+		return add(lz, -1, 0);
+	}
+
+	/**
+	 * Add a location/zone pair, as for {@link #add(LocZone)}, where it is already
+	 * known that the first stored pair covering {@code lz} with an index below
+	 * {@code scanFrom} is {@code covering} (-1 if there is none),
+	 * e.g. from an earlier call to {@link #findIncluding}.
+	 */
+	public boolean add(LocZone lz, int covering, int scanFrom)
 	{
 		Integer i = set.get(lz);
 		if (i != null) {
 			indexOfLastAdd = i;
 			return false;
-		} else {
-			indexOfLastAdd = set.size();
-			set.put(lz, set.size());
-			return true;
 		}
+		if (subsumption) {
+			int j = covering != -1 ? covering : findIncluding(lz, scanFrom, list.size());
+			if (j != -1) {
+				numSubsumed++;
+				indexOfLastAdd = j;
+				return false;
+			}
+		}
+		indexOfLastAdd = list.size();
+		set.put(lz, indexOfLastAdd);
+		list.add(lz);
+		while (byLoc.size() <= lz.loc) {
+			byLoc.add(null);
+		}
+		ArrayList<Integer> locList = byLoc.get(lz.loc);
+		if (locList == null) {
+			locList = new ArrayList<Integer>();
+			byLoc.set(lz.loc, locList);
+		}
+		locList.add(indexOfLastAdd);
+		return true;
+	}
+
+	/**
+	 * Get the (lowest) index, in the range [{@code from}, {@code to}), of a stored pair
+	 * for the same location as {@code lz} whose zone includes that of {@code lz},
+	 * or -1 if there is none. Only DBMs are compared.
+	 */
+	public int findIncluding(LocZone lz, int from, int to)
+	{
+		if (!(lz.zone instanceof DBM) || lz.loc >= byLoc.size() || byLoc.get(lz.loc) == null) {
+			return -1;
+		}
+		DBM dbm = (DBM) lz.zone;
+		for (int j : byLoc.get(lz.loc)) {
+			if (j < from)
+				continue;
+			if (j >= to)
+				break;
+			Zone stored = list.get(j).zone;
+			if (stored instanceof DBM && ((DBM) stored).includes(dbm)) {
+				return j;
+			}
+		}
+		return -1;
 	}
 
 	public boolean contains(LocZone lz)
@@ -62,33 +150,40 @@ public class LocZoneSet
 			return set.get(lz) != null;
 	}
 
+	/**
+	 * Are subsumption-based inclusion checks used?
+	 */
+	public boolean usesSubsumption()
+	{
+		return subsumption;
+	}
+
 	public int getIndexOfLastAdd()
 	{
 		return indexOfLastAdd;
 	}
 
+	/**
+	 * Get the number of additions skipped because of inclusion in a stored zone.
+	 */
+	public int getNumSubsumed()
+	{
+		return numSubsumed;
+	}
+
 	public boolean isEmpty()
 	{
-		return set.isEmpty();
+		return list.isEmpty();
 	}
 
 	public int size()
 	{
-		return set.size();
+		return list.size();
 	}
 
 	public ArrayList<LocZone> toArrayList()
 	{
-		int i, n;
-
-		n = set.size();
-		ArrayList<LocZone> list = new ArrayList<LocZone>(n);
-		for (i = 0; i < n ; i++)
-			list.add(null);
-		for (Map.Entry<LocZone, Integer> e : set.entrySet()) {
-			list.set(e.getValue(), e.getKey());
-		}
-		return list;
+		return new ArrayList<LocZone>(list);
 	}
 
 	public String toString()
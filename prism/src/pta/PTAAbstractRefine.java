@@ -28,9 +28,11 @@ package pta;
 
 import java.util.*;
 
+import common.Parallel;
 import prism.ModelType;
 import prism.PrismComponent;
 import prism.PrismException;
+import prism.PrismSettings;
 import explicit.*;
 
 /**
@@ -90,6 +92,8 @@ public class PTAAbstractRefine extends QuantAbstractRefine
 
 		// Build forwards reachability graph
 		forwardsReach = new ForwardsReach(mainLog);
+		if (settings != null)
+			forwardsReach.setNumThreads(Parallel.resolveNumThreads(settings.getInteger(PrismSettings.PRISM_NUM_THREADS)));
 		graph = forwardsReach.buildForwardsGraph(pta, targetLocs, targetConstraint);
 		// Store the set of target/initial states from forwards reachability
 		target = forwardsReach.getTarget();
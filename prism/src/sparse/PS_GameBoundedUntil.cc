@@ -0,0 +1,232 @@
+//==============================================================================
+//	
+//	Copyright (c) 2002-
+//	Authors:
+//	* Dave Parker <david.parker@comlab.ox.ac.uk> (University of Oxford, formerly University of Birmingham)
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+// includes
+#include "PrismSparse.h"
+#include <cmath>
+#include <util.h>
+#include <cudd.h>
+#include <dd.h>
+#include <odd.h>
+#include <dv.h>
+#include "sparse.h"
+#include "prism.h"
+#include "PrismNativeGlob.h"
+#include "PrismSparseGlob.h"
+#include "jnipointer.h"
+#include <new>
+
+//------------------------------------------------------------------------------
+
+JNIEXPORT jlong __jlongpointer JNICALL Java_sparse_PrismSparse_PS_1GameBoundedUntil
+(
+JNIEnv *env,
+jclass cls,
+jlong __jlongpointer t,		// trans matrix
+jlong __jlongpointer od,	// odd
+jlong __jlongpointer rv,	// row vars
+jint num_rvars,
+jlong __jlongpointer cv,	// col vars
+jint num_cvars,
+jlong __jlongpointer ndv,	// nondet vars
+jint num_ndvars,
+jlong __jlongpointer y,		// 'yes' states
+jlong __jlongpointer m,		// 'maybe' states
+jlong __jlongpointer p1,	// states owned by player 1
+jint bound,					// time bound
+jboolean min1,				// min or max probabilities for player 1 (true = min, false = max)
+jboolean min2				// min or max probabilities for player 2 (true = min, false = max)
+)
+{
+	// cast function parameters
+	DdNode *trans = jlong_to_DdNode(t);				// trans matrix
+	ODDNode *odd = jlong_to_ODDNode(od); 			// reachable states
+	DdNode **rvars = jlong_to_DdNode_array(rv); 	// row vars
+	DdNode **cvars = jlong_to_DdNode_array(cv); 	// col vars
+	DdNode **ndvars = jlong_to_DdNode_array(ndv);	// nondet vars
+	DdNode *yes = jlong_to_DdNode(y);				// 'yes' states
+	DdNode *maybe = jlong_to_DdNode(m); 			// 'maybe' states
+	DdNode *player1 = jlong_to_DdNode(p1);			// states owned by player 1
+
+	// mtbdds
+	DdNode *a = NULL;
+	// model stats
+	int n, nc;
+	long nnz;
+	// sparse matrix
+	NDSparseMatrix *ndsm = NULL;
+	// vectors
+	double *yes_vec = NULL, *p1_vec = NULL, *soln = NULL, *soln2 = NULL, *tmpsoln = NULL;
+	// timing stuff
+	long start1, start2, start3, stop;
+	double time_taken, time_for_setup, time_for_iters;
+	// misc
+	int i, j, k, l1, h1, l2, h2, iters;
+	double d1, d2, kb, kbt;
+	bool first, min;
+
+	// exception handling around whole function
+	try {
+	
+	// start clocks	
+	start1 = start2 = util_cpu_time();
+	
+	// get a - filter out rows
+	Cudd_Ref(trans);
+	Cudd_Ref(maybe);
+	a = DD_Apply(ddman, APPLY_TIMES, trans, maybe);
+	
+	// get number of states
+	n = odd->eoff + odd->toff;
+	
+	// build sparse matrix
+	PS_PrintToMainLog(env, "\nBuilding sparse matrix... ");
+	ndsm = build_nd_sparse_matrix(ddman, a, rvars, cvars, num_rvars, ndvars, num_ndvars, odd);
+	// get number of transitions/choices
+	nnz = ndsm->nnz;
+	nc = ndsm->nc;
+	kb = ndsm->mem;
+	kbt = kb;
+	// print out info
+	PS_PrintToMainLog(env, "[n=%d, nc=%d, nnz=%ld, k=%d] ", n, nc, nnz, ndsm->k);
+	PS_PrintMemoryToMainLog(env, "[", kb, "]\n");
+	
+	// get vector for yes
+	PS_PrintToMainLog(env, "Creating vector for yes... ");
+	yes_vec = mtbdd_to_double_vector(ddman, yes, rvars, num_rvars, odd);
+	kb = n*8.0/1024.0;
+	kbt += kb;
+	PS_PrintMemoryToMainLog(env, "[", kb, "]\n");
+	
+	// get player mask
+	PS_PrintToMainLog(env, "Creating player mask... ");
+	p1_vec = mtbdd_to_double_vector(ddman, player1, rvars, num_rvars, odd);
+	kb = n*8.0/1024.0;
+	kbt += kb;
+	PS_PrintMemoryToMainLog(env, "[", kb, "]\n");
+	
+	// create solution/iteration vectors
+	PS_PrintToMainLog(env, "Allocating iteration vectors... ");
+	soln = new double[n];
+	soln2 = new double[n];
+	kb = n*8.0/1024.0;
+	kbt += 2*kb;
+	PS_PrintMemoryToMainLog(env, "[2 x ", kb, "]\n");
+	
+	// print total memory usage
+	PS_PrintMemoryToMainLog(env, "TOTAL: [", kbt, "]\n");
+	
+	// initial solution is yes
+	for (i = 0; i < n; i++) {
+		soln[i] = yes_vec[i];
+	}
+
+	// get setup time
+	stop = util_cpu_time();
+	time_for_setup = (double)(stop - start2)/1000;
+	start2 = stop;
+	start3 = stop;
+
+	// start iterations
+	PS_PrintToMainLog(env, "\nStarting iterations...\n");
+	
+	// store local copies of stuff
+	double *non_zeros = ndsm->non_zeros;
+	unsigned char *row_counts = ndsm->row_counts;
+	int *row_starts = (int *)ndsm->row_counts;
+	unsigned char *choice_counts = ndsm->choice_counts;
+	int *choice_starts = (int *)ndsm->choice_counts;
+	bool use_counts = ndsm->use_counts;
+	unsigned int *cols = ndsm->cols;
+		
+	// note that we ignore max_iters as we know how any iterations _should_ be performed
+	for (iters = 0; iters < bound; iters++) {
+		
+		// do matrix multiplication and min/max
+		// (min or max depending on which player owns each state)
+		h1 = h2 = 0;
+		for (i = 0; i < n; i++) {
+			min = (p1_vec[i] > 0) ? min1 : min2;
+			d1 = 0.0; // initial value doesn't matter
+			first = true; // (because we also remember 'first')
+			if (!use_counts) { l1 = row_starts[i]; h1 = row_starts[i+1]; }
+			else { l1 = h1; h1 += row_counts[i]; }
+			for (j = l1; j < h1; j++) {
+				d2 = 0;
+				if (!use_counts) { l2 = choice_starts[j]; h2 = choice_starts[j+1]; }
+				else { l2 = h2; h2 += choice_counts[j]; }
+				for (k = l2; k < h2; k++) {
+					d2 += non_zeros[k] * soln[cols[k]];
+				}
+				if (first || (min&&(d2<d1)) || (!min&&(d2>d1))) {
+					d1 = d2;
+				}
+				first = false;
+			}
+			// set vector element
+			// (if no choices, use value of yes)
+			soln2[i] = (h1 > l1) ? d1 : yes_vec[i];
+		}
+
+		// print occasional status update
+		if ((util_cpu_time() - start3) > UPDATE_DELAY) {
+			PS_PrintToMainLog(env, "Iteration %d (of %d): ", iters, (int)bound);
+			PS_PrintToMainLog(env, "%.2f sec so far\n", ((double)(util_cpu_time() - start2)/1000));
+			start3 = util_cpu_time();
+		}
+		
+		// prepare for next iteration
+		tmpsoln = soln;
+		soln = soln2;
+		soln2 = tmpsoln;
+	}
+	
+	// stop clocks
+	stop = util_cpu_time();
+	time_for_iters = (double)(stop - start2)/1000;
+	time_taken = (double)(stop - start1)/1000;
+	
+	// print iterations/timing info
+	PS_PrintToMainLog(env, "\nIterative method: %d iterations in %.2f seconds (average %.6f, setup %.2f)\n", iters, time_taken, time_for_iters/iters, time_for_setup);
+	
+	// catch exceptions: register error, free memory
+	} catch (std::bad_alloc e) {
+		PS_SetErrorMessage("Out of memory");
+		if (soln) delete[] soln;
+		soln = 0;
+	}
+	
+	// free memory
+	if (a) Cudd_RecursiveDeref(ddman, a);
+	if (ndsm) delete ndsm;
+	if (yes_vec) delete[] yes_vec;
+	if (p1_vec) delete[] p1_vec;
+	if (soln2) delete[] soln2;
+	
+	return ptr_to_jlong(soln);
+}
+
+//------------------------------------------------------------------------------
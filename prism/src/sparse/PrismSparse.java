@@ -346,6 +346,39 @@ public class PrismSparse
 		return new DoubleVector(ptr, (int)(odd.getEOff() + odd.getTOff()));
 	}
 
+	// pctl until (turn-based game)
+	private static native long PS_GameUntil(long trans, long odd, long rv, int nrv, long cv, int ncv, long ndv, int nndv, long yes, long maybe, long player1, boolean min1, boolean min2);
+	public static DoubleVector GameUntil(JDDNode trans, ODDNode odd, JDDVars rows, JDDVars cols, JDDVars nondet, JDDNode yes, JDDNode maybe, JDDNode player1, boolean min1, boolean min2) throws PrismException
+	{
+		checkNumStates(odd);
+		PrismNative.resetModelCheckingInfo();
+		long ptr = PS_GameUntil(trans.ptr(), odd.ptr(), rows.array(), rows.n(), cols.array(), cols.n(), nondet.array(), nondet.n(), yes.ptr(), maybe.ptr(), player1.ptr(), min1, min2);
+		if (ptr == 0) throw generateExceptionForError();
+		return new DoubleVector(ptr, (int)(odd.getEOff() + odd.getTOff()));
+	}
+
+	// pctl bounded until (turn-based game)
+	private static native long PS_GameBoundedUntil(long trans, long odd, long rv, int nrv, long cv, int ncv, long ndv, int nndv, long yes, long maybe, long player1, int time, boolean min1, boolean min2);
+	public static DoubleVector GameBoundedUntil(JDDNode trans, ODDNode odd, JDDVars rows, JDDVars cols, JDDVars nondet, JDDNode yes, JDDNode maybe, JDDNode player1, int time, boolean min1, boolean min2) throws PrismException
+	{
+		checkNumStates(odd);
+		PrismNative.resetModelCheckingInfo();
+		long ptr = PS_GameBoundedUntil(trans.ptr(), odd.ptr(), rows.array(), rows.n(), cols.array(), cols.n(), nondet.array(), nondet.n(), yes.ptr(), maybe.ptr(), player1.ptr(), time, min1, min2);
+		if (ptr == 0) throw generateExceptionForError();
+		return new DoubleVector(ptr, (int)(odd.getEOff() + odd.getTOff()));
+	}
+
+	// pctl reach reward (turn-based game)
+	private static native long PS_GameReachReward(long trans, long sr, long trr, long odd, long rv, int nrv, long cv, int ncv, long ndv, int nndv, long goal, long inf, long maybe, long player1, boolean min1, boolean min2, long init);
+	public static DoubleVector GameReachReward(JDDNode trans, JDDNode sr, JDDNode trr, ODDNode odd, JDDVars rows, JDDVars cols, JDDVars nondet, JDDNode goal, JDDNode inf, JDDNode maybe, JDDNode player1, boolean min1, boolean min2, DoubleVector init) throws PrismException
+	{
+		checkNumStates(odd);
+		PrismNative.resetModelCheckingInfo();
+		long ptr = PS_GameReachReward(trans.ptr(), sr.ptr(), trr.ptr(), odd.ptr(), rows.array(), rows.n(), cols.array(), cols.n(), nondet.array(), nondet.n(), goal.ptr(), inf.ptr(), maybe.ptr(), player1.ptr(), min1, min2, (init == null) ? 0 : init.getPtr());
+		if (ptr == 0) throw generateExceptionForError();
+		return new DoubleVector(ptr, (int)(odd.getEOff() + odd.getTOff()));
+	}
+
 	private static native double[] PS_NondetMultiObj(long odd, long rv, int nrv, long cv, int ncv, long ndv, int nndv, boolean minmax, long start, long ptr_adversary, long ptr_TransSparseMatrix, List<String> synchs, long[] ptr_yes_vec, int[] probStepBounds, long[] ptr_RewSparseMatrix, double[] rewardWeights, int[] rewardStepBounds);
 	public static double[] NondetMultiObj(ODDNode odd, JDDVars rows, JDDVars cols, JDDVars nondet, boolean minmax, JDDNode start, NativeIntArray adversary, NDSparseMatrix transSparseMatrix, List<String> synchs, DoubleVector[] yes_vec, int[] probStepBounds, NDSparseMatrix[] rewSparseMatrix, double[] rewardWeights, int[] rewardStepBounds) throws PrismException
 	{
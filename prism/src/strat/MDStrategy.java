@@ -28,6 +28,7 @@
 package strat;
 
 import prism.PrismLog;
+import prism.StreamingExporter;
 
 /**
  * Interface for classes to store memoryless deterministic (MD) strategies.
@@ -78,20 +79,24 @@ public interface MDStrategy<Value> extends Strategy<Value>
 	@Override
 	public default void exportActions(PrismLog out, StrategyExportOptions options)
 	{
-		int n = getNumStates();
-		for (int s = 0; s < n; s++) {
-			if (isChoiceDefined(s))
-				out.println(s + "=" + getChoiceActionString(s));
-		}
+		// Stream in chunks (but sequentially, since implementations may not be thread-safe)
+		new StreamingExporter().exportText(getNumStates(), (s, sb) -> {
+			if (!isChoiceDefined(s))
+				return false;
+			sb.append(s).append('=').append(getChoiceActionString(s)).append('\n');
+			return true;
+		}, out);
 	}
 
 	@Override
 	public default void exportIndices(PrismLog out, StrategyExportOptions options)
 	{
-		int n = getNumStates();
-		for (int s = 0; s < n; s++) {
-			if (isChoiceDefined(s))
-				out.println(s + "=" + getChoiceIndex(s));
-		}
+		// Stream in chunks (but sequentially, since implementations may not be thread-safe)
+		new StreamingExporter().exportText(getNumStates(), (s, sb) -> {
+			if (!isChoiceDefined(s))
+				return false;
+			sb.append(s).append('=').append(getChoiceIndex(s)).append('\n');
+			return true;
+		}, out);
 	}
 }
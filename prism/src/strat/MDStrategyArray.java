@@ -32,6 +32,7 @@ import explicit.NondetModel;
 import parser.State;
 import prism.PrismException;
 import prism.PrismLog;
+import prism.StreamingExporter;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -90,12 +91,32 @@ public class MDStrategyArray<Value> extends StrategyExplicit<Value> implements M
 	{
 		List<State> states = model.getStatesList();
 		boolean showStates = options.getShowStates() && states != null;
-		int n = getNumStates();
-		for (int s = 0; s < n; s++) {
-			if (isChoiceDefined(s)) {
-				out.println((showStates ? states.get(s) : s) + "=" + getChoiceActionString(s));
+		StreamingExporter exporter = new StreamingExporter().setNumThreads(options.getNumThreads());
+		exporter.exportText(getNumStates(), (s, sb) -> {
+			if (!isChoiceDefined(s)) {
+				return false;
 			}
-		}
+			if (showStates) {
+				sb.append(states.get(s).toString());
+			} else {
+				sb.append(s);
+			}
+			sb.append('=').append(getChoiceActionString(s)).append('\n');
+			return true;
+		}, out);
+	}
+
+	@Override
+	public void exportIndices(PrismLog out, StrategyExportOptions options)
+	{
+		StreamingExporter exporter = new StreamingExporter().setNumThreads(options.getNumThreads());
+		exporter.exportText(getNumStates(), (s, sb) -> {
+			if (choices[s] < 0) {
+				return false;
+			}
+			sb.append(s).append('=').append(choices[s]).append('\n');
+			return true;
+		}, out);
 	}
 
 	@Override
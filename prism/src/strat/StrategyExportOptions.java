@@ -106,6 +106,11 @@ public class StrategyExportOptions implements Cloneable
 	 */
 	private Optional<Integer> modelPrecision = Optional.empty();
 
+	/**
+	 * Number of threads to use when formatting the export
+	 */
+	private Optional<Integer> numThreads = Optional.empty();
+
 	// Constructors
 
 	/**
@@ -182,6 +187,15 @@ public class StrategyExportOptions implements Cloneable
 		return this;
 	}
 
+	/**
+	 * Set number of threads to use when formatting the export.
+	 */
+	public StrategyExportOptions setNumThreads(int numThreads)
+	{
+		this.numThreads = Optional.of(numThreads);
+		return this;
+	}
+
 	// Get methods
 
 	/**
@@ -232,6 +246,14 @@ public class StrategyExportOptions implements Cloneable
 		return modelPrecision.orElse(DEFAULT_EXPORT_MODEL_PRECISION);
 	}
 
+	/**
+	 * Number of threads to use when formatting the export.
+	 */
+	public int getNumThreads()
+	{
+		return numThreads.orElse(1);
+	}
+
 	/**
 	 * Get string description for type of strategy export.
 	 */
@@ -0,0 +1,193 @@
+package automata;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import acceptance.AcceptanceBuchi;
+import acceptance.AcceptanceOmega;
+import acceptance.AcceptanceRabin;
+import acceptance.AcceptanceReach;
+import acceptance.AcceptanceType;
+import parser.ast.Expression;
+import parser.ast.ExpressionLabel;
+import parser.ast.ExpressionTemporal;
+import prism.PrismComponent;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+import prism.PrismLog;
+import prism.PrismPrintStreamLog;
+
+public class LTL2DACacheTest
+{
+	@TempDir
+	File tmpDir;
+
+	@AfterEach
+	public void clearMemory()
+	{
+		LTL2DACache.clearMemory();
+	}
+
+	/**
+	 * Automaton over APs L0 and L1 with 3 states, in which state s moves to
+	 * state (s + letter) mod 3, where letter is the letter read, as a number.
+	 */
+	private static DA<BitSet, AcceptanceOmega> buildDA(AcceptanceOmega acceptance)
+	{
+		DA<BitSet, AcceptanceOmega> da = new DA<>(3);
+		da.setAPList(Arrays.asList("L0", "L1"));
+		for (int s = 0; s < 3; s++) {
+			for (int letter = 0; letter < 4; letter++) {
+				da.addEdge(s, BitSet.valueOf(new long[] { letter }), (s + letter) % 3);
+			}
+		}
+		da.setStartState(1);
+		da.setAcceptance(acceptance);
+		return da;
+	}
+
+	private static BitSet bits(int... is)
+	{
+		BitSet bs = new BitSet();
+		for (int i : is) {
+			bs.set(i);
+		}
+		return bs;
+	}
+
+	private static AcceptanceOmega[] acceptances()
+	{
+		AcceptanceRabin rabin = new AcceptanceRabin();
+		rabin.add(new AcceptanceRabin.RabinPair(bits(0), bits(1, 2)));
+		rabin.add(new AcceptanceRabin.RabinPair(bits(), bits(0)));
+		return new AcceptanceOmega[] { rabin, new AcceptanceBuchi(bits(2)), new AcceptanceReach(bits(0, 2)) };
+	}
+
+	private LTL2DACache createCache(File dir)
+	{
+		PrismComponent parent = new PrismComponent();
+		parent.setLog(new PrismDevNullLog());
+		return new LTL2DACache(parent, dir);
+	}
+
+	/**
+	 * Automata (including reachability ones, which HOA cannot distinguish from Buchi ones)
+	 * read back from the in-memory cache are the same as those stored, and are fresh copies.
+	 */
+	@Test
+	public void testMemoryRoundTrip()
+	{
+		LTL2DACache cache = createCache(null);
+		for (AcceptanceOmega acceptance : acceptances()) {
+			DA<BitSet, AcceptanceOmega> da = buildDA(acceptance);
+			String key = acceptance.getType().toString();
+			assertNull(cache.lookup(key));
+			assertTrue(cache.store(key, da));
+			DA<BitSet, ? extends AcceptanceOmega> da2 = cache.lookup(key);
+			assertNotNull(da2);
+			assertEquals(da.getAcceptance().getType(), da2.getAcceptance().getType());
+			assertEquals(da.toString(), da2.toString());
+			// shared between instances
+			DA<BitSet, ? extends AcceptanceOmega> da3 = createCache(null).lookup(key);
+			assertNotSame(da2, da3);
+			assertEquals(da.toString(), da3.toString());
+		}
+		assertEquals(6, LTL2DACache.getNumHits());
+		assertEquals(3, LTL2DACache.getNumMisses());
+	}
+
+	/**
+	 * Individual cache hits and misses are only logged at a high verbosity level.
+	 */
+	@Test
+	public void testLookupLoggedOnlyWhenVerbose()
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		PrismLog log = new PrismPrintStreamLog(new PrintStream(bytes, true));
+		PrismComponent parent = new PrismComponent();
+		parent.setLog(log);
+		LTL2DACache cache = new LTL2DACache(parent, null);
+		assertNull(cache.lookup("key"));
+		log.flush();
+		assertFalse(bytes.toString().contains("LTL->DA cache"));
+		log.setVerbosityLevel(PrismLog.VL_ALL);
+		assertNull(cache.lookup("key"));
+		log.flush();
+		assertTrue(bytes.toString().contains("LTL->DA cache miss"));
+	}
+
+	/**
+	 * Automata stored in a cache directory are read back (by another instance,
+	 * with an empty in-memory cache) as the same automata.
+	 */
+	@Test
+	public void testFileRoundTrip()
+	{
+		File dir = new File(tmpDir, "cache");
+		for (AcceptanceOmega acceptance : acceptances()) {
+			DA<BitSet, AcceptanceOmega> da = buildDA(acceptance);
+			String key = acceptance.getType().toString();
+			assertTrue(createCache(dir).store(key, da));
+			assertTrue(createCache(dir).getFile(key).isFile());
+			LTL2DACache.clearMemory();
+			DA<BitSet, ? extends AcceptanceOmega> da2 = createCache(dir).lookup(key);
+			assertNotNull(da2);
+			assertEquals(da.toString(), da2.toString());
+		}
+		assertEquals(3, dir.list().length);
+	}
+
+	@Test
+	public void testCorruptEntryDiscarded() throws Exception
+	{
+		LTL2DACache cache = createCache(tmpDir);
+		File file = cache.getFile("corrupt");
+		Files.write(file.toPath(), "HOA: v1\nStates: 2\n--BODY--\n".getBytes(StandardCharsets.UTF_8));
+		assertNull(cache.lookup("corrupt"));
+		assertFalse(file.exists());
+		// an entry with a different acceptance type than recorded
+		String hoa = new String(Files.readAllBytes(storeAndGetFile(cache, "rabin", acceptances()[0]).toPath()), StandardCharsets.UTF_8);
+		Files.write(file.toPath(), hoa.replace("\"" + AcceptanceType.RABIN + "\"", "\"" + AcceptanceType.STREETT + "\"").getBytes(StandardCharsets.UTF_8));
+		LTL2DACache.clearMemory();
+		assertNull(cache.lookup("corrupt"));
+		assertFalse(file.exists());
+	}
+
+	@Test
+	public void testComputeKey() throws PrismException
+	{
+		LTL2DACache cache = createCache(null);
+		Expression f = new ExpressionTemporal(ExpressionTemporal.P_F, null, new ExpressionLabel("L0"));
+		Expression g = new ExpressionTemporal(ExpressionTemporal.P_G, null, new ExpressionLabel("L0"));
+		String key = cache.computeKey(f, AcceptanceType.RABIN, AcceptanceType.REACH);
+		assertEquals(key, cache.computeKey(f.deepCopy(), AcceptanceType.REACH, AcceptanceType.RABIN));
+		assertNotEquals(key, cache.computeKey(g, AcceptanceType.RABIN, AcceptanceType.REACH));
+		assertNotEquals(key, cache.computeKey(f, AcceptanceType.RABIN));
+		assertTrue(key.matches("[0-9a-f]{64}"));
+	}
+
+	// Helpers
+
+	private static File storeAndGetFile(LTL2DACache cache, String key, AcceptanceOmega acceptance)
+	{
+		assertTrue(cache.store(key, buildDA(acceptance)));
+		return cache.getFile(key);
+	}
+}
@@ -0,0 +1,199 @@
+package explicit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import parser.ast.ModulesFile;
+import prism.Prism;
+import prism.PrismComponent;
+import prism.PrismException;
+import prism.PrismNotSupportedException;
+import simulator.ModulesFileModelGenerator;
+
+public class BinaryModelFileTest
+{
+	/** Concurrent game in which player 1 idles in some states (s=2) */
+	private static final String CSG_MODEL = "csg"
+			+ " player p1 m1 endplayer player p2 m2 endplayer"
+			+ " module m1 s:[0..2] init 0; [a1] s=0 -> 0.5:(s'=1) + 0.5:(s'=2); [b1] s<2 -> (s'=0); endmodule"
+			+ " module m2 t:[0..1] init 0; [a2] t=0 -> (t'=1); [b2] true -> 0.3:(t'=0) + 0.7:(t'=1); endmodule"
+			+ " label \"done\" = s=2 & t=1;";
+
+	/** Turn-based game */
+	private static final String SMG_MODEL = "smg"
+			+ " player p1 [a], [b] endplayer player p2 [c], [d] endplayer"
+			+ " global turn:[1..2] init 1;"
+			+ " module m1 s:[0..3] init 0; [a] turn=1 & s<3 -> 0.25:(s'=s+1)&(turn'=2) + 0.75:(turn'=2); [b] turn=1 -> (s'=0)&(turn'=2); endmodule"
+			+ " module m2 [c] turn=2 -> (turn'=1); [d] turn=2 & s>0 -> (turn'=1); endmodule";
+
+	/** MDP with state variables of several sizes (so that all column types are stored) */
+	private static final String MDP_MODEL = "mdp"
+			+ " module m s:[0..3] init 0; b:bool init false; u:[-1000..1000] init 0; w:[0..100000] init 0;"
+			+ " [a] s<3 -> 0.4:(s'=s+1)&(u'=-300*s)&(w'=30000*s) + 0.6:(b'=!b);"
+			+ " [b] s>0 -> (s'=s-1)&(u'=u+1)&(w'=w+1);"
+			+ " endmodule"
+			+ " label \"top\" = s=3;";
+
+	/** DTMC with the same state variables */
+	private static final String DTMC_MODEL = "dtmc"
+			+ " module m s:[0..3] init 0; b:bool init false; u:[-1000..1000] init 0; w:[0..100000] init 0;"
+			+ " [] s<3 -> 0.4:(s'=s+1)&(u'=-300*s)&(w'=30000*s) + 0.6:(b'=!b);"
+			+ " [] s=3 -> (s'=0)&(u'=u+1)&(w'=w+1);"
+			+ " endmodule"
+			+ " label \"top\" = s=3;";
+
+	@TempDir
+	File tmpDir;
+
+	/**
+	 * Games are rejected (there are no mapped game classes), both when written directly
+	 * and when stored in the model cache.
+	 */
+	@Test
+	public void testGamesNotSupported() throws Exception
+	{
+		for (String modelString : new String[] { CSG_MODEL, SMG_MODEL }) {
+			Model<Double> model = buildModel(modelString);
+			assertFalse(BinaryModelFile.isSupported(model));
+			File file = new File(tmpDir, "game.prmb");
+			assertThrows(PrismNotSupportedException.class, () -> BinaryModelFile.write(model, file));
+			ModelCache cache = new ModelCache(new PrismComponent(), tmpDir, 0);
+			assertFalse(cache.store("game", model));
+			assertFalse(cache.getFile("game").exists());
+		}
+	}
+
+	/**
+	 * Sections mapped in chunks (here of 8 or 16 bytes, rather than 1GB) are read as when mapped in one piece,
+	 * both when copied and when accessed in place.
+	 */
+	@Test
+	public void testChunkedSections() throws Exception
+	{
+		for (String modelString : new String[] { MDP_MODEL, DTMC_MODEL }) {
+			Model<Double> model = buildModel(modelString);
+			double[] rews = new double[model.getNumStates()];
+			for (int s = 0; s < rews.length; s++) {
+				rews[s] = s * 0.5;
+			}
+			File file = File.createTempFile("model", ".prmb", tmpDir);
+			BinaryModelFile.write(model, Collections.singletonList("r"), Collections.singletonList(rews), file);
+			for (int chunkShift : new int[] { 3, 4, MappedSection.CHUNK_SHIFT }) {
+				for (boolean map : new boolean[] { false, true }) {
+					BinaryModelFile bmf = BinaryModelFile.open(file, map, chunkShift);
+					ModelExplicit<Double> read = bmf.getModel();
+					if (map) {
+						assertTrue(read instanceof DTMCMapped || read instanceof MDPMapped);
+					}
+					assertSameModel(model, read);
+					assertArrayEquals(rews, bmf.getStateRewards(0));
+				}
+			}
+		}
+	}
+
+	// Helpers
+
+	private static Model<Double> buildModel(String modelString) throws PrismException, InterruptedException
+	{
+		ModulesFile modulesFile;
+		try {
+			modulesFile = Prism.getPrismParser().parseModulesFile(new ByteArrayInputStream(modelString.getBytes()));
+		} finally {
+			Prism.releasePrismParser();
+		}
+		modulesFile.tidyUp();
+		PrismComponent parent = new PrismComponent();
+		ConstructModel constructModel = new ConstructModel(parent);
+		return constructModel.constructModel(ModulesFileModelGenerator.createForDoubles(modulesFile, parent));
+	}
+
+	private ModelExplicit<Double> writeAndRead(Model<Double> model) throws PrismException, IOException
+	{
+		assertTrue(BinaryModelFile.isSupported(model));
+		File file = File.createTempFile("model", ".prmb", tmpDir);
+		BinaryModelFile.write(model, file);
+		return BinaryModelFile.read(file);
+	}
+
+	private static void assertSameModel(Model<Double> model, Model<Double> model2)
+	{
+		if (model instanceof NondetModel) {
+			assertSameNondetModel((NondetModel<Double>) model, (NondetModel<Double>) model2);
+			return;
+		}
+		assertSameCommon(model, model2);
+		for (int s = 0; s < model.getNumStates(); s++) {
+			assertEquals(transitions((DTMC<Double>) model, s), transitions((DTMC<Double>) model2, s));
+		}
+	}
+
+	private static void assertSameCommon(Model<Double> model, Model<Double> model2)
+	{
+		assertEquals(model.getModelType(), model2.getModelType());
+		assertEquals(model.getNumStates(), model2.getNumStates());
+		assertEquals(model.getNumTransitions(), model2.getNumTransitions());
+		assertEquals(toList(model.getInitialStates()), toList(model2.getInitialStates()));
+		assertEquals(toList(model.getDeadlockStates()), toList(model2.getDeadlockStates()));
+		assertEquals(model.getStatesList(), model2.getStatesList());
+		assertEquals(model.getLabels(), model2.getLabels());
+		for (String label : model.getLabels()) {
+			assertEquals(model.getLabelStates(label), model2.getLabelStates(label));
+		}
+	}
+
+	private static void assertSameNondetModel(NondetModel<Double> model, NondetModel<Double> model2)
+	{
+		assertSameCommon(model, model2);
+		assertEquals(model.getNumChoices(), model2.getNumChoices());
+		for (int s = 0; s < model.getNumStates(); s++) {
+			assertEquals(model.getNumChoices(s), model2.getNumChoices(s));
+			for (int c = 0; c < model.getNumChoices(s); c++) {
+				assertEquals(model.getAction(s, c), model2.getAction(s, c));
+				assertEquals(transitions((MDP<Double>) model, s, c), transitions((MDP<Double>) model2, s, c));
+			}
+		}
+	}
+
+	private static List<Integer> toList(Iterable<Integer> it)
+	{
+		List<Integer> list = new ArrayList<>();
+		it.forEach(list::add);
+		return list;
+	}
+
+	private static List<String> transitions(MDP<Double> mdp, int s, int c)
+	{
+		return transitions(mdp.getTransitionsIterator(s, c));
+	}
+
+	private static List<String> transitions(DTMC<Double> dtmc, int s)
+	{
+		return transitions(dtmc.getTransitionsIterator(s));
+	}
+
+	private static List<String> transitions(Iterator<Map.Entry<Integer, Double>> it)
+	{
+		List<String> list = new ArrayList<>();
+		while (it.hasNext()) {
+			Map.Entry<Integer, Double> e = it.next();
+			list.add(e.getKey() + ":" + e.getValue());
+		}
+		return list;
+	}
+}
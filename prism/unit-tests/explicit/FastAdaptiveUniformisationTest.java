@@ -0,0 +1,62 @@
+package explicit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+
+import org.junit.jupiter.api.Test;
+
+import parser.ast.ModulesFile;
+import prism.Prism;
+import prism.PrismComponent;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+import prism.PrismSettings;
+import simulator.ModulesFileModelGenerator;
+
+public class FastAdaptiveUniformisationTest
+{
+	/** Tandem queue; with a large threshold (delta), states drop out of the window and are added again */
+	private static final String MODEL = "ctmc const int N=7;"
+			+ " module q1 x:[0..N] init 0; [a] x<N -> 10:(x'=x+1); [b] x>0 -> 6:(x'=x-1); endmodule"
+			+ " module q2 y:[0..N] init 0; [b] y<N -> 1:(y'=y+1); [] y>0 -> 7:(y'=y-1); endmodule";
+
+	/** States of the window at time 3, in the order reported by the original (map-based) implementation */
+	private static final String EXPECTED_STATES = "(3,0) (4,0) (5,0) (3,1) (6,0) (4,1) (2,2) (7,0) (5,1) (3,2) (6,1) (4,2) (2,3) (7,1) (5,2) (3,3)"
+			+ " (6,2) (4,3) (2,4) (7,2) (5,3) (3,4) (6,3) (4,4) (7,3) (5,4) (3,5) (6,4) (4,5) (7,4) (5,5) (6,5)";
+
+	/** Transient probabilities at time 3, as computed by the original implementation */
+	private static final double[] EXPECTED_PROBS = {
+		0.0, 0.0, 0.003025822253263458, 0.0, 0.015586642061267943, 0.0, 0.0, 0.0760092667788191,
+		0.007702058996935399, 0.0, 0.029320516208790663, 0.0, 0.0, 0.03473531151731374, 0.010704215286382674, 0.0,
+		0.01684558202582164, 0.0, 0.0, 0.018567206618143452, 0.005574588812703699, 0.0, 0.007999754449087548, 0.0,
+		0.007685576062678502, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0
+	};
+
+	@Test
+	public void testTransientMatchesOriginalImplementation() throws PrismException, InterruptedException
+	{
+		ModulesFile modulesFile;
+		try {
+			modulesFile = Prism.getPrismParser().parseModulesFile(new ByteArrayInputStream(MODEL.getBytes()));
+		} finally {
+			Prism.releasePrismParser();
+		}
+		modulesFile.tidyUp();
+		PrismComponent parent = new PrismComponent();
+		parent.getSettings().set(PrismSettings.PRISM_FAU_DELTA, 3e-3);
+		FastAdaptiveUniformisation fau = new FastAdaptiveUniformisation(parent, ModulesFileModelGenerator.createForDoubles(modulesFile, parent));
+		fau.setLog(new PrismDevNullLog());
+		StateValues probs = fau.doTransient(3.0);
+
+		StringBuilder states = new StringBuilder();
+		double[] values = new double[probs.getSize()];
+		for (int i = 0; i < probs.getSize(); i++) {
+			states.append(i > 0 ? " " : "").append(probs.statesList.get(i));
+			values[i] = (Double) probs.getValue(i);
+		}
+		assertEquals(EXPECTED_STATES, states.toString());
+		assertArrayEquals(EXPECTED_PROBS, values, 1e-15);
+	}
+}
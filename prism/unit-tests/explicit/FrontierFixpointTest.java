@@ -0,0 +1,75 @@
+package explicit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.BitSet;
+
+import org.junit.jupiter.api.Test;
+
+import prism.PrismComponent;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+
+public class FrontierFixpointTest
+{
+	/**
+	 * Abstraction (STPG) in which state 1 has an empty set of distributions as one of its choices:
+	 * 0: target (self-loop); 1: {} or {3}; 2: {0.5:1 + 0.5:3}; 3: sink (self-loop)
+	 */
+	private STPGAbstrSimple<Double> buildAbstraction()
+	{
+		STPGAbstrSimple<Double> stpg = new STPGAbstrSimple<>(4);
+		addChoice(stpg, 0, 0);
+		stpg.addDistributionSet(1, stpg.newDistributionSet(null));
+		addChoice(stpg, 1, 3);
+		DistributionSet<Double> set = stpg.newDistributionSet(null);
+		Distribution<Double> distr = Distribution.ofDouble();
+		distr.add(1, 0.5);
+		distr.add(3, 0.5);
+		set.add(distr);
+		stpg.addDistributionSet(2, set);
+		addChoice(stpg, 3, 3);
+		stpg.addInitialState(2);
+		return stpg;
+	}
+
+	private void addChoice(STPGAbstrSimple<Double> stpg, int s, int t)
+	{
+		DistributionSet<Double> set = stpg.newDistributionSet(null);
+		Distribution<Double> distr = Distribution.ofDouble();
+		distr.add(t, 1.0);
+		set.add(distr);
+		stpg.addDistributionSet(s, set);
+	}
+
+	@Test
+	public void testVacuousStatesIncludeEmptyDistributionSets()
+	{
+		STPGAbstrSimple<Double> stpg = buildAbstraction();
+		BitSet unknown = new BitSet();
+		unknown.set(1, 4);
+		// Exists a player 1 choice for which all (i.e. no) player 2 choices hit the (empty) set
+		BitSet vacuous = FrontierFixpoint.vacuousStates(stpg, unknown, (s, current) -> stpg.prob0step(s, current, false, true));
+		assertTrue(vacuous.get(1));
+		assertEquals(1, vacuous.cardinality());
+	}
+
+	@Test
+	public void testFrontierPrecomputationMatchesFullIteration() throws PrismException
+	{
+		STPGAbstrSimple<Double> stpg = buildAbstraction();
+		STPGModelChecker mc = new STPGModelChecker(new PrismComponent());
+		mc.setLog(new PrismDevNullLog());
+		PredecessorRelation pre = stpg.getPredecessorRelation(mc, true);
+		BitSet target = new BitSet();
+		target.set(0);
+		for (boolean min1 : new boolean[] { false, true }) {
+			for (boolean min2 : new boolean[] { false, true }) {
+				String desc = (min1 ? "min" : "max") + (min2 ? "min" : "max");
+				assertEquals(mc.prob0(stpg, null, target, min1, min2), mc.prob0(stpg, null, target, min1, min2, pre), "Prob0 " + desc);
+				assertEquals(mc.prob1(stpg, null, target, min1, min2), mc.prob1(stpg, null, target, min1, min2, pre), "Prob1 " + desc);
+			}
+		}
+	}
+}
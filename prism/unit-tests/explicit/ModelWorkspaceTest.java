@@ -0,0 +1,91 @@
+package explicit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+public class ModelWorkspaceTest
+{
+	@Test
+	public void testMaxMemory()
+	{
+		long heapShare = Runtime.getRuntime().maxMemory() / 4;
+		DTMCSimple<Double> small = new DTMCSimple<>(10);
+		DTMCSimple<Double> large = new DTMCSimple<>(4_000_000);
+		// at least 16MB for small models, scaled for larger ones, but at most a quarter of the heap
+		assertEquals(Math.min(16L << 20, heapShare), ModelWorkspace.autoMaxMemory(small));
+		long auto = ModelWorkspace.autoMaxMemory(large);
+		assertEquals(Math.min(16 * (16 + 8L * 4_000_000), heapShare), auto);
+		assertTrue(auto <= heapShare);
+		// via forModel
+		assertNull(ModelWorkspace.forModel(large, 0));
+		assertEquals(auto, ModelWorkspace.forModel(large, ModelWorkspace.AUTO_MAX_MEMORY).getMaxMemory());
+		assertEquals(1000, ModelWorkspace.forModel(large, 1000).getMaxMemory());
+		assertEquals(auto, new ModelWorkspace(large).getMaxMemory());
+	}
+
+	/**
+	 * Each mutator of DTMCSimple, CTMCSimple and MDPSimple discards the workspace, including those
+	 * that do not change the number of transitions (which the workspace itself could detect).
+	 */
+	@Test
+	public void testMutatorsDiscardWorkspace()
+	{
+		assertDiscards(buildDTMC(), dtmc -> dtmc.setProbability(0, 1, 0.25));
+		assertDiscards(buildDTMC(), dtmc -> dtmc.addToProbability(0, 1, 0.0));
+		assertDiscards(buildDTMC(), dtmc -> dtmc.clearState(2));
+		assertDiscards(buildDTMC(), dtmc -> dtmc.addStates(1));
+		assertDiscards(buildDTMC(), dtmc -> dtmc.initialise(3));
+		CTMCSimple<Double> ctmc = new CTMCSimple<>(2);
+		ctmc.setProbability(0, 1, 1.5);
+		assertDiscards(ctmc, c -> c.uniformise(2.0));
+		assertDiscards(buildMDP(), mdp -> mdp.clearState(0));
+		assertDiscards(buildMDP(), mdp -> mdp.addStates(2));
+		assertDiscards(buildMDP(), mdp -> mdp.addChoice(1, distr(0, 1.0)));
+		assertDiscards(buildMDP(), mdp -> mdp.addActionLabelledChoice(1, distr(2, 1.0), "b"));
+		assertDiscards(buildMDP(), mdp -> mdp.setAction(0, 0, "c"));
+		assertDiscards(buildMDP(), mdp -> mdp.initialise(3));
+	}
+
+	// Helpers
+
+	private static <M extends ModelExplicit<Double>> void assertDiscards(M model, Consumer<M> mutator)
+	{
+		ModelWorkspace workspace = model.getWorkspace();
+		assertSame(workspace, model.getWorkspace());
+		mutator.accept(model);
+		assertNotSame(workspace, model.getWorkspace());
+	}
+
+	private static DTMCSimple<Double> buildDTMC()
+	{
+		DTMCSimple<Double> dtmc = new DTMCSimple<>(3);
+		dtmc.setProbability(0, 1, 0.5);
+		dtmc.setProbability(0, 2, 0.5);
+		dtmc.setProbability(1, 1, 1.0);
+		dtmc.setProbability(2, 0, 1.0);
+		return dtmc;
+	}
+
+	private static MDPSimple<Double> buildMDP()
+	{
+		MDPSimple<Double> mdp = new MDPSimple<>(3);
+		mdp.addActionLabelledChoice(0, distr(1, 1.0), "a");
+		mdp.addActionLabelledChoice(1, distr(2, 1.0), "a");
+		mdp.addActionLabelledChoice(2, distr(0, 1.0), "a");
+		return mdp;
+	}
+
+	private static Distribution<Double> distr(int s, double p)
+	{
+		Distribution<Double> distr = Distribution.ofDouble();
+		distr.add(s, p);
+		return distr;
+	}
+}
@@ -0,0 +1,231 @@
+package explicit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.util.BitSet;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import common.IntSet;
+import common.Parallel;
+import explicit.IterationMethod.IterationValIter;
+import prism.PrismException;
+
+public class OffHeapVectorTest
+{
+	@TempDir
+	File tmpDir;
+
+	/**
+	 * Entries either side of each chunk boundary (here, for chunks of 1, 8 or 32 entries)
+	 * can be set, got, swapped and copied, for both direct and memory-mapped vectors.
+	 */
+	@Test
+	public void testChunkBoundaries() throws PrismException
+	{
+		for (int chunkShift : new int[] { 0, 3, 5 }) {
+			long chunkSize = 1L << chunkShift;
+			for (File dir : new File[] { null, tmpDir }) {
+				int n = (int) (3 * chunkSize + 5);
+				OffHeapVector vect = new OffHeapVector(n, dir, chunkShift);
+				assertEquals(n, vect.length());
+				assertEquals(dir != null, vect.isMapped());
+				for (long i = 0; i < n; i++) {
+					assertEquals(0.0, vect.get(i));
+					vect.set(i, i + 0.5);
+				}
+				for (long i = 0; i < n; i++) {
+					assertEquals(i + 0.5, vect.get(i));
+				}
+				// swap the last entry of each chunk with the first of the next one
+				for (long i = chunkSize; i < n; i += chunkSize) {
+					swap(vect, i - 1, i);
+					assertEquals(i - 0.5, vect.get(i));
+					assertEquals(i + 0.5, vect.get(i - 1));
+					swap(vect, i - 1, i);
+				}
+				// copying, of all entries or of a prefix ending just after a boundary
+				double[] arr = new double[n];
+				vect.copyTo(arr);
+				for (int i = 0; i < n; i++) {
+					assertEquals(i + 0.5, arr[i]);
+				}
+				double[] prefix = new double[(int) chunkSize + 1];
+				for (int i = 0; i < prefix.length; i++) {
+					prefix[i] = -i;
+				}
+				vect.copyFrom(prefix);
+				double[] prefix2 = new double[prefix.length];
+				vect.copyTo(prefix2);
+				assertArrayEquals(prefix, prefix2);
+				assertEquals(prefix.length + 0.5, vect.get(prefix.length));
+				assertThrows(IndexOutOfBoundsException.class, () -> vect.copyFrom(new double[n + 1]));
+				vect.fill(2.0);
+				assertEquals(2.0, vect.get(0));
+				assertEquals(2.0, vect.get(n - 1));
+			}
+		}
+	}
+
+	/**
+	 * The same, at the real boundaries of 2^{@value OffHeapVector#CHUNK_SHIFT} entries.
+	 * The vector is memory-mapped (to a sparse file), so that only the entries used occupy memory.
+	 */
+	@Test
+	public void testRealChunkBoundary() throws PrismException
+	{
+		long chunkSize = 1L << OffHeapVector.CHUNK_SHIFT;
+		long n = 2 * chunkSize + 3;
+		OffHeapVector vect = new OffHeapVector(n, tmpDir);
+		assertEquals(0, tmpDir.list().length);
+		long[] indices = { 0, chunkSize - 2, chunkSize - 1, chunkSize, chunkSize + 1, 2 * chunkSize - 1, 2 * chunkSize, n - 1 };
+		for (long i : indices) {
+			assertEquals(0.0, vect.get(i));
+			vect.set(i, -i);
+		}
+		for (long i : indices) {
+			assertEquals(-i, vect.get(i));
+		}
+		swap(vect, chunkSize - 1, chunkSize);
+		assertEquals(-chunkSize, vect.get(chunkSize - 1));
+		assertEquals(-(chunkSize - 1), vect.get(chunkSize));
+		swap(vect, 2 * chunkSize - 1, n - 1);
+		assertEquals(-(n - 1), vect.get(2 * chunkSize - 1));
+		assertEquals(-(2 * chunkSize - 1), vect.get(n - 1));
+	}
+
+	@Test
+	public void testInvalidArguments()
+	{
+		assertThrows(IllegalArgumentException.class, () -> new OffHeapVector(-1));
+		assertThrows(IllegalArgumentException.class, () -> new OffHeapVector(10, null, OffHeapVector.CHUNK_SHIFT + 1));
+	}
+
+	/**
+	 * Iteration with an off-heap second vector, which swaps entries and checks convergence
+	 * in one pass, gives the same results (and the same convergence) as with two on-heap vectors,
+	 * for absolute and relative convergence, sequentially and in parallel, and for subsets of states.
+	 */
+	@Test
+	public void testOffHeapIterationMatchesOnHeap() throws PrismException
+	{
+		// Several blocks of states, for parallel iteration
+		int n = 3 * Parallel.DEFAULT_BLOCK_SIZE + 10;
+		DTMCSparse dtmc = new DTMCSparse(buildChain(n));
+		BitSet even = new BitSet();
+		for (int s = 0; s < n; s += 2) {
+			even.set(s);
+		}
+		BitSet all = new BitSet();
+		all.set(0, n);
+		for (boolean absolute : new boolean[] { true, false }) {
+			for (int numThreads : new int[] { 1, 3 }) {
+				for (BitSet states : new BitSet[] { all, even }) {
+					IterationValIter onHeap = createIteration(absolute, numThreads, false, dtmc);
+					IterationValIter offHeap = createIteration(absolute, numThreads, true, dtmc);
+					onHeap.init(initialValues(n));
+					offHeap.init(initialValues(n));
+					int iters = 0;
+					boolean done = false;
+					while (!done) {
+						done = onHeap.iterateAndCheckConvergence(IntSet.asIntSet(states));
+						assertEquals(done, offHeap.iterateAndCheckConvergence(IntSet.asIntSet(states)));
+						assertArrayEquals(onHeap.getSolnVector(), offHeap.getSolnVector());
+						assertEquals(onHeap.getError(), offHeap.getError());
+						iters++;
+					}
+					assertTrue(iters > 10);
+					onHeap.release();
+					offHeap.release();
+				}
+			}
+		}
+	}
+
+	/**
+	 * A single entry that is not (yet) converged, in any block of states, prevents convergence.
+	 */
+	@Test
+	public void testOffHeapConvergenceCheck() throws PrismException
+	{
+		int n = 3 * Parallel.DEFAULT_BLOCK_SIZE + 10;
+		for (int numThreads : new int[] { 1, 3 }) {
+			for (int changed : new int[] { 0, Parallel.DEFAULT_BLOCK_SIZE, n - 2 }) {
+				// All states are absorbing, except that state "changed" moves to state n-1
+				DTMCSimple<Double> dtmcSimple = new DTMCSimple<>(n);
+				for (int s = 0; s < n; s++) {
+					dtmcSimple.setProbability(s, s == changed ? n - 1 : s, 1.0);
+				}
+				DTMCSparse dtmc = new DTMCSparse(dtmcSimple);
+				IterationValIter iter = createIteration(true, numThreads, true, dtmc);
+				double[] soln = new double[n];
+				soln[n - 1] = 1e-3;
+				iter.init(soln);
+				BitSet all = new BitSet();
+				all.set(0, n);
+				// the change of 1e-3 is above the threshold
+				assertFalse(iter.iterateAndCheckConvergence(IntSet.asIntSet(all)));
+				assertEquals(1e-3, iter.getSolnVector()[changed]);
+				assertEquals(1e-3, iter.getError());
+				// nothing changes now
+				assertTrue(iter.iterateAndCheckConvergence(IntSet.asIntSet(all)));
+				assertEquals(0.0, iter.getError());
+				// changes below the threshold are ignored
+				iter = createIteration(true, numThreads, true, dtmc);
+				soln = new double[n];
+				soln[n - 1] = 1e-7;
+				iter.init(soln);
+				assertTrue(iter.iterateAndCheckConvergence(IntSet.asIntSet(all)));
+				assertEquals(1e-7, iter.getSolnVector()[changed]);
+			}
+		}
+	}
+
+	// Helpers
+
+	private static void swap(OffHeapVector vect, long i, long j)
+	{
+		double d = vect.get(i);
+		vect.set(i, vect.get(j));
+		vect.set(j, d);
+	}
+
+	/**
+	 * DTMC in which state s moves to s+1 with probability 0.5 (or stays put), and state n-1 is absorbing.
+	 */
+	private static DTMCSimple<Double> buildChain(int n)
+	{
+		DTMCSimple<Double> dtmc = new DTMCSimple<>(n);
+		for (int s = 0; s < n - 1; s++) {
+			dtmc.setProbability(s, s + 1, 0.5);
+			dtmc.setProbability(s, s, 0.5);
+		}
+		dtmc.setProbability(n - 1, n - 1, 1.0);
+		return dtmc;
+	}
+
+	private static double[] initialValues(int n)
+	{
+		double[] soln = new double[n];
+		for (int s = 0; s < n; s++) {
+			soln[s] = s % 7 == 0 ? 1.0 : 0.0;
+		}
+		return soln;
+	}
+
+	private IterationValIter createIteration(boolean absolute, int numThreads, boolean offHeap, DTMC<Double> dtmc) throws PrismException
+	{
+		IterationMethodPower method = new IterationMethodPower(absolute, 1e-6);
+		method.setNumThreads(numThreads);
+		if (offHeap) {
+			method.setOffHeapVectors(1, tmpDir);
+		}
+		return method.forMvMult(dtmc);
+	}
+}
@@ -0,0 +1,136 @@
+package explicit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.util.BitSet;
+
+import org.junit.jupiter.api.Test;
+
+import explicit.QuantAbstractRefine.PropertyType;
+import parser.ast.Expression;
+import parser.ast.ModulesFile;
+import prism.ModelType;
+import prism.Prism;
+import prism.PrismComponent;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+import simulator.ModulesFileModelGenerator;
+
+public class QuantAbstractRefineTest
+{
+	/** Random walk, abstracted as an MDP */
+	private static final String DTMC_MODEL = "dtmc"
+			+ " module m s:[0..6] init 3;"
+			+ " [] s>0 & s<6 -> 0.4:(s'=s-1) + 0.6:(s'=s+1);"
+			+ " [] s=0 | s=6 -> (s'=s);"
+			+ " endmodule"
+			+ " label \"goal\" = s=6;";
+
+	/** Random walk with a choice of a riskier step, abstracted as an STPG */
+	private static final String MDP_MODEL = "mdp"
+			+ " module m s:[0..6] init 3;"
+			+ " [a] s>0 & s<6 -> 0.4:(s'=s-1) + 0.6:(s'=s+1);"
+			+ " [b] s>0 & s<6 -> 0.7:(s'=min(s+2,6)) + 0.3:(s'=0);"
+			+ " [] s=0 | s=6 -> (s'=s);"
+			+ " endmodule"
+			+ " label \"goal\" = s=6;";
+
+	/** Tolerance for comparing results (above the refinement termination criterion) */
+	private static final double EPSILON = 1e-5;
+
+	/**
+	 * For a DTMC (MDP abstraction, with warm-started lower bounds), parallel mode
+	 * gives the same result as sequential mode, and both match the concrete model.
+	 */
+	@Test
+	public void testParallelMatchesSequentialMDPAbstraction() throws PrismException, InterruptedException
+	{
+		ModulesFile modulesFile = parseModel(DTMC_MODEL);
+		ModelSimple<Double> model = buildModel(modulesFile);
+		BitSet goal = labelStates(model, modulesFile, "goal");
+		PrismComponent parent = createParent();
+		double exact = new DTMCModelChecker(parent).computeReachProbs((DTMC<Double>) model, goal).soln[model.getFirstInitialState()];
+
+		double sequential = abstractRefine(model, modulesFile, ModelType.DTMC, true, 1);
+		double parallel = abstractRefine(model, modulesFile, ModelType.DTMC, true, 2);
+		assertEquals(sequential, parallel, EPSILON);
+		assertEquals(exact, parallel, EPSILON);
+	}
+
+	/**
+	 * For an MDP (STPG abstraction), parallel mode gives the same results as
+	 * sequential mode, for both min and max, and both match the concrete model.
+	 */
+	@Test
+	public void testParallelMatchesSequentialSTPGAbstraction() throws PrismException, InterruptedException
+	{
+		ModulesFile modulesFile = parseModel(MDP_MODEL);
+		ModelSimple<Double> model = buildModel(modulesFile);
+		BitSet goal = labelStates(model, modulesFile, "goal");
+		PrismComponent parent = createParent();
+		for (boolean min : new boolean[] { true, false }) {
+			double exact = new MDPModelChecker(parent).computeReachProbs((MDP<Double>) model, goal, min).soln[model.getFirstInitialState()];
+
+			double sequential = abstractRefine(model, modulesFile, ModelType.MDP, min, 1);
+			double parallel = abstractRefine(model, modulesFile, ModelType.MDP, min, 2);
+			assertEquals(sequential, parallel, EPSILON);
+			assertEquals(exact, parallel, EPSILON);
+		}
+	}
+
+	// Helpers
+
+	private static PrismComponent createParent()
+	{
+		PrismComponent parent = new PrismComponent();
+		parent.setLog(new PrismDevNullLog());
+		return parent;
+	}
+
+	private static ModulesFile parseModel(String modelString) throws PrismException, InterruptedException
+	{
+		ModulesFile modulesFile;
+		try {
+			modulesFile = Prism.getPrismParser().parseModulesFile(new ByteArrayInputStream(modelString.getBytes()));
+		} finally {
+			Prism.releasePrismParser();
+		}
+		modulesFile.tidyUp();
+		return modulesFile;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static ModelSimple<Double> buildModel(ModulesFile modulesFile) throws PrismException
+	{
+		PrismComponent parent = createParent();
+		ConstructModel constructModel = new ConstructModel(parent);
+		constructModel.setBuildSparse(false);
+		return (ModelSimple<Double>) constructModel.constructModel(ModulesFileModelGenerator.createForDoubles(modulesFile, parent));
+	}
+
+	private static BitSet labelStates(Model<Double> model, ModulesFile modulesFile, String label) throws PrismException
+	{
+		Expression labelExpr = modulesFile.getLabelList().getLabel(modulesFile.getLabelList().getLabelIndex(label));
+		BitSet states = new BitSet();
+		for (int s = 0; s < model.getNumStates(); s++) {
+			states.set(s, labelExpr.evaluateBoolean(model.getStatesList().get(s)));
+		}
+		return states;
+	}
+
+	private static double abstractRefine(ModelSimple<Double> model, ModulesFile modulesFile, ModelType modelType, boolean min, int numThreads)
+			throws PrismException
+	{
+		QuantAbstractRefineExample abstractRefine = new QuantAbstractRefineExample(createParent());
+		abstractRefine.getModelChecker().setLog(new PrismDevNullLog());
+		abstractRefine.setModelType(modelType);
+		abstractRefine.setPropertyType(PropertyType.PROB_REACH);
+		abstractRefine.setNumThreads(numThreads);
+		abstractRefine.sanityChecks = true;
+		abstractRefine.modelConcrete = model;
+		abstractRefine.modulesFile = modulesFile;
+		abstractRefine.targetLabel = "goal";
+		return abstractRefine.abstractRefine(min);
+	}
+}
@@ -0,0 +1,300 @@
+package explicit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import parser.State;
+import parser.ast.Expression;
+import parser.ast.ModulesFile;
+import parser.type.TypeBool;
+import parser.type.TypeDouble;
+import parser.type.TypeInt;
+import prism.ModelType;
+import prism.Prism;
+import prism.PrismComponent;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+import prism.PrismLangException;
+import prism.PrismLog;
+import prism.PrismPrintStreamLog;
+import prism.StreamingExporter;
+import simulator.ModulesFileModelGenerator;
+
+public class StateValuesTest
+{
+	private static final int SIZE = 6;
+
+	/** DTMC over variables x (-5..5) and y (0..3), with all 44 states reachable */
+	private static final String MODEL = "dtmc"
+			+ " module m x:[-5..5] init -5; y:[0..3] init 0;"
+			+ " [] true -> (x'=x<5 ? x+1 : -5) & (y'=x<5 ? y : mod(y+1,4));"
+			+ " endmodule";
+
+	private final Model<Double> model = new DTMCSimple<>(SIZE);
+
+	@TempDir
+	File tmpDir;
+
+	@Test
+	public void testIntStorage() throws PrismException
+	{
+		StateValues sv = new StateValues(TypeInt.getInstance(), i -> 3 * i - 4, model);
+		for (int i = 0; i < SIZE; i++) {
+			assertEquals(3 * i - 4, sv.getIntValue(i));
+			assertEquals(3.0 * i - 4, sv.getDoubleValue(i));
+			assertEquals(Integer.valueOf(3 * i - 4), sv.getValue(i));
+		}
+		sv.setValue(2, 17);
+		assertEquals(17, sv.getIntValue(2));
+		StateValues copy = sv.deepCopy();
+		copy.setValue(2, 0);
+		assertEquals(17, sv.getIntValue(2));
+		assertEquals("[-4, -1, 17, 5, 8, 11]", sv.toString());
+		StateValues single = new StateValues(TypeInt.getInstance(), 7, model);
+		for (int i = 0; i < SIZE; i++) {
+			assertEquals(7, single.getIntValue(i));
+		}
+	}
+
+	@Test
+	public void testDoubleStorage() throws PrismException
+	{
+		double[] arr = { 0.5, -1.0, 2.25, 0.0, 1e-9, 3.0 };
+		StateValues sv = StateValues.createFromDoubleArray(arr, model);
+		// the array is copied, both when created and when got
+		arr[0] = 42.0;
+		assertEquals(0.5, sv.getDoubleValue(0));
+		double[] got = sv.getDoubleArray();
+		got[1] = 42.0;
+		assertEquals(-1.0, sv.getDoubleValue(1));
+		assertEquals(Double.valueOf(2.25), sv.getValue(2));
+		sv.setValue(3, 1.5);
+		assertEquals(1.5, sv.getDoubleValue(3));
+		// boxed values are unboxed
+		StateValues fromObjects = StateValues.createFromObjectArray(TypeDouble.getInstance(), new Object[] { 1.0, 2.0, 3.0, 4.0, 5.0, 6.0 }, model);
+		assertArrayEquals(new double[] { 1.0, 2.0, 3.0, 4.0, 5.0, 6.0 }, fromObjects.getDoubleArray());
+		BitSet bs = new BitSet();
+		bs.set(1);
+		bs.set(4);
+		assertArrayEquals(new double[] { 0.0, 1.0, 0.0, 0.0, 1.0, 0.0 }, StateValues.createFromBitSetAsDoubles(bs, model).getDoubleArray());
+	}
+
+	@Test
+	public void testApplyDoubleFunction() throws PrismException
+	{
+		BitSet subset = new BitSet();
+		subset.set(1, 4);
+		// unary, on an integer vector: the result is double-valued
+		StateValues sv = new StateValues(TypeInt.getInstance(), i -> i, model);
+		sv.applyDoubleFunction(d -> d / 2, subset);
+		assertSame(TypeDouble.getInstance(), sv.getType());
+		for (int i = 1; i < 4; i++) {
+			assertEquals(i / 2.0, sv.getDoubleValue(i));
+		}
+		// binary, on a double and an integer vector
+		StateValues sv2 = new StateValues(TypeInt.getInstance(), i -> 10 * i, model);
+		sv.applyDoubleFunction((d1, d2) -> d1 + d2, sv2, null);
+		assertEquals(Double.valueOf(10.5), sv.getValue(1));
+		assertEquals(30 + 1.5, sv.getDoubleValue(3));
+		// binary on ints
+		StateValues sv3 = new StateValues(TypeInt.getInstance(), i -> i, model);
+		sv3.applyIntFunction(Math::multiplyExact, sv2, subset);
+		assertSame(TypeInt.getInstance(), sv3.getType());
+		assertEquals(40, sv3.getIntValue(2));
+		assertEquals(5, sv3.getIntValue(5));
+		assertThrows(PrismException.class, () -> sv3.applyIntFunction(Math::addExact, sv, null));
+		// predicate
+		sv2.applyDoublePredicate((d1, d2) -> d1 > d2, sv, null);
+		assertSame(TypeBool.getInstance(), sv2.getType());
+		BitSet expected = new BitSet();
+		for (int i = 0; i < SIZE; i++) {
+			expected.set(i, 10.0 * i > sv.getDoubleValue(i));
+		}
+		assertEquals(expected, sv2.getBitSet());
+		// non-numerical vectors are rejected
+		StateValues svB = StateValues.createFromBitSet(expected, model);
+		assertThrows(PrismException.class, () -> svB.applyDoubleFunction(d -> d, null));
+		assertThrows(PrismException.class, () -> sv.applyDoublePredicate((d1, d2) -> true, svB, null));
+	}
+
+	/**
+	 * Numerical operators, which are applied by the model checker to unboxed values,
+	 * give the same results as evaluating the expression in each state.
+	 */
+	@Test
+	public void testNumericalOperatorsMatchEvaluation() throws PrismException, InterruptedException
+	{
+		ModulesFile modulesFile = parseModel();
+		PrismComponent parent = new PrismComponent();
+		parent.setLog(new PrismDevNullLog());
+		Model<Double> dtmc = new ConstructModel(parent).constructModel(ModulesFileModelGenerator.createForDoubles(modulesFile, parent));
+		assertEquals(44, dtmc.getNumStates());
+		StateModelChecker mc = StateModelChecker.createModelChecker(ModelType.DTMC, parent);
+		String[] exprs = { "x+y", "x-2*y", "x*y", "x/(y+1)", "x+0.5", "-(x/2)", "-x", "x>y", "x/2<=y", "x<y-2.5", "x>=y",
+				"min(x/3,y)", "max(x,y+0.5)", "min(x,y)", "x=y", "x!=y/2", "(x*0.1)*(y*0.3)" };
+		for (String s : exprs) {
+			Expression expr = parseExpression(s, modulesFile);
+			StateValues sv = mc.checkExpression(dtmc, expr, null);
+			assertSame(expr.getType(), sv.getType(), s);
+			for (int i = 0; i < dtmc.getNumStates(); i++) {
+				State state = dtmc.getStatesList().get(i);
+				assertEquals(expr.evaluate(state), sv.getValue(i), s + " in " + state);
+			}
+		}
+	}
+
+	@Test
+	public void testIntegerOverflowReported() throws PrismException, InterruptedException
+	{
+		ModulesFile modulesFile = parseModel();
+		PrismComponent parent = new PrismComponent();
+		parent.setLog(new PrismDevNullLog());
+		Model<Double> dtmc = new ConstructModel(parent).constructModel(ModulesFileModelGenerator.createForDoubles(modulesFile, parent));
+		StateModelChecker mc = StateModelChecker.createModelChecker(ModelType.DTMC, parent);
+		Expression expr = parseExpression("x*2147483647", modulesFile);
+		assertThrows(PrismLangException.class, () -> mc.checkExpression(dtmc, expr, null));
+		// but not if the overflowing states are excluded
+		BitSet xZero = new BitSet();
+		for (int i = 0; i < dtmc.getNumStates(); i++) {
+			xZero.set(i, (int) dtmc.getStatesList().get(i).varValues[0] == 0);
+		}
+		assertFalse(xZero.isEmpty());
+		StateValues sv = mc.checkExpression(dtmc, expr, xZero);
+		for (int i = xZero.nextSetBit(0); i >= 0; i = xZero.nextSetBit(i + 1)) {
+			assertEquals(0, sv.getIntValue(i));
+		}
+		assertTrue(sv.getType() instanceof TypeInt);
+	}
+
+	/**
+	 * Vectors exported to text files (optionally compressed) match those printed to a log,
+	 * and those exported in binary form can be read back.
+	 */
+	@Test
+	public void testExportToFile() throws Exception
+	{
+		// Large enough for several chunks
+		Model<Double> bigModel = new DTMCSimple<>(3 * StreamingExporter.DEFAULT_CHUNK_SIZE + 5);
+		int n = bigModel.getNumStates();
+		BitSet bs = new BitSet();
+		for (int i = 0; i < n; i += 3) {
+			bs.set(i);
+		}
+		StateValues[] svs = { new StateValues(TypeDouble.getInstance(), i -> i % 7 == 0 ? 0.0 : i / 8.0, bigModel),
+				new StateValues(TypeInt.getInstance(), i -> i % 5 - 2, bigModel), StateValues.createFromBitSet(bs, bigModel) };
+		BitSet filter = new BitSet();
+		filter.set(10, n - 10);
+		for (StateValues sv : svs) {
+			for (BitSet f : new BitSet[] { null, filter }) {
+				for (int numThreads : new int[] { 1, 3 }) {
+					// text
+					ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+					PrismLog log = new PrismPrintStreamLog(new PrintStream(bytes, true));
+					sv.printFiltered(log, f, false, false, false, false);
+					log.flush();
+					for (String name : new String[] { "vect.txt", "vect.txt.gz" }) {
+						File file = new File(tmpDir, name);
+						sv.exportToFile(file, f, false, false, false, numThreads);
+						try (InputStream in = openForInput(file)) {
+							assertArrayEquals(bytes.toByteArray(), in.readAllBytes(), name);
+						}
+					}
+					// binary
+					for (String name : new String[] { "vect.bin", "vect.bin.gz" }) {
+						File file = new File(tmpDir, name);
+						sv.exportToFile(file, f, false, false, false, numThreads);
+						try (DataInputStream in = new DataInputStream(openForInput(file))) {
+							assertBinaryVector(sv, f, in);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	// Helpers
+
+	private static InputStream openForInput(File file) throws IOException
+	{
+		InputStream in = new FileInputStream(file);
+		return file.getName().endsWith(".gz") ? new GZIPInputStream(in) : in;
+	}
+
+	/**
+	 * Check the binary export of vector {@code sv}, restricted to {@code filter} (if non-null).
+	 */
+	private static void assertBinaryVector(StateValues sv, BitSet filter, DataInputStream in) throws IOException, PrismException
+	{
+		byte[] header = new byte[8];
+		in.readFully(header);
+		assertEquals("PRISMVEC", new String(header, StandardCharsets.US_ASCII));
+		char code = (char) in.readByte();
+		assertEquals(sv.getSize(), in.readInt());
+		for (int i = 0; i < sv.getSize(); i++) {
+			if (filter != null && !filter.get(i)) {
+				continue;
+			}
+			if (sv.getType() instanceof TypeBool) {
+				assertEquals('B', code);
+				if (sv.getBitSet().get(i)) {
+					assertEquals(i, in.readInt());
+				}
+			} else if (sv.getType() instanceof TypeInt) {
+				assertEquals('I', code);
+				assertEquals(i, in.readInt());
+				assertEquals(sv.getIntValue(i), in.readInt());
+			} else {
+				assertEquals('D', code);
+				assertEquals(i, in.readInt());
+				assertEquals(sv.getDoubleValue(i), in.readDouble());
+			}
+		}
+		assertEquals(-1, in.readInt());
+		assertEquals(-1, in.read());
+	}
+
+
+	private static ModulesFile parseModel() throws PrismLangException, InterruptedException
+	{
+		ModulesFile modulesFile;
+		try {
+			modulesFile = Prism.getPrismParser().parseModulesFile(new ByteArrayInputStream(MODEL.getBytes()));
+		} finally {
+			Prism.releasePrismParser();
+		}
+		modulesFile.tidyUp();
+		return modulesFile;
+	}
+
+	private static Expression parseExpression(String s, ModulesFile modulesFile) throws PrismLangException, InterruptedException
+	{
+		Expression expr;
+		try {
+			expr = Prism.getPrismParser().parseSingleExpression(new ByteArrayInputStream(s.getBytes()));
+		} finally {
+			Prism.releasePrismParser();
+		}
+		expr = (Expression) expr.findAllVars(modulesFile.getVarNames(), modulesFile.getVarTypes());
+		expr.typeCheck();
+		return expr;
+	}
+}
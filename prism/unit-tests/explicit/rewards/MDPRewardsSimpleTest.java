@@ -0,0 +1,174 @@
+package explicit.rewards;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import explicit.Distribution;
+import explicit.MDPSimple;
+import explicit.MDPSparse;
+import param.BigRational;
+import prism.Evaluator;
+
+public class MDPRewardsSimpleTest
+{
+	/** Numbers of choices of the states of the test MDP (state 3 is a deadlock) */
+	private static final int[] NUM_CHOICES = { 2, 1, 3, 0, 2 };
+
+	/**
+	 * MDP in which choice i of state s goes to states (s+i+1) and s (mod 5) with probabilities 0.75 and 0.25.
+	 */
+	private static MDPSimple<Double> buildMDP()
+	{
+		MDPSimple<Double> mdp = new MDPSimple<>(NUM_CHOICES.length);
+		for (int s = 0; s < NUM_CHOICES.length; s++) {
+			for (int i = 0; i < NUM_CHOICES[s]; i++) {
+				Distribution<Double> distr = Distribution.ofDouble();
+				distr.add((s + i + 1) % NUM_CHOICES.length, 0.75);
+				distr.add(s, 0.25);
+				mdp.addChoice(s, distr);
+			}
+		}
+		return mdp;
+	}
+
+	/**
+	 * Rewards for the test MDP: state rewards in some states, transition rewards for
+	 * some choices (including zeros and a state whose list of rewards is shorter than its choices).
+	 */
+	private static MDPRewardsSimple<Double> buildRewards()
+	{
+		MDPRewardsSimple<Double> rews = new MDPRewardsSimple<>(NUM_CHOICES.length);
+		rews.setEvaluator(Evaluator.forDouble());
+		rews.setStateReward(0, 1.5);
+		rews.setStateReward(2, 0.0);
+		rews.setStateReward(4, 3.0);
+		rews.setTransitionReward(0, 1, 2.0);
+		rews.setTransitionReward(2, 0, 0.5);
+		rews.setTransitionReward(2, 1, 0.0);
+		rews.setTransitionReward(4, 0, 7.0);
+		rews.setTransitionReward(4, 1, 0.25);
+		return rews;
+	}
+
+	private static void assertSameRewards(MDPRewards<Double> expected, MDPRewards<Double> actual)
+	{
+		for (int s = 0; s < NUM_CHOICES.length; s++) {
+			assertEquals(expected.getStateReward(s), actual.getStateReward(s));
+			assertEquals(expected.getStateReward(s), actual.getStateRewardDouble(s));
+			for (int i = 0; i < NUM_CHOICES[s]; i++) {
+				assertEquals(expected.getTransitionReward(s, i), actual.getTransitionReward(s, i));
+				assertEquals(expected.getTransitionReward(s, i), actual.getTransitionRewardDouble(s, i));
+			}
+		}
+		assertEquals(expected.hasTransitionRewards(), actual.hasTransitionRewards());
+	}
+
+	@Test
+	public void testFreezePreservesRewards()
+	{
+		MDPSimple<Double> mdp = buildMDP();
+		MDPRewardsSimple<Double> rews = buildRewards();
+		MDPRewardsSimple<Double> frozen = buildRewards();
+		frozen.freeze(mdp);
+		assertTrue(frozen.isFrozen());
+		assertFalse(rews.isFrozen());
+		assertSameRewards(rews, frozen);
+		// with zero replacement
+		rews.setZeroReplacement(1e-3);
+		frozen.setZeroReplacement(1e-3);
+		assertEquals(1e-3, frozen.getStateRewardDouble(1));
+		assertEquals(1e-3, frozen.getTransitionRewardDouble(2, 1));
+		assertEquals(1e-3, frozen.getTransitionRewardDouble(1, 0));
+		assertSameRewards(rews, frozen);
+		// no rewards at all
+		MDPRewardsSimple<Double> empty = new MDPRewardsSimple<>(NUM_CHOICES.length);
+		empty.setEvaluator(Evaluator.forDouble());
+		empty.freeze(mdp);
+		assertTrue(empty.isFrozen());
+		assertFalse(empty.hasTransitionRewards());
+		assertEquals(0.0, empty.getStateRewardDouble(2));
+		assertEquals(0.0, empty.getTransitionRewardDouble(2, 2));
+	}
+
+	@Test
+	public void testMutatorsUnfreeze()
+	{
+		MDPSimple<Double> mdp = buildMDP();
+		MDPRewardsSimple<Double> rews = buildRewards();
+		MDPRewardsSimple<Double> frozen = buildRewards();
+		frozen.freeze(mdp);
+		frozen.addToStateReward(4, 1.0);
+		assertFalse(frozen.isFrozen());
+		rews.addToStateReward(4, 1.0);
+		assertSameRewards(rews, frozen);
+		frozen.freeze(mdp);
+		frozen.addToTransitionReward(2, 2, 4.0);
+		rews.addToTransitionReward(2, 2, 4.0);
+		assertFalse(frozen.isFrozen());
+		assertSameRewards(rews, frozen);
+		frozen.freeze(mdp);
+		frozen.clearRewards(0);
+		rews.clearRewards(0);
+		assertSameRewards(rews, frozen);
+		assertEquals(0.0, frozen.getTransitionRewardDouble(0, 1));
+	}
+
+	@Test
+	public void testCopyOfFrozen()
+	{
+		MDPRewardsSimple<Double> frozen = buildRewards();
+		frozen.freeze(buildMDP());
+		MDPRewardsSimple<Double> copy = new MDPRewardsSimple<>(frozen);
+		assertTrue(copy.isFrozen());
+		assertSameRewards(frozen, copy);
+		// copies are independent
+		copy.setTransitionReward(4, 0, 1.0);
+		assertEquals(7.0, frozen.getTransitionRewardDouble(4, 0));
+		assertTrue(frozen.isFrozen());
+		assertEquals(frozen.toString(), new SMGRewardsSimple<>(frozen).toString());
+	}
+
+	@Test
+	public void testNonDoubleRewardsNotFrozen()
+	{
+		MDPRewardsSimple<BigRational> rews = new MDPRewardsSimple<>(NUM_CHOICES.length);
+		rews.setEvaluator(Evaluator.forBigRational());
+		rews.setStateReward(1, new BigRational(1, 4));
+		rews.freeze(buildMDP());
+		assertFalse(rews.isFrozen());
+		assertEquals(new BigRational(1, 4), rews.getStateReward(1));
+		assertEquals(0.25, rews.getStateRewardDouble(1));
+	}
+
+	/**
+	 * Reward-based matrix-vector multiplication reads frozen rewards unboxed,
+	 * which must give the same results as for unfrozen ones, for both MDPSimple and MDPSparse.
+	 */
+	@Test
+	public void testMvMultRewMatchesUnfrozen()
+	{
+		MDPSimple<Double> mdp = buildMDP();
+		MDPSparse mdpSparse = new MDPSparse(mdp);
+		MDPRewardsSimple<Double> rews = buildRewards();
+		MDPRewardsSimple<Double> frozen = buildRewards();
+		frozen.freeze(mdp);
+		double[] vect = { 0.5, 1.0, -2.0, 4.0, 0.125 };
+		for (boolean min : new boolean[] { false, true }) {
+			double[] expected = new double[vect.length];
+			double[] actual = new double[vect.length];
+			double[] actualSparse = new double[vect.length];
+			int[] strat = new int[vect.length];
+			int[] stratFrozen = new int[vect.length];
+			mdp.mvMultRewMinMax(vect, rews, min, expected, null, false, strat);
+			mdp.mvMultRewMinMax(vect, frozen, min, actual, null, false, stratFrozen);
+			mdpSparse.mvMultRewMinMax(vect, frozen, min, actualSparse, null, false, null);
+			assertArrayEquals(expected, actual);
+			assertArrayEquals(expected, actualSparse);
+			assertArrayEquals(strat, stratFrozen);
+		}
+	}
+}
@@ -4,8 +4,10 @@ import org.junit.jupiter.api.Test;
 
 import java.math.BigInteger;
 import java.util.BitSet;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class BigRationalTest
 {
@@ -44,4 +46,133 @@ public class BigRationalTest
 		assertEquals(absMin, new BigRational(Double.MIN_VALUE));
 		assertEquals(absMin.negate(), new BigRational(-Double.MIN_VALUE));
 	}
+
+	@Test
+	public void testLongFastPath()
+	{
+		long[] values = {0, 1, -1, 2, 3, 7, 10, 1L << 31, (1L << 32) + 1, (1L << 62) - 1, 1L << 62, Long.MAX_VALUE, -Long.MAX_VALUE, Long.MIN_VALUE};
+		Random random = new Random(42);
+		for (int i = 0; i < 2000; i++) {
+			long a = i < values.length * values.length ? values[i % values.length] : random.nextLong() >> random.nextInt(64);
+			long b = i < values.length * values.length ? values[i / values.length] : random.nextLong() >> random.nextInt(64);
+			long c = random.nextInt(1000) - 500;
+			long d = random.nextInt(1000) + 1;
+			checkOperations(new BigRational(a, b), ReferenceRational.of(a, b, true), new BigRational(c, d), ReferenceRational.of(c, d, true));
+			checkOperations(new BigRational(c, d), ReferenceRational.of(c, d, true), new BigRational(a, b), ReferenceRational.of(a, b, true));
+			checkOperations(new BigRational(a, b, false), ReferenceRational.of(a, b, false), new BigRational(b, a, false), ReferenceRational.of(b, a, false));
+		}
+	}
+
+	/**
+	 * Checks {@code x} and {@code y} and the operations on them against the
+	 * reference values {@code rx} and {@code ry} and the same operations on those.
+	 */
+	private void checkOperations(BigRational x, ReferenceRational rx, BigRational y, ReferenceRational ry)
+	{
+		assertSameValue(rx, x);
+		assertSameValue(ry, y);
+		if (!rx.isRational() || !ry.isRational()) {
+			return;
+		}
+		assertSameValue(rx.add(ry, false), x.add(y, false));
+		assertSameValue(rx.add(ry, true), x.add(y));
+		assertSameValue(rx.subtract(ry), x.subtract(y));
+		if (rx.num.signum() != 0 && ry.num.signum() != 0) {
+			assertSameValue(rx.multiply(ry, false), x.multiply(y, false));
+			assertSameValue(rx.divide(ry), x.divide(y));
+		}
+		assertEquals(rx.compareTo(ry), Integer.signum(x.compareTo(y)));
+		assertTrue(x.negate().negate().equals(x));
+	}
+
+	/**
+	 * Asserts that {@code actual} has the numerator, denominator and hash code of {@code expected}.
+	 */
+	private void assertSameValue(ReferenceRational expected, BigRational actual)
+	{
+		assertEquals(expected.num, actual.getNum());
+		assertEquals(expected.den, actual.getDen());
+		assertEquals(expected.hashCode(), actual.hashCode());
+	}
+
+	/**
+	 * Reference rational numbers, implemented (as BigRational was before
+	 * it got a fast path for values fitting in longs) on BigIntegers only.
+	 * Only the operations on rational (not infinite or NaN) values are provided.
+	 */
+	private static class ReferenceRational
+	{
+		final BigInteger num;
+		final BigInteger den;
+
+		private ReferenceRational(BigInteger num, BigInteger den)
+		{
+			this.num = num;
+			this.den = den;
+		}
+
+		static ReferenceRational of(long num, long den, boolean cancel)
+		{
+			return of(BigInteger.valueOf(num), BigInteger.valueOf(den), cancel);
+		}
+
+		static ReferenceRational of(BigInteger num, BigInteger den, boolean cancel)
+		{
+			if (den.signum() == 0) {
+				num = BigInteger.valueOf(num.signum());
+			}
+			if (cancel) {
+				if (num.signum() == 0) {
+					if (den.signum() != 0) {
+						den = BigInteger.ONE;
+					}
+				} else {
+					BigInteger gcd = num.gcd(den);
+					num = num.divide(gcd);
+					den = den.divide(gcd);
+					if (den.signum() == -1) {
+						num = num.negate();
+						den = den.negate();
+					}
+				}
+			}
+			return new ReferenceRational(num, den);
+		}
+
+		boolean isRational()
+		{
+			return den.signum() != 0;
+		}
+
+		ReferenceRational add(ReferenceRational other, boolean cancel)
+		{
+			return of(num.multiply(other.den).add(other.num.multiply(den)), den.multiply(other.den), cancel);
+		}
+
+		ReferenceRational subtract(ReferenceRational other)
+		{
+			return of(num.multiply(other.den).subtract(other.num.multiply(den)), den.multiply(other.den), true);
+		}
+
+		ReferenceRational multiply(ReferenceRational other, boolean cancel)
+		{
+			return of(num.multiply(other.num), den.multiply(other.den), cancel);
+		}
+
+		ReferenceRational divide(ReferenceRational other)
+		{
+			return multiply(of(other.den, other.num, true), true);
+		}
+
+		int compareTo(ReferenceRational other)
+		{
+			return num.multiply(other.den).compareTo(other.num.multiply(den));
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return 37 * num.hashCode() + den.hashCode();
+		}
+	}
 }
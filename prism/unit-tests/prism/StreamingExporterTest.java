@@ -0,0 +1,145 @@
+package prism;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.function.IntPredicate;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class StreamingExporterTest
+{
+	private static final int NUM_STATES = 1000;
+
+	/** Formatter which skips every third state */
+	private static final StreamingExporter.StateFormatter FORMATTER = (s, sb) -> {
+		if (s % 3 == 0) {
+			return false;
+		}
+		sb.append(s).append('=').append((long) s * s).append('\n');
+		return true;
+	};
+
+	@TempDir
+	File tmpDir;
+
+	/**
+	 * Text output, in chunks of any size and formatted in parallel or not,
+	 * is the same as that for states written one by one.
+	 */
+	@Test
+	public void testTextMatchesSequential() throws IOException
+	{
+		IntPredicate filters[] = { null, s -> s % 5 != 0, s -> false };
+		for (IntPredicate filter : filters) {
+			StringBuilder expected = new StringBuilder();
+			long expectedCount = 0;
+			for (int s = 0; s < NUM_STATES; s++) {
+				if ((filter == null || filter.test(s)) && FORMATTER.format(s, expected)) {
+					expectedCount++;
+				}
+			}
+			for (int chunkSize : new int[] { 1, 7, NUM_STATES, 5000 }) {
+				for (int numThreads : new int[] { 1, 4 }) {
+					StreamingExporter exporter = new StreamingExporter().setChunkSize(chunkSize).setNumThreads(numThreads).setFilter(filter);
+					StringWriter out = new StringWriter();
+					assertEquals(expectedCount, exporter.exportText(NUM_STATES, FORMATTER, out));
+					assertEquals(expected.toString(), out.toString());
+					// and to a log
+					ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+					PrismLog log = new PrismPrintStreamLog(new PrintStream(bytes, true));
+					assertEquals(expectedCount, exporter.exportText(NUM_STATES, FORMATTER, log));
+					log.flush();
+					assertEquals(expected.toString(), bytes.toString());
+				}
+			}
+		}
+		assertEquals(0, new StreamingExporter().exportText(0, FORMATTER, new StringWriter()));
+	}
+
+	@Test
+	public void testBitSetFilter() throws IOException
+	{
+		BitSet bs = new BitSet();
+		bs.set(1);
+		bs.set(3, 6);
+		StringWriter out = new StringWriter();
+		assertEquals(3, new StreamingExporter().setFilter(bs).setChunkSize(2).exportText(NUM_STATES, FORMATTER, out));
+		assertEquals("1=1\n4=16\n5=25\n", out.toString());
+	}
+
+	@Test
+	public void testBinaryRoundTrip() throws Exception
+	{
+		for (boolean compress : new boolean[] { false, true }) {
+			File file = new File(tmpDir, compress ? "out.bin.gz" : "out.bin");
+			assertTrue(StreamingExporter.isBinaryFile(file));
+			assertEquals(compress, StreamingExporter.isCompressedFile(file));
+			long count;
+			try (DataOutputStream out = new DataOutputStream(StreamingExporter.openFile(file, compress))) {
+				count = new StreamingExporter().setFilter(s -> s % 2 == 1).exportBinary(NUM_STATES, (s, o) -> {
+					if (s % 3 == 0) {
+						return false;
+					}
+					o.writeInt(s);
+					o.writeDouble(s / 4.0);
+					return true;
+				}, out);
+			}
+			try (DataInputStream in = new DataInputStream(openForInput(file, compress))) {
+				int n = 0;
+				for (int s = 0; s < NUM_STATES; s++) {
+					if (s % 2 == 1 && s % 3 != 0) {
+						assertEquals(s, in.readInt());
+						assertEquals(s / 4.0, in.readDouble());
+						n++;
+					}
+				}
+				assertEquals(n, count);
+				assertEquals(-1, in.read());
+			}
+		}
+	}
+
+	@Test
+	public void testTextFileRoundTrip() throws Exception
+	{
+		StringWriter expected = new StringWriter();
+		new StreamingExporter().exportText(NUM_STATES, FORMATTER, expected);
+		for (boolean compress : new boolean[] { false, true }) {
+			File file = new File(tmpDir, compress ? "out.txt.gz" : "out.txt");
+			assertFalse(StreamingExporter.isBinaryFile(file));
+			assertEquals(compress, StreamingExporter.isCompressedFile(file));
+			try (Writer out = StreamingExporter.openTextFile(file, compress)) {
+				new StreamingExporter().setNumThreads(3).setChunkSize(10).exportText(NUM_STATES, FORMATTER, out);
+			}
+			try (InputStream in = openForInput(file, compress)) {
+				assertArrayEquals(expected.toString().getBytes(StandardCharsets.UTF_8), in.readAllBytes());
+			}
+		}
+	}
+
+	// Helpers
+
+	private static InputStream openForInput(File file, boolean compressed) throws IOException
+	{
+		InputStream in = new FileInputStream(file);
+		return compressed ? new GZIPInputStream(in) : in;
+	}
+}
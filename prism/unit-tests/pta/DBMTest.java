@@ -0,0 +1,351 @@
+package pta;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of DBM operations against the clock valuations they represent,
+ * enumerated on a grid of points (coordinates that are multiples of STEP/SCALE).
+ */
+public class DBMTest
+{
+	/** Points are stored with coordinates multiplied by SCALE */
+	private static final int SCALE = 8;
+	/** Grid points have coordinates k*STEP/SCALE (i.e. multiples of 1/4) */
+	private static final int STEP = 2;
+	/** Grid points have coordinates up to MAX (which exceeds MAX_CONST, so unbounded zones show) */
+	private static final int MAX = 7;
+	/** Largest constant in random constraints */
+	private static final int MAX_CONST = 5;
+
+	@Test
+	public void testAddConstraintsMatchesPoints()
+	{
+		Random random = new Random(1);
+		for (int numClocks = 1; numClocks <= 3; numClocks++) {
+			PTA pta = createPTA(numClocks);
+			List<int[]> grid = grid(numClocks);
+			for (int n = 0; n < 100; n++) {
+				// bound all clocks, so that (non-)emptiness shows on the grid
+				DBM dbm = DBM.createTrue(pta);
+				List<Constraint> constraints = new ArrayList<Constraint>();
+				for (int x = 1; x <= numClocks; x++) {
+					constraints.add(Constraint.buildLeq(x, MAX_CONST));
+				}
+				dbm.addConstraints(constraints);
+				for (int k = 0; k < 4; k++) {
+					Constraint c = randomConstraint(random, numClocks);
+					constraints.add(c);
+					dbm.addConstraint(c);
+					boolean empty = true;
+					for (int[] p : grid) {
+						boolean sat = satisfiesAll(p, constraints);
+						assertEquals(sat, contains(dbm, p), () -> constraints + " at point " + pointString(p));
+						empty &= !sat;
+					}
+					assertEquals(empty, dbm.isEmpty(), constraints::toString);
+					if (!dbm.isEmpty()) {
+						assertCanonical(dbm);
+					}
+				}
+				assertEquals(dbm, DBM.createFromConstraints(pta, constraints));
+			}
+		}
+	}
+
+	@Test
+	public void testIncludes()
+	{
+		Random random = new Random(2);
+		PTA pta = createPTA(2);
+		List<int[]> grid = grid(2);
+		for (int n = 0; n < 300; n++) {
+			DBM dbm1 = randomDBM(random, pta, 2);
+			DBM dbm2 = randomDBM(random, pta, 2);
+			boolean subset = true;
+			for (int[] p : grid) {
+				subset &= !contains(dbm2, p) || contains(dbm1, p);
+			}
+			if (dbm2.isEmpty()) {
+				// empty zones are not canonical, so inclusion is not reliably detected
+				continue;
+			}
+			assertEquals(subset, dbm1.includes(dbm2), () -> dbm1 + " includes " + dbm2);
+			assertTrue(dbm2.includes(dbm2));
+		}
+	}
+
+	@Test
+	public void testIntersect()
+	{
+		Random random = new Random(3);
+		PTA pta = createPTA(3);
+		List<int[]> grid = grid(3);
+		for (int n = 0; n < 100; n++) {
+			DBM dbm1 = randomDBM(random, pta, 3);
+			DBM dbm2 = randomDBM(random, pta, 3);
+			DBM dbm = dbm1.deepCopy();
+			dbm.intersect(dbm2);
+			for (int[] p : grid) {
+				assertEquals(contains(dbm1, p) && contains(dbm2, p), contains(dbm, p));
+			}
+		}
+	}
+
+	@Test
+	public void testUpAndReset()
+	{
+		Random random = new Random(4);
+		PTA pta = createPTA(2);
+		List<int[]> grid = grid(2);
+		for (int n = 0; n < 200; n++) {
+			DBM dbm = randomDBM(random, pta, 2);
+			DBM up = dbm.deepCopy();
+			up.up();
+			int x = 1 + random.nextInt(2);
+			int v = random.nextInt(3);
+			DBM reset = dbm.deepCopy();
+			reset.reset(x, v);
+			for (int[] p : grid) {
+				if (contains(dbm, p)) {
+					for (int t = 0; t <= SCALE * MAX; t += STEP) {
+						assertTrue(contains(up, delay(p, t)));
+					}
+					int[] q = p.clone();
+					q[x] = v * SCALE;
+					assertTrue(contains(reset, q));
+				} else if (contains(up, p)) {
+					// some earlier point must be in the original zone
+					// (delays are not restricted to the grid, so that open intervals are hit)
+					boolean found = false;
+					for (int t = 1; t <= p[1] && t <= p[2] && !found; t++) {
+						found = contains(dbm, delay(p, -t));
+					}
+					assertTrue(found, () -> dbm + " up contains " + pointString(p));
+				}
+				if (contains(reset, p)) {
+					assertEquals(v * SCALE, p[x]);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testCClosureIncludesZone()
+	{
+		Random random = new Random(5);
+		PTA pta = createPTA(3);
+		for (int n = 0; n < 200; n++) {
+			DBM dbm = randomDBM(random, pta, 3);
+			if (dbm.isEmpty()) {
+				continue;
+			}
+			DBM closed = dbm.deepCopy();
+			closed.cClosure(2);
+			assertTrue(closed.includes(dbm));
+			assertCanonical(closed);
+		}
+	}
+
+	@Test
+	public void testCopyEqualsHashCode()
+	{
+		Random random = new Random(6);
+		PTA pta = createPTA(3);
+		for (int n = 0; n < 100; n++) {
+			DBM dbm = randomDBM(random, pta, 3);
+			DBM copy = dbm.deepCopy();
+			assertNotSame(dbm.d, copy.d);
+			assertEquals(dbm, copy);
+			assertEquals(dbm.hashCode(), copy.hashCode());
+			DBM other = DBM.createZero(pta);
+			other.copyFrom(dbm);
+			assertEquals(dbm, other);
+			assertEquals(dbm.hashCode(), other.hashCode());
+			copy.addConstraint(Constraint.buildLeq(1, 0));
+			copy.addConstraint(Constraint.buildGeq(1, 1));
+			assertTrue(copy.isEmpty());
+			assertEquals(dbm, other);
+		}
+		assertFalse(DBM.createTrue(pta).equals(DBM.createZero(pta)));
+	}
+
+	@Test
+	public void testPoolCopies()
+	{
+		PTA pta = createPTA(2);
+		DBMPool pool = new DBMPool(pta, 1);
+		DBM dbm = DBM.createTrue(pta);
+		dbm.addConstraint(Constraint.buildLeq(1, 3));
+		DBM copy1 = pool.copyOf(dbm);
+		assertNotSame(dbm, copy1);
+		assertEquals(dbm, copy1);
+		// released DBMs are reused, but only up to the pool size
+		DBM copy2 = pool.copyOf(dbm);
+		pool.release(copy1);
+		pool.release(copy2);
+		DBM copy3 = pool.copyOf(DBM.createZero(pta));
+		assertSame(copy1, copy3);
+		assertEquals(DBM.createZero(pta), copy3);
+		assertNotSame(copy2, pool.copyOf(dbm));
+		// DBMs of other PTAs are ignored
+		pool.release(DBM.createTrue(createPTA(2)));
+		assertEquals(dbm, pool.copyOf(dbm));
+		LocZone lz = pool.copyOf(new LocZone(3, dbm));
+		assertEquals(3, lz.loc);
+		assertEquals(dbm, lz.zone);
+	}
+
+	// Helpers
+
+	static PTA createPTA(int numClocks)
+	{
+		PTA pta = new PTA(Collections.emptyList());
+		for (int x = 1; x <= numClocks; x++) {
+			pta.addClock("x" + x);
+		}
+		pta.addLocation();
+		return pta;
+	}
+
+	/**
+	 * All grid points: index 0 is the zero clock, indices 1..numClocks the
+	 * clocks, each multiplied by SCALE.
+	 */
+	private static List<int[]> grid(int numClocks)
+	{
+		List<int[]> points = new ArrayList<int[]>();
+		int[] p = new int[numClocks + 1];
+		while (true) {
+			points.add(p.clone());
+			int i = 1;
+			while (i <= numClocks && p[i] == SCALE * MAX) {
+				p[i++] = 0;
+			}
+			if (i > numClocks) {
+				return points;
+			}
+			p[i] += STEP;
+		}
+	}
+
+	private static Constraint randomConstraint(Random random, int numClocks)
+	{
+		int x = 1 + random.nextInt(numClocks);
+		int y = 1 + random.nextInt(numClocks);
+		int v = random.nextInt(MAX_CONST + 1);
+		if (x == y || random.nextBoolean()) {
+			switch (random.nextInt(4)) {
+			case 0:
+				return Constraint.buildLeq(x, v);
+			case 1:
+				return Constraint.buildLt(x, v);
+			case 2:
+				return Constraint.buildGeq(x, v);
+			default:
+				return Constraint.buildGt(x, v);
+			}
+		}
+		switch (random.nextInt(4)) {
+		case 0:
+			return Constraint.buildXYLeq(x, y, v);
+		case 1:
+			return Constraint.buildXYLt(x, y, v);
+		case 2:
+			return Constraint.buildXYGeq(x, y, v);
+		default:
+			return Constraint.buildXYGt(x, y, v);
+		}
+	}
+
+	static DBM randomDBM(Random random, PTA pta, int numClocks)
+	{
+		DBM dbm = DBM.createTrue(pta);
+		int n = random.nextInt(4);
+		for (int k = 0; k < n; k++) {
+			dbm.addConstraint(randomConstraint(random, numClocks));
+		}
+		return dbm;
+	}
+
+	/**
+	 * Does point p satisfy the difference bound db on p[x]-p[y]?
+	 */
+	private static boolean satisfies(int[] p, int x, int y, int db)
+	{
+		if (DB.isInfty(db)) {
+			return true;
+		}
+		int diff = p[x] - p[y];
+		int bound = SCALE * DB.getSignedDiff(db);
+		return DB.isStrict(db) ? diff < bound : diff <= bound;
+	}
+
+	private static boolean satisfiesAll(int[] p, List<Constraint> constraints)
+	{
+		for (Constraint c : constraints) {
+			if (!satisfies(p, c.x, c.y, c.db)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean contains(DBM dbm, int[] p)
+	{
+		if (dbm.isEmpty()) {
+			return false;
+		}
+		for (int i = 0; i < dbm.dim; i++) {
+			for (int j = 0; j < dbm.dim; j++) {
+				if (!satisfies(p, i, j, dbm.d[i * dbm.dim + j])) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Point p with all clocks delayed by t/SCALE (t may be negative).
+	 */
+	private static int[] delay(int[] p, int t)
+	{
+		int[] q = p.clone();
+		for (int i = 1; i < q.length; i++) {
+			q[i] += t;
+		}
+		return q;
+	}
+
+	private static void assertCanonical(DBM dbm)
+	{
+		for (int i = 0; i < dbm.dim; i++) {
+			assertEquals(DB.LEQ_ZERO, dbm.d[i * dbm.dim + i]);
+			for (int j = 0; j < dbm.dim; j++) {
+				for (int k = 0; k < dbm.dim; k++) {
+					assertTrue(dbm.d[i * dbm.dim + j] <= DB.add(dbm.d[i * dbm.dim + k], dbm.d[k * dbm.dim + j]), () -> dbm.toStringDBM());
+				}
+			}
+		}
+	}
+
+	private static String pointString(int[] p)
+	{
+		StringBuilder s = new StringBuilder("(");
+		for (int i = 1; i < p.length; i++) {
+			s.append(i > 1 ? "," : "").append((double) p[i] / SCALE);
+		}
+		return s.append(")").toString();
+	}
+}
@@ -0,0 +1,109 @@
+package pta;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Random;
+
+import prism.PrismDevNullLog;
+import prism.PrismException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ForwardsReachTest
+{
+	private static final int NUM_CLOCKS = 3;
+	private static final int NUM_LOCS = 8;
+
+	/** Number of states of the graph last built by {@link #buildGraph} */
+	private int lastNumStates;
+
+	/**
+	 * The graph built by parallel exploration (states, their numbering,
+	 * transitions and targets) must be exactly that of sequential exploration.
+	 */
+	@Test
+	public void testGraphIndependentOfNumThreads() throws PrismException
+	{
+		Random random = new Random(7);
+		int maxStates = 0;
+		for (int n = 0; n < 20; n++) {
+			PTA pta = randomPTA(random);
+			BitSet targetLocs = new BitSet();
+			targetLocs.set(NUM_LOCS - 1);
+			Constraint targetConstraint = random.nextBoolean() ? null : Constraint.buildGeq(1, 2);
+			String expected = buildGraph(pta, targetLocs, targetConstraint, 1);
+			for (int numThreads : new int[] { 2, 4 }) {
+				assertEquals(expected, buildGraph(pta, targetLocs, targetConstraint, numThreads));
+			}
+			maxStates = Math.max(maxStates, lastNumStates);
+		}
+		// make sure that some graphs were big enough for levels to be explored in parallel
+		assertTrue(maxStates > 1000, "largest graph: " + maxStates + " states");
+	}
+
+	/**
+	 * Build the forwards reachability graph and return a string describing it completely.
+	 */
+	private String buildGraph(PTA pta, BitSet targetLocs, Constraint targetConstraint, int numThreads) throws PrismException
+	{
+		ForwardsReach forwardsReach = new ForwardsReach(new PrismDevNullLog());
+		forwardsReach.setNumThreads(numThreads);
+		ReachabilityGraph graph = forwardsReach.buildForwardsGraph(pta, targetLocs, targetConstraint);
+		lastNumStates = graph.states.size();
+		return graph.states + "\n" + graph + "\n" + forwardsReach.getTarget();
+	}
+
+	/**
+	 * Random PTA without timelocks or badly formed transitions: locations with an
+	 * invariant x<=c are only entered with x reset and always have an unguarded
+	 * transition to location 0, which has no invariant.
+	 */
+	private static PTA randomPTA(Random random)
+	{
+		PTA pta = new PTA(Collections.emptyList());
+		for (int x = 1; x <= NUM_CLOCKS; x++) {
+			pta.addClock("x" + x);
+		}
+		int[] invClock = new int[NUM_LOCS];
+		for (int loc = 0; loc < NUM_LOCS; loc++) {
+			pta.addLocation("l" + loc);
+			if (loc > 0 && random.nextBoolean()) {
+				invClock[loc] = 1 + random.nextInt(NUM_CLOCKS);
+				pta.addInvariantCondition(loc, Constraint.buildLeq(invClock[loc], 1 + random.nextInt(4)));
+			}
+		}
+		for (int loc = 0; loc < NUM_LOCS; loc++) {
+			if (invClock[loc] != 0) {
+				pta.addTransition(loc, "a").addEdge(1.0, 0);
+			}
+			int numTransitions = 1 + random.nextInt(3);
+			for (int t = 0; t < numTransitions; t++) {
+				Transition tr = pta.addTransition(loc, "a");
+				int x = 1 + random.nextInt(NUM_CLOCKS);
+				int v = random.nextInt(4);
+				tr.addGuardConstraint(random.nextBoolean() ? Constraint.buildGeq(x, v) : Constraint.buildLeq(x, v + 1));
+				int numEdges = 1 + random.nextInt(2);
+				for (int e = 0; e < numEdges; e++) {
+					int dest = random.nextInt(NUM_LOCS);
+					Edge edge = tr.addEdge(1.0 / numEdges, dest);
+					if (invClock[dest] != 0) {
+						edge.addReset(invClock[dest]);
+					}
+					if (random.nextBoolean()) {
+						edge.addReset(1 + random.nextInt(NUM_CLOCKS));
+					}
+				}
+			}
+		}
+		for (int loc = 0; loc < NUM_LOCS; loc++) {
+			pta.recomputeMaxClockConstraint(pta.getInvariantConstraints(loc));
+			for (Transition tr : pta.getTransitions(loc)) {
+				pta.recomputeMaxClockConstraint(tr.getGuardConstraints());
+			}
+		}
+		return pta;
+	}
+}
@@ -0,0 +1,106 @@
+package pta;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LocZoneSetTest
+{
+	private final PTA pta = DBMTest.createPTA(2);
+
+	/**
+	 * Zone where clock 1 lies in [lo,hi].
+	 */
+	private DBM interval(int lo, int hi)
+	{
+		DBM dbm = DBM.createTrue(pta);
+		dbm.addConstraint(Constraint.buildGeq(1, lo));
+		dbm.addConstraint(Constraint.buildLeq(1, hi));
+		return dbm;
+	}
+
+	@Test
+	public void testAddWithoutSubsumption()
+	{
+		LocZoneSet set = new LocZoneSet();
+		assertFalse(set.usesSubsumption());
+		assertTrue(set.isEmpty());
+		assertTrue(set.add(0, interval(0, 5)));
+		assertEquals(0, set.getIndexOfLastAdd());
+		// included zones are still added
+		assertTrue(set.add(0, interval(1, 2)));
+		assertEquals(1, set.getIndexOfLastAdd());
+		// equal pairs are not
+		assertFalse(set.add(0, interval(0, 5)));
+		assertEquals(0, set.getIndexOfLastAdd());
+		assertTrue(set.contains(new LocZone(0, interval(1, 2))));
+		assertFalse(set.contains(new LocZone(1, interval(1, 2))));
+		assertEquals(2, set.size());
+		assertEquals(0, set.getNumSubsumed());
+	}
+
+	@Test
+	public void testAddWithSubsumption()
+	{
+		LocZoneSet set = new LocZoneSet(true);
+		assertTrue(set.usesSubsumption());
+		assertTrue(set.add(0, interval(2, 3)));
+		assertTrue(set.add(1, interval(0, 5)));
+		assertTrue(set.add(0, interval(0, 5)));
+		assertEquals(2, set.getIndexOfLastAdd());
+		// included in the zones for location 0 at indices 0 and 2: the first is reported
+		assertFalse(set.add(0, interval(2, 2)));
+		assertEquals(0, set.getIndexOfLastAdd());
+		assertFalse(set.add(0, interval(1, 4)));
+		assertEquals(2, set.getIndexOfLastAdd());
+		assertEquals(2, set.getNumSubsumed());
+		// zones for other locations do not cover
+		assertTrue(set.add(2, interval(2, 2)));
+		assertEquals(3, set.getIndexOfLastAdd());
+		// a larger zone is added, even though it includes stored ones
+		assertTrue(set.add(0, interval(0, 6)));
+		assertEquals(4, set.getIndexOfLastAdd());
+		assertEquals(5, set.size());
+		assertEquals(5, set.toArrayList().size());
+		assertFalse(set.contains(new LocZone(0, interval(2, 2))));
+	}
+
+	@Test
+	public void testFindIncludingInRange()
+	{
+		LocZoneSet set = new LocZoneSet(true);
+		set.add(0, interval(0, 5));
+		set.add(1, interval(0, 5));
+		set.add(0, interval(0, 6));
+		set.add(0, interval(3, 7));
+		LocZone lz = new LocZone(0, interval(4, 5));
+		assertEquals(0, set.findIncluding(lz, 0, 4));
+		assertEquals(2, set.findIncluding(lz, 1, 4));
+		assertEquals(3, set.findIncluding(lz, 3, 4));
+		assertEquals(-1, set.findIncluding(lz, 1, 2));
+		assertEquals(-1, set.findIncluding(new LocZone(0, interval(0, 8)), 0, 4));
+		assertEquals(-1, set.findIncluding(new LocZone(5, interval(4, 5)), 0, 4));
+	}
+
+	@Test
+	public void testAddWithKnownCovering()
+	{
+		LocZoneSet set = new LocZoneSet(true);
+		set.add(0, interval(0, 5));
+		set.add(0, interval(0, 6));
+		// covering pair known from an earlier lookup below index 1
+		assertFalse(set.add(new LocZone(0, interval(1, 2)), 0, 1));
+		assertEquals(0, set.getIndexOfLastAdd());
+		// none known below index 1, so only index 1 onwards is scanned
+		assertFalse(set.add(new LocZone(0, interval(5, 6)), -1, 1));
+		assertEquals(1, set.getIndexOfLastAdd());
+		assertTrue(set.add(new LocZone(0, interval(1, 2)), -1, 2));
+		assertEquals(2, set.getIndexOfLastAdd());
+		// exact matches take precedence over the covering pair
+		assertFalse(set.add(new LocZone(0, interval(1, 2)), 0, 1));
+		assertEquals(2, set.getIndexOfLastAdd());
+		assertEquals(2, set.getNumSubsumed());
+	}
+}
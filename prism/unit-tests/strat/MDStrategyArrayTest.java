@@ -0,0 +1,156 @@
+package strat;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import explicit.Distribution;
+import explicit.MDPSimple;
+import parser.State;
+import prism.PrismException;
+import prism.PrismLog;
+import prism.PrismPrintStreamLog;
+import prism.StreamingExporter;
+
+public class MDStrategyArrayTest
+{
+	/** Number of states (enough for several chunks of export) */
+	private static final int NUM_STATES = 2 * StreamingExporter.DEFAULT_CHUNK_SIZE + 17;
+
+	/**
+	 * MDP in which state s has s mod 3 choices, labelled "a0", "a1", ..., all self-loops.
+	 */
+	private static MDPSimple<Double> buildMDP()
+	{
+		MDPSimple<Double> mdp = new MDPSimple<>(NUM_STATES);
+		List<State> states = new ArrayList<>();
+		for (int s = 0; s < NUM_STATES; s++) {
+			for (int i = 0; i < s % 3; i++) {
+				Distribution<Double> distr = Distribution.ofDouble();
+				distr.add(s, 1.0);
+				mdp.addActionLabelledChoice(s, distr, "a" + i);
+			}
+			states.add(new State(1).setValue(0, s));
+		}
+		mdp.setStatesList(states);
+		return mdp;
+	}
+
+	/**
+	 * Strategy picking the last choice in each state, or which is undefined
+	 * (for one of several reasons) in states without choices.
+	 */
+	private static int[] buildChoices()
+	{
+		int[] choices = new int[NUM_STATES];
+		for (int s = 0; s < NUM_STATES; s++) {
+			choices[s] = s % 3 == 0 ? -1 - (s / 3) % 3 : s % 3 - 1;
+		}
+		return choices;
+	}
+
+	/**
+	 * Chunked exports of actions and indices, formatted in parallel or not,
+	 * match those for states written one by one.
+	 */
+	@Test
+	public void testExportMatchesSequential() throws PrismException
+	{
+		MDPSimple<Double> mdp = buildMDP();
+		MDStrategyArray<Double> strat = new MDStrategyArray<>(mdp, buildChoices());
+		for (boolean showStates : new boolean[] { false, true }) {
+			StringBuilder expectedActions = new StringBuilder();
+			StringBuilder expectedIndices = new StringBuilder();
+			for (int s = 0; s < NUM_STATES; s++) {
+				if (strat.isChoiceDefined(s)) {
+					String state = showStates ? mdp.getStatesList().get(s).toString() : Integer.toString(s);
+					expectedActions.append(state + "=" + strat.getChoiceActionString(s) + "\n");
+					expectedIndices.append(s + "=" + strat.getChoiceIndex(s) + "\n");
+				}
+			}
+			for (int numThreads : new int[] { 1, 4 }) {
+				StrategyExportOptions options = new StrategyExportOptions().setShowStates(showStates).setNumThreads(numThreads);
+				assertEquals(expectedActions.toString(), export(log -> strat.exportActions(log, options)));
+				assertEquals(expectedIndices.toString(), export(log -> strat.exportIndices(log, options)));
+				// the (sequential) default implementations in MDStrategy give the same output
+				if (!showStates) {
+					MDStrategy<Double> viaDefaults = wrap(strat);
+					assertEquals(expectedActions.toString(), export(log -> viaDefaults.exportActions(log, options)));
+					assertEquals(expectedIndices.toString(), export(log -> viaDefaults.exportIndices(log, options)));
+				}
+			}
+		}
+	}
+
+	// Helpers
+
+	@FunctionalInterface
+	private interface Export
+	{
+		void export(PrismLog log) throws PrismException;
+	}
+
+	private static String export(Export export) throws PrismException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		PrismLog log = new PrismPrintStreamLog(new PrintStream(bytes, true));
+		export.export(log);
+		log.flush();
+		return bytes.toString();
+	}
+
+	/**
+	 * Wrap a strategy so that only the default export methods of {@link MDStrategy} are used.
+	 */
+	private static MDStrategy<Double> wrap(MDStrategyArray<Double> strat)
+	{
+		return new MDStrategy<Double>()
+		{
+			@Override
+			public Object getChoiceAction(int s, int m)
+			{
+				return strat.getChoiceAction(s, m);
+			}
+
+			@Override
+			public int getChoiceIndex(int s, int m)
+			{
+				return strat.getChoiceIndex(s, m);
+			}
+
+			@Override
+			public UndefinedReason whyUndefined(int s, int m)
+			{
+				return strat.whyUndefined(s, m);
+			}
+
+			@Override
+			public int getNumStates()
+			{
+				return strat.getNumStates();
+			}
+
+			@Override
+			public void exportInducedModel(PrismLog out, StrategyExportOptions options) throws PrismException
+			{
+				strat.exportInducedModel(out, options);
+			}
+
+			@Override
+			public void exportDotFile(PrismLog out, StrategyExportOptions options) throws PrismException
+			{
+				strat.exportDotFile(out, options);
+			}
+
+			@Override
+			public void clear()
+			{
+			}
+		};
+	}
+}